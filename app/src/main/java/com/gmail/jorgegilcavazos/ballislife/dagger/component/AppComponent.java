@@ -3,14 +3,17 @@ package com.gmail.jorgegilcavazos.ballislife.dagger.component;
 import com.gmail.jorgegilcavazos.ballislife.dagger.module.AppModule;
 import com.gmail.jorgegilcavazos.ballislife.dagger.module.BindModule;
 import com.gmail.jorgegilcavazos.ballislife.dagger.module.DataModule;
+import com.gmail.jorgegilcavazos.ballislife.data.firebase.MyMessagingService;
 import com.gmail.jorgegilcavazos.ballislife.features.boxscore.BoxScoreFragment;
 import com.gmail.jorgegilcavazos.ballislife.features.games.GamesFragment;
 import com.gmail.jorgegilcavazos.ballislife.features.gamethread.GameThreadFragment;
 import com.gmail.jorgegilcavazos.ballislife.features.highlights.HighlightsFragment;
+import com.gmail.jorgegilcavazos.ballislife.features.livethreads.LiveThreadsActivity;
 import com.gmail.jorgegilcavazos.ballislife.features.login.LoginActivity;
 import com.gmail.jorgegilcavazos.ballislife.features.main.MainActivity;
 import com.gmail.jorgegilcavazos.ballislife.features.posts.PostsFragment;
 import com.gmail.jorgegilcavazos.ballislife.features.profile.ProfileActivity;
+import com.gmail.jorgegilcavazos.ballislife.features.replay.ThreadReplayActivity;
 import com.gmail.jorgegilcavazos.ballislife.features.settings.SettingsFragment;
 import com.gmail.jorgegilcavazos.ballislife.features.standings.StandingsFragment;
 import com.gmail.jorgegilcavazos.ballislife.features.submission.SubmissionActivity;
@@ -35,6 +38,10 @@ public interface AppComponent {
 
     void inject(ProfileActivity profileActivity);
 
+    void inject(LiveThreadsActivity liveThreadsActivity);
+
+    void inject(ThreadReplayActivity threadReplayActivity);
+
     void inject(GameThreadFragment gameThreadFragment);
 
     void inject(LoginActivity loginActivity);
@@ -46,4 +53,6 @@ public interface AppComponent {
     void inject(BoxScoreFragment boxScoreFragment);
 
     void inject(VideoPlayerActivity videoPlayerActivity);
+
+    void inject(MyMessagingService myMessagingService);
 }
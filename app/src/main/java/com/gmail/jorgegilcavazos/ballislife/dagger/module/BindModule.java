@@ -6,10 +6,18 @@ import com.gmail.jorgegilcavazos.ballislife.data.local.AppLocalRepository;
 import com.gmail.jorgegilcavazos.ballislife.data.local.LocalRepository;
 import com.gmail.jorgegilcavazos.ballislife.data.reddit.RedditAuthentication;
 import com.gmail.jorgegilcavazos.ballislife.data.reddit.RedditAuthenticationImpl;
+import com.gmail.jorgegilcavazos.ballislife.data.repository.boxscore.BoxScoreRepository;
+import com.gmail.jorgegilcavazos.ballislife.data.repository.boxscore.BoxScoreRepositoryImpl;
 import com.gmail.jorgegilcavazos.ballislife.data.repository.comments.ContributionRepository;
 import com.gmail.jorgegilcavazos.ballislife.data.repository.comments.ContributionRepositoryImpl;
+import com.gmail.jorgegilcavazos.ballislife.data.repository.games.GamesDiskCache;
+import com.gmail.jorgegilcavazos.ballislife.data.repository.games.GamesDiskCacheImpl;
 import com.gmail.jorgegilcavazos.ballislife.data.repository.games.GamesRepository;
 import com.gmail.jorgegilcavazos.ballislife.data.repository.games.GamesRepositoryImpl;
+import com.gmail.jorgegilcavazos.ballislife.data.repository.gamethreads.GameThreadIdCache;
+import com.gmail.jorgegilcavazos.ballislife.data.repository.gamethreads.GameThreadIdCacheImpl;
+import com.gmail.jorgegilcavazos.ballislife.data.repository.gamethreads.GameThreadLog;
+import com.gmail.jorgegilcavazos.ballislife.data.repository.gamethreads.GameThreadLogImpl;
 import com.gmail.jorgegilcavazos.ballislife.data.repository.gamethreads.GameThreadsRepository;
 import com.gmail.jorgegilcavazos.ballislife.data.repository.gamethreads.GameThreadsRepositoryImpl;
 import com.gmail.jorgegilcavazos.ballislife.data.repository.highlights.HighlightsRepository;
@@ -20,6 +28,8 @@ import com.gmail.jorgegilcavazos.ballislife.data.repository.profile.ProfileRepos
 import com.gmail.jorgegilcavazos.ballislife.data.repository.profile.ProfileRepositoryImpl;
 import com.gmail.jorgegilcavazos.ballislife.data.repository.submissions.SubmissionRepository;
 import com.gmail.jorgegilcavazos.ballislife.data.repository.submissions.SubmissionRepositoryImpl;
+import com.gmail.jorgegilcavazos.ballislife.data.service.NbaGamesEventService;
+import com.gmail.jorgegilcavazos.ballislife.data.service.NbaGamesEventServiceImpl;
 import com.gmail.jorgegilcavazos.ballislife.data.service.RedditService;
 import com.gmail.jorgegilcavazos.ballislife.data.service.RedditServiceImpl;
 import com.gmail.jorgegilcavazos.ballislife.util.CrashReporter;
@@ -39,6 +49,10 @@ public abstract class BindModule {
     @Binds
     public abstract RedditService bindRedditService(RedditServiceImpl redditServiceImpl);
 
+    @Binds
+    public abstract NbaGamesEventService bindNbaGamesEventService(
+            NbaGamesEventServiceImpl nbaGamesEventServiceImpl);
+
     @Binds
     public abstract RedditAuthentication bindRedditAuthentication(
             RedditAuthenticationImpl redditAuthenticationImpl);
@@ -57,6 +71,13 @@ public abstract class BindModule {
     @Binds
     public abstract GamesRepository bindGamesRepository(GamesRepositoryImpl gamesRepositoryImpl);
 
+    @Binds
+    public abstract GamesDiskCache bindGamesDiskCache(GamesDiskCacheImpl gamesDiskCacheImpl);
+
+    @Binds
+    public abstract BoxScoreRepository bindBoxScoreRepository(
+            BoxScoreRepositoryImpl boxScoreRepositoryImpl);
+
     @Binds
     public abstract HighlightsRepository bindHighlightsRepository(
             HighlightsRepositoryImpl highlightsRepositoryImpl);
@@ -69,6 +90,13 @@ public abstract class BindModule {
     public abstract GameThreadsRepository bindGameThreadsRepository(
             GameThreadsRepositoryImpl gameThreadsRepositoryImpl);
 
+    @Binds
+    public abstract GameThreadIdCache bindGameThreadIdCache(
+            GameThreadIdCacheImpl gameThreadIdCacheImpl);
+
+    @Binds
+    public abstract GameThreadLog bindGameThreadLog(GameThreadLogImpl gameThreadLogImpl);
+
     @Binds
     public abstract RedditActions bindRedditActions(RedditActionsImpl redditActionsImpl);
 
@@ -14,6 +14,8 @@ import com.gmail.jorgegilcavazos.ballislife.util.NetworkUtilsImpl;
 import com.google.gson.Gson;
 import com.jakewharton.retrofit2.adapter.rxjava2.RxJava2CallAdapterFactory;
 
+import java.io.File;
+
 import javax.inject.Named;
 import javax.inject.Singleton;
 
@@ -28,6 +30,8 @@ import retrofit2.converter.gson.GsonConverterFactory;
 import static android.content.Context.MODE_PRIVATE;
 import static com.gmail.jorgegilcavazos.ballislife.data.reddit.RedditAuthenticationImpl
         .REDDIT_AUTH_PREFS;
+import static com.gmail.jorgegilcavazos.ballislife.data.repository.gamethreads
+        .GameThreadIdCacheImpl.GAME_THREADS_PREFS;
 
 @Module
 public class DataModule {
@@ -38,6 +42,12 @@ public class DataModule {
         this.baseUrl = baseUrl;
     }
 
+    @Provides
+    @Named("baseUrl")
+    String provideBaseUrl() {
+        return baseUrl;
+    }
+
     @Provides
     @Singleton
     Gson provideGson() {
@@ -80,6 +90,13 @@ public class DataModule {
         return app.getSharedPreferences(REDDIT_AUTH_PREFS, MODE_PRIVATE);
     }
 
+    @Provides
+    @Singleton
+    @Named("gameThreadsSharedPreferences")
+    SharedPreferences provideGameThreadsSharedPreferences(Application app) {
+        return app.getSharedPreferences(GAME_THREADS_PREFS, MODE_PRIVATE);
+    }
+
     @Provides
     @Singleton
     @Named("defaultSharedPreferences")
@@ -105,6 +122,20 @@ public class DataModule {
         return retrofit.create(RedditGameThreadsService.class);
     }
 
+    @Provides
+    @Singleton
+    @Named("gamesDiskCacheFile")
+    File provideGamesDiskCacheFile(Application app) {
+        return new File(app.getFilesDir(), "games.bin");
+    }
+
+    @Provides
+    @Singleton
+    @Named("gameThreadLogsDir")
+    File provideGameThreadLogsDir(Application app) {
+        return new File(app.getFilesDir(), "game_thread_logs");
+    }
+
     @Provides
     CompositeDisposable provideCompositeDisposables() {
         return new CompositeDisposable();
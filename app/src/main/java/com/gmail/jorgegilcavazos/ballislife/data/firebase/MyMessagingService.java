@@ -12,14 +12,23 @@ import android.support.v4.app.NotificationCompat;
 import android.util.Log;
 
 import com.gmail.jorgegilcavazos.ballislife.R;
+import com.gmail.jorgegilcavazos.ballislife.data.repository.games.GamesRepository;
+import com.gmail.jorgegilcavazos.ballislife.features.application.BallIsLifeApplication;
 import com.gmail.jorgegilcavazos.ballislife.features.main.MainActivity;
+import com.gmail.jorgegilcavazos.ballislife.features.model.GameV2;
 import com.gmail.jorgegilcavazos.ballislife.features.settings.SettingsFragment;
+import com.gmail.jorgegilcavazos.ballislife.util.GameUtils;
+import com.google.firebase.crash.FirebaseCrash;
 import com.google.firebase.messaging.FirebaseMessagingService;
 import com.google.firebase.messaging.RemoteMessage;
+import com.google.gson.JsonParseException;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import javax.inject.Inject;
+
 public class MyMessagingService extends FirebaseMessagingService {
 
     private static final String TAG = "MyMessagingService";
@@ -28,26 +37,30 @@ public class MyMessagingService extends FirebaseMessagingService {
     private static final String CGA_TYPE = "CGA";
     private static final String SCORES_UPDATE_TYPE = "scores";
 
-    public static final String KEY_SCORES_UPDATED = "scores_updated";
-    public static final String FILTER_SCORES_UPDATED = "com.gmail.jorgegilcavazos.ballislife.SCORES_UPDATED";
+    @Inject GamesRepository gamesRepository;
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        BallIsLifeApplication.getAppComponent().inject(this);
+    }
 
     @Override
     public void onMessageReceived(RemoteMessage remoteMessage) {
         // If the application is in the foreground handle both data and notification messages here.
 
-        // Ignore notifications if alerts are disabled in settings.
-        if (!areAlertsEnabled()) {
-            return;
-        }
-
         // Check if message contains a data payload.
         if (remoteMessage.getData().size() > 0) {
             Map<String, String> data = remoteMessage.getData();
             switch (data.get(TYPE_KEY)) {
                 case CGA_TYPE:
-                    onCgaMessageReceived(data);
+                    // Ignore notifications if alerts are disabled in settings.
+                    if (areAlertsEnabled()) {
+                        onCgaMessageReceived(data);
+                    }
                     break;
                 case SCORES_UPDATE_TYPE:
+                    // Score updates don't show a notification, so they're applied regardless.
                     onScoresUpdateReceived(data);
                     break;
             }
@@ -60,10 +73,22 @@ public class MyMessagingService extends FirebaseMessagingService {
 
     }
 
+    /**
+     * Merges the games in the message body into the games cache, which notifies any screen
+     * showing them.
+     */
     private void onScoresUpdateReceived(Map<String, String> data) {
-        Intent intent = new Intent(FILTER_SCORES_UPDATED);
-        intent.putExtra(KEY_SCORES_UPDATED, data.get("body"));
-        sendBroadcast(intent);
+        List<GameV2> games;
+        try {
+            games = GameUtils.getGamesListFromJson(data.get("body"));
+        } catch (JsonParseException e) {
+            FirebaseCrash.report(e);
+            return;
+        }
+
+        if (games != null) {
+            gamesRepository.updateGames(games);
+        }
     }
 
     private void onCgaMessageReceived(Map<String, String> data) {
@@ -0,0 +1,15 @@
+package com.gmail.jorgegilcavazos.ballislife.data.repository.boxscore
+
+import com.gmail.jorgegilcavazos.ballislife.features.model.BoxScoreValues
+import io.reactivex.Single
+
+/**
+ * Stores recently fetched box scores in memory.
+ */
+interface BoxScoreRepository {
+  /**
+   * Returns the box score of the given game. A recently fetched box score will be returned if
+   * available unless a forceReload is specified.
+   */
+  fun boxScore(gameId: String, forceReload: Boolean): Single<BoxScoreValues>
+}
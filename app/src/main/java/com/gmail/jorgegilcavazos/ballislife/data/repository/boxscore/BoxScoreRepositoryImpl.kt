@@ -0,0 +1,40 @@
+package com.gmail.jorgegilcavazos.ballislife.data.repository.boxscore
+
+import com.gmail.jorgegilcavazos.ballislife.data.service.NbaGamesService
+import com.gmail.jorgegilcavazos.ballislife.features.model.BoxScoreValues
+import io.reactivex.Single
+import java.util.*
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Implementation of the [BoxScoreRepository] interface. Box scores are kept in a map keyed by game
+ * id for [CACHED_BOX_SCORE_MAX_AGE_MILLIS] since they may still change while a game is live.
+ */
+@Singleton
+class BoxScoreRepositoryImpl @Inject constructor(
+    private val gamesService: NbaGamesService) : BoxScoreRepository {
+
+  companion object {
+    const val CACHED_BOX_SCORE_MAX_AGE_MILLIS = 2 * 60 * 1000L
+  }
+
+  private val boxScores = HashMap<String, Pair<BoxScoreValues, Long>>()
+
+  override fun boxScore(gameId: String, forceReload: Boolean): Single<BoxScoreValues> {
+    return Single.defer {
+      val cached = synchronized(boxScores) { boxScores[gameId] }
+      if (!forceReload && cached != null
+          && System.currentTimeMillis() - cached.second < CACHED_BOX_SCORE_MAX_AGE_MILLIS) {
+        Single.just(cached.first)
+      } else {
+        gamesService.boxScore(gameId)
+            .doOnSuccess {
+              synchronized(boxScores) {
+                boxScores[gameId] = Pair(it, System.currentTimeMillis())
+              }
+            }
+      }
+    }
+  }
+}
@@ -0,0 +1,143 @@
+package com.gmail.jorgegilcavazos.ballislife.data.repository.games
+
+import com.gmail.jorgegilcavazos.ballislife.features.model.GameV2
+import java.util.*
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Keeps the last game clock received for every game in progress and runs it forward locally, so
+ * that the scoreboard doesn't need a server update to show a moving clock.
+ *
+ * A clock is considered running when the last two updates of the same period show it moving down
+ * by the time elapsed between them. A clock that didn't move, e.g. during a timeout or free
+ * throws, or that moved less than the time elapsed, is shown as received until it moves again.
+ * Extrapolation stops [MAX_EXTRAPOLATION_MILLIS] after the last update and at the end of the
+ * period, which are the points at which a refresh is needed, see [millisUntilRefresh].
+ */
+@Singleton
+class GameClockTracker @Inject constructor() {
+
+  companion object {
+    const val MAX_EXTRAPOLATION_MILLIS = 45 * 1000L
+    private const val CLOCK_TOLERANCE_MILLIS = 2000L
+  }
+
+  private class GameClock(
+      val rawClock: String,
+      val period: Int,
+      val clockMillis: Long,
+      val receivedAtMillis: Long,
+      val running: Boolean)
+
+  private val clocks = HashMap<String, GameClock>()
+
+  /**
+   * Records the clock of a game received from the server.
+   */
+  fun update(game: GameV2, nowMillis: Long) {
+    synchronized(clocks) {
+      val clockMillis = parseClockMillis(game.gameClock)
+      if (game.status != GameV2.IN_GAME || clockMillis == null) {
+        clocks.remove(game.id)
+        return
+      }
+
+      val previous = clocks[game.id]
+      if (previous != null && previous.rawClock == game.gameClock
+          && previous.period == game.period) {
+        // The clock didn't move since the last update, it stopped unless the updates were too
+        // close together to tell.
+        if (previous.running
+            && nowMillis - previous.receivedAtMillis >= CLOCK_TOLERANCE_MILLIS) {
+          clocks.put(game.id, GameClock(
+              game.gameClock, game.period, clockMillis, nowMillis, false))
+        }
+        return
+      }
+
+      val running = previous != null
+          && previous.period == game.period
+          && clockMillis < previous.clockMillis
+          && isMovingWithTime(
+              previous.clockMillis - clockMillis, nowMillis - previous.receivedAtMillis)
+      clocks.put(game.id, GameClock(
+          game.gameClock, game.period, clockMillis, nowMillis, running))
+    }
+  }
+
+  /**
+   * Whether a clock ran the whole time between two updates, moving by the time elapsed give or
+   * take [CLOCK_TOLERANCE_MILLIS]. A clock that moved less stopped at some point, e.g. for a foul.
+   */
+  private fun isMovingWithTime(movedMillis: Long, elapsedMillis: Long): Boolean {
+    return movedMillis <= elapsedMillis + CLOCK_TOLERANCE_MILLIS
+        && movedMillis >= elapsedMillis - CLOCK_TOLERANCE_MILLIS
+        && elapsedMillis <= 2 * MAX_EXTRAPOLATION_MILLIS
+  }
+
+  /**
+   * Whether the clock of the given game is being extrapolated.
+   */
+  fun isRunning(game: GameV2): Boolean {
+    return getRunningClock(game) != null
+  }
+
+  /**
+   * Returns the clock of the given game run forward to the given time, or the received clock if
+   * it isn't running.
+   */
+  fun clockText(game: GameV2, nowMillis: Long): String {
+    val clock = getRunningClock(game) ?: return game.gameClock
+    val elapsed = Math.min(nowMillis - clock.receivedAtMillis, MAX_EXTRAPOLATION_MILLIS)
+    return formatClock(Math.max(clock.clockMillis - Math.max(elapsed, 0), 0))
+  }
+
+  /**
+   * Returns how long until the running clock of the given game reaches a point at which it can't
+   * be extrapolated anymore, or null if it isn't running.
+   */
+  fun millisUntilRefresh(game: GameV2, nowMillis: Long): Long? {
+    val clock = getRunningClock(game) ?: return null
+    val elapsed = nowMillis - clock.receivedAtMillis
+    return Math.max(Math.min(clock.clockMillis, MAX_EXTRAPOLATION_MILLIS) - elapsed, 0)
+  }
+
+  private fun getRunningClock(game: GameV2): GameClock? {
+    val clock = synchronized(clocks) { clocks[game.id] } ?: return null
+    if (!clock.running || clock.rawClock != game.gameClock || clock.period != game.period) {
+      return null
+    }
+    return clock
+  }
+
+  /**
+   * Parses a clock formatted as "m:ss" or "ss.s", returns null if it isn't a clock.
+   */
+  private fun parseClockMillis(clock: String?): Long? {
+    if (clock == null || clock.isEmpty()) {
+      return null
+    }
+    return try {
+      val separator = clock.indexOf(':')
+      if (separator < 0) {
+        Math.round(clock.toDouble() * 1000)
+      } else {
+        val minutes = clock.substring(0, separator).toLong()
+        val seconds = clock.substring(separator + 1).toDouble()
+        minutes * 60 * 1000 + Math.round(seconds * 1000)
+      }
+    } catch (e: NumberFormatException) {
+      null
+    }
+  }
+
+  private fun formatClock(clockMillis: Long): String {
+    val totalSeconds = clockMillis / 1000
+    return if (totalSeconds >= 60) {
+      String.format(Locale.US, "%d:%02d", totalSeconds / 60, totalSeconds % 60)
+    } else {
+      String.format(Locale.US, "%d.%d", totalSeconds, clockMillis % 1000 / 100)
+    }
+  }
+}
@@ -0,0 +1,20 @@
+package com.gmail.jorgegilcavazos.ballislife.data.repository.games
+
+import com.gmail.jorgegilcavazos.ballislife.features.model.GameV2
+
+/**
+ * Persists [GameV2]s across process restarts so that the scoreboard can be shown before the
+ * network responds.
+ */
+interface GamesDiskCache {
+
+  /**
+   * Returns every stored game that hasn't expired, keyed by its Firebase key.
+   */
+  fun loadGames(): Map<String, GameV2>
+
+  /**
+   * Stores the given games, replacing any previously stored game with the same key.
+   */
+  fun saveGames(games: Map<String, GameV2>)
+}
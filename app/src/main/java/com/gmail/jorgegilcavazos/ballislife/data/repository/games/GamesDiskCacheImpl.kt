@@ -0,0 +1,233 @@
+package com.gmail.jorgegilcavazos.ballislife.data.repository.games
+
+import com.gmail.jorgegilcavazos.ballislife.features.model.GameV2
+import com.gmail.jorgegilcavazos.ballislife.features.model.Team
+import com.gmail.jorgegilcavazos.ballislife.util.StringPool
+import java.io.*
+import javax.inject.Inject
+import javax.inject.Named
+import javax.inject.Singleton
+
+/**
+ * Implementation of the [GamesDiskCache] interface backed by an append-only binary file.
+ * Every save appends one record per game and the last record of a key wins on load. The file is
+ * rewritten with only the live records once it holds more than twice as many records as games.
+ * Every record starts with the version of its format, a file with records of another version is
+ * rewritten without them.
+ *
+ * Final games never expire, their scores don't change. Games in progress and scheduled games
+ * expire after [IN_GAME_TTL_MILLIS] and [PRE_GAME_TTL_MILLIS] respectively.
+ */
+@Singleton
+class GamesDiskCacheImpl @Inject constructor(
+    @Named("gamesDiskCacheFile") private val file: File) : GamesDiskCache {
+
+  companion object {
+    const val IN_GAME_TTL_MILLIS = 2 * 60 * 1000L
+    const val PRE_GAME_TTL_MILLIS = 60 * 60 * 1000L
+    const val COMPACTION_MIN_RECORDS = 256
+    private const val RECORD_VERSION = 2
+  }
+
+  private class Record(val savedAt: Long, val game: GameV2)
+
+  /**
+   * Number of records in the file, or -1 until it is read.
+   */
+  private var recordCount = -1
+  private val keys = HashSet<String>()
+
+  @Synchronized
+  override fun loadGames(): Map<String, GameV2> {
+    val records = readLiveRecords()
+    val games = LinkedHashMap<String, GameV2>(records.size)
+    for ((key, record) in records) {
+      games.put(key, record.game)
+    }
+    return games
+  }
+
+  @Synchronized
+  override fun saveGames(games: Map<String, GameV2>) {
+    if (games.isEmpty()) {
+      return
+    }
+    if (recordCount < 0) {
+      // Counts the records already in the file, and repairs it before appending if needed.
+      readLiveRecords()
+    }
+
+    val savedAt = System.currentTimeMillis()
+    try {
+      DataOutputStream(BufferedOutputStream(FileOutputStream(file, true))).use { output ->
+        for ((key, game) in games) {
+          writeRecord(output, key, Record(savedAt, game))
+        }
+      }
+      recordCount += games.size
+      keys.addAll(games.keys)
+    } catch (e: IOException) {
+      // The disk tier is best-effort, the network remains the source of truth.
+    }
+
+    if (shouldCompact()) {
+      readLiveRecords()
+    }
+  }
+
+  /**
+   * Returns the last record of every game that hasn't expired, rewriting the file with only them
+   * if it couldn't be read whole or holds too many replaced or expired records.
+   */
+  private fun readLiveRecords(): Map<String, Record> {
+    val records = LinkedHashMap<String, Record>()
+    val complete = readRecords(records)
+
+    val now = System.currentTimeMillis()
+    val iterator = records.values.iterator()
+    while (iterator.hasNext()) {
+      if (isExpired(iterator.next(), now)) {
+        iterator.remove()
+      }
+    }
+
+    keys.clear()
+    keys.addAll(records.keys)
+    if (!complete || shouldCompact()) {
+      rewrite(records)
+    }
+    return records
+  }
+
+  /**
+   * Reads every record in the file into the given map. Returns false if the file ended in the
+   * middle of a record or couldn't be read, in which case it should be rewritten before appending.
+   */
+  private fun readRecords(records: MutableMap<String, Record>): Boolean {
+    recordCount = 0
+    if (!file.exists()) {
+      return true
+    }
+
+    return try {
+      DataInputStream(BufferedInputStream(FileInputStream(file))).use { input ->
+        var complete = true
+        while (true) {
+          val version = input.read()
+          if (version == -1) {
+            break
+          }
+          if (version != RECORD_VERSION) {
+            complete = false
+            break
+          }
+          val savedAt = input.readLong()
+          val key = input.readUTF()
+          records.put(key, Record(savedAt, readGame(input)))
+          recordCount++
+        }
+        complete
+      }
+    } catch (e: IOException) {
+      false
+    }
+  }
+
+  private fun shouldCompact(): Boolean {
+    return recordCount > COMPACTION_MIN_RECORDS && recordCount > 2 * keys.size
+  }
+
+  private fun rewrite(records: Map<String, Record>) {
+    val tempFile = File(file.path + ".tmp")
+    try {
+      DataOutputStream(BufferedOutputStream(FileOutputStream(tempFile))).use { output ->
+        for ((key, record) in records) {
+          writeRecord(output, key, record)
+        }
+      }
+      if (tempFile.renameTo(file)) {
+        recordCount = records.size
+      }
+    } catch (e: IOException) {
+      // The file is left as it was, it is rewritten again the next time it is read.
+      tempFile.delete()
+    }
+  }
+
+  private fun isExpired(record: Record, now: Long): Boolean {
+    val age = now - record.savedAt
+    return when (record.game.status) {
+      GameV2.POST_GAME -> false
+      GameV2.IN_GAME -> age > IN_GAME_TTL_MILLIS
+      else -> age > PRE_GAME_TTL_MILLIS
+    }
+  }
+
+  private fun writeRecord(output: DataOutputStream, key: String, record: Record) {
+    val game = record.game
+    output.writeByte(RECORD_VERSION)
+    output.writeLong(record.savedAt)
+    output.writeUTF(key)
+    output.writeUTF(game.id)
+    writeTeam(output, game.homeTeam)
+    writeTeam(output, game.awayTeam)
+    output.writeInt(game.status)
+    output.writeInt(game.homeScore)
+    output.writeInt(game.awayScore)
+    output.writeInt(game.period)
+    output.writeUTF(game.periodName)
+    output.writeUTF(game.periodStatus)
+    output.writeInt(game.totalPeriods)
+    output.writeUTF(game.gameClock)
+    output.writeUTF(game.arena)
+    output.writeUTF(game.city)
+    output.writeUTF(game.date)
+    output.writeUTF(game.time)
+    output.writeLong(game.timeUtc)
+  }
+
+  private fun writeTeam(output: DataOutputStream, team: Team) {
+    output.writeUTF(team.id)
+    output.writeUTF(team.key)
+    output.writeUTF(team.abbr)
+    output.writeUTF(team.city)
+    output.writeUTF(team.nickname)
+  }
+
+  /**
+   * Reads a string field through the shared [StringPool], like the fields of games deserialized
+   * by Gson that take few distinct values.
+   */
+  private fun readInternedString(input: DataInputStream): String {
+    return StringPool.shared.intern(input.readUTF())
+  }
+
+  private fun readTeam(input: DataInputStream): Team {
+    return Team.of(
+        id = input.readUTF(),
+        key = input.readUTF(),
+        abbr = input.readUTF(),
+        city = input.readUTF(),
+        nickname = input.readUTF())
+  }
+
+  private fun readGame(input: DataInputStream): GameV2 {
+    return GameV2(
+        id = input.readUTF(),
+        homeTeam = readTeam(input),
+        awayTeam = readTeam(input),
+        status = input.readInt(),
+        homeScore = input.readInt(),
+        awayScore = input.readInt(),
+        period = input.readInt(),
+        periodName = readInternedString(input),
+        periodStatus = readInternedString(input),
+        totalPeriods = input.readInt(),
+        gameClock = input.readUTF(),
+        arena = readInternedString(input),
+        city = readInternedString(input),
+        date = input.readUTF(),
+        time = readInternedString(input),
+        timeUtc = input.readLong())
+  }
+}
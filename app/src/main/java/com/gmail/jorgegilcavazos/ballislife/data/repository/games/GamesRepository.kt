@@ -1,6 +1,7 @@
 package com.gmail.jorgegilcavazos.ballislife.data.repository.games
 
 import com.gmail.jorgegilcavazos.ballislife.features.games.GamesUiModel
+import com.gmail.jorgegilcavazos.ballislife.features.model.GameV2
 import com.gmail.jorgegilcavazos.ballislife.features.model.NbaGame
 import io.reactivex.Observable
 import java.util.*
@@ -11,4 +12,27 @@ import java.util.*
 interface GamesRepository {
 
   fun games(date: Calendar, forceNetwork: Boolean): Observable<GamesUiModel>
+
+  /**
+   * Merges pushed game updates into the cached games, after reading the games stored on disk if
+   * they weren't read yet. Games that aren't cached are added. Reads from disk, so it shouldn't be
+   * called from the main thread.
+   */
+  fun updateGames(games: List<GameV2>)
+
+  /**
+   * Emits the cached games that changed every time an update is merged.
+   */
+  fun gameUpdates(): Observable<List<GameV2>>
+
+  /**
+   * Emits the same changes as [gameUpdates] and, while subscribed, polls for games in progress.
+   * The polling is shared by every subscriber and makes no requests when no game is in progress.
+   */
+  fun liveGames(): Observable<List<GameV2>>
+
+  /**
+   * Returns the cached game with the given id, or null if it isn't cached.
+   */
+  fun cachedGame(gameId: String): GameV2?
 }
@@ -1,30 +1,95 @@
 package com.gmail.jorgegilcavazos.ballislife.data.repository.games
 
-import android.annotation.SuppressLint
 import android.support.annotation.VisibleForTesting
+import com.gmail.jorgegilcavazos.ballislife.data.service.NbaGamesEventService
 import com.gmail.jorgegilcavazos.ballislife.data.service.NbaGamesService
 import com.gmail.jorgegilcavazos.ballislife.features.games.GamesUiModel
+import com.gmail.jorgegilcavazos.ballislife.features.model.FirebaseEvent
 import com.gmail.jorgegilcavazos.ballislife.features.model.GameV2
 import com.gmail.jorgegilcavazos.ballislife.util.DateFormatUtil
 import com.gmail.jorgegilcavazos.ballislife.util.schedulers.BaseSchedulerProvider
+import com.google.gson.Gson
+import com.google.gson.JsonObject
+import io.reactivex.Completable
 import io.reactivex.Observable
 import io.reactivex.Single
+import io.reactivex.disposables.Disposable
+import io.reactivex.functions.Predicate
+import io.reactivex.subjects.PublishSubject
+import io.reactivex.subjects.Subject
 import java.util.*
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
 import javax.inject.Inject
 import javax.inject.Singleton
 
 /**
  * Implementation of the [GamesRepository] interface.
+ * Cached games are indexed by their tip-off time so that reading a single day is a range lookup
+ * instead of a scan over every game cached so far.
+ *
+ * Network requests cover a window of [PREFETCH_DAYS] days around the selected date so that
+ * navigating to an adjacent day can be served from the cache. The window slides in the background
+ * as the selected date moves.
+ *
+ * Games are also persisted in a [GamesDiskCache] that is read once per process, so that the
+ * scoreboard can be painted on a cold start before the network responds.
+ *
+ * Score pushes are merged into the cache through [updateGames] and the changed games are emitted
+ * to every [gameUpdates] subscriber, so live scores don't need another request. A push may be
+ * the first thing the process handles, so it reads the disk tier first and keeps games that
+ * aren't cached.
+ *
+ * While [liveGames] has subscribers and games are in progress, their changes are streamed from
+ * Firebase and applied to the cache. The stream reconnects with an exponential backoff and, if it
+ * keeps failing, the games in progress are polled instead for a while at an interval that depends
+ * on their state, see [nextPollDelayMillis]. No requests are made while no game is in progress.
+ *
+ * Every clock received from the server is recorded in a [GameClockTracker]. While it can run a
+ * clock forward locally, polling slows down to [EXTRAPOLATED_POLL_DELAY_MILLIS] or until the
+ * predicted end of the period.
  */
 @Singleton
 class GamesRepositoryImpl @Inject constructor(
     private val gamesService: NbaGamesService,
+    private val gamesEventService: NbaGamesEventService,
+    private val diskCache: GamesDiskCache,
+    private val clockTracker: GameClockTracker,
+    private val gson: Gson,
     private val schedulerProvider: BaseSchedulerProvider) : GamesRepository {
 
-  private val gamesMap = HashMap<String, GameV2>()
+  private val gamesByTime = TreeMap<Long, MutableMap<String, GameV2>>()
+  private val gameTimes = HashMap<String, Long>()
+  private val gameKeys = HashMap<String, String>()
+  private val dayFetchTimes = HashMap<Long, Long>()
+  private var prefetchDisposable: Disposable? = null
+  private var prefetchFirstDay = 0L
+  private var prefetchLastDay = 0L
+  private var diskLoaded = false
+  private val gameUpdates: Subject<List<GameV2>> =
+      PublishSubject.create<List<GameV2>>().toSerialized()
+  private val liveGames: Observable<List<GameV2>> = Observable
+      .merge(gameUpdates, liveEvents().toObservable<List<GameV2>>())
+      .share()
+
+  companion object {
+    const val PREFETCH_DAYS = 2
+    const val PREFETCHED_DAY_MAX_AGE_MILLIS = 2 * 60 * 1000L
+    const val LIVE_POLL_DELAY_MILLIS = 15 * 1000L
+    const val EXTRAPOLATED_POLL_DELAY_MILLIS = 30 * 1000L
+    const val MIN_POLL_DELAY_MILLIS = 5 * 1000L
+    const val PERIOD_BREAK_POLL_DELAY_MILLIS = 30 * 1000L
+    const val HALFTIME_POLL_DELAY_MILLIS = 60 * 1000L
+    const val IDLE_POLL_DELAY_MILLIS = 60 * 1000L
+    private const val LIVE_GAME_MAX_LENGTH_SECONDS = 6 * 60 * 60L
+    private const val UPCOMING_GAMES_SECONDS = 12 * 60 * 60L
+    private const val STREAM_MAX_RETRIES = 5
+    private const val STREAM_RETRY_BASE_DELAY_SECONDS = 2L
+    const val STREAM_COOL_OFF_MILLIS = 5 * 60 * 1000L
+  }
 
   override fun games(date: Calendar, forceNetwork: Boolean): Observable<GamesUiModel> {
-    val network = networkSource(date).toObservable()
+    val network = networkSource(date, forceNetwork).toObservable()
         .concatMap {
           if (it.isEmpty()) {
             Observable.just(GamesUiModel.networkSuccess(emptyList()))
@@ -48,38 +113,460 @@ class GamesRepositoryImpl @Inject constructor(
         .observeOn(schedulerProvider.ui())
         .startWith(GamesUiModel.memoryInProgress())
 
+    val disk = diskSource(date).toObservable()
+        .map { GamesUiModel.diskSuccess(it.values.sortedBy { it.id }) }
+        .subscribeOn(schedulerProvider.io())
+        .observeOn(schedulerProvider.ui())
+
     if (forceNetwork) {
       return network
     }
 
-    return Observable.concat(memory, network)
+    return Observable.concat(memory, disk, network)
+  }
+
+  override fun updateGames(games: List<GameV2>) {
+    // A push can start the process, before anything read the games stored on disk.
+    loadDiskGames()
+    updateClocks(games)
+    val changedGames = applyGameUpdates(games)
+    if (!changedGames.isEmpty()) {
+      // Games kept under their id until their Firebase key is known are not stored.
+      diskCache.saveGames(changedGames.filter { (key, game) -> key != game.id })
+      gameUpdates.onNext(changedGames.values.sortedBy { it.id })
+    }
+  }
+
+  override fun gameUpdates(): Observable<List<GameV2>> = gameUpdates
+
+  override fun liveGames(): Observable<List<GameV2>> = liveGames
+
+  @Synchronized
+  override fun cachedGame(gameId: String): GameV2? {
+    val key = gameKeys[gameId] ?: return null
+    val time = gameTimes[key] ?: return null
+    return gamesByTime[time]?.get(key)
+  }
+
+  /**
+   * Streams the changes of the games in progress while there are any and waits for the next
+   * tip-off otherwise, forever. If the stream can't be kept open, the games are polled through
+   * [livePolling] for [STREAM_COOL_OFF_MILLIS] before streaming is tried again.
+   */
+  private fun liveEvents(): Completable {
+    return Completable
+        .defer {
+          if (getLiveGames().isEmpty()) {
+            Completable.timer(
+                nextPollDelayMillis(), TimeUnit.MILLISECONDS, schedulerProvider.computation())
+          } else {
+            streamLiveGames().onErrorResumeNext {
+              livePolling().ambWith(Completable.timer(
+                  STREAM_COOL_OFF_MILLIS, TimeUnit.MILLISECONDS, schedulerProvider.computation()))
+            }
+          }
+        }
+        .repeat()
+  }
+
+  /**
+   * Streams the changes of the games from the earliest game in progress to the upcoming ones
+   * until no game is in progress. The stream is reopened up to [STREAM_MAX_RETRIES] times in a
+   * row, counting again once it delivers an event.
+   */
+  private fun streamLiveGames(): Completable {
+    val failedAttempts = AtomicInteger()
+    return Observable
+        .defer {
+          // Reopened streams start from the games in progress at the time.
+          val liveGames = getLiveGames()
+          if (liveGames.isEmpty()) {
+            Observable.empty<FirebaseEvent>()
+          } else {
+            gamesEventService.gameEvents(
+                "\"timeUtc\"",
+                liveGames.minBy { it.timeUtc }!!.timeUtc,
+                System.currentTimeMillis() / 1000 + UPCOMING_GAMES_SECONDS)
+          }
+        }
+        .subscribeOn(schedulerProvider.io())
+        .doOnNext {
+          failedAttempts.set(0)
+          applyGameEvent(it)
+        }
+        .takeUntil(Predicate<FirebaseEvent> { getLiveGames().isEmpty() })
+        .retryWhen { errors ->
+          errors.flatMap { error ->
+            val attempt = failedAttempts.incrementAndGet()
+            if (attempt > STREAM_MAX_RETRIES) {
+              Observable.error<Long>(error)
+            } else {
+              Observable.timer(
+                  STREAM_RETRY_BASE_DELAY_SECONDS shl (attempt - 1),
+                  TimeUnit.SECONDS,
+                  schedulerProvider.computation())
+            }
+          }
+        }
+        .ignoreElements()
   }
 
-  private fun networkSource(date: Calendar): Single<Map<String, GameV2>> {
+  /**
+   * Applies a streamed change to the cached games. The path of an event is either the root of
+   * the stream, a game or a field of a game.
+   */
+  private fun applyGameEvent(event: FirebaseEvent) {
+    val data = event.data
+    if (data == null || data.isJsonNull) {
+      return
+    }
+
+    val segments = event.path.split("/").filter { !it.isEmpty() }
+    val games = HashMap<String, GameV2>()
+    when (segments.size) {
+      0 -> for ((key, game) in data.asJsonObject.entrySet()) {
+        if (game.isJsonObject) {
+          games.put(key, gson.fromJson(game, GameV2::class.java))
+        }
+      }
+      1 -> {
+        val key = segments[0]
+        val game = if (event.type == FirebaseEvent.PATCH) {
+          mergeIntoCachedGame(key, data.asJsonObject)
+        } else {
+          gson.fromJson(data, GameV2::class.java)
+        }
+        if (game != null) {
+          games.put(key, game)
+        }
+      }
+      2 -> {
+        val fields = JsonObject()
+        fields.add(segments[1], data)
+        val game = mergeIntoCachedGame(segments[0], fields)
+        if (game != null) {
+          games.put(segments[0], game)
+        }
+      }
+    }
+    publishChangedGames(games)
+  }
+
+  /**
+   * Returns the cached game with the given key with the given fields replaced, or null if the
+   * game isn't cached.
+   */
+  @Synchronized
+  private fun mergeIntoCachedGame(key: String, fields: JsonObject): GameV2? {
+    val time = gameTimes[key] ?: return null
+    val game = gamesByTime[time]?.get(key) ?: return null
+    val json = gson.toJsonTree(game).asJsonObject
+    for ((field, value) in fields.entrySet()) {
+      json.add(field, value)
+    }
+    return gson.fromJson(json, GameV2::class.java)
+  }
+
+  /**
+   * Waits for the next poll delay and fetches the games in progress, forever. The changed games
+   * are published through [gameUpdates].
+   */
+  private fun livePolling(): Completable {
+    return Completable
+        .defer {
+          Completable.timer(
+              nextPollDelayMillis(), TimeUnit.MILLISECONDS, schedulerProvider.computation())
+        }
+        .andThen(Completable.defer { pollLiveGames() })
+        .repeat()
+  }
+
+  private fun pollLiveGames(): Completable {
+    val liveGames = getLiveGames()
+    if (liveGames.isEmpty()) {
+      return Completable.complete()
+    }
+
     return gamesService
         .getDayGames(
             "\"timeUtc\"",
-            DateFormatUtil.getDateStartUtc(date),
-            DateFormatUtil.getDateEndUtc(date))
-        .doOnSuccess { gamesMap.putAll(it) }
+            liveGames.minBy { it.timeUtc }!!.timeUtc,
+            liveGames.maxBy { it.timeUtc }!!.timeUtc)
+        .doOnSuccess { publishChangedGames(it) }
+        .toCompletable()
+        .onErrorComplete()
+        .subscribeOn(schedulerProvider.io())
+  }
 
+  /**
+   * Returns the cached games that started or should have started and aren't final yet.
+   */
+  private fun getLiveGames(): List<GameV2> {
+    val now = System.currentTimeMillis() / 1000
+    return getCachedGames(now - LIVE_GAME_MAX_LENGTH_SECONDS, now + 1).values
+        .filter { it.status == GameV2.IN_GAME || it.status == GameV2.PRE_GAME }
+  }
+
+  /**
+   * Returns how long to wait before the next poll: often while the ball is in play, less often
+   * while its clock can be extrapolated, between periods and at halftime, and at the next tip-off
+   * otherwise. When no game is in progress the wait only ends in a cache check, not a request.
+   */
+  @VisibleForTesting
+  fun nextPollDelayMillis(): Long {
+    val now = System.currentTimeMillis()
+    val nowSeconds = now / 1000
+    var delay = IDLE_POLL_DELAY_MILLIS
+    val games = getCachedGames(nowSeconds - LIVE_GAME_MAX_LENGTH_SECONDS, nowSeconds + 24 * 60 * 60)
+    for (game in games.values) {
+      val gameDelay = when (game.status) {
+        GameV2.IN_GAME -> when {
+          game.periodStatus == "Halftime" -> HALFTIME_POLL_DELAY_MILLIS
+          game.periodStatus.startsWith("End of") -> PERIOD_BREAK_POLL_DELAY_MILLIS
+          else -> clockTracker.millisUntilRefresh(game, now)
+              ?.let {
+                Math.max(Math.min(it, EXTRAPOLATED_POLL_DELAY_MILLIS), MIN_POLL_DELAY_MILLIS)
+              }
+              ?: LIVE_POLL_DELAY_MILLIS
+        }
+        GameV2.PRE_GAME -> Math.max(game.timeUtc * 1000 - now, PERIOD_BREAK_POLL_DELAY_MILLIS)
+        else -> IDLE_POLL_DELAY_MILLIS
+      }
+      delay = Math.min(delay, gameDelay)
+    }
+    return delay
+  }
+
+  private fun publishChangedGames(games: Map<String, GameV2>) {
+    updateClocks(games.values)
+    val changedGames = getChangedGames(games)
+    if (!changedGames.isEmpty()) {
+      saveGamesInCache(changedGames)
+      diskCache.saveGames(changedGames)
+      gameUpdates.onNext(changedGames.values.sortedBy { it.id })
+    }
+  }
+
+  /**
+   * Records the clocks of games received from the server. Games loaded from disk don't go through
+   * here since their clock is out of date.
+   */
+  private fun updateClocks(games: Collection<GameV2>) {
+    val now = System.currentTimeMillis()
+    for (game in games) {
+      clockTracker.update(game, now)
+    }
+  }
+
+  /**
+   * Saves in the cache the given games that are new or differ from their cached version and
+   * returns them keyed by their Firebase key. Pushes don't carry the key, so a game that isn't
+   * cached yet is kept under its id until the network returns it.
+   */
+  @Synchronized
+  private fun applyGameUpdates(games: List<GameV2>): Map<String, GameV2> {
+    val changedGames = HashMap<String, GameV2>()
+    for (game in games) {
+      val key = gameKeys[game.id] ?: game.id
+      val time = gameTimes[key]
+      if (time == null || gamesByTime[time]?.get(key) != game) {
+        changedGames.put(key, game)
+      }
+    }
+    saveGamesInCache(changedGames)
+    return changedGames
+  }
+
+  private fun networkSource(date: Calendar, forceNetwork: Boolean): Single<Map<String, GameV2>> {
+    val dayStart = DateFormatUtil.getDateStartUtc(date)
+    val dayEnd = DateFormatUtil.getDateEndUtc(date)
+    return Single
+        .defer {
+          if (!forceNetwork && isDayFresh(dayStart, dayEnd)) {
+            Single.just(getCachedGames(dayStart, dayEnd))
+          } else {
+            fetchDays(addDays(date, -PREFETCH_DAYS), addDays(date, PREFETCH_DAYS))
+                .map { getCachedGames(dayStart, dayEnd) }
+          }
+        }
+        .doOnSuccess { slidePrefetchWindow(date) }
+  }
+
+  /**
+   * Fetches every game from the start of the first day to the end of the last day in a single
+   * request and stores them in the cache.
+   */
+  private fun fetchDays(firstDay: Calendar, lastDay: Calendar): Single<Map<String, GameV2>> {
+    return gamesService
+        .getDayGames(
+            "\"timeUtc\"",
+            DateFormatUtil.getDateStartUtc(firstDay),
+            DateFormatUtil.getDateEndUtc(lastDay))
+        .doOnSuccess {
+          updateClocks(it.values)
+          diskCache.saveGames(getChangedGames(it))
+          saveGamesInCache(it)
+          markDaysFetched(firstDay, lastDay)
+        }
+  }
+
+  /**
+   * Fetches in the background the days around the given date that haven't been fetched recently.
+   * A prefetch still running for other days is disposed, since the user has moved away from them.
+   */
+  @Synchronized
+  private fun slidePrefetchWindow(date: Calendar) {
+    var firstMissingDay: Calendar? = null
+    var lastMissingDay: Calendar? = null
+    for (offset in -PREFETCH_DAYS..PREFETCH_DAYS) {
+      val day = addDays(date, offset)
+      if (!isDayFetched(DateFormatUtil.getDateStartUtc(day))) {
+        if (firstMissingDay == null) {
+          firstMissingDay = day
+        }
+        lastMissingDay = day
+      }
+    }
+
+    if (firstMissingDay == null || lastMissingDay == null) {
+      return
+    }
+
+    val firstDayStart = DateFormatUtil.getDateStartUtc(firstMissingDay)
+    val lastDayStart = DateFormatUtil.getDateStartUtc(lastMissingDay)
+    if (prefetchDisposable?.isDisposed == false) {
+      if (firstDayStart == prefetchFirstDay && lastDayStart == prefetchLastDay) {
+        return
+      }
+      prefetchDisposable?.dispose()
+    }
+
+    prefetchFirstDay = firstDayStart
+    prefetchLastDay = lastDayStart
+    prefetchDisposable = fetchDays(firstMissingDay, lastMissingDay)
+        .subscribeOn(schedulerProvider.io())
+        .subscribe({ }, { })
+  }
+
+  private fun addDays(date: Calendar, days: Int): Calendar {
+    val day = date.clone() as Calendar
+    day.add(Calendar.DAY_OF_YEAR, days)
+    return day
+  }
+
+  @Synchronized
+  private fun markDaysFetched(firstDay: Calendar, lastDay: Calendar) {
+    val now = System.currentTimeMillis()
+    val lastDayStart = DateFormatUtil.getDateStartUtc(lastDay)
+    val day = firstDay.clone() as Calendar
+    var dayStart = DateFormatUtil.getDateStartUtc(day)
+    while (dayStart <= lastDayStart) {
+      dayFetchTimes.put(dayStart, now)
+      day.add(Calendar.DAY_OF_YEAR, 1)
+      dayStart = DateFormatUtil.getDateStartUtc(day)
+    }
+  }
+
+  @Synchronized
+  private fun isDayFetched(dayStart: Long): Boolean {
+    val fetchTime = dayFetchTimes[dayStart] ?: return false
+    return System.currentTimeMillis() - fetchTime < PREFETCHED_DAY_MAX_AGE_MILLIS
+  }
+
+  /**
+   * Whether the day was fetched recently and has no games in progress, in which case its cached
+   * games are as good as a new network response.
+   */
+  @Synchronized
+  private fun isDayFresh(dayStart: Long, dayEnd: Long): Boolean {
+    return isDayFetched(dayStart)
+        && getCachedGames(dayStart, dayEnd).values.none { it.status == GameV2.IN_GAME }
   }
 
-  @SuppressLint("VisibleForTests")
   private fun memorySource(date: Calendar): Single<Map<String, GameV2>> {
-    return Single.just(gamesMap
-        .filterValues {
-          it.timeUtc > DateFormatUtil.getDateStartUtc(date)
-              && it.timeUtc < DateFormatUtil.getDateEndUtc(date)
-        })
-        .doOnSuccess { saveGamesInCache(it) }
+    return Single.fromCallable {
+      getCachedGames(DateFormatUtil.getDateStartUtc(date), DateFormatUtil.getDateEndUtc(date))
+    }
+  }
+
+  /**
+   * Returns the games of the given date after loading the games stored on disk into the cache,
+   * which is only done the first time.
+   */
+  private fun diskSource(date: Calendar): Single<Map<String, GameV2>> {
+    return Single.fromCallable {
+      loadDiskGames()
+      getCachedGames(DateFormatUtil.getDateStartUtc(date), DateFormatUtil.getDateEndUtc(date))
+    }
+  }
+
+  @Synchronized
+  private fun loadDiskGames() {
+    if (diskLoaded) {
+      return
+    }
+    diskLoaded = true
+    // Games already in memory came from the network and are newer than the ones on disk.
+    saveGamesInCache(diskCache.loadGames().filterKeys { !gameTimes.containsKey(it) })
   }
 
+  /**
+   * Returns the games that are new or different from their cached version.
+   */
+  @Synchronized
+  private fun getChangedGames(games: Map<String, GameV2>): Map<String, GameV2> {
+    return games.filter { (key, game) ->
+      val time = gameTimes[key]
+      time == null || gamesByTime[time]?.get(key) != game
+    }
+  }
+
+  /**
+   * Returns the cached games with a tip-off time strictly between the given bounds, in seconds.
+   */
   @VisibleForTesting
+  @Synchronized
+  fun getCachedGames(startUtc: Long, endUtc: Long): Map<String, GameV2> {
+    val games = HashMap<String, GameV2>()
+    if (startUtc >= endUtc) {
+      return games
+    }
+    for (bucket in gamesByTime.subMap(startUtc, false, endUtc, false).values) {
+      games.putAll(bucket)
+    }
+    return games
+  }
+
+  @VisibleForTesting
+  @Synchronized
   fun saveGamesInCache(gamesMap: Map<String, GameV2>, clear: Boolean = false) {
     if (clear) {
-      this.gamesMap.clear()
+      gamesByTime.clear()
+      gameTimes.clear()
+      gameKeys.clear()
+      dayFetchTimes.clear()
+    }
+    for ((key, game) in gamesMap) {
+      // A rescheduled game has to leave the bucket of its previous tip-off time.
+      val previousTime = gameTimes.put(key, game.timeUtc)
+      if (previousTime != null && previousTime != game.timeUtc) {
+        removeFromBucket(key, previousTime)
+      }
+      gamesByTime.getOrPut(game.timeUtc) { HashMap() }[key] = game
+
+      // A pushed game kept under its id leaves it once it arrives under its Firebase key.
+      val previousKey = gameKeys.put(game.id, key)
+      if (previousKey != null && previousKey != key) {
+        gameTimes.remove(previousKey)?.let { removeFromBucket(previousKey, it) }
+      }
+    }
+  }
+
+  private fun removeFromBucket(key: String, time: Long) {
+    val bucket = gamesByTime[time] ?: return
+    bucket.remove(key)
+    if (bucket.isEmpty()) {
+      gamesByTime.remove(time)
     }
-    this.gamesMap.putAll(gamesMap)
   }
 }
@@ -0,0 +1,24 @@
+package com.gmail.jorgegilcavazos.ballislife.data.repository.gamethreads
+
+/**
+ * Stores the reddit id of the thread resolved for a game so that it doesn't have to be searched
+ * again, including across process restarts. Games for which no thread was found are remembered
+ * for a short time only, since their thread may be posted at any moment.
+ */
+interface GameThreadIdCache {
+  /**
+   * Returns the id of the thread resolved for the given key or null if it isn't known.
+   */
+  fun getThreadId(key: String): String?
+
+  /**
+   * Whether no thread was found for the given key recently.
+   */
+  fun isThreadMissing(key: String): Boolean
+
+  fun saveThreadId(key: String, threadId: String)
+
+  fun saveThreadMissing(key: String)
+
+  fun remove(key: String)
+}
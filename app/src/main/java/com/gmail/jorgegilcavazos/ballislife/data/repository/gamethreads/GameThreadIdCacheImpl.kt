@@ -0,0 +1,64 @@
+package com.gmail.jorgegilcavazos.ballislife.data.repository.gamethreads
+
+import android.content.SharedPreferences
+import javax.inject.Inject
+import javax.inject.Named
+import javax.inject.Singleton
+
+/**
+ * Implementation of the [GameThreadIdCache] interface backed by [SharedPreferences]. Every entry
+ * is stored as "savedAt:threadId", with an empty thread id if no thread was found. Entries older
+ * than [THREAD_ID_TTL_MILLIS] are pruned when a new one is saved.
+ */
+@Singleton
+class GameThreadIdCacheImpl @Inject constructor(
+    @Named("gameThreadsSharedPreferences") private val preferences: SharedPreferences)
+  : GameThreadIdCache {
+
+  companion object {
+    const val GAME_THREADS_PREFS = "GameThreadsPrefs"
+    const val THREAD_ID_TTL_MILLIS = 3 * 24 * 60 * 60 * 1000L
+    const val THREAD_MISSING_TTL_MILLIS = 2 * 60 * 1000L
+  }
+
+  override fun getThreadId(key: String): String? {
+    val threadId = getEntry(key)?.second ?: return null
+    return if (threadId.isEmpty()) null else threadId
+  }
+
+  override fun isThreadMissing(key: String): Boolean {
+    val (savedAt, threadId) = getEntry(key) ?: return false
+    return threadId.isEmpty() && System.currentTimeMillis() - savedAt < THREAD_MISSING_TTL_MILLIS
+  }
+
+  override fun saveThreadId(key: String, threadId: String) = saveEntry(key, threadId)
+
+  override fun saveThreadMissing(key: String) = saveEntry(key, "")
+
+  override fun remove(key: String) {
+    preferences.edit().remove(key).apply()
+  }
+
+  private fun getEntry(key: String): Pair<Long, String>? {
+    val value = preferences.getString(key, null) ?: return null
+    val separator = value.indexOf(':')
+    if (separator < 0) {
+      return null
+    }
+    val savedAt = value.substring(0, separator).toLongOrNull() ?: return null
+    return Pair(savedAt, value.substring(separator + 1))
+  }
+
+  private fun saveEntry(key: String, threadId: String) {
+    val now = System.currentTimeMillis()
+    val editor = preferences.edit()
+    for (storedKey in preferences.all.keys) {
+      val savedAt = getEntry(storedKey)?.first
+      if (savedAt == null || now - savedAt >= THREAD_ID_TTL_MILLIS) {
+        editor.remove(storedKey)
+      }
+    }
+    editor.putString(key, "$now:$threadId")
+    editor.apply()
+  }
+}
@@ -0,0 +1,21 @@
+package com.gmail.jorgegilcavazos.ballislife.data.repository.gamethreads
+
+/**
+ * Records the comments of live game threads seen while streaming, so that a thread can be
+ * replayed from disk after the game.
+ */
+interface GameThreadLog {
+
+  /**
+   * Records the given comments of the live thread of a game. Comments recorded before are only
+   * recorded again if their body changed, e.g. if they were edited or deleted.
+   */
+  fun append(gameId: String, comments: List<RecordedComment>)
+
+  /**
+   * Returns the latest recording of every comment of the live thread of a game, oldest first.
+   */
+  fun load(gameId: String): List<RecordedComment>
+
+  fun hasRecording(gameId: String): Boolean
+}
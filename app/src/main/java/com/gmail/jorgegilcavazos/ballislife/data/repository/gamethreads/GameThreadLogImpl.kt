@@ -0,0 +1,252 @@
+package com.gmail.jorgegilcavazos.ballislife.data.repository.gamethreads
+
+import java.io.*
+import javax.inject.Inject
+import javax.inject.Named
+import javax.inject.Singleton
+
+/**
+ * Implementation of the [GameThreadLog] interface backed by one append-only binary file per game.
+ * Every append adds one record per comment and the last record of a comment wins on load. A file
+ * is rewritten with only the latest records once it holds too many replaced ones. Once it reaches
+ * [MAX_LOG_BYTES] it is also trimmed to [TRIMMED_LOG_BYTES] by dropping the earliest comments, so
+ * that the end of a long game is still recorded.
+ *
+ * The logs of all games take at most [MAX_TOTAL_BYTES], the least recently written ones are
+ * deleted to make room for the log of a new game.
+ */
+@Singleton
+class GameThreadLogImpl @Inject constructor(
+    @Named("gameThreadLogsDir") private val dir: File) : GameThreadLog {
+
+  companion object {
+    const val MAX_LOG_BYTES = 2 * 1024 * 1024L
+    const val TRIMMED_LOG_BYTES = MAX_LOG_BYTES * 3 / 4
+    const val MAX_TOTAL_BYTES = 16 * 1024 * 1024L
+    private const val RECORD_VERSION = 1
+    private const val COMPACTION_MIN_RECORDS = 256
+    private const val LOG_EXTENSION = ".log"
+  }
+
+  /**
+   * The comments in the log of a game, with the hash of the body of their latest record. Comments
+   * trimmed from the log are kept so that they aren't appended again when seen again.
+   */
+  private class LogState(val bodyHashes: MutableMap<String, Int>, var recordCount: Int)
+
+  private val states = HashMap<String, LogState>()
+
+  @Synchronized
+  override fun append(gameId: String, comments: List<RecordedComment>) {
+    val state = getState(gameId)
+    val newComments = comments.filter { state.bodyHashes[it.id] != it.bodyHtml.hashCode() }
+    if (newComments.isEmpty()) {
+      return
+    }
+
+    val file = logFile(gameId)
+    if (!file.exists()) {
+      dir.mkdirs()
+      evictLogs()
+    } else if (file.length() >= MAX_LOG_BYTES) {
+      val records = LinkedHashMap<String, RecordedComment>()
+      readRecords(file, records)
+      rewrite(gameId, state, latestRecords(records, TRIMMED_LOG_BYTES))
+      if (file.length() >= MAX_LOG_BYTES) {
+        // The log couldn't be trimmed.
+        return
+      }
+    }
+
+    try {
+      DataOutputStream(BufferedOutputStream(FileOutputStream(file, true))).use { output ->
+        for (comment in newComments) {
+          writeRecord(output, comment)
+        }
+      }
+      for (comment in newComments) {
+        state.bodyHashes.put(comment.id, comment.bodyHtml.hashCode())
+      }
+      state.recordCount += newComments.size
+    } catch (e: IOException) {
+      // Recording is best-effort, a failed append only leaves a gap in the replay.
+    }
+  }
+
+  @Synchronized
+  override fun load(gameId: String): List<RecordedComment> {
+    val records = LinkedHashMap<String, RecordedComment>()
+    val state = LogState(HashMap(), 0)
+    val file = logFile(gameId)
+    state.recordCount = readRecords(file, records) ?: -1
+    for ((id, record) in records) {
+      state.bodyHashes.put(id, record.bodyHtml.hashCode())
+    }
+    states.put(gameId, state)
+
+    if (state.recordCount == -1 || shouldCompact(state)) {
+      rewrite(gameId, state, records)
+    }
+    return records.values.sortedBy { it.createdMillis }
+  }
+
+  @Synchronized
+  override fun hasRecording(gameId: String): Boolean {
+    return logFile(gameId).length() > 0
+  }
+
+  private fun getState(gameId: String): LogState {
+    val state = states[gameId]
+    if (state != null) {
+      return state
+    }
+    load(gameId)
+    return states[gameId]!!
+  }
+
+  /**
+   * Reads every record in the given file into the given map and returns the number read. Returns
+   * null if the file ended in the middle of a record or couldn't be read, in which case it should
+   * be rewritten before appending.
+   */
+  private fun readRecords(file: File, records: MutableMap<String, RecordedComment>): Int? {
+    if (!file.exists()) {
+      return 0
+    }
+
+    return try {
+      DataInputStream(BufferedInputStream(FileInputStream(file))).use { input ->
+        var count = 0
+        while (true) {
+          val version = input.read()
+          if (version == -1) {
+            break
+          }
+          if (version != RECORD_VERSION) {
+            return null
+          }
+          val record = readRecord(input)
+          records.put(record.id, record)
+          count++
+        }
+        count
+      }
+    } catch (e: IOException) {
+      null
+    }
+  }
+
+  private fun shouldCompact(state: LogState): Boolean {
+    return state.recordCount > COMPACTION_MIN_RECORDS
+        && state.recordCount > 2 * state.bodyHashes.size
+  }
+
+  private fun rewrite(gameId: String, state: LogState, records: Map<String, RecordedComment>) {
+    val file = logFile(gameId)
+    val tempFile = File(file.path + ".tmp")
+    try {
+      DataOutputStream(BufferedOutputStream(FileOutputStream(tempFile))).use { output ->
+        records.values.forEach { writeRecord(output, it) }
+      }
+      if (tempFile.renameTo(file)) {
+        state.recordCount = records.size
+      }
+    } catch (e: IOException) {
+      // The log is left as it was.
+      tempFile.delete()
+    }
+  }
+
+  /**
+   * Returns the latest records by creation time that take at most the given number of bytes,
+   * oldest first.
+   */
+  private fun latestRecords(
+      records: Map<String, RecordedComment>,
+      maxBytes: Long): Map<String, RecordedComment> {
+    val sizer = DataOutputStream(object : OutputStream() {
+      override fun write(b: Int) {}
+
+      override fun write(b: ByteArray, off: Int, len: Int) {}
+    })
+    val latest = ArrayList<RecordedComment>()
+    for (record in records.values.sortedByDescending { it.createdMillis }) {
+      writeRecord(sizer, record)
+      if (sizer.size() > maxBytes) {
+        break
+      }
+      latest.add(record)
+    }
+
+    val trimmed = LinkedHashMap<String, RecordedComment>(latest.size)
+    for (record in latest.asReversed()) {
+      trimmed.put(record.id, record)
+    }
+    return trimmed
+  }
+
+  /**
+   * Deletes the least recently written logs until the rest leave room for a new log.
+   */
+  private fun evictLogs() {
+    val logs = dir.listFiles { _, name -> name.endsWith(LOG_EXTENSION) } ?: return
+    var totalBytes = logs.map { it.length() }.sum()
+    for (log in logs.sortedBy { it.lastModified() }) {
+      if (totalBytes + MAX_LOG_BYTES <= MAX_TOTAL_BYTES) {
+        break
+      }
+      totalBytes -= log.length()
+      if (log.delete()) {
+        states.remove(log.name.removeSuffix(LOG_EXTENSION))
+      }
+    }
+  }
+
+  private fun logFile(gameId: String) = File(dir, gameId + LOG_EXTENSION)
+
+  private fun writeRecord(output: DataOutputStream, comment: RecordedComment) {
+    output.writeByte(RECORD_VERSION)
+    output.writeUTF(comment.id)
+    output.writeUTF(comment.author)
+    writeLongString(output, comment.bodyHtml)
+    output.writeInt(comment.score)
+    output.writeShort(comment.depth)
+    output.writeLong(comment.createdMillis)
+    output.writeLong(comment.recordedAtMillis)
+    output.writeUTF(comment.period)
+    output.writeUTF(comment.gameClock)
+  }
+
+  private fun readRecord(input: DataInputStream): RecordedComment {
+    return RecordedComment(
+        id = input.readUTF(),
+        author = input.readUTF(),
+        bodyHtml = readLongString(input),
+        score = input.readInt(),
+        depth = input.readShort().toInt(),
+        createdMillis = input.readLong(),
+        recordedAtMillis = input.readLong(),
+        period = input.readUTF(),
+        gameClock = input.readUTF())
+  }
+
+  /**
+   * Writes a string that may be longer than [DataOutputStream.writeUTF] allows, e.g. the body of
+   * a long comment.
+   */
+  private fun writeLongString(output: DataOutputStream, value: String) {
+    val bytes = value.toByteArray(Charsets.UTF_8)
+    output.writeInt(bytes.size)
+    output.write(bytes)
+  }
+
+  private fun readLongString(input: DataInputStream): String {
+    val length = input.readInt()
+    if (length < 0 || length > MAX_LOG_BYTES) {
+      throw IOException("Invalid string length: $length")
+    }
+    val bytes = ByteArray(length)
+    input.readFully(bytes)
+    return String(bytes, Charsets.UTF_8)
+  }
+}
@@ -0,0 +1,43 @@
+package com.gmail.jorgegilcavazos.ballislife.data.repository.gamethreads
+
+import com.gmail.jorgegilcavazos.ballislife.features.model.GameThreadSummary
+import com.gmail.jorgegilcavazos.ballislife.features.model.GameThreadType
+import com.gmail.jorgegilcavazos.ballislife.util.GameThreadTitleClassifier
+import java.util.*
+
+/**
+ * Game threads posted for a slate of games, indexed by the pair of teams and the type of thread
+ * their title is for, so that every game of the slate can be looked up without matching titles
+ * again.
+ */
+class GameThreadsIndex(threads: Collection<GameThreadSummary>) {
+
+  private val threadsByGame = HashMap<String, MutableList<GameThreadSummary>>()
+
+  init {
+    for (thread in threads) {
+      val classification = GameThreadTitleClassifier.classify(thread)
+      val type = classification.type ?: continue
+      val teams = classification.teams()
+      for (i in teams.indices) {
+        for (j in i + 1 until teams.size) {
+          threadsByGame.getOrPut(gameKey(teams[i].toString(), teams[j].toString(), type)) {
+            ArrayList()
+          }.add(thread)
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the threads of the given type whose title contains both teams, in the order they were
+   * received.
+   */
+  fun find(home: String, visitor: String, type: GameThreadType): List<GameThreadSummary> {
+    return threadsByGame[gameKey(home, visitor, type)] ?: emptyList()
+  }
+
+  private fun gameKey(team: String, otherTeam: String, type: GameThreadType): String {
+    return if (team < otherTeam) "$team-$otherTeam-$type" else "$otherTeam-$team-$type"
+  }
+}
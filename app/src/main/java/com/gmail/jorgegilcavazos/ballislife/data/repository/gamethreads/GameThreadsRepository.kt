@@ -1,10 +1,32 @@
 package com.gmail.jorgegilcavazos.ballislife.data.repository.gamethreads
 
+import com.gmail.jorgegilcavazos.ballislife.features.gamethread.CommentsDelta
 import com.gmail.jorgegilcavazos.ballislife.features.gamethread.GameThreadsUIModel
 import com.gmail.jorgegilcavazos.ballislife.features.model.GameThreadType
+import io.reactivex.Completable
 import io.reactivex.Observable
+import io.reactivex.Single
 
 interface GameThreadsRepository {
+  /**
+   * Returns the game thread of the given type for a game. If the thread was resolved before and
+   * its submission is still in memory, it is emitted right away before the fresh one.
+   */
   fun gameThreads(home: String, visitor: String, gameTimeUtc: Long, type: GameThreadType)
       : Observable<GameThreadsUIModel>
+
+  /**
+   * Resolves the game thread of the given type for a game and loads its submission into memory
+   * so that a later call to [gameThreads] can show it right away.
+   */
+  fun prefetchGameThread(home: String, visitor: String, gameTimeUtc: Long, type: GameThreadType)
+      : Completable
+
+  /**
+   * Returns the comments of a game thread newer than the comment with the given id, without
+   * downloading the whole thread. Every caller keeps its own id, starting from
+   * [CommentsDelta.newestCommentId] of the loaded thread and then the [CommentsDelta.newestId]
+   * of the last delta.
+   */
+  fun newComments(submissionId: String, newestCommentId: Long): Single<CommentsDelta>
 }
\ No newline at end of file
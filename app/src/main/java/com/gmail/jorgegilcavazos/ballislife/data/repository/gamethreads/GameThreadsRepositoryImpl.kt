@@ -3,19 +3,25 @@ package com.gmail.jorgegilcavazos.ballislife.data.repository.gamethreads
 import com.gmail.jorgegilcavazos.ballislife.data.reddit.RedditAuthentication
 import com.gmail.jorgegilcavazos.ballislife.data.repository.submissions.SubmissionRepository
 import com.gmail.jorgegilcavazos.ballislife.data.service.RedditGameThreadsService
+import com.gmail.jorgegilcavazos.ballislife.data.service.RedditService
+import com.gmail.jorgegilcavazos.ballislife.features.gamethread.CommentsDelta
 import com.gmail.jorgegilcavazos.ballislife.features.gamethread.GameThreadsUIModel
 import com.gmail.jorgegilcavazos.ballislife.features.model.GameThreadSummary
 import com.gmail.jorgegilcavazos.ballislife.features.model.GameThreadType
 import com.gmail.jorgegilcavazos.ballislife.features.model.GameThreadType.LIVE
 import com.gmail.jorgegilcavazos.ballislife.features.model.GameThreadType.POST
-import com.gmail.jorgegilcavazos.ballislife.features.model.SubmissionWrapper
 import com.gmail.jorgegilcavazos.ballislife.util.DateFormatUtil
 import com.gmail.jorgegilcavazos.ballislife.util.RedditUtils
-import com.gmail.jorgegilcavazos.ballislife.util.TeamName
 import com.gmail.jorgegilcavazos.ballislife.util.schedulers.BaseSchedulerProvider
+import io.reactivex.Completable
+import io.reactivex.Maybe
 import io.reactivex.Observable
 import io.reactivex.Single
+import net.dean.jraw.models.CommentNode
 import net.dean.jraw.models.CommentSort
+import net.dean.jraw.models.Submission
+import java.util.*
+import java.util.concurrent.TimeUnit
 import javax.inject.Inject
 import javax.inject.Singleton
 
@@ -23,79 +29,269 @@ import javax.inject.Singleton
 class GameThreadsRepositoryImpl @Inject constructor(
     private val threadsService: RedditGameThreadsService,
     private val submissionRepository: SubmissionRepository,
+    private val redditService: RedditService,
     private val redditAuthentication: RedditAuthentication,
+    private val threadIdCache: GameThreadIdCache,
     private val schedulerProvider: BaseSchedulerProvider) : GameThreadsRepository {
 
+  companion object {
+    const val NEW_COMMENTS_LIMIT = 100
+    const val SLATE_TTL_MILLIS = 60 * 1000L
+    const val HEDGE_DELAY_MILLIS = 1500L
+    const val RANK_BUCKET_SECONDS = 15 * 60L
+
+    /**
+     * Orders the candidate threads of a game from the most to the least likely to be its thread:
+     * the ones posted closest to the game time first and, among the ones posted within the same
+     * [RANK_BUCKET_SECONDS], the ones with the highest score first.
+     */
+    fun rankCandidates(threads: List<GameThreadSummary>, gameTimeUtc: Long)
+        : List<GameThreadSummary> {
+      return threads.sortedWith(
+          compareBy<GameThreadSummary> {
+            Math.abs(it.createdUtc - gameTimeUtc) / RANK_BUCKET_SECONDS
+          }.thenByDescending { it.score })
+    }
+
+    /**
+     * Start of the slate of the given game time, midnight eastern time of the day of the game.
+     */
+    fun slateStartUtc(gameTimeUtc: Long): Long {
+      val calendar = Calendar.getInstance(TimeZone.getTimeZone("America/New_York"))
+      calendar.timeInMillis = gameTimeUtc * 1000
+      calendar.set(Calendar.HOUR_OF_DAY, 0)
+      calendar.set(Calendar.MINUTE, 0)
+      calendar.set(Calendar.SECOND, 0)
+      calendar.set(Calendar.MILLISECOND, 0)
+      return calendar.timeInMillis / 1000
+    }
+
+    /**
+     * End of the slate of the given game time, late enough to include the post game threads of the
+     * last games of the day.
+     */
+    fun slateEndUtc(gameTimeUtc: Long): Long {
+      return DateFormatUtil.addHoursToTime(slateStartUtc(gameTimeUtc), 29)
+    }
+  }
+
+  private class Slate(val fetchedAtMillis: Long, val threads: Single<GameThreadsIndex>)
+
+  /**
+   * Threads of the slates fetched recently, keyed by [slateStartUtc].
+   */
+  private val slates = HashMap<Long, Slate>()
+
   override fun gameThreads(home: String, visitor: String, gameTimeUtc: Long, type: GameThreadType)
       : Observable<GameThreadsUIModel> {
-    return threadsNetworkSource(gameTimeUtc).toObservable()
+    return gameThreadsNetworkSource(home, visitor, gameTimeUtc, type)
+        .subscribeOn(schedulerProvider.io())
+        .observeOn(schedulerProvider.ui())
+        .startWith(Observable.defer { gameThreadsMemorySource(home, visitor, gameTimeUtc, type) })
+        .startWith(GameThreadsUIModel.inProgress())
+  }
+
+  override fun prefetchGameThread(
+      home: String,
+      visitor: String,
+      gameTimeUtc: Long,
+      type: GameThreadType): Completable {
+    return gameThreadsNetworkSource(home, visitor, gameTimeUtc, type)
+        .ignoreElements()
+        .subscribeOn(schedulerProvider.io())
+  }
+
+  override fun newComments(submissionId: String, newestCommentId: Long): Single<CommentsDelta> {
+    return redditAuthentication.authenticate()
+        .andThen(Single.defer {
+          redditService.getNewestComments(
+              redditAuthentication.redditClient, submissionId, NEW_COMMENTS_LIMIT)
+        })
+        .map { getCommentsDelta(newestCommentId, it) }
+        .subscribeOn(schedulerProvider.io())
+        .observeOn(schedulerProvider.ui())
+  }
+
+  /**
+   * Returns the comments of the given page of newest comments newer than the given one. The delta
+   * is complete if the page reaches a top level comment that was seen, or if it holds the whole
+   * thread: the page limit counts replies as well, so a page with fewer top level comments than
+   * the limit can still leave new comments out.
+   */
+  private fun getCommentsDelta(newestId: Long, newest: Submission): CommentsDelta {
+    val comments = getComments(newest)
+    val topLevelComments = comments.filter { it.comment.parentId.startsWith("t3_") }
+
+    val newComments = comments.filter { CommentsDelta.commentId(it) > newestId }
+    val reachedSeenComment = topLevelComments.any { CommentsDelta.commentId(it) <= newestId }
+    val root = newest.comments
+    val wholeThread = comments.size < NEW_COMMENTS_LIMIT
+        && root != null && !root.hasMoreComments() && comments.none { it.hasMoreComments() }
+    val complete = reachedSeenComment || wholeThread
+    val newNewestId = newComments.map { CommentsDelta.commentId(it) }.max() ?: newestId
+    return CommentsDelta(newComments, complete, newNewestId)
+  }
+
+  private fun getComments(submission: Submission): List<CommentNode> {
+    val comments = submission.comments?.walkTree()?.toList() ?: return emptyList()
+    return comments.filter { it.comment != null }
+  }
+
+  private fun gameThreadsMemorySource(
+      home: String,
+      visitor: String,
+      gameTimeUtc: Long,
+      type: GameThreadType): Observable<GameThreadsUIModel> {
+    val id = threadIdCache.getThreadId(threadKey(home, visitor, gameTimeUtc, type))
+        ?: return Observable.empty()
+    val submission = submissionRepository.getCachedSubmission(id)
+    return if (submission.isPresent) {
+      Observable.just(GameThreadsUIModel.found(submission.get()))
+    } else {
+      Observable.empty()
+    }
+  }
+
+  /**
+   * Loads the thread of the game straight from its id if it was resolved before, otherwise
+   * searches it among the threads posted around the game time.
+   */
+  private fun gameThreadsNetworkSource(
+      home: String,
+      visitor: String,
+      gameTimeUtc: Long,
+      type: GameThreadType): Observable<GameThreadsUIModel> {
+    return Observable.defer {
+      val key = threadKey(home, visitor, gameTimeUtc, type)
+      val threadId = threadIdCache.getThreadId(key)
+      when {
+        threadId != null -> {
+          redditAuthentication.authenticate()
+              .andThen(submissionRepository.getSubmission(threadId, getSort(type), true))
+              .toObservable()
+              .flatMap {
+                if (RedditUtils.isRemovedOrDeleted(it.submission!!)) {
+                  // The resolved thread is gone, look for another one.
+                  threadIdCache.remove(key)
+                  resolveGameThread(home, visitor, gameTimeUtc, type)
+                } else {
+                  Observable.just(GameThreadsUIModel.found(it.submission!!))
+                }
+              }
+        }
+        threadIdCache.isThreadMissing(key) -> Observable.just(GameThreadsUIModel.notFound())
+        else -> resolveGameThread(home, visitor, gameTimeUtc, type)
+      }
+    }
+  }
+
+  private fun resolveGameThread(
+      home: String,
+      visitor: String,
+      gameTimeUtc: Long,
+      type: GameThreadType): Observable<GameThreadsUIModel> {
+    val key = threadKey(home, visitor, gameTimeUtc, type)
+    return slateThreads(gameTimeUtc).toObservable()
         .flatMap {
-          val gameThreads = it.values.filter { isThreadForGame(it.title, home, visitor, type) }
+          val windowStart = DateFormatUtil.addHoursToTime(gameTimeUtc, -2)
+          val windowEnd = DateFormatUtil.addHoursToTime(gameTimeUtc, 5)
+          val gameThreads = it.find(home, visitor, type)
+              .filter { it.createdUtc in windowStart..windowEnd }
           if (gameThreads.isEmpty()) {
+            threadIdCache.saveThreadMissing(key)
             Observable.just(GameThreadsUIModel.notFound())
           } else {
-            val sort = when (type) {
-              LIVE -> CommentSort.NEW
-              POST -> CommentSort.TOP
-            }
-
-            val submissionObservables = gameThreads
-                .map { submissionRepository.getSubmission(it.id, sort, true).toObservable() }
-                .toList()
-
-            // Return found model of first non deleted thread or not found if there aren't any.
+            val candidates = rankCandidates(gameThreads, gameTimeUtc)
             redditAuthentication.authenticate()
-                .andThen(Observable.merge(submissionObservables))
-                .filter { !RedditUtils.isRemovedOrDeleted(it.submission!!) }
-                .first(SubmissionWrapper("", null, "", ""))
+                .andThen(Maybe.defer { firstAvailableThread(candidates, 0) })
                 .flatMapObservable {
-                  if (it.id.isEmpty()) {
-                    Observable.just(GameThreadsUIModel.notFound())
-                  } else {
-                    Observable.just(GameThreadsUIModel.found(it.submission!!))
-                  }
+                  // Only the winner has its comments downloaded.
+                  submissionRepository.getSubmission(it, getSort(type), true).toObservable()
+                }
+                .map {
+                  threadIdCache.saveThreadId(key, it.id)
+                  GameThreadsUIModel.found(it.submission!!)
                 }
+                .switchIfEmpty(Observable.fromCallable {
+                  threadIdCache.saveThreadMissing(key)
+                  GameThreadsUIModel.notFound()
+                })
           }
         }
-        .subscribeOn(schedulerProvider.io())
-        .observeOn(schedulerProvider.ui())
-        .startWith(GameThreadsUIModel.inProgress())
   }
 
-  private fun threadsNetworkSource(gameTimeUtc: Long): Single<Map<String, GameThreadSummary>> {
-    return threadsService.fetchGameThreads(
-        "\"created_utc\"",
-        DateFormatUtil.addHoursToTime(gameTimeUtc, -2),
-        DateFormatUtil.addHoursToTime(gameTimeUtc, 5))
+  /**
+   * Returns the id of the first candidate, starting at the given index, that wasn't removed or
+   * deleted. Candidates are checked one at a time, the next one is checked right away if the
+   * current one is gone or in parallel if the current one takes longer than [HEDGE_DELAY_MILLIS]
+   * to answer, whichever answers first that it is available wins. Fails only if no candidate is
+   * available and one of them failed to be checked.
+   */
+  private fun firstAvailableThread(candidates: List<GameThreadSummary>, index: Int)
+      : Maybe<String> {
+    if (index >= candidates.size) {
+      return Maybe.empty()
+    }
+    val id = candidates[index].id
+    val available = isThreadAvailable(id).toObservable().cache()
+    val found = available.filter { it }.map { id }
+    val gone = available.filter { !it }.map { 0L }.onErrorReturnItem(0L)
+    val hedgeDelay = Observable.timer(
+        HEDGE_DELAY_MILLIS, TimeUnit.MILLISECONDS, schedulerProvider.computation())
+    val next = Observable.merge(gone, hedgeDelay)
+        .take(1)
+        .flatMap { firstAvailableThread(candidates, index + 1).toObservable() }
+    return Observable.mergeDelayError(found, next).firstElement()
   }
 
-  private fun isThreadForGame(title: String, home: String, visitor: String, type: GameThreadType)
-      : Boolean {
-    val homeFullName = TeamName.values().find { it.toString() == home }
-    val visitorFullName = TeamName.values().find { it.toString() == visitor }
+  /**
+   * Checks whether a thread is still up without downloading its comments.
+   */
+  private fun isThreadAvailable(id: String): Single<Boolean> {
+    return Single.defer { redditService.getSubmissionInfo(redditAuthentication.redditClient, id) }
+        .map { !RedditUtils.isRemovedOrDeleted(it) }
+        .subscribeOn(schedulerProvider.io())
+  }
 
-    if (homeFullName == null) return false
-    if (visitorFullName == null) return false
+  private fun getSort(type: GameThreadType) = when (type) {
+    LIVE -> CommentSort.NEW
+    POST -> CommentSort.TOP
+  }
 
-    return when (type) {
-      LIVE -> {
-        val upperTitle = title.toUpperCase()
-        upperTitle.contains("GAME THREAD") && !upperTitle.contains("POST")
-            && titleContainsTeam(upperTitle, homeFullName.teamName)
-            && titleContainsTeam(upperTitle, visitorFullName.teamName)
-      }
-      POST -> {
-        val upperTitle = title.toUpperCase()
-        (upperTitle.contains("POST GAME THREAD") || upperTitle.contains("POST-GAME THREAD"))
-            && titleContainsTeam(upperTitle, homeFullName.teamName)
-            && titleContainsTeam(upperTitle, visitorFullName.teamName)
+  /**
+   * Key of the thread of a game, the date keeps apart games between the same teams.
+   */
+  private fun threadKey(home: String, visitor: String, gameTimeUtc: Long, type: GameThreadType) =
+      "$home-$visitor-${TimeUnit.SECONDS.toDays(gameTimeUtc)}-$type"
+
+  /**
+   * Returns the threads of the slate of the given game time. The threads of a slate are fetched
+   * once for all its games and kept for [SLATE_TTL_MILLIS], callers asking for a slate being
+   * fetched share the same request.
+   */
+  private fun slateThreads(gameTimeUtc: Long): Single<GameThreadsIndex> {
+    val slateStart = slateStartUtc(gameTimeUtc)
+    val now = System.currentTimeMillis()
+    synchronized(slates) {
+      val slate = slates[slateStart]
+      if (slate != null && now - slate.fetchedAtMillis < SLATE_TTL_MILLIS) {
+        return slate.threads
       }
-    }
-  }
 
-  private fun titleContainsTeam(upperTitle: String, teamFullName: String): Boolean {
-    val upperFullName = teamFullName.toUpperCase() // Ex. "SAN ANTONIO SPURS".
-    val upperTeamName = upperFullName.substring(upperFullName.lastIndexOf(" ") + 1) // Ex. "SPURS".
-    return upperTitle.contains(upperTeamName)
+      val threads = threadsService.fetchGameThreads(
+          "\"created_utc\"", slateStart, slateEndUtc(gameTimeUtc))
+          .map { GameThreadsIndex(it.values) }
+          .doOnError {
+            synchronized(slates) {
+              if (slates[slateStart]?.fetchedAtMillis == now) {
+                slates.remove(slateStart)
+              }
+            }
+          }
+          .cache()
+      slates.values.removeAll { now - it.fetchedAtMillis >= SLATE_TTL_MILLIS }
+      slates.put(slateStart, Slate(now, threads))
+      return threads
+    }
   }
-}
\ No newline at end of file
+}
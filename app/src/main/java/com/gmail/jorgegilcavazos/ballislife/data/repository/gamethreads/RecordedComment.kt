@@ -0,0 +1,17 @@
+package com.gmail.jorgegilcavazos.ballislife.data.repository.gamethreads
+
+/**
+ * A comment of a live game thread as it was seen while streaming. The [period] and [gameClock]
+ * are those of the game when the comment was posted, empty if they aren't known, e.g. for comments
+ * posted before streaming started.
+ */
+data class RecordedComment(
+    val id: String,
+    val author: String,
+    val bodyHtml: String,
+    val score: Int,
+    val depth: Int,
+    val createdMillis: Long,
+    val recordedAtMillis: Long,
+    val period: String,
+    val gameClock: String)
@@ -3,6 +3,7 @@ package com.gmail.jorgegilcavazos.ballislife.data.repository.submissions
 import com.gmail.jorgegilcavazos.ballislife.features.model.SubmissionWrapper
 import com.google.common.base.Optional
 import io.reactivex.Single
+import net.dean.jraw.models.CommentNode
 import net.dean.jraw.models.CommentSort
 import net.dean.jraw.models.Submission
 
@@ -11,9 +12,26 @@ import net.dean.jraw.models.Submission
  * @see SubmissionWrapper
  */
 interface SubmissionRepository {
+  /**
+   * Number of submissions found in memory.
+   */
+  val hitCount: Int
+
+  /**
+   * Number of submissions looked up but not found in memory, forced reloads aren't counted.
+   */
+  val missCount: Int
+
+  /**
+   * Number of submissions dropped from memory to make room for others.
+   */
+  val evictionCount: Int
+
   /**
    * Returns a [SubmissionWrapper] that matches the given id and comment sort.
-   * A cached submission will be returned if available unless a forceReload is specified.
+   * A cached submission will be returned if available unless a forceReload is specified. If
+   * the cached submission has all its comments loaded but in another sort, they are sorted again
+   * locally and returned in [SubmissionWrapper.sortedComments] instead of reloading them.
    */
   fun getSubmission(
       id: String,
@@ -27,6 +45,13 @@ interface SubmissionRepository {
    * */
   fun getCachedSubmission(id: String): Optional<Submission>
 
+  /**
+   * Loads the replies missing from the given comments of a submission into its comment tree, so
+   * that the cached submission includes them. Emits the comments whose replies were loaded.
+   */
+  fun loadMoreComments(submissionId: String, parents: List<CommentNode>)
+      : Single<List<CommentNode>>
+
     fun saveSubmission(submissionWrapper: SubmissionWrapper)
 
     fun reset()
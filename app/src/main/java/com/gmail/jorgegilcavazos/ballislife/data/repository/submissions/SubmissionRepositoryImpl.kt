@@ -3,8 +3,11 @@ package com.gmail.jorgegilcavazos.ballislife.data.repository.submissions
 import com.gmail.jorgegilcavazos.ballislife.data.reddit.RedditAuthentication
 import com.gmail.jorgegilcavazos.ballislife.data.service.RedditService
 import com.gmail.jorgegilcavazos.ballislife.features.model.SubmissionWrapper
+import com.gmail.jorgegilcavazos.ballislife.util.CommentTreeSorter
 import com.google.common.base.Optional
+import io.reactivex.Observable
 import io.reactivex.Single
+import net.dean.jraw.models.CommentNode
 import net.dean.jraw.models.CommentSort
 import net.dean.jraw.models.Submission
 import java.util.*
@@ -13,41 +16,134 @@ import javax.inject.Singleton
 
 /**
  * Implementation of the [SubmissionRepository] interface. Stores [SubmissionWrapper]s in a map
- * keyed by their id.
- * TODO: should there be a limit to how many submissions are cached?
+ * keyed by their id, in least recently used order. Every submission weighs one plus the number
+ * of its loaded comments, since its comment tree is most of the memory it takes, and the least
+ * recently used ones are evicted once the cache weighs more than [MAX_CACHE_WEIGHT]. The most
+ * recent submission is always kept whatever it weighs.
  */
 @Singleton
 class SubmissionRepositoryImpl
 @Inject constructor(
     val redditAuthentication: RedditAuthentication,
     val redditService: RedditService) : SubmissionRepository {
-  private val idToSubmissionMap = HashMap<String, SubmissionWrapper>()
+
+  companion object {
+    const val MAX_CACHE_WEIGHT = 10000
+  }
+
+  private class Entry(val wrapper: SubmissionWrapper, val weight: Int)
+
+  private val idToSubmissionMap = LinkedHashMap<String, Entry>(16, 0.75f, true)
+  private var cacheWeight = 0
+
+  override var hitCount = 0
+    @Synchronized get
+    private set
+
+  override var missCount = 0
+    @Synchronized get
+    private set
+
+  override var evictionCount = 0
+    @Synchronized get
+    private set
 
   override fun getSubmission(
       id: String,
       sort: CommentSort,
       forceReload: Boolean): Single<SubmissionWrapper> {
-    // Use submission in cache if available and has the right comment sorting.
-    if (!forceReload && idToSubmissionMap[id] != null && idToSubmissionMap[id]?.sort == sort) {
-      return Single.just(idToSubmissionMap[id])
+    val cached = if (forceReload) null else get(id)
+    if (cached != null) {
+      // Use submission in cache if available and has the right comment sorting.
+      if (cached.sort == sort) {
+        return Single.just(cached)
+      }
+      // Or sort its comments again if all of them were loaded, the sort takes a pass over the
+      // whole tree so it is deferred to the thread the caller subscribes on. The sorted comments
+      // go in a copy, the cached submission may be in use by other threads.
+      val comments = cached.submission?.comments
+      if (comments != null && CommentTreeSorter.canSortLocally(sort)) {
+        return Single.defer {
+          if (CommentTreeSorter.isFullyLoaded(comments)) {
+            Single.just(cached.withSortedComments(sort, CommentTreeSorter.sort(comments, sort)))
+          } else {
+            fetchSubmission(id, sort)
+          }
+        }
+      }
+    }
+    return fetchSubmission(id, sort)
+  }
+
+  @Synchronized
+  private fun get(id: String): SubmissionWrapper? {
+    val entry = idToSubmissionMap[id]
+    if (entry == null) {
+      missCount++
+    } else {
+      hitCount++
     }
+    return entry?.wrapper
+  }
+
+  @Synchronized
+  private fun put(wrapper: SubmissionWrapper) {
+    val weight = 1 + (wrapper.submission?.comments?.walkTree()?.size() ?: 0)
+    val previous = idToSubmissionMap.put(wrapper.id, Entry(wrapper, weight))
+    cacheWeight += weight - (previous?.weight ?: 0)
+
+    val iterator = idToSubmissionMap.values.iterator()
+    while (cacheWeight > MAX_CACHE_WEIGHT && idToSubmissionMap.size > 1) {
+      cacheWeight -= iterator.next().weight
+      iterator.remove()
+      evictionCount++
+    }
+  }
+
+  private fun fetchSubmission(id: String, sort: CommentSort): Single<SubmissionWrapper> {
     return redditService.getSubmission(redditAuthentication.redditClient, id, sort)
         .flatMap { s: Submission ->
           val wrapper = SubmissionWrapper(s)
           wrapper.sort = sort
-          idToSubmissionMap[wrapper.id] = wrapper
+          put(wrapper)
           Single.just(wrapper)
         }
   }
 
+  @Synchronized
   override fun getCachedSubmission(id: String): Optional<Submission> {
-    val submission = idToSubmissionMap[id]?.submission
-    return Optional.of(submission)
+    val submission = idToSubmissionMap[id]?.wrapper?.submission
+    return Optional.fromNullable(submission)
+  }
+
+  override fun loadMoreComments(submissionId: String, parents: List<CommentNode>)
+      : Single<List<CommentNode>> {
+    return Observable.fromIterable(parents)
+        .filter { it.hasMoreComments() }
+        .concatMap {
+          redditService.loadMoreComments(redditAuthentication.redditClient, it)
+              .andThen(Observable.just(it))
+        }
+        .toList()
+        .doOnSuccess { reweigh(submissionId) }
+  }
+
+  /**
+   * Weighs a cached submission again after its comment tree grew.
+   */
+  @Synchronized
+  private fun reweigh(id: String) {
+    val entry = idToSubmissionMap[id] ?: return
+    put(entry.wrapper)
   }
 
   override fun saveSubmission(submissionWrapper: SubmissionWrapper) {
-    idToSubmissionMap[submissionWrapper.id] = submissionWrapper
+    put(submissionWrapper)
   }
 
-  override fun reset() = idToSubmissionMap.clear()
+  @Synchronized
+  override fun reset() {
+    idToSubmissionMap.clear()
+    cacheWeight = 0
+  }
 }
\ No newline at end of file
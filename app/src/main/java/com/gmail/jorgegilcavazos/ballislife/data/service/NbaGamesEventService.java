@@ -0,0 +1,19 @@
+package com.gmail.jorgegilcavazos.ballislife.data.service;
+
+import com.gmail.jorgegilcavazos.ballislife.features.model.FirebaseEvent;
+
+import io.reactivex.Observable;
+
+/**
+ * Streams changes to the games in Firebase using the REST API's event streams, see
+ * https://firebase.google.com/docs/reference/rest/database/#section-streaming.
+ */
+public interface NbaGamesEventService {
+
+    /**
+     * Returns an Rx Observable that emits the put and patch events of the games in the given
+     * range. The first event contains every game in the range. The observable blocks the thread it
+     * is subscribed on and errors when the connection is closed or the stream is cancelled.
+     */
+    Observable<FirebaseEvent> gameEvents(String orderBy, long startAt, long endAt);
+}
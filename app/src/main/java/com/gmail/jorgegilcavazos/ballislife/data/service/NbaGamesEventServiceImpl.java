@@ -0,0 +1,103 @@
+package com.gmail.jorgegilcavazos.ballislife.data.service;
+
+import com.gmail.jorgegilcavazos.ballislife.features.model.FirebaseEvent;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import io.reactivex.Observable;
+import okhttp3.Call;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okio.BufferedSource;
+
+@Singleton
+public class NbaGamesEventServiceImpl implements NbaGamesEventService {
+    private static final String GAMES_PATH = "games/2017-18/.json";
+    private static final String EVENT_PREFIX = "event:";
+    private static final String DATA_PREFIX = "data:";
+    private static final String EVENT_CANCEL = "cancel";
+    private static final String EVENT_AUTH_REVOKED = "auth_revoked";
+
+    // Firebase sends a keep-alive event every 30 seconds.
+    private static final long READ_TIMEOUT_SECONDS = 60;
+
+    private final OkHttpClient okHttpClient;
+    private final Gson gson;
+    private final HttpUrl baseUrl;
+
+    @Inject
+    public NbaGamesEventServiceImpl(OkHttpClient okHttpClient, Gson gson,
+                                    @Named("baseUrl") String baseUrl) {
+        // The logging interceptor reads whole bodies, which never end for an event stream.
+        OkHttpClient.Builder builder = okHttpClient.newBuilder()
+                .readTimeout(READ_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        builder.interceptors().clear();
+        this.okHttpClient = builder.build();
+        this.gson = gson;
+        this.baseUrl = HttpUrl.parse(baseUrl);
+    }
+
+    @Override
+    public Observable<FirebaseEvent> gameEvents(String orderBy, long startAt, long endAt) {
+        HttpUrl url = baseUrl.resolve(GAMES_PATH).newBuilder()
+                .addQueryParameter("orderBy", orderBy)
+                .addQueryParameter("startAt", String.valueOf(startAt))
+                .addQueryParameter("endAt", String.valueOf(endAt))
+                .build();
+        Request request = new Request.Builder()
+                .url(url)
+                .header("Accept", "text/event-stream")
+                .build();
+
+        return Observable.create(e -> {
+            Call call = okHttpClient.newCall(request);
+            e.setCancellable(call::cancel);
+
+            try (Response response = call.execute()) {
+                if (!response.isSuccessful()) {
+                    throw new IOException("Unexpected response code " + response.code());
+                }
+
+                BufferedSource source = response.body().source();
+                String eventType = null;
+                String line;
+                while ((line = source.readUtf8Line()) != null) {
+                    if (line.startsWith(EVENT_PREFIX)) {
+                        eventType = line.substring(EVENT_PREFIX.length()).trim();
+                    } else if (line.startsWith(DATA_PREFIX) && eventType != null) {
+                        String data = line.substring(DATA_PREFIX.length()).trim();
+                        if (eventType.equals(FirebaseEvent.PUT)
+                                || eventType.equals(FirebaseEvent.PATCH)) {
+                            JsonObject json = gson.fromJson(data, JsonObject.class);
+                            e.onNext(new FirebaseEvent(
+                                    eventType,
+                                    json.get("path").getAsString(),
+                                    json.get("data")));
+                        } else if (eventType.equals(EVENT_CANCEL)
+                                || eventType.equals(EVENT_AUTH_REVOKED)) {
+                            throw new IOException("Stream " + eventType + ": " + data);
+                        }
+                    } else if (line.isEmpty()) {
+                        eventType = null;
+                    }
+                }
+                throw new EOFException("Stream closed");
+            } catch (IOException | JsonParseException ex) {
+                if (!e.isDisposed()) {
+                    e.onError(ex);
+                }
+            }
+        });
+    }
+}
@@ -77,6 +77,28 @@ public interface RedditService {
      */
     Single<Submission> getSubmission(RedditClient redditClient, String threadId, CommentSort sort);
 
+    /**
+     * Returns an Rx Single that emits a submission with only its newest comments.
+     *
+     * @param threadId of the submission to fetch
+     * @param limit    maximum number of comments to retrieve
+     */
+    Single<Submission> getNewestComments(RedditClient redditClient, String threadId, int limit);
+
+    /**
+     * Returns an Rx Single that emits a submission with at most one of its comments, enough to
+     * tell whether it was removed or deleted without downloading its comments.
+     *
+     * @param threadId of the submission to fetch
+     */
+    Single<Submission> getSubmissionInfo(RedditClient redditClient, String threadId);
+
+    /**
+     * Returns an Rx Completable that loads the replies of a comment that weren't loaded with its
+     * submission into its comment tree.
+     */
+    Completable loadMoreComments(RedditClient redditClient, CommentNode parent);
+
     /**
      * Returns an Rx Single that emits a listing of the next page of Submission given a paginator.
      */
@@ -197,6 +197,61 @@ public class RedditServiceImpl implements RedditService {
         });
     }
 
+    @Override
+    public Single<Submission> getNewestComments(
+            final RedditClient redditClient,
+            final String threadId,
+            final int limit) {
+        return Single.create(e -> {
+            SubmissionRequest submissionRequest = new SubmissionRequest.Builder(threadId)
+                    .sort(CommentSort.NEW)
+                    .limit(limit)
+                    .build();
+            try {
+                e.onSuccess(redditClient.getSubmission(submissionRequest));
+            } catch (Exception ex) {
+                if (!e.isDisposed()) {
+                    e.onError(ex);
+                }
+            }
+        });
+    }
+
+    @Override
+    public Single<Submission> getSubmissionInfo(
+            final RedditClient redditClient,
+            final String threadId) {
+        return Single.create(e -> {
+            SubmissionRequest submissionRequest = new SubmissionRequest.Builder(threadId)
+                    .limit(1)
+                    .depth(1)
+                    .build();
+            try {
+                e.onSuccess(redditClient.getSubmission(submissionRequest));
+            } catch (Exception ex) {
+                if (!e.isDisposed()) {
+                    e.onError(ex);
+                }
+            }
+        });
+    }
+
+    @Override
+    public Completable loadMoreComments(
+            final RedditClient redditClient,
+            final CommentNode parent) {
+        return Completable.create(e -> {
+            try {
+                parent.loadMoreComments(redditClient);
+                e.onComplete();
+            } catch (Exception ex) {
+                if (!e.isDisposed()) {
+                    e.onError(ex);
+                }
+            }
+        });
+    }
+
     @Override
     public Single<Listing<Submission>> getSubmissionListing(final SubredditPaginator paginator) {
         return Single.create(e -> {
@@ -17,7 +17,7 @@ import android.widget.TableRow;
 import android.widget.TextView;
 
 import com.gmail.jorgegilcavazos.ballislife.R;
-import com.gmail.jorgegilcavazos.ballislife.data.service.NbaGamesService;
+import com.gmail.jorgegilcavazos.ballislife.data.repository.boxscore.BoxScoreRepository;
 import com.gmail.jorgegilcavazos.ballislife.features.application.BallIsLifeApplication;
 import com.gmail.jorgegilcavazos.ballislife.features.gamethread.CommentsActivity;
 import com.gmail.jorgegilcavazos.ballislife.features.model.BoxScoreValues;
@@ -25,7 +25,6 @@ import com.gmail.jorgegilcavazos.ballislife.features.model.StatLine;
 import com.gmail.jorgegilcavazos.ballislife.util.UnitUtils;
 import com.gmail.jorgegilcavazos.ballislife.util.schedulers.BaseSchedulerProvider;
 import com.google.common.base.Optional;
-import com.jakewharton.retrofit2.adapter.rxjava2.RxJava2CallAdapterFactory;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -36,8 +35,6 @@ import butterknife.BindView;
 import butterknife.ButterKnife;
 import butterknife.OnClick;
 import butterknife.Unbinder;
-import retrofit2.Retrofit;
-import retrofit2.converter.gson.GsonConverterFactory;
 
 import static android.view.ViewGroup.LayoutParams.MATCH_PARENT;
 import static android.view.ViewGroup.LayoutParams.WRAP_CONTENT;
@@ -53,6 +50,8 @@ public class BoxScoreFragment extends Fragment implements BoxScoreView {
     public static final int LOAD_HOME = 2;
     @Inject
     BaseSchedulerProvider schedulerProvider;
+    @Inject
+    BoxScoreRepository boxScoreRepository;
 
     @BindView(R.id.button_home) Button btnHome;
     @BindView(R.id.button_away) Button btnAway;
@@ -94,17 +93,9 @@ public class BoxScoreFragment extends Fragment implements BoxScoreView {
         btnAway.setText(awayTeam);
         btnHome.setText(homeTeam);
 
-        Retrofit retrofit = new Retrofit.Builder()
-                .baseUrl("https://nba-app-ca681.firebaseio.com/")
-                .addCallAdapterFactory(RxJava2CallAdapterFactory.create())
-                .addConverterFactory(GsonConverterFactory.create())
-                .build();
-
-        NbaGamesService gamesService = retrofit.create(NbaGamesService.class);
-
-        presenter = new BoxScorePresenter(this, gamesService, schedulerProvider);
+        presenter = new BoxScorePresenter(this, boxScoreRepository, schedulerProvider);
         presenter.start();
-        presenter.loadBoxScore(gameId, teamSelected);
+        presenter.loadBoxScore(gameId, teamSelected, false);
 
         return view;
     }
@@ -120,7 +111,7 @@ public class BoxScoreFragment extends Fragment implements BoxScoreView {
     public boolean onOptionsItemSelected(MenuItem item) {
         switch (item.getItemId()) {
             case R.id.action_refresh:
-                presenter.loadBoxScore(gameId, teamSelected);
+                presenter.loadBoxScore(gameId, teamSelected, true);
                 return true;
         }
         return super.onOptionsItemSelected(item);
@@ -134,7 +125,7 @@ public class BoxScoreFragment extends Fragment implements BoxScoreView {
         btnHome.setTextColor(ContextCompat.getColor(getActivity(), R.color.black));
 
         teamSelected = LOAD_AWAY;
-        presenter.loadBoxScore(gameId, teamSelected);
+        presenter.loadBoxScore(gameId, teamSelected, false);
     }
 
     @OnClick(R.id.button_home)
@@ -145,7 +136,7 @@ public class BoxScoreFragment extends Fragment implements BoxScoreView {
         btnAway.setTextColor(ContextCompat.getColor(getActivity(), R.color.black));
 
         teamSelected = LOAD_HOME;
-        presenter.loadBoxScore(gameId, teamSelected);
+        presenter.loadBoxScore(gameId, teamSelected, false);
     }
 
     @Override
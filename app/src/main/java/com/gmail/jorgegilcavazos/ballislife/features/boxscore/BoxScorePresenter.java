@@ -1,6 +1,6 @@
 package com.gmail.jorgegilcavazos.ballislife.features.boxscore;
 
-import com.gmail.jorgegilcavazos.ballislife.data.service.NbaGamesService;
+import com.gmail.jorgegilcavazos.ballislife.data.repository.boxscore.BoxScoreRepository;
 import com.gmail.jorgegilcavazos.ballislife.features.model.BoxScoreValues;
 import com.gmail.jorgegilcavazos.ballislife.util.schedulers.BaseSchedulerProvider;
 
@@ -10,14 +10,14 @@ import io.reactivex.observers.DisposableSingleObserver;
 public class BoxScorePresenter {
 
     private BoxScoreView view;
-    private NbaGamesService nbaService;
+    private BoxScoreRepository boxScoreRepository;
     private BaseSchedulerProvider schedulerProvider;
     private CompositeDisposable disposables;
 
-    public BoxScorePresenter(BoxScoreView view, NbaGamesService nbaService,
+    public BoxScorePresenter(BoxScoreView view, BoxScoreRepository boxScoreRepository,
                              BaseSchedulerProvider schedulerProvider) {
         this.view = view;
-        this.nbaService = nbaService;
+        this.boxScoreRepository = boxScoreRepository;
         this.schedulerProvider = schedulerProvider;
     }
 
@@ -25,12 +25,12 @@ public class BoxScorePresenter {
         disposables = new CompositeDisposable();
     }
 
-    public void loadBoxScore(String gameId, final int teamSelected) {
+    public void loadBoxScore(String gameId, final int teamSelected, boolean forceReload) {
         view.setLoadingIndicator(true);
         view.hideBoxScore();
         view.hideLoadMessage();
         disposables.clear();
-        disposables.add(nbaService.boxScore(gameId)
+        disposables.add(boxScoreRepository.boxScore(gameId, forceReload)
                 .subscribeOn(schedulerProvider.io())
                 .observeOn(schedulerProvider.ui())
                 .subscribeWith(new DisposableSingleObserver<BoxScoreValues>() {
@@ -4,7 +4,6 @@ import android.content.Context;
 import android.graphics.Typeface;
 import android.support.v4.content.ContextCompat;
 import android.support.v7.widget.RecyclerView;
-import android.text.Html;
 import android.text.Layout;
 import android.text.Spannable;
 import android.text.style.ClickableSpan;
@@ -20,7 +19,7 @@ import com.gmail.jorgegilcavazos.ballislife.data.reddit.RedditAuthentication;
 import com.gmail.jorgegilcavazos.ballislife.features.model.SubmissionWrapper;
 import com.gmail.jorgegilcavazos.ballislife.util.DateFormatUtil;
 import com.gmail.jorgegilcavazos.ballislife.util.Pair;
-import com.gmail.jorgegilcavazos.ballislife.util.RedditUtils;
+import com.gmail.jorgegilcavazos.ballislife.util.RenderedTextCache;
 import com.gmail.jorgegilcavazos.ballislife.util.Utilities;
 import com.google.common.base.Optional;
 import com.squareup.picasso.Picasso;
@@ -56,25 +55,26 @@ public class FullCardViewHolder extends RecyclerView.ViewHolder {
 
     public void bindData(
             final Context context,
-            final RedditAuthentication redditAuthentication, final SubmissionWrapper
-                    submissionWrapper,
+            final RedditAuthentication redditAuthentication,
+            RenderedTextCache textCache,
+            final SubmissionWrapper submissionWrapper,
             boolean isDisplayedInList,
             final OnSubmissionClickListener submissionClickListener) {
 
-        String title, author, commentCount, score, selfTextHtml, domain, thumbnail,
-                highResThumbnail, thumbnailToShow;
+        String author, commentCount, score, domain, thumbnail, highResThumbnail, thumbnailToShow;
+        CharSequence title, selfText;
         final String url;
         boolean isSelf, isStickied, isSaved;
         VoteDirection vote;
         long timestamp;
 
         // Get data from real submission if available, otherwise used data from fake one.
-        title = submissionWrapper.getTitle();
+        title = textCache.title(submissionWrapper);
         author = submissionWrapper.getAuthor();
         timestamp = submissionWrapper.getCreated();
         commentCount = String.valueOf(submissionWrapper.getCommentCount());
         score = String.valueOf(submissionWrapper.getScore());
-        selfTextHtml = submissionWrapper.getSelfTextHtml();
+        selfText = textCache.selfText(submissionWrapper);
         domain = submissionWrapper.getDomain();
         url = submissionWrapper.getUrl();
         isSelf = submissionWrapper.isSelfPost();
@@ -87,11 +87,7 @@ public class FullCardViewHolder extends RecyclerView.ViewHolder {
         thumbnailToShow = thumbnailTypeUrl.isPresent() ? thumbnailTypeUrl.get().second : null;
 
         // Bind data to views.
-        if (android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.N) {
-            tvTitle.setText(Html.fromHtml(title, Html.FROM_HTML_MODE_LEGACY));
-        } else {
-            tvTitle.setText(Html.fromHtml(title));
-        }
+        tvTitle.setText(title);
 
         tvAuthor.setText(author);
         tvTimestamp.setText(DateFormatUtil.formatRedditDate(new Date(timestamp)));
@@ -131,9 +127,9 @@ public class FullCardViewHolder extends RecyclerView.ViewHolder {
         });
 
         if (isSelf) {
-            if (!isDisplayedInList && selfTextHtml != null) {
+            if (!isDisplayedInList && selfText != null) {
                 tvBody.setVisibility(View.VISIBLE);
-                tvBody.setText(RedditUtils.bindSnuDown(selfTextHtml));
+                tvBody.setText(selfText);
             } else {
                 tvBody.setVisibility(View.GONE);
             }
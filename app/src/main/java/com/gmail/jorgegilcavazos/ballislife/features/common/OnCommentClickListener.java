@@ -1,6 +1,7 @@
 package com.gmail.jorgegilcavazos.ballislife.features.common;
 
 import net.dean.jraw.models.Comment;
+import net.dean.jraw.models.CommentNode;
 import net.dean.jraw.models.VoteDirection;
 
 public interface OnCommentClickListener {
@@ -12,4 +13,6 @@ public interface OnCommentClickListener {
     void onUnsaveComment(Comment comment);
 
     void onReplyToComment(int position, Comment parentComment);
+
+    void onLoadMoreComments(CommentNode parent);
 }
@@ -4,7 +4,6 @@ import android.content.Context;
 import android.graphics.Typeface;
 import android.support.v4.content.ContextCompat;
 import android.support.v7.widget.RecyclerView;
-import android.text.Html;
 import android.view.View;
 import android.widget.ImageButton;
 import android.widget.ImageView;
@@ -15,6 +14,7 @@ import com.gmail.jorgegilcavazos.ballislife.data.reddit.RedditAuthentication;
 import com.gmail.jorgegilcavazos.ballislife.features.model.SubmissionWrapper;
 import com.gmail.jorgegilcavazos.ballislife.util.Constants;
 import com.gmail.jorgegilcavazos.ballislife.util.DateFormatUtil;
+import com.gmail.jorgegilcavazos.ballislife.util.RenderedTextCache;
 import com.squareup.picasso.Picasso;
 
 import net.dean.jraw.models.VoteDirection;
@@ -45,11 +45,12 @@ public class PostListViewHolder extends RecyclerView.ViewHolder {
     }
 
     public void bindData(final Context context,
-                         final RedditAuthentication redditAuthentication, final SubmissionWrapper
-                                 submissionWrapper,
+                         final RedditAuthentication redditAuthentication,
+                         RenderedTextCache textCache,
+                         final SubmissionWrapper submissionWrapper,
                          boolean isDisplayedInList,
                          final OnSubmissionClickListener submissionClickListener) {
-        String title = submissionWrapper.getTitle();
+        CharSequence title = textCache.title(submissionWrapper);
         String author = submissionWrapper.getAuthor();
         long timestamp = submissionWrapper.getCreated();
         int commentCount = submissionWrapper.getCommentCount();
@@ -67,11 +68,7 @@ public class PostListViewHolder extends RecyclerView.ViewHolder {
         // Show low res thumbnail over lower res version.
         String thumbnailToShow = thumbnail;
 
-        if (android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.N) {
-            tvTitle.setText(Html.fromHtml(title, Html.FROM_HTML_MODE_LEGACY));
-        } else {
-            tvTitle.setText(Html.fromHtml(title));
-        }
+        tvTitle.setText(title);
 
         tvAuthor.setText(author);
         tvTimestamp.setText(DateFormatUtil.formatRedditDate(new Date(timestamp)));
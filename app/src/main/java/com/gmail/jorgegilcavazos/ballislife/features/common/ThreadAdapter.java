@@ -2,6 +2,8 @@ package com.gmail.jorgegilcavazos.ballislife.features.common;
 
 import android.content.Context;
 import android.support.v4.content.ContextCompat;
+import android.support.v7.util.DiffUtil;
+import android.support.v7.util.ListUpdateCallback;
 import android.support.v7.widget.RecyclerView;
 import android.text.Layout;
 import android.text.Spannable;
@@ -17,17 +19,23 @@ import android.widget.TextView;
 
 import com.gmail.jorgegilcavazos.ballislife.R;
 import com.gmail.jorgegilcavazos.ballislife.data.reddit.RedditAuthentication;
+import com.gmail.jorgegilcavazos.ballislife.features.gamethread.ThreadItemsUpdate;
 import com.gmail.jorgegilcavazos.ballislife.features.model.SubmissionWrapper;
 import com.gmail.jorgegilcavazos.ballislife.features.model.ThreadItem;
 import com.gmail.jorgegilcavazos.ballislife.util.DateFormatUtil;
 import com.gmail.jorgegilcavazos.ballislife.util.RedditUtils;
+import com.gmail.jorgegilcavazos.ballislife.util.RenderedTextCache;
 
 import net.dean.jraw.models.Comment;
 import net.dean.jraw.models.CommentNode;
 import net.dean.jraw.models.Submission;
 import net.dean.jraw.models.VoteDirection;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 
 import butterknife.BindView;
 import butterknife.ButterKnife;
@@ -52,6 +60,7 @@ public class ThreadAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
     public static final int TYPE_LOAD_MORE = 2;
 
     private RedditAuthentication redditAuthentication;
+    private RenderedTextCache textCache;
     private Context context;
     private List<ThreadItem> commentsList;
     private boolean hasHeader;
@@ -68,12 +77,14 @@ public class ThreadAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
 
     public ThreadAdapter(Context context,
             RedditAuthentication redditAuthentication,
+            RenderedTextCache textCache,
             List<ThreadItem> commentsList,
                          boolean hasHeader) {
         this.context = context;
         this.commentsList = commentsList;
         this.hasHeader = hasHeader;
         this.redditAuthentication = redditAuthentication;
+        this.textCache = textCache;
     }
 
     public void setCommentClickListener(OnCommentClickListener commentClickListener) {
@@ -116,18 +127,19 @@ public class ThreadAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
     public void onBindViewHolder(RecyclerView.ViewHolder holder, final int position) {
         if (holder instanceof FullCardViewHolder) {
             ((FullCardViewHolder) holder).bindData(
-                    context, redditAuthentication, submissionWrapper,
+                    context, redditAuthentication, textCache, submissionWrapper,
                     false,
                     submissionClickListener);
         } else if (holder instanceof CommentViewHolder) {
             final CommentViewHolder commentHolder = (CommentViewHolder) holder;
 
-            final CommentNode commentNode;
+            final ThreadItem item;
             if (hasHeader && submissionWrapper != null) {
-                commentNode = commentsList.get(position - 1).getCommentNode();
+                item = commentsList.get(position - 1);
             } else {
-                commentNode = commentsList.get(position).getCommentNode();
+                item = commentsList.get(position);
             }
+            final CommentNode commentNode = item.getCommentNode();
             if (commentNode == null) {
                 throw new IllegalStateException("CommentNode should not be null");
             }
@@ -136,19 +148,27 @@ public class ThreadAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
                     commentNode,
                     commentClickListener,
                     redditAuthentication,
+                    textCache,
                     commentSaves,
                     commentUnsaves,
                     upvotes,
                     downvotes,
                     novotes,
                     replies);
+            commentHolder.bodyTextView.setVisibility(item.isCollapsed() ? View.GONE : View.VISIBLE);
+            commentHolder.commentContentLayout.setOnLongClickListener(v -> {
+                toggleCollapsed(commentHolder.getAdapterPosition());
+                return true;
+            });
         } else if (holder instanceof LoadMoreCommentsHolder) {
+            ThreadItem item;
             if (hasHeader) {
-                ((LoadMoreCommentsHolder) holder).bindData(commentsList.get(position - 1)
-                        .getDepth());
+                item = commentsList.get(position - 1);
             } else {
-                ((LoadMoreCommentsHolder) holder).bindData(commentsList.get(position).getDepth());
+                item = commentsList.get(position);
             }
+            ((LoadMoreCommentsHolder) holder).bindData(
+                    item.getDepth(), item.getCommentNode(), commentClickListener);
         }
     }
 
@@ -185,6 +205,114 @@ public class ThreadAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
         notifyDataSetChanged();
     }
 
+    /**
+     * Displays the items of the given update dispatching only its changes. Falls back to
+     * {@link #setData(List)} if the displayed items aren't the ones the update was calculated
+     * from anymore.
+     */
+    public void setData(ThreadItemsUpdate update) {
+        if (!isDisplaying(update.getPreviousItems())
+                || (hasHeader && submissionWrapper == null)) {
+            setData(update.getItems());
+            return;
+        }
+
+        commentsList.clear();
+        commentsList.addAll(update.getItems());
+        // Item positions are offset by the header.
+        dispatchUpdates(update.getDiff(), hasHeader ? 1 : 0);
+    }
+
+    /**
+     * Replaces the displayed replies of the given comment, and its "load more" item, with the
+     * given items, e.g. after its missing replies were loaded. Only the replies that were
+     * inserted or removed are notified.
+     */
+    public void setReplies(CommentNode parent, List<ThreadItem> replies) {
+        int parentPosition = -1;
+        for (int i = 0; i < commentsList.size(); i++) {
+            ThreadItem item = commentsList.get(i);
+            if (item.getType() == TYPE_COMMENT && item.getCommentNode() == parent) {
+                parentPosition = i;
+                break;
+            }
+        }
+        if (parentPosition == -1) {
+            return;
+        }
+
+        ThreadItem parentItem = commentsList.get(parentPosition);
+        for (ThreadItem reply : replies) {
+            if (reply.getParent() == null) {
+                reply.setParent(parentItem);
+            }
+        }
+        if (parentItem.isCollapsed()) {
+            // The replies show up once the comment is expanded.
+            parentItem.setCollapsedItems(new ArrayList<>(replies));
+            return;
+        }
+
+        int start = parentPosition + 1;
+        List<ThreadItem> displayedReplies =
+                commentsList.subList(start, start + parentItem.getSubtreeSize());
+        DiffUtil.DiffResult diff = DiffUtil.calculateDiff(
+                new ThreadItemDiffCallback(new ArrayList<>(displayedReplies), replies), false);
+        int delta = replies.size() - displayedReplies.size();
+        displayedReplies.clear();
+        commentsList.addAll(start, replies);
+        ThreadItemCollapser.resize(parentItem, delta);
+        dispatchUpdates(diff, start + (hasHeader ? 1 : 0));
+    }
+
+    private void dispatchUpdates(DiffUtil.DiffResult diff, final int offset) {
+        if (offset == 0) {
+            diff.dispatchUpdatesTo(this);
+            return;
+        }
+
+        diff.dispatchUpdatesTo(new ListUpdateCallback() {
+            @Override
+            public void onInserted(int position, int count) {
+                notifyItemRangeInserted(position + offset, count);
+            }
+
+            @Override
+            public void onRemoved(int position, int count) {
+                notifyItemRangeRemoved(position + offset, count);
+            }
+
+            @Override
+            public void onMoved(int fromPosition, int toPosition) {
+                notifyItemMoved(fromPosition + offset, toPosition + offset);
+            }
+
+            @Override
+            public void onChanged(int position, int count, Object payload) {
+                notifyItemRangeChanged(position + offset, count, payload);
+            }
+        });
+    }
+
+    /**
+     * Returns a copy of the displayed items.
+     */
+    public List<ThreadItem> getData() {
+        return new ArrayList<>(commentsList);
+    }
+
+    private boolean isDisplaying(List<ThreadItem> items) {
+        if (items.size() != commentsList.size()) {
+            return false;
+        }
+        for (int i = 0; i < items.size(); i++) {
+            if (items.get(i) != commentsList.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public void addComment(int position, CommentNode comment) {
         if (position == 0) {
             // Coming from a reply to threadId. Show comment in first position.
@@ -194,17 +322,106 @@ public class ThreadAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
             // Coming from a comment reply, position param is comment adapter position + 1, which
             // means that if there is a header we need to subtract 1 to place comment in desired
             // position.
-            if (hasHeader) {
-                commentsList.add(position - 1, new ThreadItem(ThreadAdapter.TYPE_COMMENT,
-                        comment, comment.getDepth()));
-            } else {
-                commentsList.add(position, new ThreadItem(ThreadAdapter.TYPE_COMMENT, comment,
-                        comment.getDepth()));
+            int index = hasHeader ? position - 1 : position;
+            ThreadItem parent = commentsList.get(index - 1);
+            if (parent.isCollapsed()) {
+                // Show the reply along with the rest of the replies of its parent.
+                toggleCollapsed(position - 1);
             }
+            commentsList.add(index, new ThreadItem(ThreadAdapter.TYPE_COMMENT, comment,
+                    comment.getDepth(), parent));
+            ThreadItemCollapser.resize(parent, 1);
         }
         notifyItemInserted(position);
     }
 
+    /**
+     * Collapses the comment at the given adapter position, hiding its replies, or expands it if
+     * it is collapsed.
+     */
+    public void toggleCollapsed(int adapterPosition) {
+        int offset = hasHeader ? 1 : 0;
+        int index = adapterPosition - offset;
+        if (index < 0 || index >= commentsList.size()
+                || commentsList.get(index).getType() != TYPE_COMMENT) {
+            return;
+        }
+
+        if (commentsList.get(index).isCollapsed()) {
+            int count = ThreadItemCollapser.expand(commentsList, index);
+            notifyItemChanged(adapterPosition);
+            notifyItemRangeInserted(adapterPosition + 1, count);
+        } else {
+            int count = ThreadItemCollapser.collapse(commentsList, index);
+            if (count > 0) {
+                notifyItemChanged(adapterPosition);
+                notifyItemRangeRemoved(adapterPosition + 1, count);
+            }
+        }
+    }
+
+    /**
+     * Inserts comments posted after the displayed ones, given in thread order. Top level comments
+     * go first and replies go right after their parent, or are dropped if it isn't displayed.
+     */
+    public void insertNewComments(List<? extends CommentNode> comments) {
+        Set<CommentNode> inserted = Collections.newSetFromMap(new IdentityHashMap<>());
+        int offset = hasHeader ? 1 : 0;
+        for (CommentNode node : comments) {
+            ThreadItem parent = null;
+            int start = 0;
+            String parentName = node.getComment().getParentId();
+            if (!parentName.startsWith("t3_")) {
+                int parentPosition = findComment(parentName);
+                if (parentPosition == -1) {
+                    continue;
+                }
+                parent = commentsList.get(parentPosition);
+                start = parentPosition + 1;
+            }
+
+            ThreadItem item = new ThreadItem(TYPE_COMMENT, node, node.getDepth(), parent);
+            if (parent != null && parent.isCollapsed()) {
+                // Replies to a collapsed comment stay hidden until it is expanded.
+                List<ThreadItem> hidden = parent.getCollapsedItems();
+                hidden.add(findNewCommentPosition(hidden, 0, node, inserted), item);
+                inserted.add(node);
+                continue;
+            }
+
+            int position = findNewCommentPosition(commentsList, start, node, inserted);
+            commentsList.add(position, item);
+            inserted.add(node);
+            ThreadItemCollapser.resize(parent, 1);
+            notifyItemInserted(position + offset);
+        }
+    }
+
+    /**
+     * Returns where a new comment goes among the given items, after the new comments inserted
+     * before it starting at the given position, which come before it in thread order.
+     */
+    private static int findNewCommentPosition(List<ThreadItem> items, int position,
+                                              CommentNode node, Set<CommentNode> inserted) {
+        while (position < items.size()
+                && inserted.contains(items.get(position).getCommentNode())
+                && items.get(position).getDepth() >= node.getDepth()) {
+            position++;
+        }
+        return position;
+    }
+
+    private int findComment(String fullName) {
+        for (int i = 0; i < commentsList.size(); i++) {
+            CommentNode node = commentsList.get(i).getCommentNode();
+            if (node != null && node.getComment() != null
+                    && fullName.equals(node.getComment().getFullName())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     public Observable<Comment> getCommentSaves() {
         return commentSaves;
     }
@@ -256,6 +473,7 @@ public class ThreadAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
                 final CommentNode commentNode,
                 final OnCommentClickListener commentClickListener,
                 final RedditAuthentication redditAuthentication,
+                RenderedTextCache textCache,
                 PublishSubject<Comment> commentSaves,
                 PublishSubject<Comment> commentUnsaves,
                 PublishSubject<Comment> upvotes,
@@ -264,7 +482,7 @@ public class ThreadAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
                 PublishSubject<Comment> replies) {
             final Comment comment = commentNode.getComment();
             String author = comment.getAuthor();
-            CharSequence body = RedditUtils.bindSnuDown(comment.data("body_html"));
+            CharSequence body = textCache.commentBody(comment);
             String timestamp = DateFormatUtil.formatRedditDate(comment.getCreated());
             String score = String.valueOf(comment.getScore());
             String flair = RedditUtils.parseNbaFlair(String.valueOf(comment.getAuthorFlair()));
@@ -508,14 +726,21 @@ public class ThreadAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
     static class LoadMoreCommentsHolder extends RecyclerView.ViewHolder {
 
         @BindView(R.id.innerLayout) View innerLayout;
+        @BindView(R.id.text_load_more) TextView loadMoreTextView;
 
         public LoadMoreCommentsHolder(View itemView) {
             super(itemView);
             ButterKnife.bind(this, itemView);
         }
 
-        public void bindData(int depth) {
+        public void bindData(int depth, final CommentNode parent,
+                             final OnCommentClickListener commentClickListener) {
             setBackgroundAndPadding(depth);
+            loadMoreTextView.setOnClickListener(v -> {
+                if (commentClickListener != null && parent != null) {
+                    commentClickListener.onLoadMoreComments(parent);
+                }
+            });
         }
 
         private void setBackgroundAndPadding(int depth) {
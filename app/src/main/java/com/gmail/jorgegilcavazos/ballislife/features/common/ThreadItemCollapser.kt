@@ -0,0 +1,59 @@
+package com.gmail.jorgegilcavazos.ballislife.features.common
+
+import com.gmail.jorgegilcavazos.ballislife.features.model.ThreadItem
+import java.util.*
+
+/**
+ * Collapses and expands comments in a list of [ThreadItem]s. The items of the subtree of a
+ * comment are the [ThreadItem.subtreeSize] items right after it, so neither the comment tree nor
+ * the list is walked to find them.
+ */
+class ThreadItemCollapser {
+  companion object {
+
+    /**
+     * Hides the subtree of the item at the given position. Returns the number of items removed
+     * right after it, zero if it is already collapsed or has no replies.
+     */
+    @JvmStatic
+    fun collapse(items: MutableList<ThreadItem>, position: Int): Int {
+      val item = items[position]
+      val count = item.subtreeSize
+      if (item.isCollapsed || count == 0) {
+        return 0
+      }
+
+      val subtree = items.subList(position + 1, position + 1 + count)
+      item.collapsedItems = ArrayList(subtree)
+      subtree.clear()
+      resize(item, -count)
+      return count
+    }
+
+    /**
+     * Shows the subtree of the collapsed item at the given position again. Returns the number of
+     * items inserted right after it, zero if it isn't collapsed.
+     */
+    @JvmStatic
+    fun expand(items: MutableList<ThreadItem>, position: Int): Int {
+      val item = items[position]
+      val hidden = item.collapsedItems ?: return 0
+      item.collapsedItems = null
+      items.addAll(position + 1, hidden)
+      resize(item, hidden.size)
+      return hidden.size
+    }
+
+    /**
+     * Adds the given number of items to the subtree of the given item and of its ancestors.
+     */
+    @JvmStatic
+    fun resize(item: ThreadItem?, delta: Int) {
+      var current = item
+      while (current != null) {
+        current.subtreeSize += delta
+        current = current.parent
+      }
+    }
+  }
+}
@@ -0,0 +1,89 @@
+package com.gmail.jorgegilcavazos.ballislife.features.common;
+
+import android.support.v7.util.DiffUtil;
+
+import com.gmail.jorgegilcavazos.ballislife.features.model.ThreadItem;
+import com.google.common.base.Objects;
+
+import net.dean.jraw.models.Comment;
+import net.dean.jraw.models.CommentNode;
+
+import java.util.List;
+
+/**
+ * Calculates the difference between two lists of thread items matched by the fullname of their
+ * comment. The fullnames are read once up front since the diff compares them many times.
+ */
+public class ThreadItemDiffCallback extends DiffUtil.Callback {
+    private final List<ThreadItem> oldItems;
+    private final List<ThreadItem> newItems;
+    private final String[] oldKeys;
+    private final String[] newKeys;
+
+    public ThreadItemDiffCallback(List<ThreadItem> oldItems, List<ThreadItem> newItems) {
+        this.oldItems = oldItems;
+        this.newItems = newItems;
+        oldKeys = getKeys(oldItems);
+        newKeys = getKeys(newItems);
+    }
+
+    @Override
+    public int getOldListSize() {
+        return oldItems.size();
+    }
+
+    @Override
+    public int getNewListSize() {
+        return newItems.size();
+    }
+
+    @Override
+    public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+        ThreadItem oldItem = oldItems.get(oldItemPosition);
+        ThreadItem newItem = newItems.get(newItemPosition);
+        if (oldItem.getType() != newItem.getType()) {
+            return false;
+        }
+
+        String oldKey = oldKeys[oldItemPosition];
+        if (oldKey == null) {
+            // Items without a comment, e.g. load more items, are only the same as themselves.
+            return oldItem == newItem;
+        }
+        return oldKey.equals(newKeys[newItemPosition]);
+    }
+
+    @Override
+    public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+        ThreadItem oldItem = oldItems.get(oldItemPosition);
+        ThreadItem newItem = newItems.get(newItemPosition);
+        if (oldItem.getDepth() != newItem.getDepth()) {
+            return false;
+        }
+
+        Comment oldComment = getComment(oldItem);
+        Comment newComment = getComment(newItem);
+        if (oldComment == null || newComment == null) {
+            return oldComment == newComment;
+        }
+        return Objects.equal(oldComment.getScore(), newComment.getScore())
+                && oldComment.getVote() == newComment.getVote()
+                && Objects.equal(oldComment.isSaved(), newComment.isSaved())
+                && Objects.equal(oldComment.hasBeenEdited(), newComment.hasBeenEdited())
+                && Objects.equal(oldComment.getBody(), newComment.getBody());
+    }
+
+    private static String[] getKeys(List<ThreadItem> items) {
+        String[] keys = new String[items.size()];
+        for (int i = 0; i < keys.length; i++) {
+            Comment comment = getComment(items.get(i));
+            keys[i] = comment != null ? comment.getFullName() : null;
+        }
+        return keys;
+    }
+
+    private static Comment getComment(ThreadItem item) {
+        CommentNode node = item.getCommentNode();
+        return node != null ? node.getComment() : null;
+    }
+}
@@ -1,6 +1,8 @@
 package com.gmail.jorgegilcavazos.ballislife.features.games;
 
+import android.content.Context;
 import android.support.v4.view.ViewCompat;
+import android.support.v7.util.DiffUtil;
 import android.support.v7.widget.CardView;
 import android.support.v7.widget.RecyclerView;
 import android.util.TypedValue;
@@ -13,54 +15,104 @@ import android.widget.TableLayout;
 import android.widget.TextView;
 
 import com.gmail.jorgegilcavazos.ballislife.R;
+import com.gmail.jorgegilcavazos.ballislife.data.repository.games.GameClockTracker;
 import com.gmail.jorgegilcavazos.ballislife.features.model.GameV2;
-import com.gmail.jorgegilcavazos.ballislife.features.model.NbaGame;
 import com.gmail.jorgegilcavazos.ballislife.util.Constants;
 import com.gmail.jorgegilcavazos.ballislife.util.DateFormatUtil;
 import com.gmail.jorgegilcavazos.ballislife.util.UnitUtils;
 import com.gmail.jorgegilcavazos.ballislife.util.Utilities;
 import com.jakewharton.rxbinding2.view.RxView;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import butterknife.BindView;
 import butterknife.ButterKnife;
 import io.reactivex.Observable;
+import io.reactivex.Single;
+import io.reactivex.android.schedulers.AndroidSchedulers;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.schedulers.Schedulers;
 import io.reactivex.subjects.PublishSubject;
 
 /**
  * RecyclerView Adapter used by the {@link GamesFragment} to display a list of games.
+ * New lists are diffed against the displayed one in the background, see {@link GameDiffCallback}.
+ * Running clocks are shown as extrapolated by a {@link GameClockTracker}.
  */
 public class GameAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
 
+    // Team logo and color resource ids by type and team abbreviation.
+    private static final Map<String, Integer> teamResIds = new HashMap<>();
+
     private List<GameV2> nbaGameList;
+    private List<GameV2> latestGameList;
     private PublishSubject<GameV2> gameClicks = PublishSubject.create();
+    private Disposable diffDisposable;
+    private GameClockTracker clockTracker;
 
-    public GameAdapter(List<GameV2> nbaGames) {
+    public GameAdapter(List<GameV2> nbaGames, GameClockTracker clockTracker) {
         nbaGameList = nbaGames;
+        latestGameList = nbaGames;
+        this.clockTracker = clockTracker;
     }
 
     @Override
     public RecyclerView.ViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
         View view;
+        RecyclerView.ViewHolder holder;
+        View container;
         if (Constants.NBA_MATERIAL_ENABLED) {
             view = LayoutInflater.from(parent.getContext()).inflate(R.layout.row_game_logos,
                     parent, false);
-            return new GameViewHolder(view);
+            GameViewHolder gameViewHolder = new GameViewHolder(view, clockTracker);
+            holder = gameViewHolder;
+            container = gameViewHolder.container;
         } else {
             view = LayoutInflater.from(parent.getContext()).inflate(R.layout.row_game_bars,
                     parent, false);
-            return new GameViewHolderWithBars(view);
+            GameViewHolderWithBars gameViewHolder = new GameViewHolderWithBars(view, clockTracker);
+            holder = gameViewHolder;
+            container = gameViewHolder.container;
         }
+
+        // Holders are rebound to other games, so a click emits the game at the holder's position
+        // when it happens instead of the game it was first bound to.
+        RxView.clicks(container)
+                .filter(v -> holder.getAdapterPosition() != RecyclerView.NO_POSITION)
+                .map(v -> nbaGameList.get(holder.getAdapterPosition()))
+                .subscribe(gameClicks);
+        return holder;
     }
 
     @Override
     public void onBindViewHolder(final RecyclerView.ViewHolder holder, int position) {
         if (Constants.NBA_MATERIAL_ENABLED) {
-            ((GameViewHolder) holder).bindData(nbaGameList.get(position), gameClicks,
+            ((GameViewHolder) holder).bindData(nbaGameList.get(position),
                                                nbaGameList.size() - 1 == position);
         } else {
-            ((GameViewHolderWithBars) holder).bindData(nbaGameList.get(position), gameClicks);
+            ((GameViewHolderWithBars) holder).bindData(nbaGameList.get(position));
+        }
+    }
+
+    @Override
+    public void onBindViewHolder(RecyclerView.ViewHolder holder, int position,
+                                 List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+
+        int flags = 0;
+        for (Object payload : payloads) {
+            flags |= (Integer) payload;
+        }
+        if (Constants.NBA_MATERIAL_ENABLED) {
+            ((GameViewHolder) holder).bindLiveData(nbaGameList.get(position), flags);
+        } else {
+            ((GameViewHolderWithBars) holder).bindLiveData(nbaGameList.get(position), flags);
         }
     }
 
@@ -69,16 +121,107 @@ public class GameAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
         return null != nbaGameList ? nbaGameList.size() : 0;
     }
 
+    @Override
+    public void onDetachedFromRecyclerView(RecyclerView recyclerView) {
+        super.onDetachedFromRecyclerView(recyclerView);
+        if (diffDisposable != null) {
+            diffDisposable.dispose();
+        }
+        // The adapter outlives the fragment's view, show the latest games when reattached.
+        nbaGameList = latestGameList;
+    }
+
     public void swap(List<GameV2> data) {
-        nbaGameList.clear();
-        nbaGameList.addAll(data);
-        notifyDataSetChanged();
+        latestGameList = new ArrayList<>(data);
+        dispatchLatestGames();
     }
 
+    /**
+     * Replaces the games that have the same id as the given ones.
+     */
     public void updateScores(List<GameV2> data) {
-        nbaGameList.clear();
-        nbaGameList.addAll(data);
-        notifyDataSetChanged();
+        List<GameV2> games = new ArrayList<>(latestGameList);
+        for (GameV2 game : data) {
+            for (int i = 0; i < games.size(); i++) {
+                if (games.get(i).getId().equals(game.getId())) {
+                    games.set(i, game);
+                    break;
+                }
+            }
+        }
+        latestGameList = games;
+        dispatchLatestGames();
+    }
+
+    /**
+     * Rebinds the clock of the games whose clock is running.
+     */
+    public void tickClocks() {
+        for (int i = 0; i < nbaGameList.size(); i++) {
+            if (clockTracker.isRunning(nbaGameList.get(i))) {
+                notifyItemChanged(i, GameDiffCallback.PAYLOAD_CLOCK);
+            }
+        }
+    }
+
+    /**
+     * Diffs the latest games against the displayed ones in the background and dispatches the
+     * result. A pending diff is discarded since the displayed games haven't changed yet.
+     */
+    private void dispatchLatestGames() {
+        if (diffDisposable != null) {
+            diffDisposable.dispose();
+        }
+
+        List<GameV2> oldGames = nbaGameList;
+        List<GameV2> newGames = latestGameList;
+        diffDisposable = Single
+                .fromCallable(() -> DiffUtil.calculateDiff(
+                        new GameDiffCallback(oldGames, newGames)))
+                .subscribeOn(Schedulers.computation())
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(diffResult -> {
+                    nbaGameList = newGames;
+                    diffResult.dispatchUpdatesTo(this);
+                    updateLastGameMargins(oldGames, newGames);
+                });
+    }
+
+    /**
+     * The last game has a different bottom margin, so it is rebound if it changed.
+     */
+    private void updateLastGameMargins(List<GameV2> oldGames, List<GameV2> newGames) {
+        if (!Constants.NBA_MATERIAL_ENABLED || newGames.isEmpty()) {
+            return;
+        }
+
+        int lastPosition = newGames.size() - 1;
+        if (!oldGames.isEmpty() && oldGames.get(oldGames.size() - 1).getId()
+                .equals(newGames.get(lastPosition).getId())) {
+            return;
+        }
+
+        notifyItemChanged(lastPosition);
+        if (!oldGames.isEmpty()) {
+            String oldLastId = oldGames.get(oldGames.size() - 1).getId();
+            for (int i = 0; i < lastPosition; i++) {
+                if (newGames.get(i).getId().equals(oldLastId)) {
+                    notifyItemChanged(i);
+                    break;
+                }
+            }
+        }
+    }
+
+    private static int getTeamResId(Context context, String teamAbbr, String type) {
+        String key = type + teamAbbr;
+        Integer resId = teamResIds.get(key);
+        if (resId == null) {
+            resId = context.getResources().getIdentifier(teamAbbr.toLowerCase(), type,
+                    context.getPackageName());
+            teamResIds.put(key, resId);
+        }
+        return resId;
     }
 
     public Observable<GameV2> getGameClicks() {
@@ -100,29 +243,28 @@ public class GameAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
         @BindView(R.id.homeicon) ImageView ivHomeLogo;
         @BindView(R.id.awayicon) ImageView ivAwayLogo;
 
-        public GameViewHolder(View view) {
+        private GameClockTracker clockTracker;
+
+        public GameViewHolder(View view, GameClockTracker clockTracker) {
             super(view);
             ButterKnife.bind(this, view);
+            this.clockTracker = clockTracker;
         }
 
-        public void bindData(
-                GameV2 nbaGame, PublishSubject<GameV2> gameClicks,
-                             boolean isLastGame) {
-            int resKeyHome = itemView.getContext().getResources().getIdentifier(nbaGame
-                    .getHomeTeamAbbr().toLowerCase(), "drawable", itemView.getContext()
-                    .getPackageName());
-            int resKeyAway = itemView.getContext().getResources().getIdentifier(nbaGame
-                    .getAwayTeamAbbr().toLowerCase(), "drawable", itemView.getContext()
-                    .getPackageName());
+        public void bindData(GameV2 nbaGame, boolean isLastGame) {
+            int resKeyHome = getTeamResId(itemView.getContext(), nbaGame.getHomeTeamAbbr(),
+                    "drawable");
+            int resKeyAway = getTeamResId(itemView.getContext(), nbaGame.getAwayTeamAbbr(),
+                    "drawable");
 
             ivHomeLogo.setImageResource(resKeyHome);
             ivAwayLogo.setImageResource(resKeyAway);
             tvHomeTeam.setText(nbaGame.getHomeTeamAbbr());
             tvAwayTeam.setText(nbaGame.getAwayTeamAbbr());
-            tvHomeScore.setText(nbaGame.getHomeTeamScore());
-            tvAwayScore.setText(nbaGame.getAwayTeamScore());
-            tvClock.setText(nbaGame.getGameClock());
-            tvPeriod.setText(Utilities.getPeriodString(nbaGame.getPeriodValue(), nbaGame
+            tvHomeScore.setText(nbaGame.getHomeScoreText());
+            tvAwayScore.setText(nbaGame.getAwayScoreText());
+            tvClock.setText(clockTracker.clockText(nbaGame, System.currentTimeMillis()));
+            tvPeriod.setText(Utilities.getPeriodString(nbaGame.getPeriod(), nbaGame
                     .getPeriodName()));
 
             tvHomeScore.setVisibility(View.GONE);
@@ -132,12 +274,12 @@ public class GameAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
             tvFinal.setVisibility(View.GONE);
             tvTime.setVisibility(View.GONE);
 
-            switch (nbaGame.getGameStatus()) {
-                case NbaGame.PRE_GAME:
+            switch (nbaGame.getStatus()) {
+                case GameV2.PRE_GAME:
                     tvTime.setVisibility(View.VISIBLE);
                     tvTime.setText(DateFormatUtil.localizeGameTime(nbaGame.getPeriodStatus()));
                     break;
-                case NbaGame.IN_GAME:
+                case GameV2.IN_GAME:
                     tvHomeScore.setVisibility(View.VISIBLE);
                     tvAwayScore.setVisibility(View.VISIBLE);
                     if (nbaGame.getPeriodStatus().equals("Halftime")) {
@@ -149,7 +291,7 @@ public class GameAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
                         tvPeriod.setVisibility(View.VISIBLE);
                     }
                     break;
-                case NbaGame.POST_GAME:
+                case GameV2.POST_GAME:
                     tvHomeScore.setVisibility(View.VISIBLE);
                     tvAwayScore.setVisibility(View.VISIBLE);
                     tvFinal.setVisibility(View.VISIBLE);
@@ -157,8 +299,6 @@ public class GameAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
                     break;
             }
 
-            RxView.clicks(container).map(v -> nbaGame).subscribe(gameClicks);
-
             int margin = (int) UnitUtils.convertDpToPixel(8, itemView.getContext());
             ViewGroup.MarginLayoutParams layoutParams = (ViewGroup.MarginLayoutParams) gameCard
                     .getLayoutParams();
@@ -169,6 +309,23 @@ public class GameAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
             }
             gameCard.requestLayout();
         }
+
+        /**
+         * Rebinds only the values flagged by a {@link GameDiffCallback} payload.
+         */
+        public void bindLiveData(GameV2 nbaGame, int flags) {
+            if ((flags & GameDiffCallback.PAYLOAD_SCORE) != 0) {
+                tvHomeScore.setText(nbaGame.getHomeScoreText());
+                tvAwayScore.setText(nbaGame.getAwayScoreText());
+            }
+            if ((flags & GameDiffCallback.PAYLOAD_CLOCK) != 0) {
+                tvClock.setText(clockTracker.clockText(nbaGame, System.currentTimeMillis()));
+            }
+            if ((flags & GameDiffCallback.PAYLOAD_PERIOD) != 0) {
+                tvPeriod.setText(Utilities.getPeriodString(nbaGame.getPeriod(), nbaGame
+                        .getPeriodName()));
+            }
+        }
     }
 
     public static class GameViewHolderWithBars extends RecyclerView.ViewHolder {
@@ -185,18 +342,19 @@ public class GameAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
         @BindView(R.id.away_bar) View barAway;
         @BindView(R.id.home_bar) View barHome;
 
-        public GameViewHolderWithBars(View view) {
+        private GameClockTracker clockTracker;
+
+        public GameViewHolderWithBars(View view, GameClockTracker clockTracker) {
             super(view);
             ButterKnife.bind(this, view);
+            this.clockTracker = clockTracker;
         }
 
-        public void bindData(GameV2 nbaGame, PublishSubject<GameV2> gameClicks) {
-            int resKeyHome = itemView.getContext().getResources().getIdentifier(nbaGame
-                    .getHomeTeamAbbr().toLowerCase(), "color", itemView.getContext()
-                    .getPackageName());
-            int resKeyAway = itemView.getContext().getResources().getIdentifier(nbaGame
-                    .getAwayTeamAbbr().toLowerCase(), "color", itemView.getContext()
-                    .getPackageName());
+        public void bindData(GameV2 nbaGame) {
+            int resKeyHome = getTeamResId(itemView.getContext(), nbaGame.getHomeTeamAbbr(),
+                    "color");
+            int resKeyAway = getTeamResId(itemView.getContext(), nbaGame.getAwayTeamAbbr(),
+                    "color");
 
             if (resKeyAway != 0) {
                 ViewCompat.setBackgroundTintList(barAway, itemView.getContext().getResources()
@@ -207,33 +365,14 @@ public class GameAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
                         .getColorStateList(resKeyHome));
             }
 
-            int height = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, 3, itemView
-                    .getContext().getResources().getDisplayMetrics());
-            float awayPct;
-            float homePct;
-            try {
-                int awayScore = Integer.valueOf(nbaGame.getAwayTeamScore());
-                int homeScore = Integer.valueOf(nbaGame.getHomeTeamScore());
-                awayPct = (float) (awayScore) / (float) (awayScore + homeScore);
-                homePct = (float) (homeScore) / (float) (awayScore + homeScore);
-
-                if (awayScore == 0 && homeScore == 0) {
-                    awayPct = 0.5f;
-                    homePct = 0.5f;
-                }
-            } catch (NumberFormatException e) {
-                awayPct = 0.5f;
-                homePct = 0.5f;
-            }
-            barHome.setLayoutParams(new TableLayout.LayoutParams(0, height, awayPct));
-            barAway.setLayoutParams(new TableLayout.LayoutParams(0, height, homePct));
+            setScoreBars(nbaGame);
 
             tvHomeTeam.setText(nbaGame.getHomeTeamAbbr());
             tvAwayTeam.setText(nbaGame.getAwayTeamAbbr());
-            tvHomeScore.setText(nbaGame.getHomeTeamScore());
-            tvAwayScore.setText(nbaGame.getAwayTeamScore());
-            tvClock.setText(nbaGame.getGameClock());
-            tvPeriod.setText(Utilities.getPeriodString(nbaGame.getPeriodValue(), nbaGame
+            tvHomeScore.setText(nbaGame.getHomeScoreText());
+            tvAwayScore.setText(nbaGame.getAwayScoreText());
+            tvClock.setText(clockTracker.clockText(nbaGame, System.currentTimeMillis()));
+            tvPeriod.setText(Utilities.getPeriodString(nbaGame.getPeriod(), nbaGame
                     .getPeriodName()));
 
             tvHomeScore.setVisibility(View.GONE);
@@ -243,26 +382,60 @@ public class GameAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
             tvFinal.setVisibility(View.GONE);
             tvTime.setVisibility(View.GONE);
 
-            switch (nbaGame.getGameStatus()) {
-                case NbaGame.PRE_GAME:
+            switch (nbaGame.getStatus()) {
+                case GameV2.PRE_GAME:
                     tvTime.setVisibility(View.VISIBLE);
                     tvTime.setText(DateFormatUtil.localizeGameTime(nbaGame.getPeriodStatus()));
                     break;
-                case NbaGame.IN_GAME:
+                case GameV2.IN_GAME:
                     tvHomeScore.setVisibility(View.VISIBLE);
                     tvAwayScore.setVisibility(View.VISIBLE);
                     tvClock.setVisibility(View.VISIBLE);
                     tvPeriod.setVisibility(View.VISIBLE);
                     break;
-                case NbaGame.POST_GAME:
+                case GameV2.POST_GAME:
                     tvHomeScore.setVisibility(View.VISIBLE);
                     tvAwayScore.setVisibility(View.VISIBLE);
                     tvFinal.setVisibility(View.VISIBLE);
                     tvFinal.setText("FINAL");
                     break;
             }
+        }
+
+        /**
+         * Rebinds only the values flagged by a {@link GameDiffCallback} payload.
+         */
+        public void bindLiveData(GameV2 nbaGame, int flags) {
+            if ((flags & GameDiffCallback.PAYLOAD_SCORE) != 0) {
+                tvHomeScore.setText(nbaGame.getHomeScoreText());
+                tvAwayScore.setText(nbaGame.getAwayScoreText());
+                setScoreBars(nbaGame);
+            }
+            if ((flags & GameDiffCallback.PAYLOAD_CLOCK) != 0) {
+                tvClock.setText(clockTracker.clockText(nbaGame, System.currentTimeMillis()));
+            }
+            if ((flags & GameDiffCallback.PAYLOAD_PERIOD) != 0) {
+                tvPeriod.setText(Utilities.getPeriodString(nbaGame.getPeriod(), nbaGame
+                        .getPeriodName()));
+            }
+        }
 
-            RxView.clicks(container).map(v -> nbaGame).subscribe(gameClicks);
+        private void setScoreBars(GameV2 nbaGame) {
+            int height = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, 3, itemView
+                    .getContext().getResources().getDisplayMetrics());
+            float awayPct;
+            float homePct;
+            int awayScore = nbaGame.getAwayScore();
+            int homeScore = nbaGame.getHomeScore();
+            if (awayScore >= 0 && homeScore >= 0 && awayScore + homeScore > 0) {
+                awayPct = (float) (awayScore) / (float) (awayScore + homeScore);
+                homePct = (float) (homeScore) / (float) (awayScore + homeScore);
+            } else {
+                awayPct = 0.5f;
+                homePct = 0.5f;
+            }
+            barHome.setLayoutParams(new TableLayout.LayoutParams(0, height, awayPct));
+            barAway.setLayoutParams(new TableLayout.LayoutParams(0, height, homePct));
         }
     }
 }
@@ -0,0 +1,100 @@
+package com.gmail.jorgegilcavazos.ballislife.features.games
+
+import android.support.annotation.VisibleForTesting
+import com.gmail.jorgegilcavazos.ballislife.data.repository.boxscore.BoxScoreRepository
+import com.gmail.jorgegilcavazos.ballislife.data.repository.gamethreads.GameThreadsRepository
+import com.gmail.jorgegilcavazos.ballislife.features.model.GameThreadType
+import com.gmail.jorgegilcavazos.ballislife.features.model.GameV2
+import com.gmail.jorgegilcavazos.ballislife.util.schedulers.BaseSchedulerProvider
+import io.reactivex.Completable
+import io.reactivex.Observable
+import io.reactivex.disposables.Disposable
+import java.util.*
+import java.util.concurrent.TimeUnit
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Warms the game thread and box score of the games that are most likely to be opened from the
+ * games list, i.e. live games and games that finished recently, so that the comments screen can
+ * show them from memory.
+ *
+ * Prefetching waits until the visible games are loaded, fetches one game at a time and never more
+ * than [MAX_PREFETCHED_GAMES] per call. A new call or [cancel] stops any pending work.
+ */
+@Singleton
+class GameDetailsPrefetcher @Inject constructor(
+    private val gameThreadsRepository: GameThreadsRepository,
+    private val boxScoreRepository: BoxScoreRepository,
+    private val schedulerProvider: BaseSchedulerProvider) {
+
+  companion object {
+    const val MAX_PREFETCHED_GAMES = 4
+    const val PREFETCH_DELAY_MILLIS = 2000L
+    const val PREFETCH_INTERVAL_MILLIS = 2 * 60 * 1000L
+    const val RECENTLY_FINISHED_SECONDS = 4 * 60 * 60L
+  }
+
+  private val prefetchTimes = HashMap<String, Long>()
+  private var disposable: Disposable? = null
+
+  fun prefetch(games: List<GameV2>) {
+    cancel()
+
+    val gamesToPrefetch = selectGames(games, System.currentTimeMillis())
+    if (gamesToPrefetch.isEmpty()) {
+      return
+    }
+
+    disposable = Observable.fromIterable(gamesToPrefetch)
+        .delaySubscription(PREFETCH_DELAY_MILLIS, TimeUnit.MILLISECONDS,
+            schedulerProvider.computation())
+        .concatMap { prefetchGame(it).toObservable<Any>() }
+        .subscribe({}, {})
+  }
+
+  fun cancel() {
+    disposable?.dispose()
+    disposable = null
+  }
+
+  /**
+   * Returns the games worth prefetching, live games first, skipping the ones prefetched in the
+   * last [PREFETCH_INTERVAL_MILLIS].
+   */
+  @VisibleForTesting
+  fun selectGames(games: List<GameV2>, now: Long): List<GameV2> {
+    return games
+        .filter {
+          it.status == GameV2.IN_GAME || (it.status == GameV2.POST_GAME
+              && now / 1000 - it.timeUtc < RECENTLY_FINISHED_SECONDS)
+        }
+        .filter {
+          val prefetchTime = synchronized(prefetchTimes) { prefetchTimes[it.id] }
+          prefetchTime == null || now - prefetchTime >= PREFETCH_INTERVAL_MILLIS
+        }
+        .sortedBy { if (it.status == GameV2.IN_GAME) 0 else 1 }
+        .take(MAX_PREFETCHED_GAMES)
+  }
+
+  private fun prefetchGame(game: GameV2): Completable {
+    val threadType = if (game.status == GameV2.IN_GAME) {
+      GameThreadType.LIVE
+    } else {
+      GameThreadType.POST
+    }
+
+    val gameThread = gameThreadsRepository.prefetchGameThread(
+        game.homeTeamAbbr, game.awayTeamAbbr, game.timeUtc, threadType)
+        .onErrorComplete()
+    val boxScore = boxScoreRepository.boxScore(game.id, false)
+        .subscribeOn(schedulerProvider.io())
+        .toCompletable()
+        .onErrorComplete()
+
+    return Completable.merge(listOf(gameThread, boxScore))
+        .doOnComplete {
+          synchronized(prefetchTimes) { prefetchTimes[game.id] = System.currentTimeMillis() }
+        }
+  }
+}
@@ -0,0 +1,79 @@
+package com.gmail.jorgegilcavazos.ballislife.features.games;
+
+import android.support.v7.util.DiffUtil;
+
+import com.gmail.jorgegilcavazos.ballislife.features.model.GameV2;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Calculates the difference between two lists of games matched by id. Games that only changed
+ * their score, clock or period produce a payload with the {@code PAYLOAD_*} flags of the values
+ * that changed so that only those views are rebound.
+ */
+public class GameDiffCallback extends DiffUtil.Callback {
+    public static final int PAYLOAD_SCORE = 1;
+    public static final int PAYLOAD_CLOCK = 1 << 1;
+    public static final int PAYLOAD_PERIOD = 1 << 2;
+
+    private final List<GameV2> oldGames;
+    private final List<GameV2> newGames;
+
+    public GameDiffCallback(List<GameV2> oldGames, List<GameV2> newGames) {
+        this.oldGames = oldGames;
+        this.newGames = newGames;
+    }
+
+    @Override
+    public int getOldListSize() {
+        return oldGames.size();
+    }
+
+    @Override
+    public int getNewListSize() {
+        return newGames.size();
+    }
+
+    @Override
+    public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+        return oldGames.get(oldItemPosition).getId().equals(newGames.get(newItemPosition).getId());
+    }
+
+    @Override
+    public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+        return oldGames.get(oldItemPosition).equals(newGames.get(newItemPosition));
+    }
+
+    @Override
+    public Object getChangePayload(int oldItemPosition, int newItemPosition) {
+        GameV2 oldGame = oldGames.get(oldItemPosition);
+        GameV2 newGame = newGames.get(newItemPosition);
+
+        // Changes to anything else that is displayed, e.g. the game status, need a full rebind.
+        if (oldGame.getStatus() != newGame.getStatus()
+                || !Objects.equals(oldGame.getPeriodStatus(), newGame.getPeriodStatus())
+                || !Objects.equals(oldGame.getHomeTeamAbbr(), newGame.getHomeTeamAbbr())
+                || !Objects.equals(oldGame.getAwayTeamAbbr(), newGame.getAwayTeamAbbr())) {
+            return null;
+        }
+
+        int flags = 0;
+        if (oldGame.getHomeScore() != newGame.getHomeScore()
+                || oldGame.getAwayScore() != newGame.getAwayScore()) {
+            flags |= PAYLOAD_SCORE;
+        }
+        if (!Objects.equals(oldGame.getGameClock(), newGame.getGameClock())) {
+            flags |= PAYLOAD_CLOCK;
+        }
+        if (oldGame.getPeriod() != newGame.getPeriod()
+                || !Objects.equals(oldGame.getPeriodName(), newGame.getPeriodName())) {
+            flags |= PAYLOAD_PERIOD;
+        }
+
+        if (flags == 0) {
+            return null;
+        }
+        return flags;
+    }
+}
@@ -11,14 +11,19 @@ import android.support.v4.widget.SwipeRefreshLayout;
 import android.support.v7.widget.LinearLayoutManager;
 import android.support.v7.widget.RecyclerView;
 import android.view.LayoutInflater;
+import android.view.Menu;
+import android.view.MenuInflater;
+import android.view.MenuItem;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.ImageButton;
 import android.widget.TextView;
 
 import com.gmail.jorgegilcavazos.ballislife.R;
+import com.gmail.jorgegilcavazos.ballislife.data.repository.games.GameClockTracker;
 import com.gmail.jorgegilcavazos.ballislife.features.application.BallIsLifeApplication;
 import com.gmail.jorgegilcavazos.ballislife.features.gamethread.CommentsActivity;
+import com.gmail.jorgegilcavazos.ballislife.features.livethreads.LiveThreadsActivity;
 import com.gmail.jorgegilcavazos.ballislife.features.model.GameV2;
 import com.gmail.jorgegilcavazos.ballislife.features.model.NbaGame;
 import com.jakewharton.rxbinding2.view.RxView;
@@ -27,6 +32,7 @@ import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import javax.inject.Inject;
 
@@ -34,6 +40,8 @@ import butterknife.BindView;
 import butterknife.ButterKnife;
 import butterknife.Unbinder;
 import io.reactivex.Observable;
+import io.reactivex.android.schedulers.AndroidSchedulers;
+import io.reactivex.disposables.Disposable;
 import io.reactivex.subjects.PublishSubject;
 
 /**
@@ -50,6 +58,7 @@ public class GamesFragment extends Fragment implements GamesView,
     public final static String GAME_DATE = "GAME_DATE";
 
     @Inject GamesPresenter presenter;
+    @Inject GameClockTracker clockTracker;
 
     @BindView(R.id.navigator_button_left) ImageButton btnPrevDay;
     @BindView(R.id.navigator_button_right) ImageButton btnNextDay;
@@ -65,6 +74,7 @@ public class GamesFragment extends Fragment implements GamesView,
     private GameAdapter gameAdapter;
     private Snackbar snackbar;
     private Unbinder unbinder;
+    private Disposable clockTicks;
 
     public GamesFragment() {
         // Required empty public constructor.
@@ -81,7 +91,7 @@ public class GamesFragment extends Fragment implements GamesView,
         setHasOptionsMenu(true);
 
         layoutManager = new LinearLayoutManager(getActivity());
-        gameAdapter = new GameAdapter(new ArrayList<>(0));
+        gameAdapter = new GameAdapter(new ArrayList<>(0), clockTracker);
     }
 
     @Override
@@ -116,6 +126,30 @@ public class GamesFragment extends Fragment implements GamesView,
     public void onResume() {
         super.onResume();
         presenter.loadGames(false);
+        clockTicks = Observable.interval(1, TimeUnit.SECONDS, AndroidSchedulers.mainThread())
+                .subscribe(tick -> gameAdapter.tickClocks());
+    }
+
+    @Override
+    public void onPause() {
+        clockTicks.dispose();
+        super.onPause();
+    }
+
+    @Override
+    public void onCreateOptionsMenu(Menu menu, MenuInflater inflater) {
+        inflater.inflate(R.menu.menu_games, menu);
+        super.onCreateOptionsMenu(menu, inflater);
+    }
+
+    @Override
+    public boolean onOptionsItemSelected(MenuItem item) {
+        switch (item.getItemId()) {
+            case R.id.action_live_threads:
+                startActivity(new Intent(getActivity(), LiveThreadsActivity.class));
+                return true;
+        }
+        return super.onOptionsItemSelected(item);
     }
 
     @Override
@@ -175,6 +209,11 @@ public class GamesFragment extends Fragment implements GamesView,
         rvGames.setVisibility(View.VISIBLE);
     }
 
+    @Override
+    public void updateGames(@NonNull List<GameV2> games) {
+        gameAdapter.updateScores(games);
+    }
+
     @Override
     public void showGameDetails(@NonNull GameV2 game, long selectedDate) {
         Intent intent = new Intent(getActivity(), CommentsActivity.class);
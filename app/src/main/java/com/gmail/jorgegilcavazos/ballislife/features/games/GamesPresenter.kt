@@ -15,7 +15,8 @@ class GamesPresenter @Inject constructor(
     private val gamesRepository: GamesRepository,
     private val schedulerProvider: BaseSchedulerProvider,
     private val disposables: CompositeDisposable,
-    private val networkUtils: NetworkUtils) : BasePresenter<GamesView>() {
+    private val networkUtils: NetworkUtils,
+    private val gameDetailsPrefetcher: GameDetailsPrefetcher) : BasePresenter<GamesView>() {
 
   private val calendar = Calendar.getInstance()
 
@@ -41,9 +42,21 @@ class GamesPresenter @Inject constructor(
     view.gameClicks()
         .subscribe { view.showGameDetails(it, calendar.time.time) }
         .addTo(disposables)
+
+    gamesRepository.liveGames()
+        .observeOn(schedulerProvider.ui())
+        .map { games ->
+          val dayStart = DateFormatUtil.getDateStartUtc(calendar)
+          val dayEnd = DateFormatUtil.getDateEndUtc(calendar)
+          games.filter { it.timeUtc in (dayStart + 1)..(dayEnd - 1) }
+        }
+        .filter { !it.isEmpty() }
+        .subscribe { view.updateGames(it) }
+        .addTo(disposables)
   }
 
   fun loadGames(forceNetwork: Boolean = false) {
+    gameDetailsPrefetcher.cancel()
     view.dismissSnackbar()
     loadDateNavigatorText(calendar)
 
@@ -57,6 +70,7 @@ class GamesPresenter @Inject constructor(
 
             if (uiModel.isNetworkSuccess) {
               view.setLoadingIndicator(false)
+              gameDetailsPrefetcher.prefetch(uiModel.games)
             }
 
             if (!uiModel.games.isEmpty()) {
@@ -95,6 +109,7 @@ class GamesPresenter @Inject constructor(
 
   override fun detachView() {
     disposables.clear()
+    gameDetailsPrefetcher.cancel()
     view.dismissSnackbar()
     super.detachView()
   }
@@ -5,6 +5,7 @@ import com.gmail.jorgegilcavazos.ballislife.features.model.GameV2
 class GamesUiModel(
     val isMemoryInProgress: Boolean,
     val isMemorySuccess: Boolean,
+    val isDiskSuccess: Boolean,
     val isNetworkInProgress: Boolean,
     val isNetworkSuccess: Boolean,
     val games: List<GameV2>) {
@@ -14,6 +15,7 @@ class GamesUiModel(
         GamesUiModel(
             isMemoryInProgress = true,
             isMemorySuccess = false,
+            isDiskSuccess = false,
             isNetworkInProgress = false,
             isNetworkSuccess = false,
             games = emptyList())
@@ -22,6 +24,16 @@ class GamesUiModel(
         GamesUiModel(
             isMemoryInProgress = false,
             isMemorySuccess = true,
+            isDiskSuccess = false,
+            isNetworkInProgress = false,
+            isNetworkSuccess = false,
+            games = games)
+
+    fun diskSuccess(games: List<GameV2>): GamesUiModel =
+        GamesUiModel(
+            isMemoryInProgress = false,
+            isMemorySuccess = false,
+            isDiskSuccess = true,
             isNetworkInProgress = false,
             isNetworkSuccess = false,
             games = games)
@@ -30,6 +42,7 @@ class GamesUiModel(
         GamesUiModel(
             isMemoryInProgress = false,
             isMemorySuccess = false,
+            isDiskSuccess = false,
             isNetworkInProgress = true,
             isNetworkSuccess = false,
             games = emptyList())
@@ -38,6 +51,7 @@ class GamesUiModel(
         GamesUiModel(
             isMemoryInProgress = false,
             isMemorySuccess = false,
+            isDiskSuccess = false,
             isNetworkInProgress = false,
             isNetworkSuccess = true,
             games = games)
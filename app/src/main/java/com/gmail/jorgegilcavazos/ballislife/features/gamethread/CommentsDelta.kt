@@ -0,0 +1,33 @@
+package com.gmail.jorgegilcavazos.ballislife.features.gamethread
+
+import net.dean.jraw.models.CommentNode
+import net.dean.jraw.models.Submission
+
+/**
+ * The comments of a thread posted after the last ones seen, in thread order. If [complete] is
+ * false there may be more new comments than the ones fetched and the thread should be reloaded.
+ *
+ * [newestId] is the id of the newest comment seen so far, to pass when asking for the next delta.
+ */
+data class CommentsDelta(
+    val comments: List<CommentNode>,
+    val complete: Boolean,
+    val newestId: Long) {
+
+  companion object {
+    /**
+     * Returns the id of the newest comment of a loaded thread, or 0 if it has none, to start
+     * asking for its new comments from.
+     */
+    fun newestCommentId(submission: Submission): Long {
+      val comments = submission.comments?.walkTree() ?: return 0L
+      return comments.filter { it.comment != null }.map { commentId(it) }.max() ?: 0L
+    }
+
+    /**
+     * Returns the id of a comment as a number. Comment ids are base 36 numbers that grow with
+     * every new comment.
+     */
+    fun commentId(node: CommentNode) = java.lang.Long.parseLong(node.comment.id, 36)
+  }
+}
@@ -25,8 +25,9 @@ import com.gmail.jorgegilcavazos.ballislife.features.application.BallIsLifeAppli
 import com.gmail.jorgegilcavazos.ballislife.features.common.ThreadAdapter;
 import com.gmail.jorgegilcavazos.ballislife.features.model.GameThreadType;
 import com.gmail.jorgegilcavazos.ballislife.features.model.ThreadItem;
+import com.gmail.jorgegilcavazos.ballislife.features.replay.ThreadReplayActivity;
 import com.gmail.jorgegilcavazos.ballislife.features.reply.ReplyActivity;
-import com.gmail.jorgegilcavazos.ballislife.util.RedditUtils;
+import com.gmail.jorgegilcavazos.ballislife.util.RenderedTextCache;
 
 import net.dean.jraw.models.Comment;
 import net.dean.jraw.models.CommentNode;
@@ -47,6 +48,8 @@ import io.reactivex.subjects.PublishSubject;
 import static android.app.Activity.RESULT_OK;
 import static com.gmail.jorgegilcavazos.ballislife.features.gamethread.CommentsActivity
         .AWAY_TEAM_KEY;
+import static com.gmail.jorgegilcavazos.ballislife.features.gamethread.CommentsActivity
+        .GAME_ID_KEY;
 import static com.gmail.jorgegilcavazos.ballislife.features.gamethread.CommentsActivity
         .HOME_TEAM_KEY;
 
@@ -60,6 +63,7 @@ public class GameThreadFragment extends Fragment
 
     @Inject GameThreadPresenterV2 presenter;
     @Inject RedditAuthentication redditAuthentication;
+    @Inject RenderedTextCache textCache;
 
     @BindView(R.id.game_thread_swipe_refresh_layout) SwipeRefreshLayout swipeRefreshLayout;
     @BindView(R.id.comment_thread_rv) RecyclerView rvComments;
@@ -76,6 +80,7 @@ public class GameThreadFragment extends Fragment
     private String homeTeam, awayTeam;
     private GameThreadType threadType;
     private long gameDate;
+    private String gameId;
     private Switch streamSwitch;
 
     public GameThreadFragment() {
@@ -111,6 +116,7 @@ public class GameThreadFragment extends Fragment
             awayTeam = getArguments().getString(AWAY_TEAM_KEY);
             threadType = (GameThreadType) getArguments().getSerializable(THREAD_TYPE_KEY);
             gameDate = getArguments().getLong(GAME_DATE_KEY);
+            gameId = getArguments().getString(GAME_ID_KEY);
         }
     }
 
@@ -123,8 +129,8 @@ public class GameThreadFragment extends Fragment
 
         swipeRefreshLayout.setOnRefreshListener(this);
 
-        threadAdapter = new ThreadAdapter(getActivity(), redditAuthentication, new ArrayList<>(),
-                false);
+        threadAdapter = new ThreadAdapter(getActivity(), redditAuthentication, textCache,
+                new ArrayList<>(), false);
         
         lmComments = new LinearLayoutManager(getActivity());
         rvComments.setLayoutManager(lmComments);
@@ -146,6 +152,38 @@ public class GameThreadFragment extends Fragment
         return view;
     }
 
+    @Override
+    public void onResume() {
+        super.onResume();
+        updateStreaming();
+    }
+
+    @Override
+    public void onPause() {
+        presenter.pauseStreaming();
+        super.onPause();
+    }
+
+    @Override
+    public void setUserVisibleHint(boolean isVisibleToUser) {
+        super.setUserVisibleHint(isVisibleToUser);
+        updateStreaming();
+    }
+
+    /**
+     * Streams only while this tab is the one selected and the activity is in the foreground.
+     */
+    private void updateStreaming() {
+        if (!isResumed()) {
+            return;
+        }
+        if (getUserVisibleHint()) {
+            presenter.resumeStreaming();
+        } else {
+            presenter.pauseStreaming();
+        }
+    }
+
     @Override
     public void onDestroyView() {
         unbinder.unbind();
@@ -161,6 +199,8 @@ public class GameThreadFragment extends Fragment
                     .findViewById(R.id.switch_stream);
             streamSwitch.setOnCheckedChangeListener(this);
             streamSwitch.setChecked(false);
+        } else {
+            inflater.inflate(R.menu.menu_post_game_thread, menu);
         }
         super.onCreateOptionsMenu(menu, inflater);
     }
@@ -171,6 +211,12 @@ public class GameThreadFragment extends Fragment
             case R.id.action_refresh:
                 presenter.loadGameThread();
                 return true;
+            case R.id.action_replay_live_thread:
+                Intent intent = new Intent(getActivity(), ThreadReplayActivity.class);
+                intent.putExtra(ThreadReplayActivity.KEY_GAME_ID, gameId);
+                intent.putExtra(ThreadReplayActivity.KEY_TITLE, awayTeam + " @ " + homeTeam);
+                startActivity(intent);
+                return true;
         }
         return super.onOptionsItemSelected(item);
     }
@@ -203,6 +249,12 @@ public class GameThreadFragment extends Fragment
         return gameDate;
     }
 
+    @NonNull
+    @Override
+    public String getGameId() {
+        return gameId;
+    }
+
     @Override
     public boolean isPremiumPurchased() {
         return ((CommentsActivity) getActivity()).billingProcessor.isPurchased("premium");
@@ -213,9 +265,15 @@ public class GameThreadFragment extends Fragment
         swipeRefreshLayout.setRefreshing(active);
     }
 
+    @NotNull
     @Override
-    public void showComments(List<ThreadItem> comments) {
-        threadAdapter.setData(comments);
+    public List<ThreadItem> getDisplayedComments() {
+        return threadAdapter.getData();
+    }
+
+    @Override
+    public void showComments(@NonNull ThreadItemsUpdate update) {
+        threadAdapter.setData(update);
         rvComments.setVisibility(View.VISIBLE);
     }
 
@@ -229,6 +287,12 @@ public class GameThreadFragment extends Fragment
         threadAdapter.addComment(position, comment);
     }
 
+    @Override
+    public void addNewComments(@NonNull List<? extends CommentNode> comments) {
+        threadAdapter.insertNewComments(comments);
+        rvComments.setVisibility(View.VISIBLE);
+    }
+
     @Override
     public void showNoThreadText() {
         noThreadText.setVisibility(View.VISIBLE);
@@ -306,8 +370,7 @@ public class GameThreadFragment extends Fragment
         Intent intent = new Intent(getActivity(), ReplyActivity.class);
         Bundle extras = new Bundle();
         extras.putString(ReplyActivity.KEY_COMMENT_FULLNAME, parentComment.getFullName());
-        extras.putCharSequence(ReplyActivity.KEY_COMMENT,
-                               RedditUtils.bindSnuDown(parentComment.data("body_html")));
+        extras.putCharSequence(ReplyActivity.KEY_COMMENT, textCache.commentBody(parentComment));
         intent.putExtras(extras);
         startActivityForResult(intent, ReplyActivity.POST_COMMENT_REPLY_REQUEST);
     }
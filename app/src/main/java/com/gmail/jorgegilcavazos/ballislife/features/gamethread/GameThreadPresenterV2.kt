@@ -7,17 +7,22 @@ import com.gmail.jorgegilcavazos.ballislife.data.actions.models.ReplyUIModel
 import com.gmail.jorgegilcavazos.ballislife.data.actions.models.SaveUIModel
 import com.gmail.jorgegilcavazos.ballislife.data.repository.comments.ContributionRepository
 import com.gmail.jorgegilcavazos.ballislife.data.repository.gamethreads.GameThreadsRepository
-import com.gmail.jorgegilcavazos.ballislife.features.common.ThreadAdapter
 import com.gmail.jorgegilcavazos.ballislife.features.model.GameThreadType
-import com.gmail.jorgegilcavazos.ballislife.features.model.ThreadItem
 import com.gmail.jorgegilcavazos.ballislife.util.CrashReporter
+import com.gmail.jorgegilcavazos.ballislife.util.RenderedTextCache
 import com.gmail.jorgegilcavazos.ballislife.util.schedulers.BaseSchedulerProvider
 import com.google.firebase.crash.FirebaseCrash
+import io.reactivex.Completable
+import io.reactivex.Observable
+import io.reactivex.Single
 import io.reactivex.disposables.CompositeDisposable
+import io.reactivex.disposables.Disposable
 import io.reactivex.rxkotlin.addTo
 import net.dean.jraw.models.Comment
+import net.dean.jraw.models.CommentNode
 import net.dean.jraw.models.Submission
 import net.dean.jraw.models.VoteDirection
+import timber.log.Timber
 import java.util.concurrent.TimeUnit
 import javax.inject.Inject
 
@@ -28,14 +33,33 @@ class GameThreadPresenterV2 @Inject constructor(
     private val schedulerProvider: BaseSchedulerProvider,
     private val threadsDisposable: CompositeDisposable,
     private val disposable: CompositeDisposable,
-    private val crashReporter: CrashReporter) : BasePresenter<GameThreadView>() {
+    private val crashReporter: CrashReporter,
+    private val streamCadence: StreamCadence,
+    private val gameThreadRecorder: GameThreadRecorder,
+    private val textCache: RenderedTextCache) : BasePresenter<GameThreadView>() {
+
+  companion object {
+    const val FULL_RELOAD_INTERVAL_MILLIS = 5 * 60 * 1000L
+    /**
+     * Comments rendered before a thread is shown, enough to fill the screen.
+     */
+    const val COMMENTS_RENDERED_BEFORE_SHOWING = 30
+  }
 
   private lateinit var type: GameThreadType
   private lateinit var home: String
   private lateinit var visitor: String
   private var gameTimeUtc: Long = 0
+  private lateinit var gameId: String
   private var currentSubmission: Submission? = null
   private var shouldStream = false
+  private var streamPaused = false
+  private var newCommentsStream: Disposable? = null
+  /**
+   * Id of the newest comment shown, to stream the comments posted after it.
+   */
+  private var newestCommentId = 0L
+  private var lastLoadMillis = 0L
 
   override fun attachView(view: GameThreadView) {
     super.attachView(view)
@@ -43,6 +67,7 @@ class GameThreadPresenterV2 @Inject constructor(
     home = view.getHome()
     visitor = view.getVisitor()
     gameTimeUtc = view.getGameTimeUtc()
+    gameId = view.getGameId()
 
     view.commentSaves()
         .subscribe { saveComment(it) }
@@ -87,6 +112,7 @@ class GameThreadPresenterV2 @Inject constructor(
           if (it) {
             if (view.isPremiumPurchased()) {
               shouldStream = true
+              streamCadence.reset()
               loadGameThread()
             } else {
               view.setStreamSwitch(false)
@@ -103,22 +129,42 @@ class GameThreadPresenterV2 @Inject constructor(
   override fun detachView() {
     disposable.clear()
     threadsDisposable.clear()
+    Timber.d("Streamed with %d requests and %d full reloads. Texts: %d hits, %d misses",
+        streamCadence.requestCount, streamCadence.fullReloadCount, textCache.hitCount,
+        textCache.missCount)
     super.detachView()
   }
 
   fun loadGameThread() {
-    val gameThreadsObs = if (shouldStream) {
-      gameThreadsRepository.gameThreads(home, visitor, gameTimeUtc, type)
-          .repeatWhen({ o -> o.delay(10, TimeUnit.SECONDS) })
-    } else {
-      gameThreadsRepository.gameThreads(home, visitor, gameTimeUtc, type)
-    }
-
+    newCommentsStream = null
     threadsDisposable.clear()
-    gameThreadsObs
+    lastLoadMillis = System.currentTimeMillis()
+    if (shouldStream) {
+      streamCadence.onFullReload(lastLoadMillis)
+    }
+    gameThreadsRepository.gameThreads(home, visitor, gameTimeUtc, type)
         .observeOn(schedulerProvider.ui(), true)
+        .concatMap { uiModel ->
+          if (uiModel.found) {
+            // Flatten and diff the comments in the background against the displayed ones, which
+            // are read here in the main thread.
+            val displayedItems = view.getDisplayedComments()
+            Single
+                .fromCallable {
+                  val update = ThreadItemsUpdate.create(displayedItems, uiModel.submission!!)
+                  prerender(update.items.map { it.commentNode })
+                  update
+                }
+                .subscribeOn(schedulerProvider.computation())
+                .observeOn(schedulerProvider.ui())
+                .map { Pair<GameThreadsUIModel, ThreadItemsUpdate?>(uiModel, it) }
+                .toObservable()
+          } else {
+            Observable.just(Pair<GameThreadsUIModel, ThreadItemsUpdate?>(uiModel, null))
+          }
+        }
         .subscribe(
-            { uiModel ->
+            { (uiModel, itemsUpdate) ->
               if (uiModel.inProgress && !shouldStream) {
                 view.setLoadingIndicator(true)
                 view.hideFab()
@@ -132,23 +178,22 @@ class GameThreadPresenterV2 @Inject constructor(
               if (uiModel.found) {
                 val submission = uiModel.submission!!
                 currentSubmission = submission
-                val iterator = submission.comments?.walkTree()
-
-                val threadItems = mutableListOf<ThreadItem>()
-                iterator?.forEach {
-                  threadItems.add(
-                      ThreadItem(
-                          ThreadAdapter.TYPE_COMMENT, it,
-                          it.depth))
-                }
+                newestCommentId = itemsUpdate!!.newestCommentId
 
-                if (threadItems.isEmpty()) {
+                if (itemsUpdate.items.isEmpty()) {
                   view.showNoCommentsText()
                   view.hideComments()
                 } else {
-                  view.showComments(threadItems)
+                  view.showComments(itemsUpdate)
                 }
                 view.showFab()
+
+                if (shouldStream) {
+                  recordComments(itemsUpdate.items.mapNotNull { it.commentNode })
+                  if (!streamPaused) {
+                    streamNewComments(submission.id)
+                  }
+                }
               }
 
               if (uiModel.notFound) {
@@ -170,6 +215,111 @@ class GameThreadPresenterV2 @Inject constructor(
         .addTo(threadsDisposable)
   }
 
+  /**
+   * Renders the text of the first comments of a thread before it's shown, and of the rest in the
+   * background while the first ones are displayed.
+   */
+  private fun prerender(comments: List<CommentNode?>) {
+    textCache.prerenderComments(comments, COMMENTS_RENDERED_BEFORE_SHOWING)
+    Completable.fromAction { textCache.prerenderComments(comments) }
+        .subscribeOn(schedulerProvider.computation())
+        .onErrorComplete()
+        .subscribe()
+        .addTo(threadsDisposable)
+  }
+
+  /**
+   * Stops streaming while the thread isn't visible, e.g. when another tab is selected.
+   */
+  fun pauseStreaming() {
+    streamPaused = true
+    stopNewCommentsStream()
+  }
+
+  /**
+   * Streams again if it was paused, reloading the thread if it was paused long enough to miss
+   * more than new comments.
+   */
+  fun resumeStreaming() {
+    if (!streamPaused) {
+      return
+    }
+    streamPaused = false
+    streamCadence.reset()
+
+    val submission = currentSubmission
+    if (!shouldStream || submission == null) {
+      return
+    }
+    if (System.currentTimeMillis() - lastLoadMillis >= FULL_RELOAD_INTERVAL_MILLIS) {
+      loadGameThread()
+    } else {
+      streamNewComments(submission.id)
+    }
+  }
+
+  /**
+   * Adds the comments posted to the thread without downloading the whole thread again, at the
+   * pace decided by the [StreamCadence]. The thread is reloaded fully when new comments may have
+   * been missed and every [FULL_RELOAD_INTERVAL_MILLIS] to pick up replies to older comments and
+   * votes.
+   */
+  private fun streamNewComments(submissionId: String) {
+    stopNewCommentsStream()
+    // The requests are made one after the other, each from where the previous one stopped. The
+    // comments shown move newestCommentId once they reach the main thread.
+    var requestedCommentId = newestCommentId
+    newCommentsStream = Observable
+        .defer {
+          Observable.timer(
+              streamCadence.nextDelayMillis(System.currentTimeMillis()),
+              TimeUnit.MILLISECONDS,
+              schedulerProvider.computation())
+        }
+        .concatMap {
+          streamCadence.onRequest(System.currentTimeMillis())
+          gameThreadsRepository.newComments(submissionId, requestedCommentId)
+              // Rendered in the background, before the comments are added in the main thread.
+              .observeOn(schedulerProvider.computation())
+              .doOnSuccess {
+                requestedCommentId = it.newestId
+                streamCadence.onNewComments(it.comments.size, System.currentTimeMillis())
+                textCache.prerenderComments(it.comments)
+              }
+              .toObservable()
+              .onErrorResumeNext(Observable.empty<CommentsDelta>())
+        }
+        .repeat()
+        .observeOn(schedulerProvider.ui())
+        .subscribe { delta ->
+          if (!delta.complete
+              || System.currentTimeMillis() - lastLoadMillis >= FULL_RELOAD_INTERVAL_MILLIS) {
+            loadGameThread()
+          } else if (!delta.comments.isEmpty()) {
+            newestCommentId = delta.newestId
+            view.hideNoCommentsText()
+            view.addNewComments(delta.comments)
+            recordComments(delta.comments)
+          }
+        }
+        .addTo(threadsDisposable)
+  }
+
+  /**
+   * Records the comments seen while streaming the live thread, so that it can be replayed after
+   * the game.
+   */
+  private fun recordComments(comments: List<CommentNode>) {
+    if (type == GameThreadType.LIVE) {
+      gameThreadRecorder.record(gameId, comments).subscribe()
+    }
+  }
+
+  private fun stopNewCommentsStream() {
+    newCommentsStream?.let { threadsDisposable.remove(it) }
+    newCommentsStream = null
+  }
+
   fun replyToComment(parentFullname: String, response: String) {
     redditActions.replyToComment(parentFullname, response)
         .subscribe(
@@ -0,0 +1,71 @@
+package com.gmail.jorgegilcavazos.ballislife.features.gamethread
+
+import com.gmail.jorgegilcavazos.ballislife.data.repository.gamethreads.GameThreadLog
+import com.gmail.jorgegilcavazos.ballislife.data.repository.gamethreads.RecordedComment
+import com.gmail.jorgegilcavazos.ballislife.data.repository.games.GameClockTracker
+import com.gmail.jorgegilcavazos.ballislife.data.repository.games.GamesRepository
+import com.gmail.jorgegilcavazos.ballislife.features.model.GameV2
+import com.gmail.jorgegilcavazos.ballislife.util.schedulers.BaseSchedulerProvider
+import io.reactivex.Completable
+import net.dean.jraw.models.CommentNode
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Records the comments of a live game thread seen while streaming in the [GameThreadLog], tagged
+ * with the game clock of the moment they were seen. Comments seen more than
+ * [MAX_CLOCK_LAG_MILLIS] after they were posted, e.g. the ones posted before streaming started,
+ * are recorded without a game clock.
+ */
+@Singleton
+class GameThreadRecorder @Inject constructor(
+    private val gameThreadLog: GameThreadLog,
+    private val gamesRepository: GamesRepository,
+    private val clockTracker: GameClockTracker,
+    private val schedulerProvider: BaseSchedulerProvider) {
+
+  companion object {
+    const val MAX_CLOCK_LAG_MILLIS = 60 * 1000L
+  }
+
+  fun record(gameId: String, comments: List<CommentNode>): Completable {
+    if (comments.isEmpty()) {
+      return Completable.complete()
+    }
+
+    val nowMillis = System.currentTimeMillis()
+    val game = gamesRepository.cachedGame(gameId)
+    val inGame = game != null && game.status == GameV2.IN_GAME
+    val period = if (inGame) game!!.period.toString() else ""
+    val gameClock = if (inGame) clockTracker.clockText(game!!, nowMillis) else ""
+
+    return Completable
+        .fromAction {
+          gameThreadLog.append(gameId, comments
+              .filter { it.comment != null }
+              .map { toRecordedComment(it, nowMillis, period, gameClock) })
+        }
+        .subscribeOn(schedulerProvider.io())
+        .onErrorComplete()
+  }
+
+  private fun toRecordedComment(
+      node: CommentNode,
+      nowMillis: Long,
+      period: String,
+      gameClock: String): RecordedComment {
+    val comment = node.comment
+    val createdMillis = comment.created.time
+    val clockKnown = nowMillis - createdMillis <= MAX_CLOCK_LAG_MILLIS
+    return RecordedComment(
+        id = comment.id,
+        author = comment.author ?: "",
+        bodyHtml = comment.data("body_html") ?: "",
+        score = comment.score ?: 0,
+        depth = node.depth,
+        createdMillis = createdMillis,
+        recordedAtMillis = nowMillis,
+        period = if (clockKnown) period else "",
+        gameClock = if (clockKnown) gameClock else "")
+  }
+}
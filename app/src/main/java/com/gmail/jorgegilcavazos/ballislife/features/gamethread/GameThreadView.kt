@@ -17,16 +17,22 @@ interface GameThreadView {
 
   fun getGameTimeUtc(): Long
 
+  fun getGameId(): String
+
   fun isPremiumPurchased(): Boolean
 
   fun setLoadingIndicator(active: Boolean)
 
-  fun showComments(comments: List<ThreadItem>)
+  fun getDisplayedComments(): List<ThreadItem>
+
+  fun showComments(update: ThreadItemsUpdate)
 
   fun hideComments()
 
   fun addComment(position: Int, comment: CommentNode)
 
+  fun addNewComments(comments: List<CommentNode>)
+
   fun showNoThreadText()
 
   fun hideNoThreadText()
@@ -0,0 +1,100 @@
+package com.gmail.jorgegilcavazos.ballislife.features.gamethread
+
+import java.util.*
+import javax.inject.Inject
+
+/**
+ * Decides how long to wait between the requests made to stream a game thread.
+ *
+ * The delay starts at [BASE_DELAY_MILLIS]. It doubles up to [MAX_DELAY_MILLIS] while requests
+ * bring few new comments, e.g. during halftime, and halves down to [MIN_DELAY_MILLIS] while
+ * comments pour in, e.g. during a close finish. No more than [MAX_REQUESTS_PER_MINUTE] requests
+ * are made in any minute whatever the pace of the thread. The number of requests made is kept in
+ * [requestCount] and [fullReloadCount].
+ */
+class StreamCadence @Inject constructor() {
+
+  companion object {
+    const val MIN_DELAY_MILLIS = 5 * 1000L
+    const val BASE_DELAY_MILLIS = 10 * 1000L
+    const val MAX_DELAY_MILLIS = 60 * 1000L
+    const val MAX_REQUESTS_PER_MINUTE = 8
+    const val SLOW_COMMENTS_PER_MINUTE = 6
+    const val FAST_COMMENTS_PER_MINUTE = 60
+    private const val MINUTE_MILLIS = 60 * 1000L
+  }
+
+  private var delayMillis = BASE_DELAY_MILLIS
+  private var lastResultMillis = 0L
+  private val recentRequests = ArrayDeque<Long>()
+
+  /**
+   * Number of requests for new comments made.
+   */
+  var requestCount = 0
+    @Synchronized get
+    private set
+
+  /**
+   * Number of times the whole thread was loaded while streaming.
+   */
+  var fullReloadCount = 0
+    @Synchronized get
+    private set
+
+  /**
+   * Returns how long to wait before the next request for new comments.
+   */
+  @Synchronized
+  fun nextDelayMillis(nowMillis: Long): Long {
+    pruneRequests(nowMillis)
+    if (recentRequests.size < MAX_REQUESTS_PER_MINUTE) {
+      return delayMillis
+    }
+    return Math.max(delayMillis, recentRequests.first + MINUTE_MILLIS - nowMillis)
+  }
+
+  @Synchronized
+  fun onRequest(nowMillis: Long) {
+    requestCount++
+    recentRequests.add(nowMillis)
+  }
+
+  @Synchronized
+  fun onFullReload(nowMillis: Long) {
+    fullReloadCount++
+    recentRequests.add(nowMillis)
+  }
+
+  /**
+   * Adjusts the delay to the number of new comments a request brought.
+   */
+  @Synchronized
+  fun onNewComments(count: Int, nowMillis: Long) {
+    val elapsed = if (lastResultMillis == 0L) delayMillis else nowMillis - lastResultMillis
+    lastResultMillis = nowMillis
+    val commentsPerMinute = count * MINUTE_MILLIS / Math.max(elapsed, 1L)
+
+    delayMillis = when {
+      commentsPerMinute >= FAST_COMMENTS_PER_MINUTE -> Math.max(delayMillis / 2, MIN_DELAY_MILLIS)
+      commentsPerMinute < SLOW_COMMENTS_PER_MINUTE -> Math.min(delayMillis * 2, MAX_DELAY_MILLIS)
+      delayMillis > BASE_DELAY_MILLIS -> Math.max(delayMillis / 2, BASE_DELAY_MILLIS)
+      else -> Math.min(delayMillis * 2, BASE_DELAY_MILLIS)
+    }
+  }
+
+  /**
+   * Starts over from [BASE_DELAY_MILLIS], the request limit still counts past requests.
+   */
+  @Synchronized
+  fun reset() {
+    delayMillis = BASE_DELAY_MILLIS
+    lastResultMillis = 0L
+  }
+
+  private fun pruneRequests(nowMillis: Long) {
+    while (!recentRequests.isEmpty() && nowMillis - recentRequests.first >= MINUTE_MILLIS) {
+      recentRequests.removeFirst()
+    }
+  }
+}
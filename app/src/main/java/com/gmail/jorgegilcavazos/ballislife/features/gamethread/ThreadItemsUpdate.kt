@@ -0,0 +1,43 @@
+package com.gmail.jorgegilcavazos.ballislife.features.gamethread
+
+import android.support.v7.util.DiffUtil
+import com.gmail.jorgegilcavazos.ballislife.features.common.ThreadAdapter
+import com.gmail.jorgegilcavazos.ballislife.features.common.ThreadItemDiffCallback
+import com.gmail.jorgegilcavazos.ballislife.features.model.ThreadItem
+import com.gmail.jorgegilcavazos.ballislife.util.CommentsTraverser
+import net.dean.jraw.models.Submission
+import java.util.*
+
+/**
+ * Comments of a thread flattened in display order, with the changes that turn the previously
+ * displayed items into them. Meant to be created off the main thread, so that displaying a
+ * thread only has to dispatch the [diff]. [newestCommentId] is the id to stream the new comments
+ * of the thread from.
+ */
+class ThreadItemsUpdate(
+    val previousItems: List<ThreadItem>,
+    val items: List<ThreadItem>,
+    val diff: DiffUtil.DiffResult,
+    val newestCommentId: Long) {
+
+  companion object {
+
+    fun create(previousItems: List<ThreadItem>, submission: Submission): ThreadItemsUpdate {
+      val items = ArrayList<ThreadItem>()
+      var newestCommentId = 0L
+      submission.comments?.walkTree()?.forEach {
+        items.add(ThreadItem(ThreadAdapter.TYPE_COMMENT, it, it.depth))
+        if (it.comment != null) {
+          newestCommentId = Math.max(newestCommentId, CommentsDelta.commentId(it))
+        }
+      }
+      CommentsTraverser.link(items)
+
+      // Comments don't move between reloads often enough to pay for detecting moves in threads
+      // with thousands of comments, a moved comment is removed and inserted instead.
+      val diff = DiffUtil.calculateDiff(ThreadItemDiffCallback(previousItems, items), false)
+      return ThreadItemsUpdate(
+          previousItems, Collections.unmodifiableList(items), diff, newestCommentId)
+    }
+  }
+}
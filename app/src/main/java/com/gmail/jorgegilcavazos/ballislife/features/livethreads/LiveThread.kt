@@ -0,0 +1,6 @@
+package com.gmail.jorgegilcavazos.ballislife.features.livethreads
+
+/**
+ * A live game thread followed in the dashboard, e.g. "SAS @ GSW".
+ */
+data class LiveThread(val submissionId: String, val label: String)
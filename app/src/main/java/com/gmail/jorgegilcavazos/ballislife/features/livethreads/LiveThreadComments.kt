@@ -0,0 +1,8 @@
+package com.gmail.jorgegilcavazos.ballislife.features.livethreads
+
+import com.gmail.jorgegilcavazos.ballislife.features.gamethread.CommentsDelta
+
+/**
+ * Comments posted to a followed thread since it was last polled.
+ */
+data class LiveThreadComments(val thread: LiveThread, val delta: CommentsDelta)
@@ -0,0 +1,168 @@
+package com.gmail.jorgegilcavazos.ballislife.features.livethreads;
+
+import android.os.Bundle;
+import android.support.annotation.NonNull;
+import android.support.design.widget.CoordinatorLayout;
+import android.support.design.widget.Snackbar;
+import android.support.v4.widget.SwipeRefreshLayout;
+import android.support.v7.app.AppCompatActivity;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.support.v7.widget.Toolbar;
+import android.view.Menu;
+import android.view.MenuInflater;
+import android.view.MenuItem;
+import android.view.View;
+
+import com.gmail.jorgegilcavazos.ballislife.R;
+import com.gmail.jorgegilcavazos.ballislife.features.application.BallIsLifeApplication;
+import com.gmail.jorgegilcavazos.ballislife.util.RenderedTextCache;
+
+import net.dean.jraw.models.CommentNode;
+
+import java.util.List;
+
+import javax.inject.Inject;
+
+import butterknife.BindView;
+import butterknife.ButterKnife;
+
+/**
+ * Follows the live game threads of the games in progress in a single list of their newest
+ * comments.
+ */
+public class LiveThreadsActivity extends AppCompatActivity
+        implements LiveThreadsView, SwipeRefreshLayout.OnRefreshListener {
+
+    @BindView(R.id.live_threads_coordinator_layout) CoordinatorLayout coordinatorLayout;
+    @BindView(R.id.live_threads_toolbar) Toolbar toolbar;
+    @BindView(R.id.live_threads_swipe_refresh) SwipeRefreshLayout swipeRefreshLayout;
+    @BindView(R.id.live_threads_recycler_view) RecyclerView recyclerView;
+
+    @Inject
+    LiveThreadsPresenter presenter;
+
+    @Inject
+    RenderedTextCache textCache;
+
+    private LinearLayoutManager linearLayoutManager;
+    private LiveThreadsAdapter liveThreadsAdapter;
+    private Snackbar snackbar;
+
+    @Override
+    public boolean onCreateOptionsMenu(Menu menu) {
+        MenuInflater inflater = getMenuInflater();
+        inflater.inflate(R.menu.menu_live_threads, menu);
+        return true;
+    }
+
+    @Override
+    public boolean onOptionsItemSelected(MenuItem item) {
+        switch (item.getItemId()) {
+            case android.R.id.home:
+                onBackPressed();
+                return true;
+            case R.id.action_refresh:
+                presenter.loadThreads();
+                return true;
+        }
+        return super.onOptionsItemSelected(item);
+    }
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_live_threads);
+        ButterKnife.bind(this);
+        BallIsLifeApplication.getAppComponent().inject(this);
+
+        setSupportActionBar(toolbar);
+        if (getSupportActionBar() != null) {
+            getSupportActionBar().setDisplayHomeAsUpEnabled(true);
+        }
+
+        setTitle(R.string.live_threads);
+
+        swipeRefreshLayout.setOnRefreshListener(this);
+
+        linearLayoutManager = new LinearLayoutManager(this);
+        liveThreadsAdapter = new LiveThreadsAdapter(this, textCache);
+
+        recyclerView.setLayoutManager(linearLayoutManager);
+        recyclerView.setAdapter(liveThreadsAdapter);
+
+        presenter.attachView(this);
+        presenter.loadThreads();
+    }
+
+    @Override
+    protected void onStart() {
+        super.onStart();
+        presenter.startStreaming();
+    }
+
+    @Override
+    protected void onStop() {
+        presenter.stopStreaming();
+        super.onStop();
+    }
+
+    @Override
+    protected void onDestroy() {
+        presenter.detachView();
+        dismissSnackbar();
+        super.onDestroy();
+    }
+
+    @Override
+    public void onRefresh() {
+        presenter.loadThreads();
+    }
+
+    @Override
+    public void setLoadingIndicator(boolean active) {
+        swipeRefreshLayout.setRefreshing(active);
+    }
+
+    @Override
+    public void clearComments() {
+        liveThreadsAdapter.clearData();
+    }
+
+    @Override
+    public void addComments(@NonNull LiveThread thread,
+                            @NonNull List<? extends CommentNode> comments) {
+        boolean atTop = linearLayoutManager.findFirstVisibleItemPosition() <= 0;
+        liveThreadsAdapter.addComments(thread, comments);
+        if (atTop) {
+            recyclerView.scrollToPosition(0);
+        }
+    }
+
+    @Override
+    public void showNoLiveThreadsSnackbar() {
+        snackbar = Snackbar.make(coordinatorLayout, R.string.no_live_threads,
+                Snackbar.LENGTH_INDEFINITE);
+        snackbar.show();
+    }
+
+    @Override
+    public void showErrorLoadingSnackbar() {
+        snackbar = Snackbar.make(coordinatorLayout, R.string.failed_live_threads,
+                Snackbar.LENGTH_INDEFINITE);
+        snackbar.setAction(R.string.retry, new View.OnClickListener() {
+            @Override
+            public void onClick(View v) {
+                presenter.loadThreads();
+            }
+        });
+        snackbar.show();
+    }
+
+    @Override
+    public void dismissSnackbar() {
+        if (snackbar != null && snackbar.isShown()) {
+            snackbar.dismiss();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.gmail.jorgegilcavazos.ballislife.features.livethreads;
+
+import android.content.Context;
+import android.support.v7.widget.RecyclerView;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import com.gmail.jorgegilcavazos.ballislife.R;
+import com.gmail.jorgegilcavazos.ballislife.util.DateFormatUtil;
+import com.gmail.jorgegilcavazos.ballislife.util.RenderedTextCache;
+
+import net.dean.jraw.models.Comment;
+import net.dean.jraw.models.CommentNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import butterknife.BindView;
+import butterknife.ButterKnife;
+
+/**
+ * Lists the newest comments of several live threads, newest first, each labeled with the game of
+ * its thread. Only the newest {@link #MAX_COMMENTS} comments are kept.
+ */
+public class LiveThreadsAdapter extends RecyclerView.Adapter<LiveThreadsAdapter.CommentViewHolder> {
+
+    public static final int MAX_COMMENTS = 200;
+
+    private Context context;
+    private RenderedTextCache textCache;
+    private List<LiveThread> threads = new ArrayList<>();
+    private List<CommentNode> comments = new ArrayList<>();
+
+    public LiveThreadsAdapter(Context context, RenderedTextCache textCache) {
+        this.context = context;
+        this.textCache = textCache;
+    }
+
+    @Override
+    public CommentViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+        return new CommentViewHolder(LayoutInflater.from(parent.getContext())
+                .inflate(R.layout.contribution_comment_layout, parent, false));
+    }
+
+    @Override
+    public void onBindViewHolder(CommentViewHolder holder, int position) {
+        Comment comment = comments.get(position).getComment();
+
+        holder.threadTextView.setText(threads.get(position).getLabel());
+        holder.authorTextView.setText(comment.getAuthor());
+        holder.bodyTextView.setText(textCache.commentBody(comment));
+        holder.timestampTextView.setText(DateFormatUtil.formatRedditDate(comment.getCreated()));
+        holder.scoreTextView.setText(context.getString(R.string.points,
+                String.valueOf(comment.getScore())));
+    }
+
+    @Override
+    public int getItemCount() {
+        return comments.size();
+    }
+
+    /**
+     * Adds the given comments of a thread, newest first, above the ones already listed.
+     */
+    public void addComments(LiveThread thread, List<? extends CommentNode> newComments) {
+        if (newComments.isEmpty()) {
+            return;
+        }
+
+        List<LiveThread> newThreads = new ArrayList<>(newComments.size());
+        for (int i = 0; i < newComments.size(); i++) {
+            newThreads.add(thread);
+        }
+        comments.addAll(0, newComments);
+        threads.addAll(0, newThreads);
+        notifyItemRangeInserted(0, newComments.size());
+
+        if (comments.size() > MAX_COMMENTS) {
+            int removed = comments.size() - MAX_COMMENTS;
+            comments.subList(MAX_COMMENTS, comments.size()).clear();
+            threads.subList(MAX_COMMENTS, threads.size()).clear();
+            notifyItemRangeRemoved(MAX_COMMENTS, removed);
+        }
+    }
+
+    public void clearData() {
+        comments.clear();
+        threads.clear();
+        notifyDataSetChanged();
+    }
+
+    public static class CommentViewHolder extends RecyclerView.ViewHolder {
+        @BindView(R.id.comment_post_title) TextView threadTextView;
+        @BindView(R.id.comment_author) TextView authorTextView;
+        @BindView(R.id.comment_score) TextView scoreTextView;
+        @BindView(R.id.comment_timestamp) TextView timestampTextView;
+        @BindView(R.id.comment_body) TextView bodyTextView;
+
+        public CommentViewHolder(View view) {
+            super(view);
+            ButterKnife.bind(this, view);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.gmail.jorgegilcavazos.ballislife.features.livethreads
+
+import android.support.annotation.VisibleForTesting
+import com.gmail.jorgegilcavazos.ballislife.data.repository.gamethreads.GameThreadsRepository
+import com.gmail.jorgegilcavazos.ballislife.features.gamethread.CommentsDelta
+import com.gmail.jorgegilcavazos.ballislife.util.schedulers.BaseSchedulerProvider
+import io.reactivex.Observable
+import java.util.*
+import java.util.concurrent.TimeUnit
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Polls the newest comments of every followed live thread from a single loop instead of one loop
+ * per thread. The threads share one request budget, not requests: every thread polled still
+ * takes a request of its own.
+ *
+ * Every round polls up to [MAX_THREADS_PER_ROUND] threads, taking turns so that every thread is
+ * polled as often as the others. Rounds are spaced so that no more than
+ * [REQUEST_BUDGET_PER_MINUTE] requests are made in a minute however many threads are followed,
+ * and no thread is polled more often than every [MIN_THREAD_INTERVAL_MILLIS]. The loop only runs
+ * while [newComments] is subscribed to, and makes no requests while no thread is followed.
+ *
+ * The poller keeps the id of the newest comment seen of each thread, apart from any other reader
+ * of the same thread. It stays put after an incomplete delta until the thread is followed again
+ * with the id of the newest comment of the reloaded thread.
+ */
+@Singleton
+class LiveThreadsPoller @Inject constructor(
+    private val gameThreadsRepository: GameThreadsRepository,
+    private val schedulerProvider: BaseSchedulerProvider) {
+
+  companion object {
+    const val REQUEST_BUDGET_PER_MINUTE = 12
+    const val MAX_THREADS_PER_ROUND = 4
+    const val MIN_THREAD_INTERVAL_MILLIS = 10 * 1000L
+    private const val MINUTE_MILLIS = 60 * 1000L
+  }
+
+  private val threads = ArrayList<LiveThread>()
+  private val newestCommentIds = HashMap<LiveThread, Long>()
+  private var cursor = 0
+
+  /**
+   * Number of requests for new comments made.
+   */
+  var requestCount = 0
+    @Synchronized get
+    private set
+
+  private val comments: Observable<LiveThreadComments> = Observable
+      .defer {
+        Observable.timer(nextRoundDelayMillis(), TimeUnit.MILLISECONDS,
+            schedulerProvider.computation())
+      }
+      .concatMap { pollRound() }
+      .repeat()
+      .share()
+
+  /**
+   * Adds a thread to the ones polled, or moves it to the given comment if it is already followed.
+   * Its new comments are those posted after the comment with the given id.
+   */
+  @Synchronized
+  fun follow(thread: LiveThread, newestCommentId: Long) {
+    if (!threads.contains(thread)) {
+      threads.add(thread)
+    }
+    newestCommentIds[thread] = newestCommentId
+  }
+
+  @Synchronized
+  fun unfollow(thread: LiveThread) {
+    val index = threads.indexOf(thread)
+    if (index == -1) {
+      return
+    }
+    threads.removeAt(index)
+    newestCommentIds.remove(thread)
+    if (index < cursor) {
+      cursor--
+    }
+  }
+
+  @Synchronized
+  fun followedThreads(): List<LiveThread> = ArrayList(threads)
+
+  /**
+   * Returns the id of the newest comment seen of a followed thread, or null if it isn't followed.
+   */
+  @Synchronized
+  fun newestCommentId(thread: LiveThread): Long? = newestCommentIds[thread]
+
+  /**
+   * Emits the new comments of the followed threads, shared by every subscriber.
+   */
+  fun newComments(): Observable<LiveThreadComments> = comments
+
+  /**
+   * Returns the threads to poll in the next round, continuing from where the last round stopped.
+   */
+  @VisibleForTesting
+  @Synchronized
+  fun nextRoundThreads(): List<LiveThread> {
+    val roundSize = Math.min(threads.size, MAX_THREADS_PER_ROUND)
+    val roundThreads = ArrayList<LiveThread>(roundSize)
+    for (i in 0 until roundSize) {
+      if (cursor >= threads.size) {
+        cursor = 0
+      }
+      roundThreads.add(threads[cursor++])
+    }
+    return roundThreads
+  }
+
+  /**
+   * Returns how long to wait before the next round, enough for the round to stay within the
+   * request budget and for its threads not to be polled too often.
+   */
+  @VisibleForTesting
+  @Synchronized
+  fun nextRoundDelayMillis(): Long {
+    if (threads.isEmpty()) {
+      return MIN_THREAD_INTERVAL_MILLIS
+    }
+    val roundSize = Math.min(threads.size, MAX_THREADS_PER_ROUND)
+    val budgetDelay = roundSize * MINUTE_MILLIS / REQUEST_BUDGET_PER_MINUTE
+    val threadDelay = MIN_THREAD_INTERVAL_MILLIS * roundSize / threads.size
+    return Math.max(budgetDelay, threadDelay)
+  }
+
+  private fun pollRound(): Observable<LiveThreadComments> {
+    val roundThreads = nextRoundThreads()
+    synchronized(this) { requestCount += roundThreads.size }
+    // One request per thread, the round only bounds how many are made at once.
+    return Observable.fromIterable(roundThreads)
+        .flatMap { thread ->
+          val newestCommentId = newestCommentId(thread)
+          if (newestCommentId == null) {
+            // Unfollowed since the round started.
+            Observable.empty<LiveThreadComments>()
+          } else {
+            gameThreadsRepository.newComments(thread.submissionId, newestCommentId)
+                .doOnSuccess { onDelta(thread, newestCommentId, it) }
+                .map { LiveThreadComments(thread, it) }
+                .toObservable()
+                .onErrorResumeNext(Observable.empty<LiveThreadComments>())
+          }
+        }
+  }
+
+  /**
+   * Moves a thread past the comments of a complete delta, unless it was followed again or
+   * unfollowed while the delta was requested.
+   */
+  @Synchronized
+  private fun onDelta(thread: LiveThread, requestedCommentId: Long, delta: CommentsDelta) {
+    if (delta.complete && newestCommentIds[thread] == requestedCommentId) {
+      newestCommentIds[thread] = delta.newestId
+    }
+  }
+}
@@ -0,0 +1,196 @@
+package com.gmail.jorgegilcavazos.ballislife.features.livethreads
+
+import android.support.annotation.VisibleForTesting
+import com.gmail.jorgegilcavazos.ballislife.base.BasePresenter
+import com.gmail.jorgegilcavazos.ballislife.data.repository.gamethreads.GameThreadsRepository
+import com.gmail.jorgegilcavazos.ballislife.data.repository.games.GamesRepository
+import com.gmail.jorgegilcavazos.ballislife.features.gamethread.CommentsDelta
+import com.gmail.jorgegilcavazos.ballislife.features.model.GameThreadType
+import com.gmail.jorgegilcavazos.ballislife.features.model.GameV2
+import com.gmail.jorgegilcavazos.ballislife.util.CrashReporter
+import com.gmail.jorgegilcavazos.ballislife.util.RenderedTextCache
+import com.gmail.jorgegilcavazos.ballislife.util.schedulers.BaseSchedulerProvider
+import io.reactivex.Maybe
+import io.reactivex.Observable
+import io.reactivex.disposables.CompositeDisposable
+import io.reactivex.disposables.Disposable
+import io.reactivex.rxkotlin.addTo
+import net.dean.jraw.models.CommentNode
+import net.dean.jraw.models.Submission
+import java.util.*
+import javax.inject.Inject
+
+/**
+ * Shows the newest comments of the live game threads of today's games in progress. The threads are
+ * loaded once and then followed through the shared [LiveThreadsPoller]. A thread is loaded again
+ * when more comments were posted to it than a poll can fetch, to show the ones missed.
+ */
+class LiveThreadsPresenter @Inject constructor(
+    private val gamesRepository: GamesRepository,
+    private val gameThreadsRepository: GameThreadsRepository,
+    private val liveThreadsPoller: LiveThreadsPoller,
+    private val schedulerProvider: BaseSchedulerProvider,
+    private val disposable: CompositeDisposable,
+    private val crashReporter: CrashReporter,
+    private val textCache: RenderedTextCache) : BasePresenter<LiveThreadsView>() {
+
+  companion object {
+    const val MAX_THREADS = LiveThreadsPoller.MAX_THREADS_PER_ROUND
+    const val INITIAL_COMMENTS_PER_THREAD = 5
+  }
+
+  private val threads = ArrayList<LiveThread>()
+  private val games = HashMap<LiveThread, GameV2>()
+  private val reloadingThreads = HashSet<LiveThread>()
+  private var newCommentsStream: Disposable? = null
+  private var streaming = false
+
+  override fun detachView() {
+    stopStreaming()
+    disposable.clear()
+    unfollowThreads()
+    super.detachView()
+  }
+
+  fun loadThreads() {
+    disposable.clear()
+    unfollowThreads()
+    view.dismissSnackbar()
+    view.clearComments()
+    view.setLoadingIndicator(true)
+
+    gamesRepository.games(Calendar.getInstance(), false)
+        .filter { it.isMemorySuccess || it.isDiskSuccess || it.isNetworkSuccess }
+        .lastElement()
+        .flatMapObservable { Observable.fromIterable(selectGames(it.games)) }
+        .concatMap { game ->
+          loadThread(game)
+              .observeOn(schedulerProvider.computation())
+              .doOnSuccess { textCache.prerenderComments(getNewestComments(it)) }
+              .map { Pair(game, it) }
+              .toObservable()
+              .onErrorResumeNext(Observable.empty<Pair<GameV2, Submission>>())
+        }
+        .observeOn(schedulerProvider.ui())
+        .subscribe(
+            { (game, submission) ->
+              val thread = LiveThread(submission.id, getLabel(game))
+              threads.add(thread)
+              games[thread] = game
+              liveThreadsPoller.follow(thread, CommentsDelta.newestCommentId(submission))
+              view.addComments(thread, getNewestComments(submission))
+            },
+            { e ->
+              crashReporter.report(e)
+              view.setLoadingIndicator(false)
+              view.showErrorLoadingSnackbar()
+            },
+            {
+              view.setLoadingIndicator(false)
+              if (threads.isEmpty()) {
+                view.showNoLiveThreadsSnackbar()
+              } else if (streaming) {
+                subscribeToNewComments()
+              }
+            }
+        )
+        .addTo(disposable)
+  }
+
+  /**
+   * Shows the new comments of the followed threads as the poller finds them, e.g. while the
+   * dashboard is visible.
+   */
+  fun startStreaming() {
+    streaming = true
+    if (!threads.isEmpty()) {
+      subscribeToNewComments()
+    }
+  }
+
+  fun stopStreaming() {
+    streaming = false
+    newCommentsStream?.dispose()
+    newCommentsStream = null
+  }
+
+  @VisibleForTesting
+  fun selectGames(games: List<GameV2>): List<GameV2> {
+    return games.filter { it.status == GameV2.IN_GAME }.take(MAX_THREADS)
+  }
+
+  private fun subscribeToNewComments() {
+    newCommentsStream?.dispose()
+    newCommentsStream = liveThreadsPoller.newComments()
+        .observeOn(schedulerProvider.computation())
+        .doOnNext { textCache.prerenderComments(it.delta.comments) }
+        .observeOn(schedulerProvider.ui())
+        .filter { threads.contains(it.thread) && !reloadingThreads.contains(it.thread) }
+        .subscribe {
+          if (!it.delta.complete) {
+            reloadThread(it.thread)
+          } else if (!it.delta.comments.isEmpty()) {
+            view.addComments(it.thread, newestFirst(it.delta.comments))
+          }
+        }
+  }
+
+  /**
+   * Loads a thread again to show the comments posted after the newest one seen, which didn't fit
+   * in a poll, and follows it again from the newest comment loaded.
+   */
+  private fun reloadThread(thread: LiveThread) {
+    val game = games[thread] ?: return
+    val newestCommentId = liveThreadsPoller.newestCommentId(thread) ?: return
+    reloadingThreads.add(thread)
+    loadThread(game)
+        .observeOn(schedulerProvider.computation())
+        .map { submission ->
+          val missedComments = getComments(submission)
+              .filter { CommentsDelta.commentId(it) > newestCommentId }
+          textCache.prerenderComments(missedComments)
+          Pair(submission, missedComments)
+        }
+        .observeOn(schedulerProvider.ui())
+        .doFinally { reloadingThreads.remove(thread) }
+        .subscribe(
+            { (submission, missedComments) ->
+              view.addComments(thread, newestFirst(missedComments))
+              liveThreadsPoller.follow(thread, CommentsDelta.newestCommentId(submission))
+            },
+            { crashReporter.report(it) }
+        )
+        .addTo(disposable)
+  }
+
+  private fun loadThread(game: GameV2): Maybe<Submission> {
+    return gameThreadsRepository.gameThreads(
+        game.homeTeamAbbr, game.awayTeamAbbr, game.timeUtc, GameThreadType.LIVE)
+        .filter { !it.inProgress }
+        .lastElement()
+        .filter { it.found }
+        .map { it.submission!! }
+  }
+
+  private fun unfollowThreads() {
+    threads.forEach { liveThreadsPoller.unfollow(it) }
+    threads.clear()
+    games.clear()
+    reloadingThreads.clear()
+  }
+
+  private fun getNewestComments(submission: Submission): List<CommentNode> {
+    return newestFirst(getComments(submission)).take(INITIAL_COMMENTS_PER_THREAD)
+  }
+
+  private fun getComments(submission: Submission): List<CommentNode> {
+    val comments = submission.comments?.walkTree()?.toList() ?: return emptyList()
+    return comments.filter { it.comment != null }
+  }
+
+  private fun newestFirst(comments: List<CommentNode>): List<CommentNode> {
+    return comments.sortedByDescending { it.comment.created }
+  }
+
+  private fun getLabel(game: GameV2) = "${game.awayTeamAbbr} @ ${game.homeTeamAbbr}"
+}
@@ -0,0 +1,21 @@
+package com.gmail.jorgegilcavazos.ballislife.features.livethreads
+
+import net.dean.jraw.models.CommentNode
+
+interface LiveThreadsView {
+
+  fun setLoadingIndicator(active: Boolean)
+
+  fun clearComments()
+
+  /**
+   * Shows the given comments of a thread above the ones already shown, newest first.
+   */
+  fun addComments(thread: LiveThread, comments: List<CommentNode>)
+
+  fun showNoLiveThreadsSnackbar()
+
+  fun showErrorLoadingSnackbar()
+
+  fun dismissSnackbar()
+}
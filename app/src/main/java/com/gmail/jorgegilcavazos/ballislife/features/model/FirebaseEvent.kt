@@ -0,0 +1,15 @@
+package com.gmail.jorgegilcavazos.ballislife.features.model
+
+import com.google.gson.JsonElement
+
+/**
+ * A change streamed by the Firebase REST API. The [data] replaces ([PUT]) or is merged into
+ * ([PATCH]) the value at [path], relative to the streamed location.
+ */
+data class FirebaseEvent(val type: String, val path: String, val data: JsonElement?) {
+
+  companion object {
+    const val PUT = "put"
+    const val PATCH = "patch"
+  }
+}
@@ -4,4 +4,5 @@ import com.google.gson.annotations.SerializedName
 
 data class GameThreadSummary(val id: String,
                              val title: String,
-                             @SerializedName("created_utc") val createdUtc: Long)
+                             @SerializedName("created_utc") val createdUtc: Long,
+                             val score: Int = 0)
@@ -1,26 +1,58 @@
 package com.gmail.jorgegilcavazos.ballislife.features.model
 
-data class GameV2(val arena: String,
-                  val awayTeamAbbr: String,
-                  val awayTeamCity: String,
-                  val awayTeamId: String,
-                  val awayTeamKey: String,
-                  val awayTeamNickname: String,
-                  val awayTeamScore: String,
-                  val city: String,
-                  val date: String,
-                  val gameClock: String,
-                  val gameStatus: String,
-                  val homeTeamAbbr: String,
-                  val homeTeamCity: String,
-                  val homeTeamId: String,
-                  val homeTeamKey: String,
-                  val homeTeamNickname: String,
-                  val homeTeamScore: String,
-                  val id: String,
-                  val periodName: String,
-                  val periodStatus: String,
-                  val periodValue: String,
-                  val time: String,
-                  val timeUtc: Long,
-                  val totalPeriods: String)
\ No newline at end of file
+import com.gmail.jorgegilcavazos.ballislife.util.GameV2TypeAdapter
+import com.google.gson.annotations.JsonAdapter
+
+/**
+ * A game of the NBA season. Firebase stores every field of a game as a string, [GameV2TypeAdapter]
+ * parses scores, periods and statuses into numbers and reads both teams from the shared [Team]
+ * table, so a season of games doesn't hold a copy of every team name per game.
+ */
+@JsonAdapter(GameV2TypeAdapter::class)
+data class GameV2(
+    val id: String,
+    val homeTeam: Team,
+    val awayTeam: Team,
+    val status: Int,
+    val homeScore: Int,
+    val awayScore: Int,
+    val period: Int,
+    val periodName: String,
+    val periodStatus: String,
+    val totalPeriods: Int,
+    val gameClock: String,
+    val arena: String,
+    val city: String,
+    val date: String,
+    val time: String,
+    val timeUtc: Long) {
+
+  companion object {
+    const val PRE_GAME = 1
+    const val IN_GAME = 2
+    const val POST_GAME = 3
+
+    /**
+     * Score of the teams of a game that hasn't started.
+     */
+    const val NO_SCORE = -1
+  }
+
+  val homeTeamAbbr: String
+    get() = homeTeam.abbr
+
+  val awayTeamAbbr: String
+    get() = awayTeam.abbr
+
+  /**
+   * The home team's score as displayed, empty if the game hasn't started.
+   */
+  val homeScoreText: String
+    get() = if (homeScore == NO_SCORE) "" else homeScore.toString()
+
+  /**
+   * The away team's score as displayed, empty if the game hasn't started.
+   */
+  val awayScoreText: String
+    get() = if (awayScore == NO_SCORE) "" else awayScore.toString()
+}
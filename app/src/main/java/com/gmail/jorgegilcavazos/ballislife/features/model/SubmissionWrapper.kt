@@ -1,5 +1,6 @@
 package com.gmail.jorgegilcavazos.ballislife.features.model
 
+import net.dean.jraw.models.CommentNode
 import net.dean.jraw.models.CommentSort
 import net.dean.jraw.models.Submission
 import net.dean.jraw.models.VoteDirection
@@ -26,6 +27,11 @@ data class SubmissionWrapper(val id: String,
   var selfTextHtml: String? = null
   var url: String? = null
   var sort: CommentSort? = null
+  /**
+   * Comments in [sort] order if they were sorted locally, null if the comment tree of the
+   * [submission] is already in that order.
+   */
+  @Transient var sortedComments: List<CommentNode>? = null
 
   init {
     created = submission?.created?.time ?: 0
@@ -44,4 +50,28 @@ data class SubmissionWrapper(val id: String,
 
   constructor(submission: Submission) :
       this(submission.id, submission, submission.title, submission.author)
+
+  /**
+   * Returns a copy of this wrapper whose comments are the given ones, sorted locally in the
+   * given order. This wrapper is left as it is.
+   */
+  fun withSortedComments(sort: CommentSort, sortedComments: List<CommentNode>)
+      : SubmissionWrapper {
+    val wrapper = copy()
+    wrapper.created = created
+    wrapper.domain = domain
+    wrapper.isSelfPost = isSelfPost
+    wrapper.isStickied = isStickied
+    wrapper.score = score
+    wrapper.commentCount = commentCount
+    wrapper.thumbnail = thumbnail
+    wrapper.highResThumbnail = highResThumbnail
+    wrapper.voteDirection = voteDirection
+    wrapper.isSaved = isSaved
+    wrapper.selfTextHtml = selfTextHtml
+    wrapper.url = url
+    wrapper.sort = sort
+    wrapper.sortedComments = sortedComments
+    return wrapper
+  }
 }
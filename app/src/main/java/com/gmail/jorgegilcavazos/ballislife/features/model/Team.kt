@@ -0,0 +1,40 @@
+package com.gmail.jorgegilcavazos.ballislife.features.model
+
+/**
+ * A team playing in a [GameV2]. Teams are read through [of] so that every game of a team
+ * references the same instance instead of holding its own copies of the team's strings.
+ */
+data class Team(
+    val id: String,
+    val key: String,
+    val abbr: String,
+    val city: String,
+    val nickname: String) {
+
+  companion object {
+    /**
+     * The 30 teams with room for the international and All-Star teams of exhibition games.
+     */
+    const val MAX_TEAMS = 64
+
+    private val teams = HashMap<Team, Team>()
+
+    /**
+     * Returns the shared instance of the team with the given fields. Teams first seen after
+     * [MAX_TEAMS] teams are returned unshared.
+     */
+    fun of(id: String, key: String, abbr: String, city: String, nickname: String): Team {
+      val team = Team(id, key, abbr, city, nickname)
+      synchronized(teams) {
+        val shared = teams[team]
+        if (shared != null) {
+          return shared
+        }
+        if (teams.size < MAX_TEAMS) {
+          teams.put(team, team)
+        }
+        return team
+      }
+    }
+  }
+}
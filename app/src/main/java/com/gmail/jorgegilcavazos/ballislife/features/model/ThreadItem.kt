@@ -2,4 +2,31 @@ package com.gmail.jorgegilcavazos.ballislife.features.model
 
 import net.dean.jraw.models.CommentNode
 
-class ThreadItem(val type: Int, val commentNode: CommentNode?, val depth: Int)
\ No newline at end of file
+/**
+ * Item of a list of comments. The comment node of a "load more" item is the comment whose
+ * replies aren't loaded.
+ */
+class ThreadItem @JvmOverloads constructor(
+    val type: Int,
+    val commentNode: CommentNode?,
+    val depth: Int,
+    /**
+     * Item of the comment this item is a reply to, or null if it is a top level item or the
+     * item of its parent isn't known.
+     */
+    var parent: ThreadItem? = null) {
+
+  /**
+   * Number of items right after this one that belong to its subtree and are in the list, i.e.
+   * not counting the items hidden while this item or one of its replies is collapsed.
+   */
+  var subtreeSize = 0
+
+  /**
+   * Items of the subtree of this item hidden while it is collapsed, null if it isn't collapsed.
+   */
+  var collapsedItems: MutableList<ThreadItem>? = null
+
+  val isCollapsed: Boolean
+    get() = collapsedItems != null
+}
@@ -16,6 +16,7 @@ import com.gmail.jorgegilcavazos.ballislife.features.model.SubmissionWrapper;
 import com.gmail.jorgegilcavazos.ballislife.features.model.SubscriberCount;
 import com.gmail.jorgegilcavazos.ballislife.util.Pair;
 import com.gmail.jorgegilcavazos.ballislife.util.RedditUtils;
+import com.gmail.jorgegilcavazos.ballislife.util.RenderedTextCache;
 import com.gmail.jorgegilcavazos.ballislife.util.Utilities;
 import com.google.common.base.Optional;
 import com.google.firebase.crash.FirebaseCrash;
@@ -38,6 +39,7 @@ import static com.gmail.jorgegilcavazos.ballislife.util.Constants.VIEW_HEADER;
 public class PostsAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
     private Context context;
     private RedditAuthentication redditAuthentication;
+    private RenderedTextCache textCache;
     private List<SubmissionWrapper> postsList;
     private int contentViewType;
     private OnSubmissionClickListener submissionClickListener;
@@ -47,13 +49,15 @@ public class PostsAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
     private PublishSubject<Submission> sharePublishSubject = PublishSubject.create();
 
     public PostsAdapter(Context context,
-                        RedditAuthentication redditAuthentication, List<SubmissionWrapper>
-                                postsList,
+                        RedditAuthentication redditAuthentication,
+                        RenderedTextCache textCache,
+                        List<SubmissionWrapper> postsList,
                         int contentViewType,
                         OnSubmissionClickListener submissionClickListener,
                         String subreddit) {
         this.context = context;
         this.redditAuthentication = redditAuthentication;
+        this.textCache = textCache;
         this.postsList = postsList;
         this.contentViewType = contentViewType;
         this.submissionClickListener = submissionClickListener;
@@ -91,13 +95,13 @@ public class PostsAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
             switch (contentViewType) {
                 case POSTS_VIEW_LIST:
                     ((PostListViewHolder) holder).bindData(
-                            context, redditAuthentication, submissionWrapper,
+                            context, redditAuthentication, textCache, submissionWrapper,
                             true,
                             submissionClickListener);
                     break;
                 case POSTS_VIEW_WIDE_CARD:
                     ((WideCardViewHolder) holder).bindData(
-                            context, redditAuthentication, submissionWrapper,
+                            context, redditAuthentication, textCache, submissionWrapper,
                             submissionClickListener,
                             sharePublishSubject);
                     break;
@@ -37,6 +37,7 @@ import com.gmail.jorgegilcavazos.ballislife.features.model.SubscriberCount;
 import com.gmail.jorgegilcavazos.ballislife.features.submission.SubmissionActivity;
 import com.gmail.jorgegilcavazos.ballislife.features.videoplayer.VideoPlayerActivity;
 import com.gmail.jorgegilcavazos.ballislife.util.Constants;
+import com.gmail.jorgegilcavazos.ballislife.util.RenderedTextCache;
 
 import net.dean.jraw.models.VoteDirection;
 import net.dean.jraw.paginators.Sorting;
@@ -74,6 +75,9 @@ public class PostsFragment extends Fragment implements PostsView,
     @Inject
     RedditAuthentication redditAuthentication;
 
+    @Inject
+    RenderedTextCache textCache;
+
     @BindView(R.id.swipeRefreshLayout) SwipeRefreshLayout swipeRefreshLayout;
     @BindView(R.id.recyclerView_posts) RecyclerView recyclerViewPosts;
     Parcelable listState;
@@ -116,7 +120,7 @@ public class PostsFragment extends Fragment implements PostsView,
         }
 
         linearLayoutManager = new LinearLayoutManager(getActivity());
-        postsAdapter = new PostsAdapter(getActivity(), redditAuthentication,
+        postsAdapter = new PostsAdapter(getActivity(), redditAuthentication, textCache,
                 null, viewType, this, subreddit);
 
         setHasOptionsMenu(true);
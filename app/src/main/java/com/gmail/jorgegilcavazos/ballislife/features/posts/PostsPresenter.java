@@ -10,6 +10,7 @@ import com.gmail.jorgegilcavazos.ballislife.data.service.RedditService;
 import com.gmail.jorgegilcavazos.ballislife.features.model.SubmissionWrapper;
 import com.gmail.jorgegilcavazos.ballislife.features.model.SubscriberCount;
 import com.gmail.jorgegilcavazos.ballislife.util.Constants;
+import com.gmail.jorgegilcavazos.ballislife.util.RenderedTextCache;
 import com.gmail.jorgegilcavazos.ballislife.util.Utilities;
 import com.gmail.jorgegilcavazos.ballislife.util.exception.NotAuthenticatedException;
 import com.gmail.jorgegilcavazos.ballislife.util.exception.NotLoggedInException;
@@ -41,6 +42,7 @@ public class PostsPresenter extends BasePresenter<PostsView> {
     private PostsRepository postsRepository;
     private RedditService service;
     private BaseSchedulerProvider schedulerProvider;
+    private RenderedTextCache textCache;
 
     private CompositeDisposable disposables;
     private String subreddit;
@@ -52,13 +54,15 @@ public class PostsPresenter extends BasePresenter<PostsView> {
             @Named("redditSharedPreferences") SharedPreferences redditPrefs,
             PostsRepository postsRepository,
             RedditService redditService,
-            BaseSchedulerProvider schedulerProvider) {
+            BaseSchedulerProvider schedulerProvider,
+            RenderedTextCache textCache) {
         this.redditAuthentication = redditAuthentication;
         this.localRepository = localRepository;
         this.redditPrefs = redditPrefs;
         this.postsRepository = postsRepository;
         this.service = redditService;
         this.schedulerProvider = schedulerProvider;
+        this.textCache = textCache;
 
         disposables = new CompositeDisposable();
     }
@@ -116,6 +120,7 @@ public class PostsPresenter extends BasePresenter<PostsView> {
 
         disposables.add(redditAuthentication.authenticate()
                 .andThen(postsRepository.next())
+                .doOnSuccess(textCache::prerenderSubmissions)
                 .subscribeOn(schedulerProvider.io())
                 .observeOn(schedulerProvider.ui()).subscribeWith(new DisposableSingleObserver<List<SubmissionWrapper>>() {
                     @Override
@@ -4,7 +4,6 @@ import android.content.Context;
 import android.graphics.Typeface;
 import android.support.v4.content.ContextCompat;
 import android.support.v7.widget.RecyclerView;
-import android.text.Html;
 import android.view.View;
 import android.widget.ImageButton;
 import android.widget.ImageView;
@@ -16,7 +15,7 @@ import com.gmail.jorgegilcavazos.ballislife.features.common.OnSubmissionClickLis
 import com.gmail.jorgegilcavazos.ballislife.features.model.SubmissionWrapper;
 import com.gmail.jorgegilcavazos.ballislife.util.DateFormatUtil;
 import com.gmail.jorgegilcavazos.ballislife.util.Pair;
-import com.gmail.jorgegilcavazos.ballislife.util.RedditUtils;
+import com.gmail.jorgegilcavazos.ballislife.util.RenderedTextCache;
 import com.gmail.jorgegilcavazos.ballislife.util.Utilities;
 import com.gmail.jorgegilcavazos.ballislife.util.Utilities.ThumbnailType;
 import com.google.common.base.Optional;
@@ -75,16 +74,16 @@ public class WideCardViewHolder extends RecyclerView.ViewHolder {
     }
 
     public void bindData(final Context context,
-                         RedditAuthentication redditAuthentication, final SubmissionWrapper
-                                 submissionWrapper,
+                         RedditAuthentication redditAuthentication,
+                         RenderedTextCache textCache,
+                         final SubmissionWrapper submissionWrapper,
                          final OnSubmissionClickListener submissionClickListener,
                          final PublishSubject<Submission> shareSubject) {
-        String title = submissionWrapper.getTitle();
         String author = submissionWrapper.getAuthor();
         long timestamp = submissionWrapper.getCreated();
         int commentCount = submissionWrapper.getCommentCount();
         int score = submissionWrapper.getScore();
-        String selfTextHtml = submissionWrapper.getSelfTextHtml();
+        CharSequence selfText = textCache.selfText(submissionWrapper);
         String domain = submissionWrapper.getDomain();
         String url = submissionWrapper.getUrl();
         boolean isSelf = submissionWrapper.isSelfPost();
@@ -95,13 +94,9 @@ public class WideCardViewHolder extends RecyclerView.ViewHolder {
         Optional<Pair<ThumbnailType, String>> thumbnailTypeUrl = Utilities
                 .getThumbnailToShowFromCustomSubmission(submissionWrapper);
 
-        if (android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.N) {
-            tvTitle.setText(Html.fromHtml(title, Html.FROM_HTML_MODE_LEGACY));
-            tvTitleSmall.setText(Html.fromHtml(title, Html.FROM_HTML_MODE_LEGACY));
-        } else {
-            tvTitle.setText(Html.fromHtml(title));
-            tvTitleSmall.setText(Html.fromHtml(title));
-        }
+        CharSequence title = textCache.title(submissionWrapper);
+        tvTitle.setText(title);
+        tvTitleSmall.setText(title);
 
         // Show / hide thumbnails and titles depending on which thumbnail is available.
         ivThumbnail.setVisibility(View.GONE);
@@ -147,9 +142,9 @@ public class WideCardViewHolder extends RecyclerView.ViewHolder {
             tvTitle.setTypeface(null, Typeface.NORMAL);
         }
 
-        if (isSelf && selfTextHtml != null && !selfTextHtml.isEmpty()) {
+        if (isSelf && selfText != null) {
             tvBody.setVisibility(View.VISIBLE);
-            tvBody.setText(RedditUtils.bindSnuDown(selfTextHtml));
+            tvBody.setText(selfText);
         } else {
             tvBody.setVisibility(View.GONE);
         }
@@ -11,7 +11,7 @@ import android.widget.TextView;
 import com.gmail.jorgegilcavazos.ballislife.R;
 import com.gmail.jorgegilcavazos.ballislife.util.Constants;
 import com.gmail.jorgegilcavazos.ballislife.util.DateFormatUtil;
-import com.gmail.jorgegilcavazos.ballislife.util.RedditUtils;
+import com.gmail.jorgegilcavazos.ballislife.util.RenderedTextCache;
 import com.squareup.picasso.Picasso;
 
 import net.dean.jraw.models.Comment;
@@ -36,11 +36,14 @@ public class ContributionsAdapter extends RecyclerView.Adapter<RecyclerView.View
 
     private Context context;
     private List<Contribution> contributions;
+    private RenderedTextCache textCache;
     private PublishSubject<PublicContribution> clickSubject = PublishSubject.create();
 
-    public ContributionsAdapter(Context context, List<Contribution> contributions) {
+    public ContributionsAdapter(Context context, List<Contribution> contributions,
+                                RenderedTextCache textCache) {
         this.context = context;
         this.contributions = contributions;
+        this.textCache = textCache;
     }
 
     @Override
@@ -131,7 +134,7 @@ public class ContributionsAdapter extends RecyclerView.Adapter<RecyclerView.View
 
         holder.postTitleTextView.setText(comment.getSubmissionTitle());
         holder.authorTextView.setText(comment.getAuthor());
-        holder.bodyTextView.setText(RedditUtils.bindSnuDown(comment.data("body_html")));
+        holder.bodyTextView.setText(textCache.commentBody(comment));
         holder.timestampTextView.setText(DateFormatUtil.formatRedditDate(comment.getCreated()));
         holder.scoreTextView.setText(context.getString(R.string.points,
                 String.valueOf(comment.getScore())));
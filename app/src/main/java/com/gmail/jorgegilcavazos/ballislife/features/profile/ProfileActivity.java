@@ -22,6 +22,7 @@ import com.gmail.jorgegilcavazos.ballislife.features.application.BallIsLifeAppli
 import com.gmail.jorgegilcavazos.ballislife.features.common.EndlessRecyclerViewScrollListener;
 import com.gmail.jorgegilcavazos.ballislife.features.submission.SubmissionActivity;
 import com.gmail.jorgegilcavazos.ballislife.util.Constants;
+import com.gmail.jorgegilcavazos.ballislife.util.RenderedTextCache;
 import com.google.firebase.crash.FirebaseCrash;
 
 import net.dean.jraw.models.Contribution;
@@ -50,6 +51,9 @@ public class ProfileActivity extends AppCompatActivity
     @Inject
     ProfilePresenter presenter;
 
+    @Inject
+    RenderedTextCache textCache;
+
     private LinearLayoutManager linearLayoutManager;
     private EndlessRecyclerViewScrollListener scrollListener;
     private ContributionsAdapter contributionsAdapter;
@@ -106,7 +110,8 @@ public class ProfileActivity extends AppCompatActivity
         swipeRefreshLayout.setOnRefreshListener(this);
 
         linearLayoutManager = new LinearLayoutManager(this);
-        contributionsAdapter = new ContributionsAdapter(this, new ArrayList<Contribution>());
+        contributionsAdapter = new ContributionsAdapter(this, new ArrayList<Contribution>(),
+                textCache);
 
         recyclerView.setLayoutManager(linearLayoutManager);
         recyclerView.setAdapter(contributionsAdapter);
@@ -3,6 +3,7 @@ package com.gmail.jorgegilcavazos.ballislife.features.profile;
 import com.gmail.jorgegilcavazos.ballislife.base.BasePresenter;
 import com.gmail.jorgegilcavazos.ballislife.data.reddit.RedditAuthentication;
 import com.gmail.jorgegilcavazos.ballislife.data.repository.profile.ProfileRepository;
+import com.gmail.jorgegilcavazos.ballislife.util.RenderedTextCache;
 import com.gmail.jorgegilcavazos.ballislife.util.exception.NotAuthenticatedException;
 import com.gmail.jorgegilcavazos.ballislife.util.schedulers.BaseSchedulerProvider;
 
@@ -27,14 +28,17 @@ public class ProfilePresenter extends BasePresenter<ProfileView> {
     private ProfileRepository profileRepository;
     private RedditAuthentication redditAuthentication;
     private BaseSchedulerProvider schedulerProvider;
+    private RenderedTextCache textCache;
 
     @Inject
     public ProfilePresenter(ProfileRepository profileRepository,
                             RedditAuthentication redditAuthentication,
-                            BaseSchedulerProvider schedulerProvider) {
+                            BaseSchedulerProvider schedulerProvider,
+                            RenderedTextCache textCache) {
         this.profileRepository = profileRepository;
         this.redditAuthentication = redditAuthentication;
         this.schedulerProvider = schedulerProvider;
+        this.textCache = textCache;
 
         disposables = new CompositeDisposable();
     }
@@ -71,6 +75,7 @@ public class ProfilePresenter extends BasePresenter<ProfileView> {
 
         disposables.add(redditAuthentication.authenticate()
                 .andThen(profileRepository.next())
+                .doOnSuccess(textCache::prerenderContributions)
                 .subscribeOn(schedulerProvider.io())
                 .observeOn(schedulerProvider.ui())
                 .subscribeWith(new DisposableSingleObserver<List<Contribution>>() {
@@ -0,0 +1,166 @@
+package com.gmail.jorgegilcavazos.ballislife.features.replay;
+
+import android.os.Bundle;
+import android.support.annotation.NonNull;
+import android.support.v7.app.AppCompatActivity;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.support.v7.widget.Toolbar;
+import android.view.Menu;
+import android.view.MenuInflater;
+import android.view.MenuItem;
+import android.view.View;
+import android.widget.SeekBar;
+import android.widget.TextView;
+
+import com.gmail.jorgegilcavazos.ballislife.R;
+import com.gmail.jorgegilcavazos.ballislife.data.repository.gamethreads.RecordedComment;
+import com.gmail.jorgegilcavazos.ballislife.features.application.BallIsLifeApplication;
+
+import java.util.List;
+
+import javax.inject.Inject;
+
+import butterknife.BindView;
+import butterknife.ButterKnife;
+
+/**
+ * Replays the live thread of a finished game from the comments recorded while it was streamed.
+ */
+public class ThreadReplayActivity extends AppCompatActivity
+        implements ThreadReplayView, SeekBar.OnSeekBarChangeListener {
+    public static final String KEY_GAME_ID = "gameId";
+    public static final String KEY_TITLE = "title";
+
+    @BindView(R.id.replay_toolbar) Toolbar toolbar;
+    @BindView(R.id.replay_clock) TextView clockTextView;
+    @BindView(R.id.replay_seek_bar) SeekBar seekBar;
+    @BindView(R.id.replay_no_recording_text) TextView noRecordingText;
+    @BindView(R.id.replay_recycler_view) RecyclerView recyclerView;
+
+    @Inject
+    ThreadReplayPresenter presenter;
+
+    private LinearLayoutManager linearLayoutManager;
+    private ThreadReplayAdapter threadReplayAdapter;
+    private MenuItem playItem;
+
+    @Override
+    public boolean onCreateOptionsMenu(Menu menu) {
+        MenuInflater inflater = getMenuInflater();
+        inflater.inflate(R.menu.menu_thread_replay, menu);
+        playItem = menu.findItem(R.id.action_play);
+        setPlaying(presenter.isPlaying());
+        return true;
+    }
+
+    @Override
+    public boolean onOptionsItemSelected(MenuItem item) {
+        switch (item.getItemId()) {
+            case android.R.id.home:
+                onBackPressed();
+                return true;
+            case R.id.action_play:
+                if (presenter.isPlaying()) {
+                    presenter.pause();
+                } else {
+                    presenter.play();
+                }
+                return true;
+        }
+        return super.onOptionsItemSelected(item);
+    }
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_thread_replay);
+        ButterKnife.bind(this);
+        BallIsLifeApplication.getAppComponent().inject(this);
+
+        setSupportActionBar(toolbar);
+        if (getSupportActionBar() != null) {
+            getSupportActionBar().setDisplayHomeAsUpEnabled(true);
+        }
+
+        setTitle(getIntent().getStringExtra(KEY_TITLE));
+
+        linearLayoutManager = new LinearLayoutManager(this);
+        threadReplayAdapter = new ThreadReplayAdapter(this);
+
+        recyclerView.setLayoutManager(linearLayoutManager);
+        recyclerView.setAdapter(threadReplayAdapter);
+        seekBar.setOnSeekBarChangeListener(this);
+
+        presenter.attachView(this);
+        presenter.loadRecording(getIntent().getStringExtra(KEY_GAME_ID));
+    }
+
+    @Override
+    protected void onStop() {
+        presenter.pause();
+        super.onStop();
+    }
+
+    @Override
+    protected void onDestroy() {
+        presenter.detachView();
+        super.onDestroy();
+    }
+
+    @Override
+    public void showNoRecordingText() {
+        noRecordingText.setVisibility(View.VISIBLE);
+        seekBar.setEnabled(false);
+    }
+
+    @Override
+    public void setDuration(long durationMillis) {
+        seekBar.setMax((int) (durationMillis / 1000));
+    }
+
+    @Override
+    public void setPosition(long positionMillis, @NonNull String gameClock) {
+        seekBar.setProgress((int) (positionMillis / 1000));
+        clockTextView.setText(gameClock);
+    }
+
+    @Override
+    public void setPlaying(boolean playing) {
+        if (playItem == null) {
+            return;
+        }
+        playItem.setIcon(playing ? R.drawable.ic_pause_white_24dp
+                : R.drawable.ic_play_arrow_white_24dp);
+        playItem.setTitle(playing ? R.string.pause : R.string.play);
+    }
+
+    @Override
+    public void showComments(@NonNull List<RecordedComment> comments) {
+        threadReplayAdapter.setData(comments);
+    }
+
+    @Override
+    public void addComments(@NonNull List<RecordedComment> comments) {
+        boolean atTop = linearLayoutManager.findFirstVisibleItemPosition() <= 0;
+        threadReplayAdapter.addData(comments);
+        if (atTop) {
+            recyclerView.scrollToPosition(0);
+        }
+    }
+
+    @Override
+    public void onProgressChanged(SeekBar seekBar, int progress, boolean fromUser) {
+        if (fromUser) {
+            presenter.seekTo(progress * 1000L);
+        }
+    }
+
+    @Override
+    public void onStartTrackingTouch(SeekBar seekBar) {
+    }
+
+    @Override
+    public void onStopTrackingTouch(SeekBar seekBar) {
+    }
+}
@@ -0,0 +1,91 @@
+package com.gmail.jorgegilcavazos.ballislife.features.replay;
+
+import android.content.Context;
+import android.support.v7.widget.RecyclerView;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import com.gmail.jorgegilcavazos.ballislife.R;
+import com.gmail.jorgegilcavazos.ballislife.data.repository.gamethreads.RecordedComment;
+import com.gmail.jorgegilcavazos.ballislife.util.DateFormatUtil;
+import com.gmail.jorgegilcavazos.ballislife.util.RedditUtils;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import butterknife.BindView;
+import butterknife.ButterKnife;
+
+/**
+ * Lists the comments of a replayed live thread, newest first, each labeled with the game clock of
+ * when it was posted if known.
+ */
+public class ThreadReplayAdapter
+        extends RecyclerView.Adapter<ThreadReplayAdapter.CommentViewHolder> {
+
+    private Context context;
+    private List<RecordedComment> comments = new ArrayList<>();
+
+    public ThreadReplayAdapter(Context context) {
+        this.context = context;
+    }
+
+    @Override
+    public CommentViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+        return new CommentViewHolder(LayoutInflater.from(parent.getContext())
+                .inflate(R.layout.contribution_comment_layout, parent, false));
+    }
+
+    @Override
+    public void onBindViewHolder(CommentViewHolder holder, int position) {
+        RecordedComment comment = comments.get(position);
+
+        if (comment.getPeriod().isEmpty()) {
+            holder.clockTextView.setVisibility(View.GONE);
+        } else {
+            holder.clockTextView.setVisibility(View.VISIBLE);
+            holder.clockTextView.setText(ThreadReplayPresenter.formatGameClock(comment));
+        }
+        holder.authorTextView.setText(comment.getAuthor());
+        holder.bodyTextView.setText(RedditUtils.bindSnuDown(comment.getBodyHtml()));
+        holder.timestampTextView.setText(
+                DateFormatUtil.formatRedditDate(new Date(comment.getCreatedMillis())));
+        holder.scoreTextView.setText(context.getString(R.string.points,
+                String.valueOf(comment.getScore())));
+    }
+
+    @Override
+    public int getItemCount() {
+        return comments.size();
+    }
+
+    public void setData(List<RecordedComment> data) {
+        comments.clear();
+        comments.addAll(data);
+        notifyDataSetChanged();
+    }
+
+    /**
+     * Adds the given comments, newest first, above the ones already listed.
+     */
+    public void addData(List<RecordedComment> data) {
+        comments.addAll(0, data);
+        notifyItemRangeInserted(0, data.size());
+    }
+
+    public static class CommentViewHolder extends RecyclerView.ViewHolder {
+        @BindView(R.id.comment_post_title) TextView clockTextView;
+        @BindView(R.id.comment_author) TextView authorTextView;
+        @BindView(R.id.comment_score) TextView scoreTextView;
+        @BindView(R.id.comment_timestamp) TextView timestampTextView;
+        @BindView(R.id.comment_body) TextView bodyTextView;
+
+        public CommentViewHolder(View view) {
+            super(view);
+            ButterKnife.bind(this, view);
+        }
+    }
+}
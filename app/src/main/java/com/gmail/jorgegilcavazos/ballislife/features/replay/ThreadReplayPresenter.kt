@@ -0,0 +1,161 @@
+package com.gmail.jorgegilcavazos.ballislife.features.replay
+
+import com.gmail.jorgegilcavazos.ballislife.base.BasePresenter
+import com.gmail.jorgegilcavazos.ballislife.data.repository.gamethreads.GameThreadLog
+import com.gmail.jorgegilcavazos.ballislife.data.repository.gamethreads.RecordedComment
+import com.gmail.jorgegilcavazos.ballislife.util.schedulers.BaseSchedulerProvider
+import io.reactivex.Observable
+import io.reactivex.Single
+import io.reactivex.disposables.CompositeDisposable
+import io.reactivex.disposables.Disposable
+import io.reactivex.rxkotlin.addTo
+import java.util.concurrent.TimeUnit
+import javax.inject.Inject
+
+/**
+ * Replays the comments recorded while streaming the live thread of a game in the order and at the
+ * pace they were posted, entirely from disk. The replay can be moved to any point of the
+ * recording, e.g. to follow a rebroadcast of the game.
+ */
+class ThreadReplayPresenter @Inject constructor(
+    private val gameThreadLog: GameThreadLog,
+    private val schedulerProvider: BaseSchedulerProvider,
+    private val disposable: CompositeDisposable) : BasePresenter<ThreadReplayView>() {
+
+  companion object {
+    const val TICK_MILLIS = 1000L
+
+    /**
+     * Returns the game clock of when the given comment was posted, e.g. "Q3 5:32" or "OT1 0:45",
+     * or an empty string if it isn't known.
+     */
+    @JvmStatic
+    fun formatGameClock(comment: RecordedComment): String {
+      if (comment.period.isEmpty()) {
+        return ""
+      }
+      val period = comment.period.toIntOrNull()
+      val periodName = when {
+        period == null -> comment.period
+        period > 4 -> "OT${period - 4}"
+        else -> "Q$period"
+      }
+      return "$periodName ${comment.gameClock}"
+    }
+  }
+
+  private var comments: List<RecordedComment> = emptyList()
+  private var shownCount = 0
+  private var positionMillis = 0L
+  private var playback: Disposable? = null
+
+  override fun detachView() {
+    pause()
+    disposable.clear()
+    super.detachView()
+  }
+
+  fun loadRecording(gameId: String) {
+    disposable.clear()
+    Single.fromCallable { gameThreadLog.load(gameId) }
+        .subscribeOn(schedulerProvider.io())
+        .observeOn(schedulerProvider.ui())
+        .subscribe(
+            {
+              comments = it
+              shownCount = 0
+              if (it.isEmpty()) {
+                view.showNoRecordingText()
+              } else {
+                view.setDuration(getDurationMillis())
+                seekTo(0)
+              }
+            },
+            { view.showNoRecordingText() }
+        )
+        .addTo(disposable)
+  }
+
+  fun play() {
+    if (comments.isEmpty() || playback != null) {
+      return
+    }
+    if (positionMillis >= getDurationMillis()) {
+      seekTo(0)
+    }
+
+    playback = Observable.interval(TICK_MILLIS, TimeUnit.MILLISECONDS,
+        schedulerProvider.computation())
+        .observeOn(schedulerProvider.ui())
+        .subscribe {
+          seekTo(positionMillis + TICK_MILLIS)
+          if (positionMillis >= getDurationMillis()) {
+            pause()
+          }
+        }
+    view.setPlaying(true)
+  }
+
+  fun pause() {
+    playback?.dispose()
+    playback = null
+    view?.setPlaying(false)
+  }
+
+  fun isPlaying() = playback != null
+
+  /**
+   * Shows the comments posted up to the given time since the first comment of the recording.
+   */
+  fun seekTo(positionMillis: Long) {
+    if (comments.isEmpty()) {
+      return
+    }
+    this.positionMillis = Math.min(Math.max(positionMillis, 0), getDurationMillis())
+
+    val count = countPostedBy(comments[0].createdMillis + this.positionMillis)
+    if (count > shownCount) {
+      view.addComments(comments.subList(shownCount, count).asReversed())
+    } else if (count < shownCount) {
+      view.showComments(comments.subList(0, count).asReversed())
+    }
+    shownCount = count
+
+    view.setPosition(this.positionMillis, getGameClock(count))
+  }
+
+  private fun getDurationMillis(): Long {
+    return if (comments.isEmpty()) 0 else comments.last().createdMillis - comments[0].createdMillis
+  }
+
+  /**
+   * Returns the number of comments posted at or before the given time, comments are sorted by the
+   * time they were posted.
+   */
+  private fun countPostedBy(timeMillis: Long): Int {
+    var low = 0
+    var high = comments.size
+    while (low < high) {
+      val mid = (low + high) ushr 1
+      if (comments[mid].createdMillis <= timeMillis) {
+        low = mid + 1
+      } else {
+        high = mid
+      }
+    }
+    return low
+  }
+
+  /**
+   * Returns the game clock of the newest of the first [count] comments that has one, or an empty
+   * string if none does.
+   */
+  private fun getGameClock(count: Int): String {
+    for (i in count - 1 downTo 0) {
+      if (!comments[i].period.isEmpty()) {
+        return formatGameClock(comments[i])
+      }
+    }
+    return ""
+  }
+}
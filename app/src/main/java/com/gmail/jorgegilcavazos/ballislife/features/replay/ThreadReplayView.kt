@@ -0,0 +1,27 @@
+package com.gmail.jorgegilcavazos.ballislife.features.replay
+
+import com.gmail.jorgegilcavazos.ballislife.data.repository.gamethreads.RecordedComment
+
+interface ThreadReplayView {
+
+  fun showNoRecordingText()
+
+  fun setDuration(durationMillis: Long)
+
+  /**
+   * Shows how far into the recording the replay is, with the game clock of that moment if known.
+   */
+  fun setPosition(positionMillis: Long, gameClock: String)
+
+  fun setPlaying(playing: Boolean)
+
+  /**
+   * Replaces the comments shown, newest first.
+   */
+  fun showComments(comments: List<RecordedComment>)
+
+  /**
+   * Shows the given comments, newest first, above the ones already shown.
+   */
+  fun addComments(comments: List<RecordedComment>)
+}
@@ -28,7 +28,7 @@ import com.gmail.jorgegilcavazos.ballislife.features.model.ThreadItem;
 import com.gmail.jorgegilcavazos.ballislife.features.reply.ReplyActivity;
 import com.gmail.jorgegilcavazos.ballislife.features.videoplayer.VideoPlayerActivity;
 import com.gmail.jorgegilcavazos.ballislife.util.Constants;
-import com.gmail.jorgegilcavazos.ballislife.util.RedditUtils;
+import com.gmail.jorgegilcavazos.ballislife.util.RenderedTextCache;
 
 import net.dean.jraw.models.Comment;
 import net.dean.jraw.models.CommentNode;
@@ -59,6 +59,9 @@ public class SubmissionActivity extends AppCompatActivity implements SubmissionV
     @Inject
     SubmissionPresenter presenter;
 
+    @Inject
+    RenderedTextCache textCache;
+
     @BindView(R.id.toolbar) Toolbar toolbar;
     @BindView(R.id.fab) FloatingActionButton fab;
     @BindView(R.id.swipeRefreshLayout) SwipeRefreshLayout swipeRefreshLayout;
@@ -101,7 +104,8 @@ public class SubmissionActivity extends AppCompatActivity implements SubmissionV
         fab.setOnClickListener(this);
         swipeRefreshLayout.setOnRefreshListener(this);
 
-        threadAdapter = new ThreadAdapter(this, redditAuthentication, new ArrayList<>(), true);
+        threadAdapter = new ThreadAdapter(this, redditAuthentication, textCache, new ArrayList<>(),
+                true);
         threadAdapter.setCommentClickListener(this);
         threadAdapter.setSubmissionClickListener(this);
 
@@ -159,27 +163,27 @@ public class SubmissionActivity extends AppCompatActivity implements SubmissionV
                 return true;
             case R.id.action_sort_hot:
                 sorting = CommentSort.HOT;
-                presenter.loadComments(threadId, sorting, true /* forceReload */);
+                presenter.loadComments(threadId, sorting, false /* forceReload */);
                 getSupportActionBar().setSubtitle("HOT");
                 return true;
             case R.id.action_sort_new:
                 sorting = CommentSort.NEW;
-                presenter.loadComments(threadId, sorting, true /* forceReload */);
+                presenter.loadComments(threadId, sorting, false /* forceReload */);
                 getSupportActionBar().setSubtitle("NEW");
                 return true;
             case R.id.action_sort_old:
                 sorting = CommentSort.OLD;
-                presenter.loadComments(threadId, sorting, true /* forceReload */);
+                presenter.loadComments(threadId, sorting, false /* forceReload */);
                 getSupportActionBar().setSubtitle("OLD");
                 return true;
             case R.id.action_sort_controversial:
                 sorting = CommentSort.CONTROVERSIAL;
-                presenter.loadComments(threadId, sorting, true /* forceReload */);
+                presenter.loadComments(threadId, sorting, false /* forceReload */);
                 getSupportActionBar().setSubtitle("CONTROVERSIAL");
                 return true;
             case R.id.action_sort_top:
                 sorting = CommentSort.TOP;
-                presenter.loadComments(threadId, sorting, true /* forceReload */);
+                presenter.loadComments(threadId, sorting, false /* forceReload */);
                 getSupportActionBar().setSubtitle("TOP");
                 return true;
         }
@@ -218,6 +222,16 @@ public class SubmissionActivity extends AppCompatActivity implements SubmissionV
         threadAdapter.addComment(position, comment);
     }
 
+    @Override
+    public void showMoreComments(CommentNode parent, List<ThreadItem> replies) {
+        threadAdapter.setReplies(parent, replies);
+    }
+
+    @Override
+    public void showErrorLoadingMoreComments() {
+        Toast.makeText(this, R.string.failed_load_more_comments, Toast.LENGTH_SHORT).show();
+    }
+
     @Override
     public void showErrorAddingComment() {
         Toast.makeText(this, R.string.saving_failed, Toast.LENGTH_SHORT).show();
@@ -251,8 +265,7 @@ public class SubmissionActivity extends AppCompatActivity implements SubmissionV
 
         Intent intent = new Intent(SubmissionActivity.this, ReplyActivity.class);
         Bundle extras = new Bundle();
-        extras.putCharSequence(ReplyActivity.KEY_COMMENT,
-                RedditUtils.bindSnuDown(parentComment.data("body_html")));
+        extras.putCharSequence(ReplyActivity.KEY_COMMENT, textCache.commentBody(parentComment));
         intent.putExtras(extras);
         startActivityForResult(intent, ReplyActivity.POST_COMMENT_REPLY_REQUEST);
     }
@@ -324,6 +337,11 @@ public class SubmissionActivity extends AppCompatActivity implements SubmissionV
         presenter.onReplyToCommentBtnClick(position, parentComment);
     }
 
+    @Override
+    public void onLoadMoreComments(CommentNode parent) {
+        presenter.loadMoreComments(threadId, parent);
+    }
+
     @Override
     public void onSubmissionClick(SubmissionWrapper submissionWrapper) {
         // No action on submission click.
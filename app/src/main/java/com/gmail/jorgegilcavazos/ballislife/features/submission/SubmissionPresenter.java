@@ -8,6 +8,8 @@ import com.gmail.jorgegilcavazos.ballislife.features.model.SubmissionWrapper;
 import com.gmail.jorgegilcavazos.ballislife.features.model.ThreadItem;
 import com.gmail.jorgegilcavazos.ballislife.util.CommentsTraverser;
 import com.gmail.jorgegilcavazos.ballislife.util.Constants;
+import com.gmail.jorgegilcavazos.ballislife.util.Pair;
+import com.gmail.jorgegilcavazos.ballislife.util.RenderedTextCache;
 import com.gmail.jorgegilcavazos.ballislife.util.Utilities;
 import com.gmail.jorgegilcavazos.ballislife.util.exception.NotLoggedInException;
 import com.gmail.jorgegilcavazos.ballislife.util.exception.ReplyNotAvailableException;
@@ -21,32 +23,60 @@ import net.dean.jraw.models.CommentSort;
 import net.dean.jraw.models.Submission;
 import net.dean.jraw.models.VoteDirection;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 import javax.inject.Inject;
 
+import io.reactivex.Completable;
+import io.reactivex.Observable;
 import io.reactivex.disposables.CompositeDisposable;
+import io.reactivex.disposables.Disposable;
 import io.reactivex.observers.DisposableCompletableObserver;
 import io.reactivex.observers.DisposableSingleObserver;
+import io.reactivex.subjects.PublishSubject;
+import timber.log.Timber;
 
 public class SubmissionPresenter extends BasePresenter<SubmissionView> {
 
+    /**
+     * Taps on "load more" items this close to each other are loaded together.
+     */
+    public static final long LOAD_MORE_COALESCE_MILLIS = 300;
+
+    /**
+     * Comments rendered before a thread is shown, enough to fill the screen. The rest are rendered
+     * in the background while the first ones are displayed.
+     */
+    private static final int COMMENTS_RENDERED_BEFORE_SHOWING = 30;
+
     private RedditAuthentication redditAuthentication;
     private RedditService redditService;
     private SubmissionRepository submissionRepository;
     private CompositeDisposable disposables;
     private BaseSchedulerProvider schedulerProvider;
+    private RenderedTextCache textCache;
+
+    private final PublishSubject<CommentNode> loadMoreRequests = PublishSubject.create();
+    private final Set<CommentNode> loadingMore =
+            Collections.newSetFromMap(new IdentityHashMap<>());
+    private Disposable loadMoreDisposable;
 
     @Inject
     public SubmissionPresenter(
             RedditAuthentication redditAuthentication,
             RedditService redditService, SubmissionRepository submissionRepository,
-            BaseSchedulerProvider schedulerProvider) {
+            BaseSchedulerProvider schedulerProvider,
+            RenderedTextCache textCache) {
         this.redditAuthentication = redditAuthentication;
         this.redditService = redditService;
         this.submissionRepository = submissionRepository;
         this.schedulerProvider = schedulerProvider;
+        this.textCache = textCache;
 
         disposables = new CompositeDisposable();
     }
@@ -63,12 +93,20 @@ public class SubmissionPresenter extends BasePresenter<SubmissionView> {
                                 .andThen(submissionRepository.getSubmission(threadId,
                                                                             sorting,
                                                                             forceReload))
+                .doOnSuccess(this::prerender)
                 .subscribeOn(schedulerProvider.io())
                 .observeOn(schedulerProvider.ui()).subscribeWith(new DisposableSingleObserver<SubmissionWrapper>() {
                     @Override
                     public void onSuccess(SubmissionWrapper submissionWrapper) {
-                        List<ThreadItem> items = CommentsTraverser.Companion.flattenCommentTree
-                                (submissionWrapper.getSubmission().getComments().getChildren());
+                        List<ThreadItem> items;
+                        if (submissionWrapper.getSortedComments() != null) {
+                            items = CommentsTraverser.Companion.flattenSortedComments(
+                                    submissionWrapper.getSortedComments());
+                        } else {
+                            items = CommentsTraverser.Companion.flattenCommentTree(
+                                    submissionWrapper.getSubmission().getComments().getChildren(),
+                                    submissionWrapper.getCommentCount());
+                        }
 
                         Optional<Integer> pos = findComment(items, commentIdToScroll);
 
@@ -89,6 +127,73 @@ public class SubmissionPresenter extends BasePresenter<SubmissionView> {
         );
     }
 
+    /**
+     * Loads the replies of the given comment that weren't loaded with the thread. Requests made
+     * within {@link #LOAD_MORE_COALESCE_MILLIS} of each other are loaded together, and requests
+     * for a comment whose replies are already loading are ignored.
+     */
+    public void loadMoreComments(final String threadId, CommentNode parent) {
+        if (!loadingMore.add(parent)) {
+            return;
+        }
+        if (loadMoreDisposable == null || loadMoreDisposable.isDisposed()) {
+            loadMoreDisposable = loadMoreRequests
+                    .buffer(loadMoreRequests.debounce(LOAD_MORE_COALESCE_MILLIS,
+                            TimeUnit.MILLISECONDS, schedulerProvider.computation()))
+                    .concatMap(parents -> loadMoreReplies(threadId, parents))
+                    .subscribe(replies -> {
+                        for (Pair<CommentNode, List<ThreadItem>> pair : replies) {
+                            view.showMoreComments(pair.first, pair.second);
+                        }
+                    });
+            disposables.add(loadMoreDisposable);
+        }
+        loadMoreRequests.onNext(parent);
+    }
+
+    private Observable<List<Pair<CommentNode, List<ThreadItem>>>> loadMoreReplies(
+            String threadId, final List<CommentNode> parents) {
+        return redditAuthentication.authenticate()
+                .andThen(submissionRepository.loadMoreComments(threadId, parents))
+                .map(loaded -> {
+                    // Flattening the new replies walks their subtrees, keep it off the UI thread.
+                    List<Pair<CommentNode, List<ThreadItem>>> replies = new ArrayList<>();
+                    for (CommentNode parent : loaded) {
+                        textCache.prerenderComments(parent.walkTree());
+                        replies.add(new Pair<>(parent,
+                                CommentsTraverser.Companion.flattenReplies(parent)));
+                    }
+                    return replies;
+                })
+                .subscribeOn(schedulerProvider.io())
+                .observeOn(schedulerProvider.ui())
+                .doOnError(e -> view.showErrorLoadingMoreComments())
+                .doFinally(() -> loadingMore.removeAll(parents))
+                .toObservable()
+                .onErrorResumeNext(Observable.empty());
+    }
+
+    /**
+     * Renders the text of the submission and of its first comments, and starts rendering the
+     * rest of the comments in the background.
+     */
+    private void prerender(SubmissionWrapper submissionWrapper) {
+        textCache.prerenderSubmissions(Collections.singletonList(submissionWrapper));
+
+        // Copied since loading more comments changes the tree while it's rendered.
+        final List<CommentNode> comments = new ArrayList<>();
+        if (submissionWrapper.getSortedComments() != null) {
+            comments.addAll(submissionWrapper.getSortedComments());
+        } else {
+            submissionWrapper.getSubmission().getComments().walkTree().copyInto(comments);
+        }
+        textCache.prerenderComments(comments, COMMENTS_RENDERED_BEFORE_SHOWING);
+        disposables.add(Completable.fromAction(() -> textCache.prerenderComments(comments))
+                .subscribeOn(schedulerProvider.computation())
+                .onErrorComplete()
+                .subscribe());
+    }
+
     public void onVoteSubmission(final Submission submission, final VoteDirection vote) {
         disposables.add(redditAuthentication.authenticate()
                 .andThen(redditAuthentication.checkUserLoggedIn()).flatMapCompletable((loggedIn)
@@ -369,6 +474,10 @@ public class SubmissionPresenter extends BasePresenter<SubmissionView> {
         if (disposables != null) {
             disposables.clear();
         }
+        Timber.d("Submissions: %d hits, %d misses, %d evictions. Texts: %d hits, %d misses",
+                submissionRepository.getHitCount(), submissionRepository.getMissCount(),
+                submissionRepository.getEvictionCount(), textCache.getHitCount(),
+                textCache.getMissCount());
     }
 
     private Optional<Integer> findComment(List<ThreadItem> items, String id) {
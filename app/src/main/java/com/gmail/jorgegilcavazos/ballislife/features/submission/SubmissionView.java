@@ -16,6 +16,10 @@ public interface SubmissionView {
 
     void addComment(CommentNode comment, int position);
 
+    void showMoreComments(CommentNode parent, List<ThreadItem> replies);
+
+    void showErrorLoadingMoreComments();
+
     void showErrorAddingComment();
 
     void showNotLoggedInError();
@@ -0,0 +1,77 @@
+package com.gmail.jorgegilcavazos.ballislife.util
+
+import net.dean.jraw.models.Comment
+import net.dean.jraw.models.CommentNode
+import net.dean.jraw.models.CommentSort
+import java.util.*
+
+/**
+ * Sorts a comment tree that was already loaded without asking reddit for it again. Replies are
+ * only ever compared to their siblings, so sorting a tree of n comments takes O(n log n).
+ */
+class CommentTreeSorter {
+  companion object {
+    private val TOP = compareByDescending<Comment> { it.score ?: 0 }.thenBy { createdMillis(it) }
+    private val NEW = compareByDescending<Comment> { createdMillis(it) }
+    private val OLD = compareBy<Comment> { createdMillis(it) }
+    // Reddit only tells which comments it found controversial, newest of them first.
+    private val CONTROVERSIAL = compareByDescending<Comment> { it.controversiality ?: 0 }
+        .thenByDescending { createdMillis(it) }
+
+    /**
+     * Whether comments can be sorted by the given sort locally, e.g. HOT depends on the votes
+     * over time which aren't known.
+     */
+    fun canSortLocally(sort: CommentSort) = comparator(sort) != null
+
+    /**
+     * Whether every comment of the tree was loaded, a tree with "load more" nodes can't be
+     * sorted locally since the missing comments might belong anywhere.
+     */
+    fun isFullyLoaded(root: CommentNode): Boolean {
+      return !root.hasMoreComments() && root.walkTree().none { it.hasMoreComments() }
+    }
+
+    /**
+     * Returns the comments under the given root in display order for the given sort, every
+     * comment followed by its replies. The tree itself isn't modified.
+     */
+    fun sort(root: CommentNode, sort: CommentSort): List<CommentNode> {
+      val comparator = comparator(sort)
+          ?: throw IllegalArgumentException("Can't sort comments locally by $sort")
+      val nodeComparator = Comparator<CommentNode> { a, b ->
+        comparator.compare(a.comment, b.comment)
+      }
+
+      val ordered = ArrayList<CommentNode>()
+      val pending = ArrayDeque<CommentNode>()
+      pushSorted(root.children, nodeComparator, pending)
+      while (!pending.isEmpty()) {
+        val node = pending.pop()
+        ordered.add(node)
+        pushSorted(node.children, nodeComparator, pending)
+      }
+      return ordered
+    }
+
+    private fun pushSorted(
+        siblings: List<CommentNode>,
+        comparator: Comparator<CommentNode>,
+        pending: Deque<CommentNode>) {
+      val sorted = siblings.sortedWith(comparator)
+      for (i in sorted.indices.reversed()) {
+        pending.push(sorted[i])
+      }
+    }
+
+    private fun comparator(sort: CommentSort): Comparator<Comment>? = when (sort) {
+      CommentSort.TOP -> TOP
+      CommentSort.NEW -> NEW
+      CommentSort.OLD -> OLD
+      CommentSort.CONTROVERSIAL -> CONTROVERSIAL
+      else -> null
+    }
+
+    private fun createdMillis(comment: Comment) = comment.created?.time ?: 0L
+  }
+}
@@ -5,23 +5,99 @@ import com.gmail.jorgegilcavazos.ballislife.features.model.ThreadItem
 import net.dean.jraw.models.CommentNode
 import java.util.*
 
+/**
+ * Flattens comment trees into the items displayed by a [ThreadAdapter], every comment followed by
+ * its replies. The trees are walked with an explicit stack, so deep reply chains can't overflow
+ * the call stack, and every item gets its parent and the size of its subtree so that collapsing
+ * a comment doesn't need to walk the tree again.
+ */
 class CommentsTraverser {
   companion object {
-    fun flattenCommentTree(topLevelComments: List<CommentNode>): List<ThreadItem> {
-      var items: MutableList<ThreadItem> = ArrayList()
-      for (node in topLevelComments) {
-        traverse(node, items)
-      }
+
+    private class Frame(
+        val node: CommentNode?,
+        val item: ThreadItem?,
+        val index: Int,
+        val children: Iterator<CommentNode>)
+
+    /**
+     * Returns the items of the given comments and their replies. The expected number of items,
+     * e.g. the comment count of the submission, sizes the list up front.
+     */
+    @JvmOverloads
+    fun flattenCommentTree(topLevelComments: List<CommentNode>, expectedSize: Int = 0)
+        : List<ThreadItem> {
+      val items = ArrayList<ThreadItem>(Math.max(expectedSize, topLevelComments.size))
+      addSubtrees(null, topLevelComments, items)
       return items
     }
 
-    private fun traverse(root: CommentNode, items: MutableList<ThreadItem>) {
-      items.add(ThreadItem(ThreadAdapter.TYPE_COMMENT, root, root.depth))
-      for (node in root.children) {
-        traverse(node, items)
+    /**
+     * Returns the items of the replies of the given comment, followed by a "load more" item if
+     * some of them aren't loaded. The top level items have no parent since the item of the given
+     * comment isn't known.
+     */
+    fun flattenReplies(parent: CommentNode): List<ThreadItem> {
+      val items = ArrayList<ThreadItem>()
+      addSubtrees(parent, parent.children, items)
+      return items
+    }
+
+    /**
+     * Returns the items of comments already in display order, e.g. sorted by [CommentTreeSorter].
+     */
+    fun flattenSortedComments(orderedComments: List<CommentNode>): List<ThreadItem> {
+      val items = ArrayList<ThreadItem>(orderedComments.size)
+      orderedComments.mapTo(items) { ThreadItem(ThreadAdapter.TYPE_COMMENT, it, it.depth) }
+      link(items)
+      return items
+    }
+
+    /**
+     * Sets the parent and subtree size of items in display order from their depths.
+     */
+    fun link(items: List<ThreadItem>) {
+      val ancestors = ArrayDeque<Int>()
+      for (i in items.indices) {
+        val item = items[i]
+        while (!ancestors.isEmpty() && items[ancestors.peek()].depth >= item.depth) {
+          val ancestor = ancestors.pop()
+          items[ancestor].subtreeSize = i - ancestor - 1
+        }
+        item.parent = if (ancestors.isEmpty()) null else items[ancestors.peek()]
+        ancestors.push(i)
+      }
+      while (!ancestors.isEmpty()) {
+        val ancestor = ancestors.pop()
+        items[ancestor].subtreeSize = items.size - ancestor - 1
       }
-      if (root.hasMoreComments()) {
-        items.add(ThreadItem(ThreadAdapter.TYPE_LOAD_MORE, null, root.depth + 1))
+    }
+
+    private fun addSubtrees(
+        parent: CommentNode?,
+        comments: List<CommentNode>,
+        items: MutableList<ThreadItem>) {
+      val frames = ArrayDeque<Frame>()
+      frames.push(Frame(parent, null, -1, comments.iterator()))
+      while (!frames.isEmpty()) {
+        val frame = frames.peek()
+        if (frame.children.hasNext()) {
+          val node = frame.children.next()
+          val item = ThreadItem(ThreadAdapter.TYPE_COMMENT, node, node.depth, frame.item)
+          items.add(item)
+          val children = node.children
+          if (!children.isEmpty() || node.hasMoreComments()) {
+            frames.push(Frame(node, item, items.size - 1, children.iterator()))
+          }
+          continue
+        }
+
+        frames.pop()
+        val node = frame.node
+        if (node != null && node.hasMoreComments()) {
+          items.add(ThreadItem(ThreadAdapter.TYPE_LOAD_MORE, node, node.depth + 1, frame.item))
+        }
+        frame.item?.subtreeSize = items.size - frame.index - 1
       }
     }
   }
@@ -0,0 +1,182 @@
+package com.gmail.jorgegilcavazos.ballislife.util
+
+import com.gmail.jorgegilcavazos.ballislife.features.model.GameThreadSummary
+import com.gmail.jorgegilcavazos.ballislife.features.model.GameThreadType
+import java.util.ArrayDeque
+
+/**
+ * Classifies game thread titles, e.g. "GAME THREAD: Cleveland Cavaliers @ San Antonio Spurs", into
+ * the type of thread and the teams they mention.
+ *
+ * The keywords and team names are compiled once into a single automaton, so that a title is read
+ * in one pass regardless of the number of teams, and the classification of every thread is cached
+ * by id as long as its title doesn't change. A title mentions a team if it contains its name, e.g.
+ * "SPURS", ignoring case.
+ */
+object GameThreadTitleClassifier {
+
+  private const val MAX_CACHED_THREADS = 5000
+
+  /**
+   * The teams and type of thread of a title, [type] is null if it isn't a game thread.
+   */
+  class Classification(
+      val title: String,
+      val type: GameThreadType?,
+      private val teamsMask: Long) {
+
+    fun containsTeam(team: TeamName) = teamsMask and (1L shl team.ordinal) != 0L
+
+    fun isFor(type: GameThreadType, home: TeamName, visitor: TeamName): Boolean {
+      return this.type == type && containsTeam(home) && containsTeam(visitor)
+    }
+
+    fun teams(): List<TeamName> = TEAMS.filter { containsTeam(it) }
+  }
+
+  private val TEAMS = TeamName.values()
+  private val TEAMS_BY_ABBREVIATION = TEAMS.associateBy { it.toString() }
+
+  // Keywords are matched after the team names, team i is keyword i.
+  private val GAME_THREAD = TEAMS.size
+  private val POST_GAME_THREAD = TEAMS.size + 1
+  private val POST_HYPHEN_GAME_THREAD = TEAMS.size + 2
+  private val POST = TEAMS.size + 3
+
+  private val automaton = Automaton(
+      TEAMS.map {
+        val upperFullName = it.teamName.toUpperCase() // Ex. "SAN ANTONIO SPURS".
+        upperFullName.substring(upperFullName.lastIndexOf(" ") + 1) // Ex. "SPURS".
+      } + listOf("GAME THREAD", "POST GAME THREAD", "POST-GAME THREAD", "POST"))
+
+  private val cache = HashMap<String, Classification>()
+
+  /**
+   * Returns the team with the given abbreviation, e.g. "SAS", or null if there isn't one.
+   */
+  @JvmStatic
+  fun findTeam(abbreviation: String): TeamName? = TEAMS_BY_ABBREVIATION[abbreviation]
+
+  /**
+   * Classifies the title of the given thread, reusing the result of a previous call for the same
+   * thread.
+   */
+  @JvmStatic
+  fun classify(thread: GameThreadSummary): Classification {
+    synchronized(cache) {
+      val cached = cache[thread.id]
+      if (cached != null && cached.title == thread.title) {
+        return cached
+      }
+    }
+    val classification = classifyTitle(thread.title)
+    synchronized(cache) {
+      if (cache.size >= MAX_CACHED_THREADS) {
+        cache.clear()
+      }
+      cache.put(thread.id, classification)
+    }
+    return classification
+  }
+
+  @JvmStatic
+  fun classifyTitle(title: String): Classification {
+    val matches = automaton.match(title)
+    val type = when {
+      matches.isSet(POST_GAME_THREAD) || matches.isSet(POST_HYPHEN_GAME_THREAD) ->
+        GameThreadType.POST
+      matches.isSet(GAME_THREAD) && !matches.isSet(POST) -> GameThreadType.LIVE
+      else -> null
+    }
+    return Classification(title, type, matches and ((1L shl TEAMS.size) - 1))
+  }
+
+  private fun Long.isSet(keyword: Int) = this and (1L shl keyword) != 0L
+
+  /**
+   * Aho-Corasick automaton over upper case letters, digits, spaces and hyphens, returning the set
+   * of keywords found in a text as a bit mask. Any other character can't be part of a keyword.
+   */
+  private class Automaton(keywords: List<String>) {
+
+    companion object {
+      private const val ALPHABET_SIZE = 26 + 10 + 2
+      private const val NO_SYMBOL = -1
+    }
+
+    private val transitions: Array<IntArray>
+    private val outputs: LongArray
+
+    init {
+      require(keywords.size <= 64)
+      val trie = ArrayList<IntArray>()
+      val trieOutputs = ArrayList<Long>()
+      trie.add(IntArray(ALPHABET_SIZE))
+      trieOutputs.add(0L)
+      keywords.forEachIndexed { keyword, text ->
+        var state = 0
+        for (c in text) {
+          val symbol = symbolOf(c)
+          if (trie[state][symbol] == 0) {
+            trie.add(IntArray(ALPHABET_SIZE))
+            trieOutputs.add(0L)
+            trie[state][symbol] = trie.size - 1
+          }
+          state = trie[state][symbol]
+        }
+        trieOutputs[state] = trieOutputs[state] or (1L shl keyword)
+      }
+      transitions = trie.toTypedArray()
+      outputs = trieOutputs.toLongArray()
+      buildFailureTransitions()
+    }
+
+    fun match(text: String): Long {
+      var found = 0L
+      var state = 0
+      for (c in text) {
+        val symbol = symbolOf(c)
+        if (symbol == NO_SYMBOL) {
+          state = 0
+          continue
+        }
+        state = transitions[state][symbol]
+        found = found or outputs[state]
+      }
+      return found
+    }
+
+    /**
+     * Turns the trie into a complete automaton, so that matching never has to backtrack.
+     */
+    private fun buildFailureTransitions() {
+      val failures = IntArray(transitions.size)
+      val queue = ArrayDeque<Int>()
+      transitions[0].filter { it != 0 }.forEach { queue.add(it) }
+      while (queue.isNotEmpty()) {
+        val state = queue.poll()
+        outputs[state] = outputs[state] or outputs[failures[state]]
+        for (symbol in 0 until ALPHABET_SIZE) {
+          val next = transitions[state][symbol]
+          if (next != 0) {
+            failures[next] = transitions[failures[state]][symbol]
+            queue.add(next)
+          } else {
+            transitions[state][symbol] = transitions[failures[state]][symbol]
+          }
+        }
+      }
+    }
+
+    private fun symbolOf(c: Char): Int {
+      return when (c) {
+        in 'A'..'Z' -> c - 'A'
+        in 'a'..'z' -> c - 'a'
+        in '0'..'9' -> 26 + (c - '0')
+        ' ' -> 36
+        '-' -> 37
+        else -> NO_SYMBOL
+      }
+    }
+  }
+}
@@ -0,0 +1,141 @@
+package com.gmail.jorgegilcavazos.ballislife.util
+
+import com.gmail.jorgegilcavazos.ballislife.features.model.GameV2
+import com.gmail.jorgegilcavazos.ballislife.features.model.Team
+import com.google.gson.TypeAdapter
+import com.google.gson.stream.JsonReader
+import com.google.gson.stream.JsonToken
+import com.google.gson.stream.JsonWriter
+
+/**
+ * Gson adapter between [GameV2] and the flat string fields of a game in Firebase, e.g.
+ * "homeTeamScore":"98". Teams are read through [Team.of] and the strings that take few distinct
+ * values, e.g. arenas or period statuses, through the shared [StringPool]. Missing fields are
+ * read as empty strings, missing numbers as zero and missing scores as [GameV2.NO_SCORE].
+ */
+class GameV2TypeAdapter : TypeAdapter<GameV2>() {
+
+  override fun write(out: JsonWriter, game: GameV2?) {
+    if (game == null) {
+      out.nullValue()
+      return
+    }
+    out.beginObject()
+    out.name("arena").value(game.arena)
+    out.name("awayTeamAbbr").value(game.awayTeam.abbr)
+    out.name("awayTeamCity").value(game.awayTeam.city)
+    out.name("awayTeamId").value(game.awayTeam.id)
+    out.name("awayTeamKey").value(game.awayTeam.key)
+    out.name("awayTeamNickname").value(game.awayTeam.nickname)
+    out.name("awayTeamScore").value(game.awayScoreText)
+    out.name("city").value(game.city)
+    out.name("date").value(game.date)
+    out.name("gameClock").value(game.gameClock)
+    out.name("gameStatus").value(game.status.toString())
+    out.name("homeTeamAbbr").value(game.homeTeam.abbr)
+    out.name("homeTeamCity").value(game.homeTeam.city)
+    out.name("homeTeamId").value(game.homeTeam.id)
+    out.name("homeTeamKey").value(game.homeTeam.key)
+    out.name("homeTeamNickname").value(game.homeTeam.nickname)
+    out.name("homeTeamScore").value(game.homeScoreText)
+    out.name("id").value(game.id)
+    out.name("periodName").value(game.periodName)
+    out.name("periodStatus").value(game.periodStatus)
+    out.name("periodValue").value(game.period.toString())
+    out.name("time").value(game.time)
+    out.name("timeUtc").value(game.timeUtc)
+    out.name("totalPeriods").value(game.totalPeriods.toString())
+    out.endObject()
+  }
+
+  override fun read(input: JsonReader): GameV2? {
+    if (input.peek() == JsonToken.NULL) {
+      input.nextNull()
+      return null
+    }
+
+    var arena = ""
+    var awayTeamAbbr = ""
+    var awayTeamCity = ""
+    var awayTeamId = ""
+    var awayTeamKey = ""
+    var awayTeamNickname = ""
+    var awayTeamScore = ""
+    var city = ""
+    var date = ""
+    var gameClock = ""
+    var gameStatus = ""
+    var homeTeamAbbr = ""
+    var homeTeamCity = ""
+    var homeTeamId = ""
+    var homeTeamKey = ""
+    var homeTeamNickname = ""
+    var homeTeamScore = ""
+    var id = ""
+    var periodName = ""
+    var periodStatus = ""
+    var periodValue = ""
+    var time = ""
+    var timeUtc = 0L
+    var totalPeriods = ""
+
+    input.beginObject()
+    while (input.hasNext()) {
+      val name = input.nextName()
+      if (input.peek() == JsonToken.NULL) {
+        input.nextNull()
+        continue
+      }
+      when (name) {
+        "arena" -> arena = input.nextString()
+        "awayTeamAbbr" -> awayTeamAbbr = input.nextString()
+        "awayTeamCity" -> awayTeamCity = input.nextString()
+        "awayTeamId" -> awayTeamId = input.nextString()
+        "awayTeamKey" -> awayTeamKey = input.nextString()
+        "awayTeamNickname" -> awayTeamNickname = input.nextString()
+        "awayTeamScore" -> awayTeamScore = input.nextString()
+        "city" -> city = input.nextString()
+        "date" -> date = input.nextString()
+        "gameClock" -> gameClock = input.nextString()
+        "gameStatus" -> gameStatus = input.nextString()
+        "homeTeamAbbr" -> homeTeamAbbr = input.nextString()
+        "homeTeamCity" -> homeTeamCity = input.nextString()
+        "homeTeamId" -> homeTeamId = input.nextString()
+        "homeTeamKey" -> homeTeamKey = input.nextString()
+        "homeTeamNickname" -> homeTeamNickname = input.nextString()
+        "homeTeamScore" -> homeTeamScore = input.nextString()
+        "id" -> id = input.nextString()
+        "periodName" -> periodName = input.nextString()
+        "periodStatus" -> periodStatus = input.nextString()
+        "periodValue" -> periodValue = input.nextString()
+        "time" -> time = input.nextString()
+        "timeUtc" -> timeUtc = input.nextLong()
+        "totalPeriods" -> totalPeriods = input.nextString()
+        else -> input.skipValue()
+      }
+    }
+    input.endObject()
+
+    return GameV2(
+        id = id,
+        homeTeam = Team.of(homeTeamId, homeTeamKey, homeTeamAbbr, homeTeamCity, homeTeamNickname),
+        awayTeam = Team.of(awayTeamId, awayTeamKey, awayTeamAbbr, awayTeamCity, awayTeamNickname),
+        status = parseInt(gameStatus, 0),
+        homeScore = parseInt(homeTeamScore, GameV2.NO_SCORE),
+        awayScore = parseInt(awayTeamScore, GameV2.NO_SCORE),
+        period = parseInt(periodValue, 0),
+        periodName = StringPool.shared.intern(periodName),
+        periodStatus = StringPool.shared.intern(periodStatus),
+        totalPeriods = parseInt(totalPeriods, 0),
+        gameClock = gameClock,
+        arena = StringPool.shared.intern(arena),
+        city = StringPool.shared.intern(city),
+        date = date,
+        time = StringPool.shared.intern(time),
+        timeUtc = timeUtc)
+  }
+
+  private fun parseInt(value: String, default: Int): Int {
+    return value.trim().toIntOrNull() ?: default
+  }
+}
@@ -4,10 +4,10 @@ import android.text.Html;
 
 import com.gmail.jorgegilcavazos.ballislife.R;
 import com.gmail.jorgegilcavazos.ballislife.features.model.GameThreadSummary;
+import com.gmail.jorgegilcavazos.ballislife.features.model.GameThreadType;
 
 import net.dean.jraw.models.Submission;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public final class RedditUtils {
@@ -63,58 +63,47 @@ public final class RedditUtils {
             return "";
         }
 
-        String homeTeamFullName = null;
-        String awayTeamFullName = null;
-
-        for (TeamName teamName : TeamName.values()) {
-            if (teamName.toString().equals(homeTeamAbbr)) {
-                homeTeamFullName = teamName.getTeamName();
-            }
-            if (teamName.toString().equals(awayTeamAbbr)) {
-                awayTeamFullName = teamName.getTeamName();
-            }
-        }
-
-        if (homeTeamFullName == null || awayTeamFullName == null) {
+        TeamName homeTeam = GameThreadTitleClassifier.findTeam(homeTeamAbbr);
+        TeamName awayTeam = GameThreadTitleClassifier.findTeam(awayTeamAbbr);
+        if (homeTeam == null || awayTeam == null) {
             return "";
         }
 
-        List<GameThreadSummary> matchingThreads = new ArrayList<>();
+        GameThreadType threadType;
+        switch (type) {
+            case LIVE_GT_TYPE:
+                threadType = GameThreadType.LIVE;
+                break;
+            case POST_GT_TYPE:
+                threadType = GameThreadType.POST;
+                break;
+            default:
+                return "";
+        }
 
+        // Usually formatted as "GAME THREAD: Cleveland Cavaliers @ San Antonio Spurs".
         for (GameThreadSummary thread : threadList) {
-            String capsTitle = thread.getTitle().toUpperCase();
-
-            // Usually formatted as "GAME THREAD: Cleveland Cavaliers @ San Antonio Spurs".
-            switch (type) {
-                case LIVE_GT_TYPE:
-                    if (capsTitle.contains("GAME THREAD") && !capsTitle.contains("POST")
-                            && titleContainsTeam(capsTitle, homeTeamFullName)
-                            && titleContainsTeam(capsTitle, awayTeamFullName)) {
-                        matchingThreads.add(thread);
-                    }
-                    break;
-                case POST_GT_TYPE:
-                    if ((capsTitle.contains("POST GAME THREAD")
-                            || capsTitle.contains("POST-GAME THREAD"))
-                            && titleContainsTeam(capsTitle, homeTeamFullName)
-                            && titleContainsTeam(capsTitle, awayTeamFullName)) {
-                        matchingThreads.add(thread);
-                    }
-                    break;
+            if (GameThreadTitleClassifier.classify(thread).isFor(threadType, homeTeam, awayTeam)) {
+                return thread.getId();
             }
         }
 
-        return matchingThreads.size() > 0 ? matchingThreads.get(0).getId() : "";
+        return "";
+    }
+
+    /**
+     * Returns the styled text of the given HTML, e.g. of a submission title.
+     */
+    public static CharSequence fromHtml(String html) {
+        if (android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.N) {
+            return Html.fromHtml(html, Html.FROM_HTML_MODE_LEGACY);
+        } else {
+            return Html.fromHtml(html);
+        }
     }
 
     public static CharSequence bindSnuDown(String rawHtml) {
-        rawHtml = rawHtml.replace("&lt;", "<").replace("&gt;", ">").replace("&quot;", "\"")
-                .replace("&apos;", "'").replace("&amp;", "&").replace("<li><p>", "<p>• ")
-                .replace("</li>", "<br>").replaceAll("<li.*?>", "•").replace("<p>", "<div>")
-                .replace("</p>","</div>");
-        rawHtml = rawHtml.substring(0, rawHtml.lastIndexOf("\n") );
-
-        return trim(Html.fromHtml(noTrailingwhiteLines(rawHtml)));
+        return trim(Html.fromHtml(SnuDownNormalizer.normalize(rawHtml)));
     }
 
     public static CharSequence trim(CharSequence s) {
@@ -131,13 +120,6 @@ public final class RedditUtils {
         return s.subSequence(start, end);
     }
 
-    public static String noTrailingwhiteLines(String text) {
-        while (text.charAt(text.length() - 1) == '\n') {
-            text = text.substring(0, text.length() - 1);
-        }
-        return text;
-    }
-
     public static boolean isRemovedOrDeleted(Submission submission) {
         return submission.getSelftext().equals("[removed]") || submission.getSelftext()
                 .equals("[deleted]");
@@ -0,0 +1,156 @@
+package com.gmail.jorgegilcavazos.ballislife.util
+
+import com.gmail.jorgegilcavazos.ballislife.features.model.SubmissionWrapper
+import net.dean.jraw.models.Comment
+import net.dean.jraw.models.CommentNode
+import net.dean.jraw.models.Contribution
+import java.util.*
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Keeps the styled text of comment bodies, submission titles and self texts so that binding a
+ * view doesn't have to parse HTML in the main thread. The text is meant to be rendered in the
+ * background with the prerender methods as soon as a page or a comment tree arrives, the lookups
+ * made while binding only render text that wasn't prerendered.
+ *
+ * Texts are kept by the fullname and edit time of their comment or submission, so an edited
+ * comment is rendered again, and at most [MAX_ENTRIES] of them are kept, evicting the least
+ * recently used first.
+ */
+@Singleton
+class RenderedTextCache(
+    private val maxEntries: Int,
+    private val renderBody: (String) -> CharSequence,
+    private val renderTitle: (String) -> CharSequence) {
+
+  companion object {
+    const val MAX_ENTRIES = 2000
+  }
+
+  @Inject constructor() : this(
+      MAX_ENTRIES,
+      { RedditUtils.bindSnuDown(it) },
+      { RedditUtils.fromHtml(it) })
+
+  private val texts = LinkedHashMap<String, CharSequence>(16, 0.75f, true)
+
+  /**
+   * Number of lookups answered with prerendered text.
+   */
+  var hitCount = 0
+    @Synchronized get
+    private set
+
+  /**
+   * Number of lookups that had to render the text.
+   */
+  var missCount = 0
+    @Synchronized get
+    private set
+
+  fun commentBody(comment: Comment): CharSequence =
+      lookup(commentKey(comment)) { renderBody(comment.data("body_html") ?: "") }
+
+  fun title(submission: SubmissionWrapper): CharSequence =
+      lookup(titleKey(submission)) { renderTitle(submission.title) }
+
+  /**
+   * Returns the self text of the submission, or null if it has none.
+   */
+  fun selfText(submission: SubmissionWrapper): CharSequence? {
+    val selfTextHtml = submission.selfTextHtml
+    if (selfTextHtml == null || selfTextHtml.isEmpty()) {
+      return null
+    }
+    return lookup(selfTextKey(submission)) { renderBody(selfTextHtml) }
+  }
+
+  /**
+   * Renders the bodies of the comments of the given nodes, in order and up to the given number
+   * of them. More than [MAX_ENTRIES] would evict the first ones rendered.
+   */
+  @JvmOverloads
+  fun prerenderComments(nodes: Iterable<CommentNode?>, limit: Int = maxEntries) {
+    var count = 0
+    for (node in nodes) {
+      if (count >= Math.min(limit, maxEntries)) {
+        return
+      }
+      val comment = node?.comment ?: continue
+      prerender(commentKey(comment)) { renderBody(comment.data("body_html") ?: "") }
+      count++
+    }
+  }
+
+  fun prerenderSubmissions(submissions: Iterable<SubmissionWrapper>) {
+    for (submission in submissions) {
+      prerender(titleKey(submission)) { renderTitle(submission.title) }
+      val selfTextHtml = submission.selfTextHtml
+      if (selfTextHtml != null && !selfTextHtml.isEmpty()) {
+        prerender(selfTextKey(submission)) { renderBody(selfTextHtml) }
+      }
+    }
+  }
+
+  /**
+   * Renders the bodies of the comments among the given contributions.
+   */
+  fun prerenderContributions(contributions: Iterable<Contribution>) {
+    for (contribution in contributions) {
+      if (contribution.fullName?.startsWith("t1_") == true) {
+        val comment = Comment(contribution.dataNode)
+        prerender(commentKey(comment)) { renderBody(comment.data("body_html") ?: "") }
+      }
+    }
+  }
+
+  @Synchronized
+  fun size() = texts.size
+
+  @Synchronized
+  fun clear() {
+    texts.clear()
+  }
+
+  private fun lookup(key: String, render: () -> CharSequence): CharSequence {
+    synchronized(this) {
+      val text = texts[key]
+      if (text != null) {
+        hitCount++
+        return text
+      }
+      missCount++
+    }
+    val text = render()
+    put(key, text)
+    return text
+  }
+
+  private fun prerender(key: String, render: () -> CharSequence) {
+    synchronized(this) {
+      if (texts.containsKey(key)) {
+        return
+      }
+    }
+    // Rendered outside the lock so that lookups made while binding don't wait for it.
+    put(key, render())
+  }
+
+  @Synchronized
+  private fun put(key: String, text: CharSequence) {
+    texts.put(key, text)
+    val iterator = texts.values.iterator()
+    while (texts.size > maxEntries && iterator.hasNext()) {
+      iterator.next()
+      iterator.remove()
+    }
+  }
+
+  private fun commentKey(comment: Comment) = "${comment.fullName}@${comment.data("edited")}"
+
+  private fun titleKey(submission: SubmissionWrapper) = "t3_${submission.id}#title"
+
+  private fun selfTextKey(submission: SubmissionWrapper) =
+      "t3_${submission.id}@${submission.submission?.data("edited")}#self"
+}
@@ -0,0 +1,189 @@
+package com.gmail.jorgegilcavazos.ballislife.util;
+
+import android.support.annotation.VisibleForTesting;
+
+/**
+ * Turns the escaped HTML of a comment or self text into the HTML rendered by
+ * {@link RedditUtils#bindSnuDown(String)} in a single pass over the text. It gives the same
+ * result as unescaping the entities and then running these rewrites one after the other over
+ * the whole text:
+ *
+ * <ol>
+ *     <li>{@code replace("<li><p>", "<p>• ")}</li>
+ *     <li>{@code replace("</li>", "<br>")}</li>
+ *     <li>{@code replaceAll("<li.*?>", "•")}</li>
+ *     <li>{@code replace("<p>", "<div>")}</li>
+ *     <li>{@code replace("</p>", "</div>")}</li>
+ * </ol>
+ *
+ * Then the last line, which only closes the div that wraps the whole text, and any trailing line
+ * breaks are dropped. Each thread reuses its own buffer, unless a long text grew it past
+ * {@link #MAX_BUFFER_CAPACITY} characters.
+ */
+final class SnuDownNormalizer {
+
+    static final int MAX_BUFFER_CAPACITY = 16 * 1024;
+
+    private static final ThreadLocal<StringBuilder> BUFFERS = new ThreadLocal<StringBuilder>() {
+        @Override
+        protected StringBuilder initialValue() {
+            return new StringBuilder();
+        }
+    };
+
+    private SnuDownNormalizer() {
+    }
+
+    static String normalize(String html) {
+        StringBuilder out = BUFFERS.get();
+        out.setLength(0);
+
+        int length = html.length();
+        int i = 0;
+        while (i < length) {
+            // Copy the text up to the next tag or entity as is.
+            int runEnd = i;
+            char c = 0;
+            while (runEnd < length && (c = html.charAt(runEnd)) != '&' && c != '<') {
+                runEnd++;
+            }
+            out.append(html, i, runEnd);
+            if (runEnd == length) {
+                break;
+            }
+            i = runEnd;
+
+            if (charAt(html, i) != '<') {
+                out.append(charAt(html, i));
+                i += charLength(html, i);
+                continue;
+            }
+
+            int end;
+            if ((end = match(html, i, "<li><p>")) >= 0) {
+                out.append("<div>• ");
+                i = end;
+            } else if ((end = match(html, i, "</li>")) >= 0) {
+                out.append("<br>");
+                i = end;
+            } else if ((end = match(html, i, "<li")) >= 0) {
+                i = appendListItem(html, i, end, out);
+            } else if ((end = match(html, i, "<p>")) >= 0) {
+                out.append("<div>");
+                i = end;
+            } else if ((end = match(html, i, "</p>")) >= 0) {
+                out.append("</div>");
+                i = end;
+            } else {
+                out.append('<');
+                i += charLength(html, i);
+            }
+        }
+
+        int lastLine = out.lastIndexOf("\n");
+        if (lastLine >= 0) {
+            out.setLength(lastLine);
+        }
+        while (out.length() > 0 && out.charAt(out.length() - 1) == '\n') {
+            out.setLength(out.length() - 1);
+        }
+        String normalized = out.toString();
+        if (out.capacity() > MAX_BUFFER_CAPACITY) {
+            // Don't keep the buffer of the longest text ever seen alive in every thread.
+            BUFFERS.remove();
+        }
+        return normalized;
+    }
+
+    @VisibleForTesting
+    static int bufferCapacity() {
+        return BUFFERS.get().capacity();
+    }
+
+    /**
+     * Appends a bullet for the list item tag that starts at the given index, which ends at the
+     * first '>' on the same line. Returns the index after the tag, or after its '<' if it doesn't
+     * end.
+     */
+    private static int appendListItem(String html, int start, int i, StringBuilder out) {
+        int length = html.length();
+        while (i < length) {
+            char c = charAt(html, i);
+            if (c == '>') {
+                out.append('•');
+                return i + charLength(html, i);
+            }
+            if (isLineTerminator(c)) {
+                break;
+            }
+            int end;
+            if (c == '<' && (end = match(html, i, "<li><p>")) >= 0) {
+                // Ends at the '>' of the paragraph that starts the nested item.
+                out.append("•• ");
+                return end;
+            }
+            i += charLength(html, i);
+        }
+        out.append('<');
+        return start + charLength(html, start);
+    }
+
+    /**
+     * Returns the index after the unescaped text at the given index if it starts with the given
+     * string, -1 otherwise.
+     */
+    private static int match(String html, int i, String unescaped) {
+        int length = html.length();
+        for (int j = 0; j < unescaped.length(); j++) {
+            if (i >= length || charAt(html, i) != unescaped.charAt(j)) {
+                return -1;
+            }
+            i += charLength(html, i);
+        }
+        return i;
+    }
+
+    /**
+     * Returns the unescaped character at the given index.
+     */
+    private static char charAt(String html, int i) {
+        char c = html.charAt(i);
+        if (c != '&') {
+            return c;
+        }
+        if (html.startsWith("lt;", i + 1)) {
+            return '<';
+        } else if (html.startsWith("gt;", i + 1)) {
+            return '>';
+        } else if (html.startsWith("quot;", i + 1)) {
+            return '"';
+        } else if (html.startsWith("apos;", i + 1)) {
+            return '\'';
+        }
+        return '&';
+    }
+
+    /**
+     * Returns the length of the possibly escaped character at the given index.
+     */
+    private static int charLength(String html, int i) {
+        if (html.charAt(i) != '&') {
+            return 1;
+        }
+        if (html.startsWith("lt;", i + 1) || html.startsWith("gt;", i + 1)) {
+            return 4;
+        } else if (html.startsWith("quot;", i + 1) || html.startsWith("apos;", i + 1)) {
+            return 6;
+        } else if (html.startsWith("amp;", i + 1)) {
+            return 5;
+        }
+        return 1;
+    }
+
+    /**
+     * Returns whether the character ends a line, which a '.' in a pattern doesn't match.
+     */
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+}
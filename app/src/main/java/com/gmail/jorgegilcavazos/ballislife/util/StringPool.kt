@@ -0,0 +1,39 @@
+package com.gmail.jorgegilcavazos.ballislife.util
+
+/**
+ * Pool of canonical strings, so that equal values read at different times share a single
+ * instance. Only meant for values with few distinct instances, e.g. team names. It holds at most
+ * the given number of strings, values first seen after it is full are returned as they are.
+ */
+class StringPool(private val maxSize: Int) {
+
+  companion object {
+    const val MAX_SIZE = 1024
+
+    /**
+     * Pool shared by the strings of every game.
+     */
+    val shared = StringPool(MAX_SIZE)
+  }
+
+  private val pool = HashMap<String, String>()
+
+  fun intern(value: String): String {
+    synchronized(pool) {
+      val pooled = pool[value]
+      if (pooled != null) {
+        return pooled
+      }
+      if (pool.size < maxSize) {
+        pool.put(value, value)
+      }
+      return value
+    }
+  }
+
+  fun size(): Int {
+    synchronized(pool) {
+      return pool.size
+    }
+  }
+}
@@ -11,7 +11,17 @@ public final class Utilities {
         if (periodValue.isEmpty()) {
             return periodValue;
         }
-        int period = Integer.parseInt(periodValue);
+        return getPeriodString(Integer.parseInt(periodValue), periodName);
+    }
+
+    /**
+     * Returns the period as displayed, e.g. "3 Qtr" or "2OT", or an empty string for period 0 of
+     * games that haven't started.
+     */
+    public static String getPeriodString(int period, String periodName) {
+        if (period <= 0) {
+            return "";
+        }
         int overtimePeriod = period - 4;
         if (period <= 4) {
             return period + " " + periodName;
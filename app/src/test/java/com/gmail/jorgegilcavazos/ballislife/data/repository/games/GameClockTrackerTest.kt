@@ -0,0 +1,99 @@
+package com.gmail.jorgegilcavazos.ballislife.data.repository.games
+
+import com.gmail.jorgegilcavazos.ballislife.features.model.GameV2
+import com.gmail.jorgegilcavazos.ballislife.features.model.createGame
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+class GameClockTrackerTest {
+
+  private val tracker = GameClockTracker()
+
+  @Test
+  fun clockNotRunningAfterSingleUpdate() {
+    val game = createLiveGame(gameClock = "10:00")
+
+    tracker.update(game, 0)
+
+    assertFalse(tracker.isRunning(game))
+    assertEquals("10:00", tracker.clockText(game, 5000))
+    assertNull(tracker.millisUntilRefresh(game, 5000))
+  }
+
+  @Test
+  fun clockExtrapolatedWhenMovingWithTime() {
+    tracker.update(createLiveGame(gameClock = "10:00"), 0)
+    val game = createLiveGame(gameClock = "9:50")
+    tracker.update(game, 10 * 1000)
+
+    assertTrue(tracker.isRunning(game))
+    assertEquals("9:45", tracker.clockText(game, 15 * 1000))
+    assertEquals(40 * 1000L, tracker.millisUntilRefresh(game, 15 * 1000))
+  }
+
+  @Test
+  fun clockExtrapolationStopsAfterMaxTime() {
+    tracker.update(createLiveGame(gameClock = "10:00"), 0)
+    val game = createLiveGame(gameClock = "9:50")
+    tracker.update(game, 10 * 1000)
+
+    assertEquals("9:05", tracker.clockText(game, 10 * 60 * 1000))
+    assertEquals(0L, tracker.millisUntilRefresh(game, 10 * 60 * 1000))
+  }
+
+  @Test
+  fun clockExtrapolationStopsAtEndOfPeriod() {
+    tracker.update(createLiveGame(gameClock = "14.0"), 0)
+    val game = createLiveGame(gameClock = "4.0")
+    tracker.update(game, 10 * 1000)
+
+    assertEquals("1.5", tracker.clockText(game, 12500))
+    assertEquals("0.0", tracker.clockText(game, 20 * 1000))
+    assertEquals(0L, tracker.millisUntilRefresh(game, 20 * 1000))
+  }
+
+  @Test
+  fun clockNotRunningWhenStalled() {
+    tracker.update(createLiveGame(gameClock = "10:00"), 0)
+    tracker.update(createLiveGame(gameClock = "9:50"), 10 * 1000)
+    val game = createLiveGame(gameClock = "9:50")
+    tracker.update(game, 20 * 1000)
+
+    assertFalse(tracker.isRunning(game))
+    assertEquals("9:50", tracker.clockText(game, 25 * 1000))
+  }
+
+  @Test
+  fun clockNotRunningWhenMovedFasterThanTime() {
+    tracker.update(createLiveGame(gameClock = "10:00"), 0)
+    val game = createLiveGame(gameClock = "8:00")
+    tracker.update(game, 10 * 1000)
+
+    assertFalse(tracker.isRunning(game))
+  }
+
+  @Test
+  fun clockNotRunningWhenMovedSlowerThanTime() {
+    tracker.update(createLiveGame(gameClock = "10:00"), 0)
+    val game = createLiveGame(gameClock = "9:55")
+    tracker.update(game, 30 * 1000)
+
+    assertFalse(tracker.isRunning(game))
+    assertEquals("9:55", tracker.clockText(game, 35 * 1000))
+  }
+
+  @Test
+  fun clockNotRunningAcrossPeriods() {
+    tracker.update(createLiveGame(gameClock = "0.5", period = 1), 0)
+    val game = createLiveGame(gameClock = "11:55", period = 2)
+    tracker.update(game, 10 * 1000)
+
+    assertFalse(tracker.isRunning(game))
+  }
+
+  private fun createLiveGame(gameClock: String, period: Int = 1) =
+      createGame(status = GameV2.IN_GAME, gameClock = gameClock, period = period)
+}
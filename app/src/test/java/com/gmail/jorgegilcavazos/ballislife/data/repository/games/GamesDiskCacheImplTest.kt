@@ -0,0 +1,103 @@
+package com.gmail.jorgegilcavazos.ballislife.data.repository.games
+
+import com.gmail.jorgegilcavazos.ballislife.features.model.GameV2
+import com.gmail.jorgegilcavazos.ballislife.features.model.createGame
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.io.File
+import java.io.RandomAccessFile
+
+class GamesDiskCacheImplTest {
+
+  @Rule @JvmField val folder = TemporaryFolder()
+
+  private lateinit var file: File
+  private lateinit var diskCache: GamesDiskCacheImpl
+
+  @Before
+  fun setup() {
+    file = File(folder.root, "games.bin")
+    diskCache = GamesDiskCacheImpl(file)
+  }
+
+  @Test
+  fun loadGamesWithNoFile() {
+    assertEquals(emptyMap<String, GameV2>(), diskCache.loadGames())
+  }
+
+  @Test
+  fun savedGamesLoadedByNewInstance() {
+    val game1 = createGame(id = "1", status = GameV2.POST_GAME)
+    val game2 = createGame(id = "2", status = GameV2.PRE_GAME)
+    diskCache.saveGames(mapOf("9f0ji2" to game1, "owei" to game2))
+
+    val games = GamesDiskCacheImpl(file).loadGames()
+
+    assertEquals(mapOf("9f0ji2" to game1, "owei" to game2), games)
+  }
+
+  @Test
+  fun latestRecordOfGameWins() {
+    val game = createGame(id = "1", status = GameV2.IN_GAME)
+    val finalGame = createGame(id = "1", status = GameV2.POST_GAME)
+    diskCache.saveGames(mapOf("9f0ji2" to game))
+    diskCache.saveGames(mapOf("9f0ji2" to finalGame))
+
+    val games = GamesDiskCacheImpl(file).loadGames()
+
+    assertEquals(mapOf("9f0ji2" to finalGame), games)
+  }
+
+  @Test
+  fun finalGamesNeverExpire() {
+    val finalGame = createGame(id = "1", status = GameV2.POST_GAME)
+    val scheduledGame = createGame(id = "2", status = GameV2.PRE_GAME)
+    diskCache.saveGames(mapOf("9f0ji2" to finalGame))
+    val finalRecordLength = file.length()
+    diskCache.saveGames(mapOf("owei" to scheduledGame))
+    RandomAccessFile(file, "rw").use {
+      // Marks both records as saved at the epoch, after the version byte of each.
+      it.seek(1)
+      it.writeLong(0)
+      it.seek(finalRecordLength + 1)
+      it.writeLong(0)
+    }
+
+    assertEquals(mapOf("9f0ji2" to finalGame), GamesDiskCacheImpl(file).loadGames())
+  }
+
+  @Test
+  fun truncatedRecordDroppedAndFileRepaired() {
+    val game1 = createGame(id = "1", status = GameV2.POST_GAME)
+    val game2 = createGame(id = "2", status = GameV2.POST_GAME)
+    val game3 = createGame(id = "3", status = GameV2.POST_GAME)
+    diskCache.saveGames(mapOf("9f0ji2" to game1))
+    val validLength = file.length()
+    diskCache.saveGames(mapOf("owei" to game2))
+    RandomAccessFile(file, "rw").use { it.setLength(validLength + 10) }
+
+    assertEquals(mapOf("9f0ji2" to game1), GamesDiskCacheImpl(file).loadGames())
+
+    val repairedCache = GamesDiskCacheImpl(file)
+    repairedCache.loadGames()
+    repairedCache.saveGames(mapOf("fjwoe" to game3))
+    assertEquals(mapOf("9f0ji2" to game1, "fjwoe" to game3), GamesDiskCacheImpl(file).loadGames())
+  }
+
+  @Test
+  fun saveGamesCompactsReplacedRecords() {
+    val game = createGame(id = "1", status = GameV2.POST_GAME)
+    diskCache.saveGames(mapOf("9f0ji2" to game))
+    val recordLength = file.length()
+
+    for (i in 1..GamesDiskCacheImpl.COMPACTION_MIN_RECORDS) {
+      diskCache.saveGames(mapOf("9f0ji2" to game))
+    }
+
+    assertEquals(recordLength, file.length())
+    assertEquals(mapOf("9f0ji2" to game), GamesDiskCacheImpl(file).loadGames())
+  }
+}
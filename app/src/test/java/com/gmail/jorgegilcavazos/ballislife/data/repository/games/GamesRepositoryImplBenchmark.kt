@@ -0,0 +1,76 @@
+package com.gmail.jorgegilcavazos.ballislife.data.repository.games
+
+import com.gmail.jorgegilcavazos.ballislife.data.service.NbaGamesEventService
+import com.gmail.jorgegilcavazos.ballislife.data.service.NbaGamesService
+import com.gmail.jorgegilcavazos.ballislife.features.model.GameV2
+import com.gmail.jorgegilcavazos.ballislife.features.model.createGame
+import com.gmail.jorgegilcavazos.ballislife.util.DateFormatUtil
+import com.gmail.jorgegilcavazos.ballislife.util.Measurement
+import com.gmail.jorgegilcavazos.ballislife.util.schedulers.TrampolineSchedulerProvider
+import com.google.gson.Gson
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import org.mockito.Mockito.mock
+import java.util.*
+
+/**
+ * Compares reading the games of one day from a cache holding a season of [SEASON_GAMES] games
+ * with the filter over every cached game [GamesRepositoryImpl] used to run and with its lookup
+ * in the games indexed by tip-off time, reporting the median time and bytes allocated per day
+ * read. Only runs when the unit tests are run with -Pbenchmarks.
+ */
+class GamesRepositoryImplBenchmark {
+
+  companion object {
+    const val SEASON_GAMES = 1230
+    const val GAMES_PER_DAY = 8
+    const val WARMUP_ROUNDS = 20000
+    const val ROUNDS = 1000
+  }
+
+  private val repository = GamesRepositoryImpl(
+      mock(NbaGamesService::class.java),
+      mock(NbaGamesEventService::class.java),
+      mock(GamesDiskCache::class.java),
+      GameClockTracker(),
+      Gson(),
+      TrampolineSchedulerProvider())
+
+  @Test
+  fun readDayOfSeason() {
+    val seasonStart = Calendar.getInstance()
+    seasonStart.set(2017, Calendar.OCTOBER, 17, 19, 30)
+    val season = HashMap<String, GameV2>()
+    for (i in 0 until SEASON_GAMES) {
+      val tipOff = seasonStart.clone() as Calendar
+      tipOff.add(Calendar.DAY_OF_YEAR, i / GAMES_PER_DAY)
+      season.put("key$i", createGame(id = i.toString(), timeUtc = tipOff.timeInMillis / 1000))
+    }
+    repository.saveGamesInCache(season, true)
+    val day = seasonStart.clone() as Calendar
+    day.add(Calendar.DAY_OF_YEAR, 100)
+
+    val scan = Measurement.measure(WARMUP_ROUNDS, ROUNDS) { filterDay(season, day) }
+    val index = Measurement.measure(WARMUP_ROUNDS, ROUNDS) { lookUpDay(day) }
+
+    assertEquals(filterDay(season, day), lookUpDay(day))
+    println("Reading a day of a $SEASON_GAMES game season")
+    println("scan: $scan")
+    println("index: $index")
+  }
+
+  /**
+   * The memory source of the repository as it was before games were indexed by tip-off time.
+   */
+  private fun filterDay(games: Map<String, GameV2>, date: Calendar): Map<String, GameV2> {
+    return games.filterValues {
+      it.timeUtc > DateFormatUtil.getDateStartUtc(date)
+          && it.timeUtc < DateFormatUtil.getDateEndUtc(date)
+    }
+  }
+
+  private fun lookUpDay(date: Calendar): Map<String, GameV2> {
+    return repository.getCachedGames(
+        DateFormatUtil.getDateStartUtc(date), DateFormatUtil.getDateEndUtc(date))
+  }
+}
@@ -1,9 +1,23 @@
 package com.gmail.jorgegilcavazos.ballislife.data.repository.games
 
+import com.gmail.jorgegilcavazos.ballislife.data.service.NbaGamesEventService
 import com.gmail.jorgegilcavazos.ballislife.data.service.NbaGamesService
+import com.gmail.jorgegilcavazos.ballislife.features.model.FirebaseEvent
 import com.gmail.jorgegilcavazos.ballislife.features.model.GameV2
+import com.gmail.jorgegilcavazos.ballislife.features.model.createGame
+import com.gmail.jorgegilcavazos.ballislife.util.schedulers.BaseSchedulerProvider
 import com.gmail.jorgegilcavazos.ballislife.util.schedulers.TrampolineSchedulerProvider
+import com.google.gson.Gson
+import com.google.gson.JsonParser
+import io.reactivex.Observable
+import io.reactivex.Scheduler
 import io.reactivex.Single
+import io.reactivex.schedulers.Schedulers
+import io.reactivex.schedulers.TestScheduler
+import io.reactivex.subjects.SingleSubject
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
 import org.junit.Before
 import org.junit.Test
 import org.junit.runner.RunWith
@@ -11,26 +25,33 @@ import org.mockito.Mock
 import org.mockito.Mockito.*
 import org.mockito.MockitoAnnotations
 import org.mockito.junit.MockitoJUnitRunner
+import java.io.IOException
 import java.net.SocketTimeoutException
 import java.util.*
+import java.util.concurrent.TimeUnit
 
 @RunWith(MockitoJUnitRunner::class)
 class GamesRepositoryImplTest {
 
   @Mock private lateinit var gamesService: NbaGamesService
+  @Mock private lateinit var gamesEventService: NbaGamesEventService
+  @Mock private lateinit var diskCache: GamesDiskCache
 
+  private val clockTracker = GameClockTracker()
   private lateinit var repository: GamesRepositoryImpl
 
   @Before
   fun setup() {
     MockitoAnnotations.initMocks(this)
 
-    repository = GamesRepositoryImpl(gamesService, TrampolineSchedulerProvider())
+    repository = GamesRepositoryImpl(
+        gamesService, gamesEventService, diskCache, clockTracker, Gson(),
+        TrampolineSchedulerProvider())
   }
 
   @Test
   fun gamesWithCacheEmpty() {
-    val game1 = createGame("1")
+    val game1 = createGameAt("1")
     val response = hashMapOf("9f0ji2" to game1)
     `when`(gamesService.getDayGames(anyString(), anyLong(), anyLong()))
         .thenReturn(Single.just(response))
@@ -39,23 +60,24 @@ class GamesRepositoryImplTest {
 
     testObserver.assertValueAt(0, { it.isMemoryInProgress })
     testObserver.assertValueAt(1, { it.isMemorySuccess && it.games.isEmpty() })
-    testObserver.assertValueAt(2, { it.isNetworkInProgress })
-    testObserver.assertValueAt(3, { it.isNetworkSuccess && it.games == listOf(game1) })
+    testObserver.assertValueAt(2, { it.isDiskSuccess })
+    testObserver.assertValueAt(3, { it.isNetworkInProgress })
+    testObserver.assertValueAt(4, { it.isNetworkSuccess && it.games == listOf(game1) })
   }
 
   @Test
   fun gamesSortedById() {
-    val game3 = createGame("3")
-    val game1 = createGame("1")
-    val game2 = createGame("2")
-    val game4 = createGame("4")
+    val game3 = createGameAt("3")
+    val game1 = createGameAt("1")
+    val game2 = createGameAt("2")
+    val game4 = createGameAt("4")
     val response = hashMapOf("9f0i2" to game3, "fuewe" to game1, "82hf2" to game2, "fjwoe" to game4)
     `when`(gamesService.getDayGames(anyString(), anyLong(), anyLong()))
         .thenReturn(Single.just(response))
 
     val testObserver = repository.games(Calendar.getInstance(), false).test()
 
-    testObserver.assertValueAt(3, {
+    testObserver.assertValueAt(4, {
       it.isNetworkSuccess
           && it.games == listOf(game1, game2, game3, game4)
     })
@@ -64,8 +86,8 @@ class GamesRepositoryImplTest {
   @Test
   fun gamesWithCacheAvailable() {
     val calendar = Calendar.getInstance()
-    val game1 = createGame("1", calendar)
-    val game2 = createGame("2", calendar)
+    val game1 = createGameAt("1", calendar)
+    val game2 = createGameAt("2", calendar)
     val response = hashMapOf("9f0ji2" to game1, "owei" to game2)
     `when`(gamesService.getDayGames(anyString(), anyLong(), anyLong()))
         .thenReturn(Single.just(response))
@@ -75,13 +97,14 @@ class GamesRepositoryImplTest {
 
     testObserver.assertValueAt(0, { it.isMemoryInProgress })
     testObserver.assertValueAt(1, { it.isMemorySuccess && it.games == listOf(game1) })
-    testObserver.assertValueAt(2, { it.isNetworkInProgress })
-    testObserver.assertValueAt(3, { it.isNetworkSuccess && it.games == listOf(game1, game2) })
+    testObserver.assertValueAt(2, { it.isDiskSuccess })
+    testObserver.assertValueAt(3, { it.isNetworkInProgress })
+    testObserver.assertValueAt(4, { it.isNetworkSuccess && it.games == listOf(game1, game2) })
   }
 
   @Test
   fun gamesSkipCacheIfForceNetwork() {
-    val game1 = createGame("1")
+    val game1 = createGameAt("1")
     val response = hashMapOf("9f0ji2" to game1)
     `when`(gamesService.getDayGames(anyString(), anyLong(), anyLong()))
         .thenReturn(Single.just(response))
@@ -102,35 +125,412 @@ class GamesRepositoryImplTest {
 
     testObserver.assertValueAt(0, { it.isMemoryInProgress })
     testObserver.assertValueAt(1, { it.isMemorySuccess && it.games.isEmpty() })
-    testObserver.assertValueAt(2, { it.isNetworkInProgress })
+    testObserver.assertValueAt(2, { it.isDiskSuccess && it.games.isEmpty() })
+    testObserver.assertValueAt(3, { it.isNetworkInProgress })
     testObserver.assertError({ it == exception })
   }
 
-  private fun createGame(id: String, calendar: Calendar = Calendar.getInstance()): GameV2 {
-    return GameV2(
-        arena = "AT&T",
-        awayTeamAbbr = "SAS",
-        awayTeamCity = "San Antonio",
-        awayTeamId = "1545334321",
-        awayTeamKey = "SAS",
-        awayTeamNickname = "Spurs",
-        awayTeamScore = "110",
-        city = "San Antonio",
-        date = "20171110",
-        gameClock = "",
-        gameStatus = "",
-        homeTeamAbbr = "",
-        homeTeamCity = "",
-        homeTeamId = "",
-        homeTeamKey = "",
-        homeTeamNickname = "",
-        homeTeamScore = "",
-        id = id,
-        periodName = "",
-        periodStatus = "",
-        periodValue = "",
-        time = "",
-        timeUtc = calendar.timeInMillis / 1000,
-        totalPeriods = "")
+  @Test
+  fun adjacentDayServedFromPrefetchWindow() {
+    val today = Calendar.getInstance()
+    val tomorrow = Calendar.getInstance()
+    tomorrow.add(Calendar.DAY_OF_YEAR, 1)
+    val game1 = createGameAt("1", today)
+    val game2 = createGameAt("2", tomorrow)
+    `when`(gamesService.getDayGames(anyString(), anyLong(), anyLong()))
+        .thenReturn(Single.just(hashMapOf("9f0ji2" to game1, "owei" to game2)))
+
+    repository.games(today, false).test()
+    val testObserver = repository.games(tomorrow, false).test()
+
+    verify(gamesService, times(1)).getDayGames(anyString(), anyLong(), anyLong())
+    testObserver.assertValueAt(4, { it.isNetworkSuccess && it.games == listOf(game2) })
+  }
+
+  @Test
+  fun forceNetworkIgnoresPrefetchWindow() {
+    val today = Calendar.getInstance()
+    `when`(gamesService.getDayGames(anyString(), anyLong(), anyLong()))
+        .thenReturn(Single.just(hashMapOf("9f0ji2" to createGameAt("1", today))))
+
+    repository.games(today, false).test()
+    repository.games(today, true).test()
+
+    verify(gamesService, times(2)).getDayGames(anyString(), anyLong(), anyLong())
+  }
+
+  @Test
+  fun prefetchForOtherDaysReplacedWhenWindowMoves() {
+    val today = Calendar.getInstance()
+    val firstPrefetch = SingleSubject.create<Map<String, GameV2>>()
+    val secondPrefetch = SingleSubject.create<Map<String, GameV2>>()
+    `when`(gamesService.getDayGames(anyString(), anyLong(), anyLong()))
+        .thenReturn(Single.just(hashMapOf("9f0ji2" to createGameAt("1", today))))
+        .thenReturn(firstPrefetch)
+        .thenReturn(secondPrefetch)
+
+    repository.games(today, false).test()
+    repository.games(addDays(today, GamesRepositoryImpl.PREFETCH_DAYS), false).test()
+    repository.games(addDays(today, -GamesRepositoryImpl.PREFETCH_DAYS), false).test()
+
+    verify(gamesService, times(3)).getDayGames(anyString(), anyLong(), anyLong())
+    assertFalse(firstPrefetch.hasObservers())
+    assertTrue(secondPrefetch.hasObservers())
+  }
+
+  @Test
+  fun prefetchNotRestartedForSameDays() {
+    val today = Calendar.getInstance()
+    `when`(gamesService.getDayGames(anyString(), anyLong(), anyLong()))
+        .thenReturn(Single.just(hashMapOf("9f0ji2" to createGameAt("1", today))))
+        .thenReturn(SingleSubject.create<Map<String, GameV2>>())
+
+    repository.games(today, false).test()
+    repository.games(addDays(today, GamesRepositoryImpl.PREFETCH_DAYS), false).test()
+    repository.games(addDays(today, GamesRepositoryImpl.PREFETCH_DAYS), false).test()
+
+    verify(gamesService, times(2)).getDayGames(anyString(), anyLong(), anyLong())
   }
+
+  @Test
+  fun diskGamesDeliveredBeforeNetwork() {
+    val calendar = Calendar.getInstance()
+    val game1 = createGameAt("1", calendar)
+    `when`(diskCache.loadGames()).thenReturn(hashMapOf("9f0ji2" to game1))
+    `when`(gamesService.getDayGames(anyString(), anyLong(), anyLong()))
+        .thenReturn(Single.error(SocketTimeoutException()))
+
+    val testObserver = repository.games(calendar, false).test()
+
+    testObserver.assertValueAt(1, { it.isMemorySuccess && it.games.isEmpty() })
+    testObserver.assertValueAt(2, { it.isDiskSuccess && it.games == listOf(game1) })
+  }
+
+  @Test
+  fun onlyChangedGamesSavedToDisk() {
+    val calendar = Calendar.getInstance()
+    val game1 = createGameAt("1", calendar)
+    val game2 = createGameAt("2", calendar)
+    `when`(gamesService.getDayGames(anyString(), anyLong(), anyLong()))
+        .thenReturn(Single.just(hashMapOf("9f0ji2" to game1, "owei" to game2)))
+    repository.saveGamesInCache(hashMapOf("9f0ji2" to game1), true)
+
+    repository.games(calendar, true).test()
+
+    verify(diskCache).saveGames(mapOf("owei" to game2))
+  }
+
+  @Test
+  fun updateGamesEmitsOnlyChangedGames() {
+    val calendar = Calendar.getInstance()
+    val game1 = createGameAt("1", calendar)
+    val game2 = createGameAt("2", calendar)
+    val updatedGame1 = game1.copy(homeScore = 98)
+    repository.saveGamesInCache(hashMapOf("9f0ji2" to game1, "owei" to game2), true)
+    val testObserver = repository.gameUpdates().test()
+
+    repository.updateGames(listOf(updatedGame1, game2))
+
+    testObserver.assertValue(listOf(updatedGame1))
+    verify(diskCache).saveGames(mapOf("9f0ji2" to updatedGame1))
+  }
+
+  @Test
+  fun updateGamesKeepsGamesNotCached() {
+    val game = createGameAt("1")
+    val testObserver = repository.gameUpdates().test()
+
+    repository.updateGames(listOf(game))
+
+    testObserver.assertValue(listOf(game))
+    assertEquals(game, repository.cachedGame("1"))
+    verify(diskCache).saveGames(emptyMap())
+  }
+
+  @Test
+  fun updateGamesMergesIntoGamesOnDisk() {
+    val game = createGameAt("1")
+    val updatedGame = game.copy(homeScore = 98)
+    `when`(diskCache.loadGames()).thenReturn(mapOf("9f0ji2" to game))
+
+    repository.updateGames(listOf(updatedGame))
+
+    assertEquals(updatedGame, repository.cachedGame("1"))
+    verify(diskCache).saveGames(mapOf("9f0ji2" to updatedGame))
+  }
+
+  @Test
+  fun pushedGameReplacedWhenFetched() {
+    val calendar = Calendar.getInstance()
+    val game = createGameAt("1", calendar)
+    val fetchedGame = game.copy(homeScore = 98)
+    `when`(gamesService.getDayGames(anyString(), anyLong(), anyLong()))
+        .thenReturn(Single.just(mapOf("9f0ji2" to fetchedGame)))
+    repository.updateGames(listOf(game))
+
+    val testObserver = repository.games(calendar, true).test()
+
+    testObserver.assertValueAt(1, { it.isNetworkSuccess && it.games == listOf(fetchedGame) })
+    assertEquals(fetchedGame, repository.cachedGame("1"))
+  }
+
+  @Test
+  fun updatedGamesReadFromCache() {
+    val calendar = Calendar.getInstance()
+    val game1 = createGameAt("1", calendar)
+    val updatedGame1 = game1.copy(homeScore = 98)
+    `when`(gamesService.getDayGames(anyString(), anyLong(), anyLong()))
+        .thenReturn(Single.error(SocketTimeoutException()))
+    repository.saveGamesInCache(hashMapOf("9f0ji2" to game1), true)
+
+    repository.updateGames(listOf(updatedGame1))
+    val testObserver = repository.games(calendar, false).test()
+
+    testObserver.assertValueAt(1, { it.isMemorySuccess && it.games == listOf(updatedGame1) })
+  }
+
+  @Test
+  fun liveGamesStreamedOnceForAllSubscribers() {
+    val computationScheduler = TestScheduler()
+    repository = GamesRepositoryImpl(
+        gamesService,
+        gamesEventService,
+        diskCache,
+        clockTracker,
+        Gson(),
+        schedulerProvider(computationScheduler))
+    val tipOff = Calendar.getInstance()
+    tipOff.add(Calendar.HOUR_OF_DAY, -1)
+    val game = createGameAt("1", tipOff).copy(status = GameV2.IN_GAME)
+    val updatedGame = game.copy(homeScore = 98)
+    val event = FirebaseEvent(
+        FirebaseEvent.PATCH, "/9f0ji2", JsonParser().parse("{\"homeTeamScore\":\"98\"}"))
+    `when`(gamesEventService.gameEvents(anyString(), anyLong(), anyLong()))
+        .thenReturn(Observable.just(event).concatWith(Observable.never()))
+    repository.saveGamesInCache(hashMapOf("9f0ji2" to game), true)
+
+    val testObserver1 = repository.liveGames().test()
+    val testObserver2 = repository.liveGames().test()
+
+    verify(gamesEventService, times(1)).gameEvents(anyString(), anyLong(), anyLong())
+    verify(gamesService, never()).getDayGames(anyString(), anyLong(), anyLong())
+    testObserver1.assertValue(listOf(updatedGame))
+    testObserver2.assertNoErrors()
+  }
+
+  @Test
+  fun liveGamesPolledWhenStreamKeepsFailing() {
+    val computationScheduler = TestScheduler()
+    repository = GamesRepositoryImpl(
+        gamesService,
+        gamesEventService,
+        diskCache,
+        clockTracker,
+        Gson(),
+        schedulerProvider(computationScheduler))
+    val tipOff = Calendar.getInstance()
+    tipOff.add(Calendar.HOUR_OF_DAY, -1)
+    val game = createGameAt("1", tipOff).copy(status = GameV2.IN_GAME)
+    val updatedGame = game.copy(homeScore = 98)
+    `when`(gamesEventService.gameEvents(anyString(), anyLong(), anyLong()))
+        .thenReturn(Observable.error(IOException()))
+    `when`(gamesService.getDayGames(anyString(), anyLong(), anyLong()))
+        .thenReturn(Single.just(hashMapOf("9f0ji2" to updatedGame)))
+    repository.saveGamesInCache(hashMapOf("9f0ji2" to game), true)
+
+    val testObserver = repository.liveGames().test()
+    // Retries after 2, 4, 8, 16 and 32 seconds, then the first poll.
+    computationScheduler.advanceTimeBy(62, TimeUnit.SECONDS)
+    computationScheduler.advanceTimeBy(
+        GamesRepositoryImpl.LIVE_POLL_DELAY_MILLIS, TimeUnit.MILLISECONDS)
+
+    verify(gamesEventService, times(6)).gameEvents(anyString(), anyLong(), anyLong())
+    verify(gamesService, times(1)).getDayGames(anyString(), anyLong(), anyLong())
+    testObserver.assertValue(listOf(updatedGame))
+  }
+
+  @Test
+  fun liveGamesStreamedAgainAfterCoolOff() {
+    val computationScheduler = TestScheduler()
+    repository = GamesRepositoryImpl(
+        gamesService,
+        gamesEventService,
+        diskCache,
+        clockTracker,
+        Gson(),
+        schedulerProvider(computationScheduler))
+    val tipOff = Calendar.getInstance()
+    tipOff.add(Calendar.HOUR_OF_DAY, -1)
+    val game = createGameAt("1", tipOff).copy(status = GameV2.IN_GAME)
+    `when`(gamesEventService.gameEvents(anyString(), anyLong(), anyLong()))
+        .thenReturn(Observable.error(IOException()))
+    `when`(gamesService.getDayGames(anyString(), anyLong(), anyLong()))
+        .thenReturn(Single.just(hashMapOf("9f0ji2" to game)))
+    repository.saveGamesInCache(hashMapOf("9f0ji2" to game), true)
+
+    repository.liveGames().test()
+    computationScheduler.advanceTimeBy(62, TimeUnit.SECONDS)
+    computationScheduler.advanceTimeBy(
+        GamesRepositoryImpl.STREAM_COOL_OFF_MILLIS, TimeUnit.MILLISECONDS)
+
+    verify(gamesEventService, times(7)).gameEvents(anyString(), anyLong(), anyLong())
+  }
+
+  @Test
+  fun liveGamesStreamRetriesCountAgainAfterEvent() {
+    val computationScheduler = TestScheduler()
+    repository = GamesRepositoryImpl(
+        gamesService,
+        gamesEventService,
+        diskCache,
+        clockTracker,
+        Gson(),
+        schedulerProvider(computationScheduler))
+    val tipOff = Calendar.getInstance()
+    tipOff.add(Calendar.HOUR_OF_DAY, -1)
+    val game = createGameAt("1", tipOff).copy(status = GameV2.IN_GAME)
+    val event = FirebaseEvent(
+        FirebaseEvent.PATCH, "/9f0ji2", JsonParser().parse("{\"homeTeamScore\":\"98\"}"))
+    // Every connection delivers an event and then drops.
+    `when`(gamesEventService.gameEvents(anyString(), anyLong(), anyLong()))
+        .thenReturn(Observable.just(event).concatWith(Observable.error(IOException())))
+    repository.saveGamesInCache(hashMapOf("9f0ji2" to game), true)
+
+    repository.liveGames().test()
+    computationScheduler.advanceTimeBy(2 * 20, TimeUnit.SECONDS)
+
+    verify(gamesEventService, times(21)).gameEvents(anyString(), anyLong(), anyLong())
+    verify(gamesService, never()).getDayGames(anyString(), anyLong(), anyLong())
+  }
+
+  @Test
+  fun liveGamesNotPolledWhenAllGamesFinal() {
+    val computationScheduler = TestScheduler()
+    repository = GamesRepositoryImpl(
+        gamesService,
+        gamesEventService,
+        diskCache,
+        clockTracker,
+        Gson(),
+        schedulerProvider(computationScheduler))
+    val tipOff = Calendar.getInstance()
+    tipOff.add(Calendar.HOUR_OF_DAY, -3)
+    val game = createGameAt("1", tipOff).copy(status = GameV2.POST_GAME)
+    repository.saveGamesInCache(hashMapOf("9f0ji2" to game), true)
+
+    val testObserver = repository.liveGames().test()
+    computationScheduler.advanceTimeBy(10, TimeUnit.MINUTES)
+
+    verify(gamesEventService, never()).gameEvents(anyString(), anyLong(), anyLong())
+    verify(gamesService, never()).getDayGames(anyString(), anyLong(), anyLong())
+    testObserver.assertNoValues()
+  }
+
+  @Test
+  fun pollDelayLongerAtHalftime() {
+    val tipOff = Calendar.getInstance()
+    tipOff.add(Calendar.HOUR_OF_DAY, -1)
+    val game = createGameAt("1", tipOff).copy(status = GameV2.IN_GAME)
+    repository.saveGamesInCache(hashMapOf("9f0ji2" to game), true)
+    assertEquals(GamesRepositoryImpl.LIVE_POLL_DELAY_MILLIS, repository.nextPollDelayMillis())
+
+    repository.saveGamesInCache(hashMapOf("9f0ji2" to game.copy(periodStatus = "Halftime")))
+    assertEquals(GamesRepositoryImpl.HALFTIME_POLL_DELAY_MILLIS, repository.nextPollDelayMillis())
+  }
+
+  @Test
+  fun pollDelayLongerWhileClockExtrapolated() {
+    val tipOff = Calendar.getInstance()
+    tipOff.add(Calendar.HOUR_OF_DAY, -1)
+    val game = createGameAt("1", tipOff)
+        .copy(status = GameV2.IN_GAME, period = 2, gameClock = "10:00")
+    val now = System.currentTimeMillis()
+    clockTracker.update(game, now - 10 * 1000)
+    clockTracker.update(game.copy(gameClock = "9:50"), now)
+
+    repository.saveGamesInCache(hashMapOf("9f0ji2" to game.copy(gameClock = "9:50")), true)
+
+    assertEquals(
+        GamesRepositoryImpl.EXTRAPOLATED_POLL_DELAY_MILLIS, repository.nextPollDelayMillis())
+  }
+
+  @Test
+  fun pollAtPredictedEndOfPeriod() {
+    val tipOff = Calendar.getInstance()
+    tipOff.add(Calendar.HOUR_OF_DAY, -1)
+    val game = createGameAt("1", tipOff)
+        .copy(status = GameV2.IN_GAME, period = 2, gameClock = "18.0")
+    val now = System.currentTimeMillis()
+    clockTracker.update(game, now - 10 * 1000)
+    clockTracker.update(game.copy(gameClock = "8.0"), now)
+
+    repository.saveGamesInCache(hashMapOf("9f0ji2" to game.copy(gameClock = "8.0")), true)
+
+    assertTrue(repository.nextPollDelayMillis() in
+        GamesRepositoryImpl.MIN_POLL_DELAY_MILLIS..8 * 1000L)
+  }
+
+  @Test
+  fun cachedGamesReadFromFullSeason() {
+    val seasonStart = Calendar.getInstance()
+    seasonStart.set(2017, Calendar.OCTOBER, 17, 19, 30)
+    val season = HashMap<String, GameV2>()
+    for (i in 0 until 1230) {
+      val tipOff = seasonStart.clone() as Calendar
+      tipOff.add(Calendar.DAY_OF_YEAR, i / 8)
+      season.put("key$i", createGameAt(i.toString(), tipOff))
+    }
+    repository.saveGamesInCache(season, true)
+    `when`(gamesService.getDayGames(anyString(), anyLong(), anyLong()))
+        .thenReturn(Single.just(emptyMap()))
+
+    val day = seasonStart.clone() as Calendar
+    day.add(Calendar.DAY_OF_YEAR, 100)
+    val testObserver = repository.games(day, false).test()
+
+    testObserver.assertValueAt(1, {
+      it.isMemorySuccess
+          && it.games.map { it.id }.toSet() == (800 until 808).map { it.toString() }.toSet()
+    })
+  }
+
+  @Test
+  fun rescheduledGameMovesToNewDay() {
+    val today = Calendar.getInstance()
+    val tomorrow = Calendar.getInstance()
+    tomorrow.add(Calendar.DAY_OF_YEAR, 1)
+    val game = createGameAt("1", today)
+    val rescheduledGame = createGameAt("1", tomorrow)
+    `when`(gamesService.getDayGames(anyString(), anyLong(), anyLong()))
+        .thenReturn(Single.just(emptyMap()))
+    repository.saveGamesInCache(hashMapOf("9f0ji2" to game), true)
+    repository.saveGamesInCache(hashMapOf("9f0ji2" to rescheduledGame))
+
+    val todayObserver = repository.games(today, false).test()
+    val tomorrowObserver = repository.games(tomorrow, false).test()
+
+    todayObserver.assertValueAt(1, { it.isMemorySuccess && it.games.isEmpty() })
+    tomorrowObserver.assertValueAt(1, {
+      it.isMemorySuccess && it.games == listOf(rescheduledGame)
+    })
+  }
+
+  private fun schedulerProvider(computationScheduler: Scheduler): BaseSchedulerProvider {
+    return object : BaseSchedulerProvider {
+      override fun computation(): Scheduler = computationScheduler
+
+      override fun io(): Scheduler = Schedulers.trampoline()
+
+      override fun ui(): Scheduler = Schedulers.trampoline()
+    }
+  }
+
+  private fun addDays(date: Calendar, days: Int): Calendar {
+    val day = date.clone() as Calendar
+    day.add(Calendar.DAY_OF_YEAR, days)
+    return day
+  }
+
+  private fun createGameAt(id: String, calendar: Calendar = Calendar.getInstance()) =
+      createGame(id = id, timeUtc = calendar.timeInMillis / 1000)
 }
\ No newline at end of file
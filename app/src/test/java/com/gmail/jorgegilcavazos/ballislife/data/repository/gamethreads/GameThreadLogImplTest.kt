@@ -0,0 +1,176 @@
+package com.gmail.jorgegilcavazos.ballislife.data.repository.gamethreads
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.io.File
+import java.io.RandomAccessFile
+
+class GameThreadLogImplTest {
+
+  @Rule @JvmField val folder = TemporaryFolder()
+
+  private lateinit var dir: File
+  private lateinit var log: GameThreadLogImpl
+
+  @Before
+  fun setup() {
+    dir = File(folder.root, "logs")
+    log = GameThreadLogImpl(dir)
+  }
+
+  @Test
+  fun loadWithNoLog() {
+    assertEquals(emptyList<RecordedComment>(), log.load("0021700001"))
+    assertFalse(log.hasRecording("0021700001"))
+  }
+
+  @Test
+  fun appendedCommentsLoadedByNewInstanceOldestFirst() {
+    val comment1 = createComment("a", 2000)
+    val comment2 = createComment("b", 1000)
+    log.append("0021700001", listOf(comment1))
+    log.append("0021700001", listOf(comment2))
+
+    val comments = GameThreadLogImpl(dir).load("0021700001")
+
+    assertEquals(listOf(comment2, comment1), comments)
+    assertTrue(log.hasRecording("0021700001"))
+  }
+
+  @Test
+  fun commentsOfEachGameLoggedSeparately() {
+    val comment1 = createComment("a", 1000)
+    val comment2 = createComment("b", 1000)
+    log.append("0021700001", listOf(comment1))
+    log.append("0021700002", listOf(comment2))
+
+    assertEquals(listOf(comment1), GameThreadLogImpl(dir).load("0021700001"))
+    assertEquals(listOf(comment2), GameThreadLogImpl(dir).load("0021700002"))
+  }
+
+  @Test
+  fun sameCommentAppendedOnce() {
+    val comment = createComment("a", 1000)
+    log.append("0021700001", listOf(comment))
+    val length = logFile("0021700001").length()
+
+    log.append("0021700001", listOf(comment.copy(score = 10, recordedAtMillis = 5000)))
+    GameThreadLogImpl(dir).append("0021700001", listOf(comment))
+
+    assertEquals(length, logFile("0021700001").length())
+  }
+
+  @Test
+  fun editedCommentAppendedAgainAndLatestWins() {
+    val comment = createComment("a", 1000)
+    val editedComment = comment.copy(bodyHtml = "<p>[deleted]</p>")
+    log.append("0021700001", listOf(comment))
+    log.append("0021700001", listOf(editedComment))
+
+    assertEquals(listOf(editedComment), GameThreadLogImpl(dir).load("0021700001"))
+  }
+
+  @Test
+  fun replacedRecordsCompacted() {
+    val comment = createComment("a", 1000)
+    for (i in 0..300) {
+      log.append("0021700001", listOf(comment.copy(bodyHtml = "<p>Edit $i</p>")))
+    }
+    val length = logFile("0021700001").length()
+
+    val comments = GameThreadLogImpl(dir).load("0021700001")
+
+    assertEquals(listOf(comment.copy(bodyHtml = "<p>Edit 300</p>")), comments)
+    assertTrue(logFile("0021700001").length() < length / 100)
+  }
+
+  @Test
+  fun truncatedRecordDroppedAndLogRepaired() {
+    val comment1 = createComment("a", 1000)
+    val comment2 = createComment("b", 2000)
+    val comment3 = createComment("c", 3000)
+    log.append("0021700001", listOf(comment1))
+    val validLength = logFile("0021700001").length()
+    log.append("0021700001", listOf(comment2))
+    RandomAccessFile(logFile("0021700001"), "rw").use { it.setLength(validLength + 10) }
+
+    assertEquals(listOf(comment1), GameThreadLogImpl(dir).load("0021700001"))
+
+    val repairedLog = GameThreadLogImpl(dir)
+    repairedLog.append("0021700001", listOf(comment3))
+    assertEquals(listOf(comment1, comment3), GameThreadLogImpl(dir).load("0021700001"))
+  }
+
+  @Test
+  fun fullLogTrimmedOfEarliestComments() {
+    val body = "x".repeat(64 * 1024)
+    var created = 0L
+    while (logFile("0021700001").length() < GameThreadLogImpl.MAX_LOG_BYTES) {
+      log.append("0021700001", listOf(createComment("c$created", created++).copy(bodyHtml = body)))
+    }
+    val last = createComment("last", created)
+
+    log.append("0021700001", listOf(last))
+
+    val comments = GameThreadLogImpl(dir).load("0021700001")
+    assertTrue(logFile("0021700001").length() <= GameThreadLogImpl.TRIMMED_LOG_BYTES + 1024)
+    assertEquals(last, comments.last())
+    assertFalse(comments.any { it.id == "c0" })
+    assertEquals(
+        ((created - comments.size + 1) until created).map { "c$it" },
+        comments.dropLast(1).map { it.id })
+  }
+
+  @Test
+  fun trimmedCommentsNotAppendedAgain() {
+    val body = "x".repeat(64 * 1024)
+    var created = 0L
+    while (logFile("0021700001").length() < GameThreadLogImpl.MAX_LOG_BYTES) {
+      log.append("0021700001", listOf(createComment("c$created", created++).copy(bodyHtml = body)))
+    }
+    log.append("0021700001", listOf(createComment("last", created)))
+    val length = logFile("0021700001").length()
+
+    log.append("0021700001", listOf(createComment("c0", 0).copy(bodyHtml = body)))
+
+    assertEquals(length, logFile("0021700001").length())
+  }
+
+  @Test
+  fun oldestLogsEvictedForNewGame() {
+    dir.mkdirs()
+    val logCount = (GameThreadLogImpl.MAX_TOTAL_BYTES / GameThreadLogImpl.MAX_LOG_BYTES).toInt()
+    for (i in 0 until logCount) {
+      val file = logFile("old$i")
+      RandomAccessFile(file, "rw").use { it.setLength(GameThreadLogImpl.MAX_LOG_BYTES) }
+      file.setLastModified(1_500_000_000_000L + i * 1000)
+    }
+
+    log.append("0021700001", listOf(createComment("a", 1000)))
+
+    assertFalse(logFile("old0").exists())
+    assertTrue(logFile("old1").exists())
+    assertTrue(logFile("old${logCount - 1}").exists())
+    assertTrue(logFile("0021700001").exists())
+  }
+
+  private fun logFile(gameId: String) = File(dir, "$gameId.log")
+
+  private fun createComment(id: String, createdMillis: Long): RecordedComment {
+    return RecordedComment(
+        id = id,
+        author = "spursfan",
+        bodyHtml = "<p>Kawhi is unstoppable</p>",
+        score = 1,
+        depth = 0,
+        createdMillis = createdMillis,
+        recordedAtMillis = createdMillis + 500,
+        period = "3",
+        gameClock = "5:32")
+  }
+}
@@ -3,21 +3,37 @@ package com.gmail.jorgegilcavazos.ballislife.data.repository.gamethreads
 import com.gmail.jorgegilcavazos.ballislife.data.reddit.RedditAuthentication
 import com.gmail.jorgegilcavazos.ballislife.data.repository.submissions.SubmissionRepository
 import com.gmail.jorgegilcavazos.ballislife.data.service.RedditGameThreadsService
+import com.gmail.jorgegilcavazos.ballislife.data.service.RedditService
 import com.gmail.jorgegilcavazos.ballislife.features.model.GameThreadSummary
 import com.gmail.jorgegilcavazos.ballislife.features.model.GameThreadType
 import com.gmail.jorgegilcavazos.ballislife.features.model.SubmissionWrapper
-import com.gmail.jorgegilcavazos.ballislife.util.DateFormatUtil
+import com.gmail.jorgegilcavazos.ballislife.util.schedulers.BaseSchedulerProvider
 import com.gmail.jorgegilcavazos.ballislife.util.schedulers.TrampolineSchedulerProvider
+import com.google.common.base.Optional
+import com.google.common.collect.FluentIterable
 import io.reactivex.Completable
+import io.reactivex.Scheduler
 import io.reactivex.Single
+import io.reactivex.schedulers.Schedulers
+import io.reactivex.schedulers.TestScheduler
+import io.reactivex.subjects.SingleSubject
+import net.dean.jraw.models.Comment
+import net.dean.jraw.models.CommentNode
 import net.dean.jraw.models.CommentSort
 import net.dean.jraw.models.Submission
 import org.junit.Before
 import org.junit.Test
+import org.junit.Assert.assertEquals
+import org.mockito.ArgumentMatchers.anyLong
+import org.mockito.ArgumentMatchers.anyString
 import org.mockito.Mock
 import org.mockito.Mockito.`when`
 import org.mockito.Mockito.mock
+import org.mockito.Mockito.never
+import org.mockito.Mockito.times
+import org.mockito.Mockito.verify
 import org.mockito.MockitoAnnotations
+import java.util.concurrent.TimeUnit
 
 class GameThreadsRepositoryImplTest {
 
@@ -31,7 +47,9 @@ class GameThreadsRepositoryImplTest {
   @Mock private lateinit var mockRedditGameThreadsService: RedditGameThreadsService
   @Mock private lateinit var mockSubmissionRepository: SubmissionRepository
   @Mock private lateinit var mockRedditAuthentication: RedditAuthentication
+  @Mock private lateinit var mockRedditService: RedditService
 
+  private lateinit var threadIdCache: InMemoryGameThreadIdCache
   private lateinit var gameThreadsRepository: GameThreadsRepositoryImpl
 
   @Before
@@ -40,10 +58,13 @@ class GameThreadsRepositoryImplTest {
 
     `when`(mockRedditAuthentication.authenticate()).thenReturn(Completable.complete())
 
+    threadIdCache = InMemoryGameThreadIdCache()
     gameThreadsRepository = GameThreadsRepositoryImpl(
         mockRedditGameThreadsService,
         mockSubmissionRepository,
+        mockRedditService,
         mockRedditAuthentication,
+        threadIdCache,
         TrampolineSchedulerProvider())
   }
 
@@ -51,14 +72,15 @@ class GameThreadsRepositoryImplTest {
   fun gameThreadsFoundMatching() {
     val mockSubmission = prepareMockSubmission(SUBMISSION_ID, SUBMISSION_TITLE)
     `when`(mockSubmission.selftext).thenReturn("Non empty")
+    prepareSubmissionInfo(SUBMISSION_ID, "Non empty")
     val wrapper = SubmissionWrapper(mockSubmission)
     `when`(mockSubmissionRepository.getSubmission(SUBMISSION_ID, CommentSort.NEW, true))
         .thenReturn(Single.just(wrapper))
     `when`(
         mockRedditGameThreadsService.fetchGameThreads(
             "\"created_utc\"",
-            DateFormatUtil.addHoursToTime(0, -2),
-            DateFormatUtil.addHoursToTime(0, 5)))
+            GameThreadsRepositoryImpl.slateStartUtc(0),
+            GameThreadsRepositoryImpl.slateEndUtc(0)))
         .thenReturn(
             Single.just(
                 mapOf(
@@ -82,8 +104,10 @@ class GameThreadsRepositoryImplTest {
   fun gameThreadsFoundMultipleMatchingReturnFirst() {
     val mockSubmission1 = prepareMockSubmission(SUBMISSION_ID, SUBMISSION_TITLE)
     `when`(mockSubmission1.selftext).thenReturn("Non empty")
+    prepareSubmissionInfo(SUBMISSION_ID, "Non empty")
     val mockSubmission2 = prepareMockSubmission(SUBMISSION_ID_2, SUBMISSION_TITLE_2)
     `when`(mockSubmission2.selftext).thenReturn("Non empty")
+    prepareSubmissionInfo(SUBMISSION_ID_2, "Non empty")
 
     val wrapper1 = SubmissionWrapper(mockSubmission1)
     val wrapper2 = SubmissionWrapper(mockSubmission2)
@@ -95,8 +119,8 @@ class GameThreadsRepositoryImplTest {
     `when`(
         mockRedditGameThreadsService.fetchGameThreads(
             "\"created_utc\"",
-            DateFormatUtil.addHoursToTime(0, -2),
-            DateFormatUtil.addHoursToTime(0, 5)))
+            GameThreadsRepositoryImpl.slateStartUtc(0),
+            GameThreadsRepositoryImpl.slateEndUtc(0)))
         .thenReturn(
             Single.just(
                 mapOf(
@@ -126,8 +150,10 @@ class GameThreadsRepositoryImplTest {
   fun gameThreadsFoundMultipleMatchingFilterNonRemoved() {
     val mockSubmission1 = prepareMockSubmission(SUBMISSION_ID, SUBMISSION_TITLE)
     `when`(mockSubmission1.selftext).thenReturn("Non empty")
+    prepareSubmissionInfo(SUBMISSION_ID, "Non empty")
     val mockSubmission2 = prepareMockSubmission(SUBMISSION_ID_2, SUBMISSION_TITLE_2)
     `when`(mockSubmission2.selftext).thenReturn("[removed]")
+    prepareSubmissionInfo(SUBMISSION_ID_2, "[removed]")
 
     val wrapper1 = SubmissionWrapper(mockSubmission1)
     val wrapper2 = SubmissionWrapper(mockSubmission2)
@@ -139,8 +165,8 @@ class GameThreadsRepositoryImplTest {
     `when`(
         mockRedditGameThreadsService.fetchGameThreads(
             "\"created_utc\"",
-            DateFormatUtil.addHoursToTime(0, -2),
-            DateFormatUtil.addHoursToTime(0, 5)))
+            GameThreadsRepositoryImpl.slateStartUtc(0),
+            GameThreadsRepositoryImpl.slateEndUtc(0)))
         .thenReturn(
             Single.just(
                 mapOf(
@@ -170,8 +196,10 @@ class GameThreadsRepositoryImplTest {
   fun gameThreadsFoundMultipleMatchingFilterNonDeleted() {
     val mockSubmission1 = prepareMockSubmission(SUBMISSION_ID, SUBMISSION_TITLE)
     `when`(mockSubmission1.selftext).thenReturn("Non empty")
+    prepareSubmissionInfo(SUBMISSION_ID, "Non empty")
     val mockSubmission2 = prepareMockSubmission(SUBMISSION_ID_2, SUBMISSION_TITLE_2)
     `when`(mockSubmission2.selftext).thenReturn("[deleted]")
+    prepareSubmissionInfo(SUBMISSION_ID_2, "[deleted]")
 
     val wrapper1 = SubmissionWrapper(mockSubmission1)
     val wrapper2 = SubmissionWrapper(mockSubmission2)
@@ -183,8 +211,8 @@ class GameThreadsRepositoryImplTest {
     `when`(
         mockRedditGameThreadsService.fetchGameThreads(
             "\"created_utc\"",
-            DateFormatUtil.addHoursToTime(0, -2),
-            DateFormatUtil.addHoursToTime(0, 5)))
+            GameThreadsRepositoryImpl.slateStartUtc(0),
+            GameThreadsRepositoryImpl.slateEndUtc(0)))
         .thenReturn(
             Single.just(
                 mapOf(
@@ -214,8 +242,10 @@ class GameThreadsRepositoryImplTest {
   fun gameThreadsFoundMultipleMatchingButAllRemovedOrDeleted() {
     val mockSubmission1 = prepareMockSubmission(SUBMISSION_ID, SUBMISSION_TITLE)
     `when`(mockSubmission1.selftext).thenReturn("[removed]")
+    prepareSubmissionInfo(SUBMISSION_ID, "[removed]")
     val mockSubmission2 = prepareMockSubmission(SUBMISSION_ID_2, SUBMISSION_TITLE_2)
     `when`(mockSubmission2.selftext).thenReturn("[deleted]")
+    prepareSubmissionInfo(SUBMISSION_ID_2, "[deleted]")
 
     val wrapper1 = SubmissionWrapper(mockSubmission1)
     val wrapper2 = SubmissionWrapper(mockSubmission2)
@@ -227,8 +257,8 @@ class GameThreadsRepositoryImplTest {
     `when`(
         mockRedditGameThreadsService.fetchGameThreads(
             "\"created_utc\"",
-            DateFormatUtil.addHoursToTime(0, -2),
-            DateFormatUtil.addHoursToTime(0, 5)))
+            GameThreadsRepositoryImpl.slateStartUtc(0),
+            GameThreadsRepositoryImpl.slateEndUtc(0)))
         .thenReturn(
             Single.just(
                 mapOf(
@@ -260,6 +290,7 @@ class GameThreadsRepositoryImplTest {
     val goodSubmissionTitle = "POST GAME THREAD: Spurs @ Warriors"
     val mockSubmission1 = prepareMockSubmission(SUBMISSION_ID, SUBMISSION_TITLE)
     `when`(mockSubmission1.selftext).thenReturn("Non empty")
+    prepareSubmissionInfo(goodSubmissionId, "Non empty")
     val wrapper = SubmissionWrapper(mockSubmission1)
 
     `when`(mockSubmissionRepository.getSubmission(goodSubmissionId, CommentSort.TOP, true))
@@ -267,8 +298,8 @@ class GameThreadsRepositoryImplTest {
     `when`(
         mockRedditGameThreadsService.fetchGameThreads(
             "\"created_utc\"",
-            DateFormatUtil.addHoursToTime(0, -2),
-            DateFormatUtil.addHoursToTime(0, 5)))
+            GameThreadsRepositoryImpl.slateStartUtc(0),
+            GameThreadsRepositoryImpl.slateEndUtc(0)))
         .thenReturn(
             Single.just(
                 mapOf(
@@ -315,13 +346,49 @@ class GameThreadsRepositoryImplTest {
     testObserver.assertValueAt(1, { it.found && it.submission == mockSubmission1 })
   }
 
+  @Test
+  fun gameThreadsEmitsPrefetchedSubmissionFirst() {
+    val mockSubmission = prepareMockSubmission(SUBMISSION_ID, SUBMISSION_TITLE)
+    `when`(mockSubmission.selftext).thenReturn("Non empty")
+    prepareSubmissionInfo(SUBMISSION_ID, "Non empty")
+    `when`(mockSubmissionRepository.getSubmission(SUBMISSION_ID, CommentSort.NEW, true))
+        .thenReturn(Single.just(SubmissionWrapper(mockSubmission)))
+    `when`(mockSubmissionRepository.getCachedSubmission(SUBMISSION_ID))
+        .thenReturn(Optional.of(mockSubmission))
+    `when`(
+        mockRedditGameThreadsService.fetchGameThreads(
+            "\"created_utc\"",
+            GameThreadsRepositoryImpl.slateStartUtc(0),
+            GameThreadsRepositoryImpl.slateEndUtc(0)))
+        .thenReturn(
+            Single.just(
+                mapOf(
+                    "9813hd2" to GameThreadSummary(
+                        SUBMISSION_ID,
+                        SUBMISSION_TITLE,
+                        0))))
+
+    gameThreadsRepository.prefetchGameThread("SAS", "GSW", 0L, GameThreadType.LIVE).test()
+        .assertComplete()
+    val testObserver = gameThreadsRepository.gameThreads(
+        "SAS",
+        "GSW",
+        0L,
+        GameThreadType.LIVE).test()
+
+    testObserver.assertValueCount(3)
+    testObserver.assertValueAt(0, { it.inProgress })
+    testObserver.assertValueAt(1, { it.found && it.submission == mockSubmission })
+    testObserver.assertValueAt(2, { it.found && it.submission == mockSubmission })
+  }
+
   @Test
   fun gameThreadsNotFound() {
     `when`(
         mockRedditGameThreadsService.fetchGameThreads(
             "\"created_utc\"",
-            DateFormatUtil.addHoursToTime(0, -2),
-            DateFormatUtil.addHoursToTime(0, 5)))
+            GameThreadsRepositoryImpl.slateStartUtc(0),
+            GameThreadsRepositoryImpl.slateEndUtc(0)))
         .thenReturn(Single.just(emptyMap<String, GameThreadSummary>()))
 
     val testObserver = gameThreadsRepository.gameThreads(
@@ -335,6 +402,391 @@ class GameThreadsRepositoryImplTest {
     testObserver.assertValueAt(1, { it.notFound })
   }
 
+  @Test
+  fun gameThreadsSameSlateFetchedOnce() {
+    val threads = SingleSubject.create<Map<String, GameThreadSummary>>()
+    `when`(
+        mockRedditGameThreadsService.fetchGameThreads(
+            "\"created_utc\"",
+            GameThreadsRepositoryImpl.slateStartUtc(0),
+            GameThreadsRepositoryImpl.slateEndUtc(0)))
+        .thenReturn(threads)
+
+    val testObserver1 = gameThreadsRepository.gameThreads(
+        "SAS",
+        "GSW",
+        0L,
+        GameThreadType.LIVE).test()
+    val testObserver2 = gameThreadsRepository.gameThreads(
+        "BOS",
+        "BKN",
+        3600L,
+        GameThreadType.LIVE).test()
+    threads.onSuccess(emptyMap())
+
+    testObserver1.assertValueAt(1, { it.notFound })
+    testObserver2.assertValueAt(1, { it.notFound })
+    verify(mockRedditGameThreadsService, times(1))
+        .fetchGameThreads(anyString(), anyLong(), anyLong())
+  }
+
+  @Test
+  fun gameThreadsIgnoresThreadsOutsideGameWindow() {
+    `when`(
+        mockRedditGameThreadsService.fetchGameThreads(
+            "\"created_utc\"",
+            GameThreadsRepositoryImpl.slateStartUtc(0),
+            GameThreadsRepositoryImpl.slateEndUtc(0)))
+        .thenReturn(
+            Single.just(
+                mapOf(
+                    "9813hd2" to GameThreadSummary(
+                        SUBMISSION_ID,
+                        SUBMISSION_TITLE,
+                        10 * 3600))))
+
+    val testObserver = gameThreadsRepository.gameThreads(
+        "SAS",
+        "GSW",
+        0L,
+        GameThreadType.LIVE).test()
+
+    testObserver.assertValueAt(1, { it.notFound })
+  }
+
+  @Test
+  fun gameThreadsNotFoundIsCached() {
+    `when`(
+        mockRedditGameThreadsService.fetchGameThreads(
+            "\"created_utc\"",
+            GameThreadsRepositoryImpl.slateStartUtc(0),
+            GameThreadsRepositoryImpl.slateEndUtc(0)))
+        .thenReturn(Single.just(emptyMap<String, GameThreadSummary>()))
+
+    gameThreadsRepository.gameThreads("SAS", "GSW", 0L, GameThreadType.LIVE).test()
+    val testObserver = gameThreadsRepository.gameThreads(
+        "SAS",
+        "GSW",
+        0L,
+        GameThreadType.LIVE).test()
+
+    testObserver.assertValueAt(1, { it.notFound })
+    verify(mockRedditGameThreadsService, times(1))
+        .fetchGameThreads(anyString(), anyLong(), anyLong())
+  }
+
+  @Test
+  fun gameThreadsResolvedLoadsSubmissionWithoutSearching() {
+    val mockSubmission = prepareMockSubmission(SUBMISSION_ID, SUBMISSION_TITLE)
+    `when`(mockSubmission.selftext).thenReturn("Non empty")
+    `when`(mockSubmissionRepository.getSubmission(SUBMISSION_ID, CommentSort.NEW, true))
+        .thenReturn(Single.just(SubmissionWrapper(mockSubmission)))
+    `when`(mockSubmissionRepository.getCachedSubmission(SUBMISSION_ID))
+        .thenReturn(Optional.absent())
+    threadIdCache.saveThreadId("SAS-GSW-0-LIVE", SUBMISSION_ID)
+
+    val testObserver = gameThreadsRepository.gameThreads(
+        "SAS",
+        "GSW",
+        0L,
+        GameThreadType.LIVE).test()
+
+    testObserver.assertValueCount(2)
+    testObserver.assertValueAt(1, { it.found && it.submission == mockSubmission })
+    verify(mockRedditGameThreadsService, never())
+        .fetchGameThreads(anyString(), anyLong(), anyLong())
+  }
+
+  @Test
+  fun gameThreadsResolvedButDeletedSearchesAgain() {
+    val mockDeleted = prepareMockSubmission(SUBMISSION_ID, SUBMISSION_TITLE)
+    `when`(mockDeleted.selftext).thenReturn("[deleted]")
+    `when`(mockSubmissionRepository.getSubmission(SUBMISSION_ID, CommentSort.NEW, true))
+        .thenReturn(Single.just(SubmissionWrapper(mockDeleted)))
+    `when`(mockSubmissionRepository.getCachedSubmission(SUBMISSION_ID))
+        .thenReturn(Optional.absent())
+    `when`(
+        mockRedditGameThreadsService.fetchGameThreads(
+            "\"created_utc\"",
+            GameThreadsRepositoryImpl.slateStartUtc(0),
+            GameThreadsRepositoryImpl.slateEndUtc(0)))
+        .thenReturn(Single.just(emptyMap<String, GameThreadSummary>()))
+    threadIdCache.saveThreadId("SAS-GSW-0-LIVE", SUBMISSION_ID)
+
+    val testObserver = gameThreadsRepository.gameThreads(
+        "SAS",
+        "GSW",
+        0L,
+        GameThreadType.LIVE).test()
+
+    testObserver.assertValueAt(1, { it.notFound })
+    assertEquals(null, threadIdCache.getThreadId("SAS-GSW-0-LIVE"))
+  }
+
+  @Test
+  fun rankCandidatesClosestToGameTimeThenHighestScore() {
+    val late = GameThreadSummary("late", SUBMISSION_TITLE, 3 * 3600, 500)
+    val low = GameThreadSummary("low", SUBMISSION_TITLE, -3500, 2)
+    val high = GameThreadSummary("high", SUBMISSION_TITLE, -3550, 40)
+
+    val ranked = GameThreadsRepositoryImpl.rankCandidates(listOf(late, low, high), 0L)
+
+    assertEquals(listOf(high, low, late), ranked)
+  }
+
+  @Test
+  fun gameThreadsLoadsCommentsOfWinnerOnly() {
+    val mockSubmission = prepareMockSubmission(SUBMISSION_ID, SUBMISSION_TITLE)
+    `when`(mockSubmission.selftext).thenReturn("Non empty")
+    `when`(mockSubmissionRepository.getSubmission(SUBMISSION_ID, CommentSort.NEW, true))
+        .thenReturn(Single.just(SubmissionWrapper(mockSubmission)))
+    prepareSubmissionInfo(SUBMISSION_ID, "Non empty")
+    prepareSubmissionInfo(SUBMISSION_ID_2, "[removed]")
+    prepareTwoCandidates(SUBMISSION_ID_2, SUBMISSION_ID)
+
+    val testObserver = gameThreadsRepository.gameThreads(
+        "SAS",
+        "GSW",
+        0L,
+        GameThreadType.LIVE).test()
+
+    testObserver.assertValueAt(1, { it.found && it.submission == mockSubmission })
+    verify(mockSubmissionRepository, never())
+        .getSubmission(SUBMISSION_ID_2, CommentSort.NEW, true)
+  }
+
+  @Test
+  fun gameThreadsChecksNextCandidateWhenFirstIsSlow() {
+    val testScheduler = TestScheduler()
+    val repository = prepareRepository(testScheduler)
+    val mockSubmission = prepareMockSubmission(SUBMISSION_ID_2, SUBMISSION_TITLE_2)
+    `when`(mockSubmission.selftext).thenReturn("Non empty")
+    `when`(mockSubmissionRepository.getSubmission(SUBMISSION_ID_2, CommentSort.NEW, true))
+        .thenReturn(Single.just(SubmissionWrapper(mockSubmission)))
+    `when`(mockRedditService.getSubmissionInfo(null, SUBMISSION_ID))
+        .thenReturn(SingleSubject.create<Submission>())
+    prepareSubmissionInfo(SUBMISSION_ID_2, "Non empty")
+    prepareTwoCandidates(SUBMISSION_ID, SUBMISSION_ID_2)
+
+    val testObserver = repository.gameThreads("SAS", "GSW", 0L, GameThreadType.LIVE).test()
+
+    testObserver.assertValueCount(1)
+    verify(mockRedditService, never()).getSubmissionInfo(null, SUBMISSION_ID_2)
+
+    testScheduler.advanceTimeBy(GameThreadsRepositoryImpl.HEDGE_DELAY_MILLIS, TimeUnit.MILLISECONDS)
+
+    testObserver.assertValueAt(1, { it.found && it.submission == mockSubmission })
+    assertEquals(SUBMISSION_ID_2, threadIdCache.getThreadId("SAS-GSW-0-LIVE"))
+  }
+
+  @Test
+  fun gameThreadsDoesNotCheckNextCandidateWhenFirstAnswers() {
+    val testScheduler = TestScheduler()
+    val repository = prepareRepository(testScheduler)
+    val mockSubmission = prepareMockSubmission(SUBMISSION_ID, SUBMISSION_TITLE)
+    `when`(mockSubmission.selftext).thenReturn("Non empty")
+    `when`(mockSubmissionRepository.getSubmission(SUBMISSION_ID, CommentSort.NEW, true))
+        .thenReturn(Single.just(SubmissionWrapper(mockSubmission)))
+    prepareSubmissionInfo(SUBMISSION_ID, "Non empty")
+    prepareSubmissionInfo(SUBMISSION_ID_2, "Non empty")
+    prepareTwoCandidates(SUBMISSION_ID, SUBMISSION_ID_2)
+
+    val testObserver = repository.gameThreads("SAS", "GSW", 0L, GameThreadType.LIVE).test()
+    testScheduler.advanceTimeBy(GameThreadsRepositoryImpl.HEDGE_DELAY_MILLIS, TimeUnit.MILLISECONDS)
+
+    testObserver.assertValueAt(1, { it.found && it.submission == mockSubmission })
+    verify(mockRedditService, never()).getSubmissionInfo(null, SUBMISSION_ID_2)
+  }
+
+  @Test
+  fun gameThreadsFailsWhenNoCandidateCouldBeChecked() {
+    `when`(mockRedditService.getSubmissionInfo(null, SUBMISSION_ID))
+        .thenReturn(Single.error(Exception()))
+    prepareSubmissionInfo(SUBMISSION_ID_2, "[deleted]")
+    prepareTwoCandidates(SUBMISSION_ID, SUBMISSION_ID_2)
+
+    val testObserver = gameThreadsRepository.gameThreads(
+        "SAS",
+        "GSW",
+        0L,
+        GameThreadType.LIVE).test()
+
+    testObserver.assertError(Exception::class.java)
+    assertEquals(false, threadIdCache.isThreadMissing("SAS-GSW-0-LIVE"))
+  }
+
+  @Test
+  fun newCommentsReturnsOnlyCommentsNewerThanGiven() {
+    val loadedTopLevel = prepareMockCommentNode("a10", "t3_$SUBMISSION_ID")
+    val loadedReply = prepareMockCommentNode("a20", "t1_a10")
+    val newTopLevel = prepareMockCommentNode("a30", "t3_$SUBMISSION_ID")
+    val newReply = prepareMockCommentNode("a31", "t1_a10")
+    val newest = prepareMockSubmissionWithComments(newTopLevel, loadedTopLevel, newReply,
+        loadedReply)
+    `when`(mockRedditService.getNewestComments(
+        null, SUBMISSION_ID, GameThreadsRepositoryImpl.NEW_COMMENTS_LIMIT))
+        .thenReturn(Single.just(newest))
+
+    val testObserver = gameThreadsRepository.newComments(SUBMISSION_ID, commentId("a20")).test()
+
+    testObserver.assertValue {
+      it.complete && it.comments == listOf(newTopLevel, newReply) && it.newestId == commentId("a31")
+    }
+  }
+
+  @Test
+  fun newCommentsEmptyWhenNothingPosted() {
+    val loadedTopLevel = prepareMockCommentNode("a10", "t3_$SUBMISSION_ID")
+    val newTopLevel = prepareMockCommentNode("a30", "t3_$SUBMISSION_ID")
+    `when`(mockRedditService.getNewestComments(
+        null, SUBMISSION_ID, GameThreadsRepositoryImpl.NEW_COMMENTS_LIMIT))
+        .thenReturn(Single.just(prepareMockSubmissionWithComments(newTopLevel, loadedTopLevel)))
+
+    val newestId = gameThreadsRepository.newComments(SUBMISSION_ID, commentId("a10"))
+        .blockingGet().newestId
+    val testObserver = gameThreadsRepository.newComments(SUBMISSION_ID, newestId).test()
+
+    testObserver.assertValue {
+      it.complete && it.comments.isEmpty() && it.newestId == commentId("a30")
+    }
+  }
+
+  @Test
+  fun newCommentsKeepsNoPositionBetweenCalls() {
+    val loadedTopLevel = prepareMockCommentNode("a10", "t3_$SUBMISSION_ID")
+    val newTopLevel = prepareMockCommentNode("a30", "t3_$SUBMISSION_ID")
+    `when`(mockRedditService.getNewestComments(
+        null, SUBMISSION_ID, GameThreadsRepositoryImpl.NEW_COMMENTS_LIMIT))
+        .thenReturn(Single.just(prepareMockSubmissionWithComments(newTopLevel, loadedTopLevel)))
+
+    // Two readers of the same thread, e.g. the game thread and the live threads dashboard.
+    gameThreadsRepository.newComments(SUBMISSION_ID, commentId("a10")).test()
+    val testObserver = gameThreadsRepository.newComments(SUBMISSION_ID, commentId("a10")).test()
+
+    testObserver.assertValue { it.complete && it.comments == listOf(newTopLevel) }
+  }
+
+  @Test
+  fun newCommentsIncompleteWhenPageHasOnlyNewComments() {
+    val newComments = (1..GameThreadsRepositoryImpl.NEW_COMMENTS_LIMIT)
+        .map {
+          prepareMockCommentNode(java.lang.Long.toString(1000L + it, 36), "t3_$SUBMISSION_ID")
+        }
+    `when`(mockRedditService.getNewestComments(
+        null, SUBMISSION_ID, GameThreadsRepositoryImpl.NEW_COMMENTS_LIMIT))
+        .thenReturn(Single.just(prepareMockSubmissionWithComments(*newComments.toTypedArray())))
+
+    val testObserver = gameThreadsRepository.newComments(SUBMISSION_ID, commentId("a10")).test()
+
+    testObserver.assertValue { !it.complete }
+    assertEquals(GameThreadsRepositoryImpl.NEW_COMMENTS_LIMIT,
+        testObserver.values()[0].comments.size)
+  }
+
+  @Test
+  fun newCommentsIncompleteWhenFullPageMixesNewCommentsAndReplies() {
+    val newComments = (1..GameThreadsRepositoryImpl.NEW_COMMENTS_LIMIT)
+        .map {
+          // Only a few of the new comments are top level, the rest reply to the loaded one.
+          val parentId = if (it % 5 == 0) "t3_$SUBMISSION_ID" else "t1_a10"
+          prepareMockCommentNode(java.lang.Long.toString(1000L + it, 36), parentId)
+        }
+    `when`(mockRedditService.getNewestComments(
+        null, SUBMISSION_ID, GameThreadsRepositoryImpl.NEW_COMMENTS_LIMIT))
+        .thenReturn(Single.just(prepareMockSubmissionWithComments(*newComments.toTypedArray())))
+
+    val testObserver = gameThreadsRepository.newComments(SUBMISSION_ID, commentId("a10")).test()
+
+    testObserver.assertValue { !it.complete }
+    assertEquals(GameThreadsRepositoryImpl.NEW_COMMENTS_LIMIT,
+        testObserver.values()[0].comments.size)
+  }
+
+  @Test
+  fun newCommentsIncompleteWhenPageHasMoreComments() {
+    val newReply = prepareMockCommentNode("a30", "t1_a10")
+    `when`(newReply.hasMoreComments()).thenReturn(true)
+    `when`(mockRedditService.getNewestComments(
+        null, SUBMISSION_ID, GameThreadsRepositoryImpl.NEW_COMMENTS_LIMIT))
+        .thenReturn(Single.just(prepareMockSubmissionWithComments(newReply)))
+
+    val testObserver = gameThreadsRepository.newComments(SUBMISSION_ID, commentId("a10")).test()
+
+    testObserver.assertValue { !it.complete && it.comments == listOf(newReply) }
+  }
+
+  @Test
+  fun newCommentsCompleteWhenPageHoldsWholeThread() {
+    val newReply = prepareMockCommentNode("a30", "t1_a10")
+    `when`(mockRedditService.getNewestComments(
+        null, SUBMISSION_ID, GameThreadsRepositoryImpl.NEW_COMMENTS_LIMIT))
+        .thenReturn(Single.just(prepareMockSubmissionWithComments(newReply)))
+
+    val testObserver = gameThreadsRepository.newComments(SUBMISSION_ID, commentId("a10")).test()
+
+    testObserver.assertValue { it.complete && it.comments == listOf(newReply) }
+  }
+
+  private fun commentId(id: String) = java.lang.Long.parseLong(id, 36)
+
+  private fun prepareMockSubmissionWithComments(vararg comments: CommentNode): Submission {
+    val root = mock(CommentNode::class.java)
+    `when`(root.walkTree()).thenReturn(FluentIterable.from(comments.toList()))
+    val mockSubmission = mock(Submission::class.java)
+    `when`(mockSubmission.comments).thenReturn(root)
+    return mockSubmission
+  }
+
+  private fun prepareMockCommentNode(id: String, parentId: String): CommentNode {
+    val mockComment = mock(Comment::class.java)
+    `when`(mockComment.id).thenReturn(id)
+    `when`(mockComment.parentId).thenReturn(parentId)
+    val mockCommentNode = mock(CommentNode::class.java)
+    `when`(mockCommentNode.comment).thenReturn(mockComment)
+    return mockCommentNode
+  }
+
+  /**
+   * Prepares two candidate threads for the game, the first one ranked ahead of the second one.
+   */
+  private fun prepareTwoCandidates(firstId: String, secondId: String) {
+    `when`(
+        mockRedditGameThreadsService.fetchGameThreads(
+            "\"created_utc\"",
+            GameThreadsRepositoryImpl.slateStartUtc(0),
+            GameThreadsRepositoryImpl.slateEndUtc(0)))
+        .thenReturn(
+            Single.just(
+                mapOf(
+                    "2393d83" to GameThreadSummary(secondId, SUBMISSION_TITLE_2, 0, 1),
+                    "9813hd2" to GameThreadSummary(firstId, SUBMISSION_TITLE, 0, 10))))
+  }
+
+  private fun prepareRepository(computation: Scheduler): GameThreadsRepositoryImpl {
+    return GameThreadsRepositoryImpl(
+        mockRedditGameThreadsService,
+        mockSubmissionRepository,
+        mockRedditService,
+        mockRedditAuthentication,
+        threadIdCache,
+        object : BaseSchedulerProvider {
+          override fun computation() = computation
+          override fun io() = Schedulers.trampoline()
+          override fun ui() = Schedulers.trampoline()
+        })
+  }
+
+  private fun prepareSubmissionInfo(id: String, selftext: String) {
+    `when`(mockRedditService.getSubmissionInfo(null, id))
+        .thenReturn(Single.just(prepareSubmissionInfoOf(selftext)))
+  }
+
+  private fun prepareSubmissionInfoOf(selftext: String): Submission {
+    val mockSubmission = mock(Submission::class.java)
+    `when`(mockSubmission.selftext).thenReturn(selftext)
+    return mockSubmission
+  }
+
   private fun prepareMockSubmission(id: String, title: String): Submission {
     val mockSubmission = mock(Submission::class.java)
     `when`(mockSubmission.id).thenReturn(id)
@@ -342,4 +794,27 @@ class GameThreadsRepositoryImplTest {
     `when`(mockSubmission.author).thenReturn("")
     return mockSubmission
   }
-}
\ No newline at end of file
+
+  private class InMemoryGameThreadIdCache : GameThreadIdCache {
+    private val threadIds = HashMap<String, String>()
+
+    override fun getThreadId(key: String): String? {
+      val threadId = threadIds[key]
+      return if (threadId == null || threadId.isEmpty()) null else threadId
+    }
+
+    override fun isThreadMissing(key: String) = threadIds[key]?.isEmpty() ?: false
+
+    override fun saveThreadId(key: String, threadId: String) {
+      threadIds.put(key, threadId)
+    }
+
+    override fun saveThreadMissing(key: String) {
+      threadIds.put(key, "")
+    }
+
+    override fun remove(key: String) {
+      threadIds.remove(key)
+    }
+  }
+}
@@ -0,0 +1,236 @@
+package com.gmail.jorgegilcavazos.ballislife.data.repository.submissions
+
+import com.gmail.jorgegilcavazos.ballislife.data.reddit.RedditAuthentication
+import com.gmail.jorgegilcavazos.ballislife.data.service.RedditService
+import com.gmail.jorgegilcavazos.ballislife.features.model.SubmissionWrapper
+import com.google.common.collect.FluentIterable
+import io.reactivex.Completable
+import io.reactivex.Single
+import net.dean.jraw.models.Comment
+import net.dean.jraw.models.CommentNode
+import net.dean.jraw.models.CommentSort
+import net.dean.jraw.models.Submission
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNotSame
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.mockito.ArgumentMatchers.any
+import org.mockito.ArgumentMatchers.anyString
+import org.mockito.Mock
+import org.mockito.Mockito.`when`
+import org.mockito.Mockito.mock
+import org.mockito.Mockito.never
+import org.mockito.Mockito.times
+import org.mockito.Mockito.verify
+import org.mockito.MockitoAnnotations
+import java.util.*
+
+class SubmissionRepositoryImplTest {
+
+  companion object {
+    const val SUBMISSION_ID = "submissionId1"
+  }
+
+  @Mock private lateinit var mockRedditAuthentication: RedditAuthentication
+  @Mock private lateinit var mockRedditService: RedditService
+
+  private lateinit var submissionRepository: SubmissionRepositoryImpl
+
+  @Before
+  fun setUp() {
+    MockitoAnnotations.initMocks(this)
+
+    submissionRepository = SubmissionRepositoryImpl(mockRedditAuthentication, mockRedditService)
+  }
+
+  @Test
+  fun getSubmissionSameSortUsesCache() {
+    prepareSubmission(prepareMockCommentNode(1, 1000L))
+
+    submissionRepository.getSubmission(SUBMISSION_ID, CommentSort.TOP, false).test()
+    val testObserver = submissionRepository.getSubmission(SUBMISSION_ID, CommentSort.TOP, false)
+        .test()
+
+    testObserver.assertValue { it.sortedComments == null }
+    verify(mockRedditService, times(1)).getSubmission(null, SUBMISSION_ID, CommentSort.TOP)
+  }
+
+  @Test
+  fun getSubmissionOtherSortSortsLoadedCommentsLocally() {
+    val older = prepareMockCommentNode(10, 1000L)
+    val newer = prepareMockCommentNode(1, 2000L)
+    prepareSubmission(older, newer)
+
+    submissionRepository.getSubmission(SUBMISSION_ID, CommentSort.TOP, false).test()
+    val testObserver = submissionRepository.getSubmission(SUBMISSION_ID, CommentSort.NEW, false)
+        .test()
+
+    testObserver.assertValue { it.sort == CommentSort.NEW }
+    assertEquals(listOf(newer, older), testObserver.values()[0].sortedComments)
+    verify(mockRedditService, times(1)).getSubmission(null, SUBMISSION_ID, CommentSort.TOP)
+    verify(mockRedditService, times(0)).getSubmission(null, SUBMISSION_ID, CommentSort.NEW)
+  }
+
+  @Test
+  fun getSubmissionOtherSortLeavesCachedSubmissionUnsorted() {
+    prepareSubmission(prepareMockCommentNode(10, 1000L), prepareMockCommentNode(1, 2000L))
+
+    val cached = submissionRepository.getSubmission(SUBMISSION_ID, CommentSort.TOP, false)
+        .blockingGet()
+    val sorted = submissionRepository.getSubmission(SUBMISSION_ID, CommentSort.NEW, false)
+        .blockingGet()
+
+    assertNotSame(cached, sorted)
+    assertEquals(CommentSort.TOP, cached.sort)
+    assertNull(cached.sortedComments)
+    submissionRepository.getSubmission(SUBMISSION_ID, CommentSort.TOP, false).test()
+        .assertValue { it === cached }
+  }
+
+  @Test
+  fun getSubmissionOtherSortReloadsPartiallyLoadedComments() {
+    val node = prepareMockCommentNode(10, 1000L)
+    `when`(node.hasMoreComments()).thenReturn(true)
+    prepareSubmission(node)
+
+    submissionRepository.getSubmission(SUBMISSION_ID, CommentSort.TOP, false).test()
+    submissionRepository.getSubmission(SUBMISSION_ID, CommentSort.NEW, false).test()
+
+    verify(mockRedditService, times(1)).getSubmission(null, SUBMISSION_ID, CommentSort.NEW)
+  }
+
+  @Test
+  fun getSubmissionOtherSortReloadsWhenSortUnknownLocally() {
+    prepareSubmission(prepareMockCommentNode(10, 1000L))
+
+    submissionRepository.getSubmission(SUBMISSION_ID, CommentSort.TOP, false).test()
+    submissionRepository.getSubmission(SUBMISSION_ID, CommentSort.HOT, false).test()
+
+    verify(mockRedditService, times(1)).getSubmission(null, SUBMISSION_ID, CommentSort.HOT)
+  }
+
+  @Test
+  fun getSubmissionCountsHitsAndMisses() {
+    prepareSubmission(prepareMockCommentNode(1, 1000L))
+
+    submissionRepository.getSubmission(SUBMISSION_ID, CommentSort.TOP, false).test()
+    submissionRepository.getSubmission(SUBMISSION_ID, CommentSort.TOP, false).test()
+    submissionRepository.getSubmission(SUBMISSION_ID, CommentSort.TOP, false).test()
+
+    assertEquals(1, submissionRepository.missCount)
+    assertEquals(2, submissionRepository.hitCount)
+  }
+
+  @Test
+  fun saveSubmissionEvictsLeastRecentlyUsedOverWeight() {
+    val half = SubmissionRepositoryImpl.MAX_CACHE_WEIGHT / 2
+    submissionRepository.saveSubmission(prepareWrapper("a", half))
+    submissionRepository.saveSubmission(prepareWrapper("b", half - 10))
+    // Using "a" makes "b" the least recently used.
+    submissionRepository.getCachedSubmission("a")
+
+    submissionRepository.saveSubmission(prepareWrapper("c", 100))
+
+    assertTrue(submissionRepository.getCachedSubmission("a").isPresent)
+    assertFalse(submissionRepository.getCachedSubmission("b").isPresent)
+    assertTrue(submissionRepository.getCachedSubmission("c").isPresent)
+    assertEquals(1, submissionRepository.evictionCount)
+  }
+
+  @Test
+  fun saveSubmissionKeepsNewestWhateverItWeighs() {
+    submissionRepository.saveSubmission(prepareWrapper("a", 10))
+
+    submissionRepository.saveSubmission(
+        prepareWrapper("b", SubmissionRepositoryImpl.MAX_CACHE_WEIGHT * 2))
+
+    assertFalse(submissionRepository.getCachedSubmission("a").isPresent)
+    assertTrue(submissionRepository.getCachedSubmission("b").isPresent)
+  }
+
+  @Test
+  fun saveSubmissionSameIdReplacesWeight() {
+    submissionRepository.saveSubmission(
+        prepareWrapper("a", SubmissionRepositoryImpl.MAX_CACHE_WEIGHT - 10))
+    submissionRepository.saveSubmission(prepareWrapper("a", 10))
+
+    submissionRepository.saveSubmission(prepareWrapper("b", 100))
+
+    assertTrue(submissionRepository.getCachedSubmission("a").isPresent)
+    assertEquals(0, submissionRepository.evictionCount)
+  }
+
+  @Test
+  fun loadMoreCommentsLoadsOnlyCommentsWithMissingReplies() {
+    val withMore = prepareMockCommentNode(1, 1000L)
+    `when`(withMore.hasMoreComments()).thenReturn(true)
+    val complete = prepareMockCommentNode(1, 2000L)
+    `when`(mockRedditService.loadMoreComments(null, withMore)).thenReturn(Completable.complete())
+
+    val testObserver = submissionRepository
+        .loadMoreComments(SUBMISSION_ID, listOf(withMore, complete)).test()
+
+    testObserver.assertValue(listOf(withMore))
+    verify(mockRedditService, never()).loadMoreComments(null, complete)
+  }
+
+  @Test
+  fun loadMoreCommentsWeighsSubmissionAgain() {
+    val comments = ArrayList<CommentNode?>()
+    val wrapper = prepareWrapper(SUBMISSION_ID, 0)
+    `when`(wrapper.submission!!.comments.walkTree())
+        .thenAnswer { FluentIterable.from(comments) }
+    submissionRepository.saveSubmission(wrapper)
+    submissionRepository.saveSubmission(
+        prepareWrapper("b", SubmissionRepositoryImpl.MAX_CACHE_WEIGHT / 2))
+    val parent = prepareMockCommentNode(1, 1000L)
+    `when`(parent.hasMoreComments()).thenReturn(true)
+    `when`(mockRedditService.loadMoreComments(null, parent)).thenReturn(Completable.fromAction {
+      comments.addAll(arrayOfNulls<CommentNode>(SubmissionRepositoryImpl.MAX_CACHE_WEIGHT / 2))
+    })
+
+    submissionRepository.loadMoreComments(SUBMISSION_ID, listOf(parent)).test()
+
+    // The submission grew past the limit, the least recently used one is evicted.
+    assertFalse(submissionRepository.getCachedSubmission("b").isPresent)
+    assertTrue(submissionRepository.getCachedSubmission(SUBMISSION_ID).isPresent)
+  }
+
+  private fun prepareWrapper(id: String, commentCount: Int): SubmissionWrapper {
+    val root = mock(CommentNode::class.java)
+    `when`(root.walkTree())
+        .thenReturn(FluentIterable.from(arrayOfNulls<CommentNode>(commentCount).toList()))
+    val mockSubmission = mock(Submission::class.java)
+    `when`(mockSubmission.id).thenReturn(id)
+    `when`(mockSubmission.title).thenReturn("Title")
+    `when`(mockSubmission.author).thenReturn("")
+    `when`(mockSubmission.comments).thenReturn(root)
+    return SubmissionWrapper(mockSubmission)
+  }
+
+  private fun prepareSubmission(vararg comments: CommentNode) {
+    val root = mock(CommentNode::class.java)
+    `when`(root.children).thenReturn(comments.toList())
+    `when`(root.walkTree()).thenReturn(FluentIterable.from(comments.toList()))
+    val mockSubmission = mock(Submission::class.java)
+    `when`(mockSubmission.id).thenReturn(SUBMISSION_ID)
+    `when`(mockSubmission.title).thenReturn("Title")
+    `when`(mockSubmission.author).thenReturn("")
+    `when`(mockSubmission.comments).thenReturn(root)
+    `when`(mockRedditService.getSubmission(any(), anyString(), any()))
+        .thenReturn(Single.just(mockSubmission))
+  }
+
+  private fun prepareMockCommentNode(score: Int, createdMillis: Long): CommentNode {
+    val mockComment = mock(Comment::class.java)
+    `when`(mockComment.score).thenReturn(score)
+    `when`(mockComment.created).thenReturn(Date(createdMillis))
+    val mockCommentNode = mock(CommentNode::class.java)
+    `when`(mockCommentNode.comment).thenReturn(mockComment)
+    `when`(mockCommentNode.children).thenReturn(emptyList())
+    return mockCommentNode
+  }
+}
@@ -0,0 +1,81 @@
+package com.gmail.jorgegilcavazos.ballislife.data.service
+
+import com.gmail.jorgegilcavazos.ballislife.features.model.FirebaseEvent
+import com.google.gson.Gson
+import com.google.gson.JsonParser
+import okhttp3.OkHttpClient
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+import java.io.EOFException
+import java.io.IOException
+
+class NbaGamesEventServiceImplTest {
+
+  private lateinit var server: MockWebServer
+  private lateinit var service: NbaGamesEventServiceImpl
+
+  @Before
+  fun setup() {
+    server = MockWebServer()
+    server.start()
+
+    service = NbaGamesEventServiceImpl(OkHttpClient(), Gson(), server.url("/").toString())
+  }
+
+  @After
+  fun tearDown() {
+    server.shutdown()
+  }
+
+  @Test
+  fun putAndPatchEventsEmitted() {
+    server.enqueue(MockResponse()
+        .setHeader("Content-Type", "text/event-stream")
+        .setBody("event: put\n"
+            + "data: {\"path\":\"/\",\"data\":{\"9f0ji2\":{\"id\":\"1\"}}}\n"
+            + "\n"
+            + "event: keep-alive\n"
+            + "data: null\n"
+            + "\n"
+            + "event: patch\n"
+            + "data: {\"path\":\"/9f0ji2\",\"data\":{\"homeTeamScore\":\"98\"}}\n"
+            + "\n"))
+
+    val testObserver = service.gameEvents("\"timeUtc\"", 100, 200).test()
+
+    testObserver.assertValues(
+        FirebaseEvent(
+            FirebaseEvent.PUT, "/", JsonParser().parse("{\"9f0ji2\":{\"id\":\"1\"}}")),
+        FirebaseEvent(
+            FirebaseEvent.PATCH, "/9f0ji2", JsonParser().parse("{\"homeTeamScore\":\"98\"}")))
+    testObserver.assertError(EOFException::class.java)
+  }
+
+  @Test
+  fun requestsGamesRangeAsEventStream() {
+    server.enqueue(MockResponse().setHeader("Content-Type", "text/event-stream"))
+
+    service.gameEvents("\"timeUtc\"", 100, 200).test()
+
+    val request = server.takeRequest()
+    assertEquals("text/event-stream", request.getHeader("Accept"))
+    assertEquals(
+        "/games/2017-18/.json?orderBy=%22timeUtc%22&startAt=100&endAt=200", request.path)
+  }
+
+  @Test
+  fun cancelEventErrors() {
+    server.enqueue(MockResponse()
+        .setHeader("Content-Type", "text/event-stream")
+        .setBody("event: cancel\ndata: null\n\n"))
+
+    val testObserver = service.gameEvents("\"timeUtc\"", 100, 200).test()
+
+    testObserver.assertNoValues()
+    testObserver.assertError(IOException::class.java)
+  }
+}
@@ -0,0 +1,72 @@
+package com.gmail.jorgegilcavazos.ballislife.features.common
+
+import com.gmail.jorgegilcavazos.ballislife.features.model.ThreadItem
+import com.gmail.jorgegilcavazos.ballislife.util.CommentsTraverser
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+
+class ThreadItemCollapserTest {
+
+  private lateinit var items: MutableList<ThreadItem>
+
+  @Before
+  fun setUp() {
+    // Items of the tree:
+    // 0
+    //   1
+    //     2
+    //     3
+    //   4
+    // 5
+    items = listOf(1, 2, 3, 3, 2, 1)
+        .map { ThreadItem(ThreadAdapter.TYPE_COMMENT, null, it) }
+        .toMutableList()
+    CommentsTraverser.link(items)
+  }
+
+  @Test
+  fun collapseRemovesSubtree() {
+    val removed = ThreadItemCollapser.collapse(items, 1)
+
+    assertEquals(2, removed)
+    assertEquals(4, items.size)
+    assertTrue(items[1].isCollapsed)
+    assertEquals(0, items[1].subtreeSize)
+    assertEquals(2, items[0].subtreeSize)
+  }
+
+  @Test
+  fun expandRestoresSubtree() {
+    val original = ArrayList(items)
+    ThreadItemCollapser.collapse(items, 1)
+
+    val inserted = ThreadItemCollapser.expand(items, 1)
+
+    assertEquals(2, inserted)
+    assertEquals(original, items)
+    assertEquals(2, items[1].subtreeSize)
+    assertEquals(4, items[0].subtreeSize)
+  }
+
+  @Test
+  fun collapseAncestorKeepsCollapsedReply() {
+    ThreadItemCollapser.collapse(items, 1)
+    val removed = ThreadItemCollapser.collapse(items, 0)
+    ThreadItemCollapser.expand(items, 0)
+
+    assertEquals(2, removed)
+    assertEquals(4, items.size)
+    assertTrue(items[1].isCollapsed)
+    assertEquals(2, ThreadItemCollapser.expand(items, 1))
+    assertEquals(6, items.size)
+  }
+
+  @Test
+  fun collapseWithoutRepliesDoesNothing() {
+    assertEquals(0, ThreadItemCollapser.collapse(items, 2))
+    assertEquals(0, ThreadItemCollapser.expand(items, 2))
+    assertEquals(6, items.size)
+  }
+}
@@ -0,0 +1,115 @@
+package com.gmail.jorgegilcavazos.ballislife.features.games
+
+import com.gmail.jorgegilcavazos.ballislife.data.repository.boxscore.BoxScoreRepository
+import com.gmail.jorgegilcavazos.ballislife.data.repository.gamethreads.GameThreadsRepository
+import com.gmail.jorgegilcavazos.ballislife.features.model.GameThreadType
+import com.gmail.jorgegilcavazos.ballislife.features.model.GameV2
+import com.gmail.jorgegilcavazos.ballislife.features.model.createGame
+import com.gmail.jorgegilcavazos.ballislife.util.schedulers.BaseSchedulerProvider
+import io.reactivex.Completable
+import io.reactivex.Single
+import io.reactivex.schedulers.Schedulers
+import io.reactivex.schedulers.TestScheduler
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.mockito.ArgumentMatchers.anyBoolean
+import org.mockito.ArgumentMatchers.anyLong
+import org.mockito.ArgumentMatchers.anyString
+import org.mockito.Mock
+import org.mockito.Mockito
+import org.mockito.Mockito.`when`
+import org.mockito.Mockito.never
+import org.mockito.Mockito.verify
+import org.mockito.junit.MockitoJUnitRunner
+import java.util.concurrent.TimeUnit
+
+@RunWith(MockitoJUnitRunner.Silent::class)
+class GameDetailsPrefetcherTest {
+
+  companion object {
+    const val NOW = 1_510_000_000_000L
+  }
+
+  @Mock private lateinit var mockGameThreadsRepository: GameThreadsRepository
+  @Mock private lateinit var mockBoxScoreRepository: BoxScoreRepository
+
+  private val testScheduler = TestScheduler()
+  private lateinit var prefetcher: GameDetailsPrefetcher
+
+  @Before
+  fun setUp() {
+    `when`(mockGameThreadsRepository.prefetchGameThread(
+        anyString(), anyString(), anyLong(), anyObject()))
+        .thenReturn(Completable.complete())
+    `when`(mockBoxScoreRepository.boxScore(anyString(), anyBoolean()))
+        .thenReturn(Single.error(Exception()))
+
+    prefetcher = GameDetailsPrefetcher(
+        mockGameThreadsRepository,
+        mockBoxScoreRepository,
+        object : BaseSchedulerProvider {
+          override fun computation() = testScheduler
+          override fun io() = Schedulers.trampoline()
+          override fun ui() = Schedulers.trampoline()
+        })
+  }
+
+  @Test
+  fun selectLiveAndRecentlyFinishedGames() {
+    val live = createGame(id = "1", status = GameV2.IN_GAME, timeUtc = NOW / 1000 - 3600)
+    val recentlyFinished = createGame(
+        id = "2", status = GameV2.POST_GAME, timeUtc = NOW / 1000 - 3 * 3600)
+    val finishedLongAgo = createGame(
+        id = "3", status = GameV2.POST_GAME, timeUtc = NOW / 1000 - 24 * 3600)
+    val upcoming = createGame(id = "4", status = GameV2.PRE_GAME, timeUtc = NOW / 1000 + 3600)
+
+    val selected = prefetcher.selectGames(
+        listOf(recentlyFinished, finishedLongAgo, upcoming, live), NOW)
+
+    assertEquals(listOf(live, recentlyFinished), selected)
+  }
+
+  @Test
+  fun selectAtMostMaxPrefetchedGames() {
+    val games = (1..10).map {
+      createGame(id = it.toString(), status = GameV2.IN_GAME, timeUtc = NOW / 1000)
+    }
+
+    val selected = prefetcher.selectGames(games, NOW)
+
+    assertEquals(GameDetailsPrefetcher.MAX_PREFETCHED_GAMES, selected.size)
+  }
+
+  @Test
+  fun prefetchGameThreadAndBoxScoreAfterDelay() {
+    val live = createGame(
+        id = "1", status = GameV2.IN_GAME, timeUtc = System.currentTimeMillis() / 1000)
+
+    prefetcher.prefetch(listOf(live))
+    verify(mockBoxScoreRepository, never()).boxScore("1", false)
+
+    testScheduler.advanceTimeBy(GameDetailsPrefetcher.PREFETCH_DELAY_MILLIS, TimeUnit.MILLISECONDS)
+
+    verify(mockGameThreadsRepository).prefetchGameThread(
+        "GSW", "SAS", live.timeUtc, GameThreadType.LIVE)
+    verify(mockBoxScoreRepository).boxScore("1", false)
+  }
+
+  @Test
+  fun cancelStopsPendingPrefetch() {
+    val live = createGame(
+        id = "1", status = GameV2.IN_GAME, timeUtc = System.currentTimeMillis() / 1000)
+
+    prefetcher.prefetch(listOf(live))
+    prefetcher.cancel()
+    testScheduler.advanceTimeBy(GameDetailsPrefetcher.PREFETCH_DELAY_MILLIS, TimeUnit.MILLISECONDS)
+
+    verify(mockBoxScoreRepository, never()).boxScore("1", false)
+  }
+
+  private fun <T> anyObject(): T {
+    return Mockito.anyObject<T>()
+  }
+}
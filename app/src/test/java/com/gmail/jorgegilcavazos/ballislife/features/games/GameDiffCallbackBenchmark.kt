@@ -0,0 +1,85 @@
+package com.gmail.jorgegilcavazos.ballislife.features.games
+
+import android.support.v7.util.DiffUtil
+import android.view.LayoutInflater
+import android.widget.FrameLayout
+import com.gmail.jorgegilcavazos.ballislife.BuildConfig
+import com.gmail.jorgegilcavazos.ballislife.R
+import com.gmail.jorgegilcavazos.ballislife.data.repository.games.GameClockTracker
+import com.gmail.jorgegilcavazos.ballislife.features.model.GameV2
+import com.gmail.jorgegilcavazos.ballislife.features.model.createGame
+import com.gmail.jorgegilcavazos.ballislife.util.Measurement
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+import org.robolectric.annotation.Config
+import java.util.*
+
+/**
+ * Measures one score update of a night of [GAMES] games in progress: diffing it with
+ * [GameDiffCallback], and rebinding the rows with their payloads compared with rebinding them
+ * whole, reporting the median time and bytes allocated. Only runs when the unit tests are run with
+ * -Pbenchmarks.
+ *
+ * The rows are bound to Robolectric views, which cost more than on a device, so only the
+ * difference between the two binds is meaningful.
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(constants = BuildConfig::class,
+    sdk = intArrayOf(25),
+    packageName = "com.gmail.jorgegilcavazos.ballislife")
+class GameDiffCallbackBenchmark {
+
+  companion object {
+    const val GAMES = 15
+    const val WARMUP_ROUNDS = 2000
+    const val ROUNDS = 500
+  }
+
+  private val clockTracker = GameClockTracker()
+
+  @Test
+  fun diffAndBindNight() {
+    val random = Random(42)
+    val night = (0 until GAMES).map {
+      createGame(
+          id = it.toString(),
+          status = GameV2.IN_GAME,
+          awayScore = 40 + random.nextInt(40),
+          homeScore = 40 + random.nextInt(40),
+          gameClock = "%d:%02d".format(1 + random.nextInt(11), random.nextInt(60)),
+          period = 1 + random.nextInt(4))
+    }
+    // The next poll: every clock moved and a third of the games scored.
+    val update = night.mapIndexed { i, game ->
+      game.copy(
+          gameClock = "0:%02d".format(random.nextInt(60)),
+          homeScore = if (i % 3 == 0) game.homeScore + 2 else game.homeScore)
+    }
+    val callback = GameDiffCallback(night, update)
+    val payloads = (0 until GAMES).map { callback.getChangePayload(it, it) as Int? }
+    assertTrue(payloads.all { it != null })
+
+    val context = RuntimeEnvironment.application
+    val row = LayoutInflater.from(context)
+        .inflate(R.layout.row_game_logos, FrameLayout(context), false)
+    val holder = GameAdapter.GameViewHolder(row, clockTracker)
+
+    val diff = Measurement.measure(WARMUP_ROUNDS, ROUNDS) {
+      DiffUtil.calculateDiff(GameDiffCallback(night, update))
+    }
+    val fullBind = Measurement.measure(WARMUP_ROUNDS, ROUNDS) {
+      update.forEachIndexed { i, game -> holder.bindData(game, i == GAMES - 1) }
+    }
+    val payloadBind = Measurement.measure(WARMUP_ROUNDS, ROUNDS) {
+      update.forEachIndexed { i, game -> holder.bindLiveData(game, payloads[i]!!) }
+    }
+
+    println("Updating a night of $GAMES games")
+    println("diff: $diff")
+    println("full bind: $fullBind")
+    println("payload bind: $payloadBind")
+  }
+}
@@ -0,0 +1,96 @@
+package com.gmail.jorgegilcavazos.ballislife.features.games
+
+import com.gmail.jorgegilcavazos.ballislife.features.model.GameV2
+import com.gmail.jorgegilcavazos.ballislife.features.model.createGame
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+class GameDiffCallbackTest {
+
+  private val game = createGame(
+      status = GameV2.IN_GAME,
+      awayScore = 48,
+      homeScore = 50,
+      gameClock = "5:00",
+      period = 2)
+
+  @Test
+  fun sameGameHasSameContents() {
+    val callback = GameDiffCallback(listOf(game), listOf(game.copy()))
+
+    assertTrue(callback.areItemsTheSame(0, 0))
+    assertTrue(callback.areContentsTheSame(0, 0))
+    assertNull(callback.getChangePayload(0, 0))
+  }
+
+  @Test
+  fun otherGameIsNotSameItem() {
+    val callback = GameDiffCallback(listOf(game), listOf(game.copy(id = "2")))
+
+    assertFalse(callback.areItemsTheSame(0, 0))
+  }
+
+  @Test
+  fun scoreChangeIsScorePayload() {
+    val callback = GameDiffCallback(listOf(game), listOf(game.copy(homeScore = 52)))
+
+    assertFalse(callback.areContentsTheSame(0, 0))
+    assertEquals(GameDiffCallback.PAYLOAD_SCORE, callback.getChangePayload(0, 0))
+  }
+
+  @Test
+  fun clockChangeIsClockPayload() {
+    val callback = GameDiffCallback(listOf(game), listOf(game.copy(gameClock = "4:59")))
+
+    assertFalse(callback.areContentsTheSame(0, 0))
+    assertEquals(GameDiffCallback.PAYLOAD_CLOCK, callback.getChangePayload(0, 0))
+  }
+
+  @Test
+  fun periodChangeIsPeriodPayload() {
+    val callback = GameDiffCallback(listOf(game), listOf(game.copy(period = 3)))
+
+    assertFalse(callback.areContentsTheSame(0, 0))
+    assertEquals(GameDiffCallback.PAYLOAD_PERIOD, callback.getChangePayload(0, 0))
+  }
+
+  @Test
+  fun combinedChangesSetEveryFlag() {
+    val newGame = game.copy(awayScore = 50, gameClock = "12:00", periodName = "OT")
+    val callback = GameDiffCallback(listOf(game), listOf(newGame))
+
+    assertEquals(
+        GameDiffCallback.PAYLOAD_SCORE or GameDiffCallback.PAYLOAD_CLOCK
+            or GameDiffCallback.PAYLOAD_PERIOD,
+        callback.getChangePayload(0, 0))
+  }
+
+  @Test
+  fun statusChangeNeedsFullRebind() {
+    val newGame = game.copy(status = GameV2.POST_GAME, homeScore = 52)
+    val callback = GameDiffCallback(listOf(game), listOf(newGame))
+
+    assertFalse(callback.areContentsTheSame(0, 0))
+    assertNull(callback.getChangePayload(0, 0))
+  }
+
+  @Test
+  fun periodStatusChangeNeedsFullRebind() {
+    val newGame = game.copy(periodStatus = "Halftime", gameClock = "")
+    val callback = GameDiffCallback(listOf(game), listOf(newGame))
+
+    assertFalse(callback.areContentsTheSame(0, 0))
+    assertNull(callback.getChangePayload(0, 0))
+  }
+
+  @Test
+  fun otherChangeNeedsFullRebind() {
+    val callback = GameDiffCallback(listOf(game), listOf(game.copy(arena = "Chase Center")))
+
+    assertFalse(callback.areContentsTheSame(0, 0))
+    assertNull(callback.getChangePayload(0, 0))
+  }
+}
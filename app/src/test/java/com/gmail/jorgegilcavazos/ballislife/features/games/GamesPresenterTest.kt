@@ -2,6 +2,7 @@ package com.gmail.jorgegilcavazos.ballislife.features.games
 
 import com.gmail.jorgegilcavazos.ballislife.data.repository.games.GamesRepository
 import com.gmail.jorgegilcavazos.ballislife.features.model.GameV2
+import com.gmail.jorgegilcavazos.ballislife.features.model.createGame
 import com.gmail.jorgegilcavazos.ballislife.util.NetworkUtils
 import com.gmail.jorgegilcavazos.ballislife.util.schedulers.TrampolineSchedulerProvider
 import io.reactivex.Observable
@@ -23,6 +24,7 @@ class GamesPresenterTest {
   @Mock private lateinit var mockView: GamesView
   @Mock private lateinit var mockRepository: GamesRepository
   @Mock private lateinit var mockNetworkUtils: NetworkUtils
+  @Mock private lateinit var mockPrefetcher: GameDetailsPrefetcher
 
   private val prevDayClicks = PublishSubject.create<Any>()
   private val nextDayClicks = PublishSubject.create<Any>()
@@ -36,9 +38,10 @@ class GamesPresenterTest {
     `when`(mockView.nextDayClicks()).thenReturn(nextDayClicks)
     `when`(mockView.gameClicks()).thenReturn(gameClicks)
     `when`(mockRepository.games(anyObject(), anyBoolean())).thenReturn(Observable.empty())
+    `when`(mockRepository.liveGames()).thenReturn(Observable.never())
 
     presenter = GamesPresenter(mockRepository, TrampolineSchedulerProvider(), CompositeDisposable(),
-        mockNetworkUtils)
+        mockNetworkUtils, mockPrefetcher)
     presenter.attachView(mockView)
   }
 
@@ -78,7 +81,7 @@ class GamesPresenterTest {
 
   @Test
   fun openGameDetailOnClick() {
-    val game = createGameV2()
+    val game = createGame()
 
     gameClicks.onNext(game)
 
@@ -99,7 +102,7 @@ class GamesPresenterTest {
   @Test
   fun hideLoadingIndicatorIfNetworkResult() {
     `when`(mockRepository.games(anyObject(), ArgumentMatchers.anyBoolean()))
-        .thenReturn(Observable.just(GamesUiModel.networkSuccess(listOf(createGameV2()))))
+        .thenReturn(Observable.just(GamesUiModel.networkSuccess(listOf(createGame()))))
 
     presenter.loadGames(false)
 
@@ -109,7 +112,7 @@ class GamesPresenterTest {
 
   @Test
   fun showGamesIfResultContainsGames() {
-    val games = listOf(createGameV2())
+    val games = listOf(createGame())
     `when`(mockRepository.games(anyObject(), ArgumentMatchers.anyBoolean()))
         .thenReturn(Observable.just(GamesUiModel.networkSuccess(games)))
 
@@ -119,6 +122,24 @@ class GamesPresenterTest {
     verify(mockView).showGames(games)
   }
 
+  @Test
+  fun prefetchGameDetailsIfNetworkResult() {
+    val games = listOf(createGame())
+    `when`(mockRepository.games(anyObject(), ArgumentMatchers.anyBoolean()))
+        .thenReturn(Observable.just(GamesUiModel.networkSuccess(games)))
+
+    presenter.loadGames(false)
+
+    verify(mockPrefetcher).prefetch(games)
+  }
+
+  @Test
+  fun cancelPrefetchOnDayNavigation() {
+    nextDayClicks.onNext(Object())
+
+    verify(mockPrefetcher).cancel()
+  }
+
   @Test
   fun showNoGamesIndicatorIfNetworkResultEmpty() {
     `when`(mockRepository.games(anyObject(), ArgumentMatchers.anyBoolean()))
@@ -168,34 +189,6 @@ class GamesPresenterTest {
     verify(mockView).dismissSnackbar()
   }
 
-  private fun createGameV2(): GameV2 {
-    return GameV2(
-        arena = "AT&T",
-        awayTeamAbbr = "SAS",
-        awayTeamCity = "San Antonio",
-        awayTeamId = "1545334321",
-        awayTeamKey = "SAS",
-        awayTeamNickname = "Spurs",
-        awayTeamScore = "110",
-        city = "San Antonio",
-        date = "20171110",
-        gameClock = "",
-        gameStatus = "",
-        homeTeamAbbr = "",
-        homeTeamCity = "",
-        homeTeamId = "",
-        homeTeamKey = "",
-        homeTeamNickname = "",
-        homeTeamScore = "",
-        id = "",
-        periodName = "",
-        periodStatus = "",
-        periodValue = "",
-        time = "",
-        timeUtc = 23894341,
-        totalPeriods = "")
-  }
-
   private fun <T> anyObject(): T {
     return Mockito.anyObject<T>()
   }
@@ -8,8 +8,10 @@ import com.gmail.jorgegilcavazos.ballislife.data.repository.comments.Contributio
 import com.gmail.jorgegilcavazos.ballislife.data.repository.gamethreads.GameThreadsRepository
 import com.gmail.jorgegilcavazos.ballislife.features.model.GameThreadType
 import com.gmail.jorgegilcavazos.ballislife.util.CrashReporter
+import com.gmail.jorgegilcavazos.ballislife.util.RenderedTextCache
 import com.gmail.jorgegilcavazos.ballislife.util.schedulers.TrampolineSchedulerProvider
 import com.google.common.collect.FluentIterable
+import io.reactivex.Completable
 import io.reactivex.Observable
 import io.reactivex.disposables.CompositeDisposable
 import io.reactivex.subjects.PublishSubject
@@ -17,8 +19,10 @@ import net.dean.jraw.models.Comment
 import net.dean.jraw.models.CommentNode
 import net.dean.jraw.models.Submission
 import net.dean.jraw.models.VoteDirection
+import org.junit.Assert.assertEquals
 import org.junit.Before
 import org.junit.Test
+import org.mockito.ArgumentCaptor
 import org.mockito.ArgumentMatchers
 import org.mockito.Mock
 import org.mockito.Mockito
@@ -32,6 +36,7 @@ class GameThreadPresenterV2Test {
     val HOME = "SAS"
     val VISITOR = "MIL"
     val GAME_TIME_UTC = 10000L
+    val GAME_ID = "0021700001"
     val SUBMISSION_ID = "82fh"
     val PARENT_FULLNAME = "9n1uid3"
     val RESPONSE = "This is a reply!"
@@ -53,6 +58,8 @@ class GameThreadPresenterV2Test {
   @Mock private lateinit var threadsDisposable: CompositeDisposable
   @Mock private lateinit var disposable: CompositeDisposable
   @Mock private lateinit var mockCrashReporter: CrashReporter
+  @Mock private lateinit var mockGameThreadRecorder: GameThreadRecorder
+  @Mock private lateinit var mockTextCache: RenderedTextCache
 
   private lateinit var presenter: GameThreadPresenterV2
 
@@ -64,6 +71,7 @@ class GameThreadPresenterV2Test {
     `when`(mockView.getHome()).thenReturn(HOME)
     `when`(mockView.getVisitor()).thenReturn(VISITOR)
     `when`(mockView.getGameTimeUtc()).thenReturn(GAME_TIME_UTC)
+    `when`(mockView.getGameId()).thenReturn(GAME_ID)
     `when`(mockView.commentSaves()).thenReturn(commentSaves)
     `when`(mockView.commentUnsaves()).thenReturn(commentUnsaves)
     `when`(mockView.upvotes()).thenReturn(upvotes)
@@ -72,6 +80,8 @@ class GameThreadPresenterV2Test {
     `when`(mockView.replies()).thenReturn(replies)
     `when`(mockView.submissionReplies()).thenReturn(submissionReplies)
     `when`(mockView.streamChanges()).thenReturn(streamChanges)
+    `when`(mockGameThreadRecorder.record(anyString(), anyList()))
+        .thenReturn(Completable.complete())
 
     presenter = GameThreadPresenterV2(
         mockGameThreadsRepository,
@@ -80,7 +90,10 @@ class GameThreadPresenterV2Test {
         TrampolineSchedulerProvider(),
         threadsDisposable,
         disposable,
-        mockCrashReporter)
+        mockCrashReporter,
+        StreamCadence(),
+        mockGameThreadRecorder,
+        mockTextCache)
     presenter.attachView(mockView)
   }
 
@@ -279,7 +292,10 @@ class GameThreadPresenterV2Test {
     verify(mockView).hideErrorLoadingText()
     verify(mockView).hideNoCommentsText()
     verify(mockView).showFab()
-    verify(mockView).showComments(ArgumentMatchers.anyList())
+    val captor = ArgumentCaptor.forClass(ThreadItemsUpdate::class.java)
+    verify(mockView).showComments(captor.capture())
+    assertEquals(listOf(mockCommentNode1, mockCommentNode2),
+        captor.value.items.map { it.commentNode })
     verify(mockView).hideNoThreadText()
   }
 
@@ -332,6 +348,56 @@ class GameThreadPresenterV2Test {
     verify(mockView).hideNoThreadText()
   }
 
+  @Test
+  fun loadGameThreadWhileStreamingPausedDoesNotStream() {
+    val mockCommentNode = Mockito.mock(CommentNode::class.java)
+    val mockSubmission = Mockito.mock(Submission::class.java)
+    `when`(mockSubmission.comments).thenReturn(mockCommentNode)
+    `when`(mockCommentNode.walkTree()).thenReturn(FluentIterable.of())
+    `when`(mockGameThreadsRepository.gameThreads(HOME, VISITOR, GAME_TIME_UTC, THREAD_TYPE))
+        .thenReturn(Observable.just(GameThreadsUIModel.found(mockSubmission)))
+    presenter.setShouldStream(true)
+
+    presenter.pauseStreaming()
+    presenter.loadGameThread()
+
+    verify(mockView).showNoCommentsText()
+    verify(mockGameThreadsRepository, never())
+        .newComments(ArgumentMatchers.anyString(), ArgumentMatchers.anyLong())
+  }
+
+  @Test
+  fun loadGameThreadWhileStreamingRecordsComments() {
+    val mockCommentNode1 = Mockito.mock(CommentNode::class.java)
+    val mockCommentNode2 = Mockito.mock(CommentNode::class.java)
+    val mockSubmission = Mockito.mock(Submission::class.java)
+    `when`(mockSubmission.comments).thenReturn(mockCommentNode1)
+    `when`(mockCommentNode1.walkTree())
+        .thenReturn(FluentIterable.of(mockCommentNode1, mockCommentNode2))
+    `when`(mockGameThreadsRepository.gameThreads(HOME, VISITOR, GAME_TIME_UTC, THREAD_TYPE))
+        .thenReturn(Observable.just(GameThreadsUIModel.found(mockSubmission)))
+    presenter.setShouldStream(true)
+
+    presenter.pauseStreaming()
+    presenter.loadGameThread()
+
+    verify(mockGameThreadRecorder).record(GAME_ID, listOf(mockCommentNode1, mockCommentNode2))
+  }
+
+  @Test
+  fun loadGameThreadWithoutStreamingDoesNotRecord() {
+    val mockCommentNode = Mockito.mock(CommentNode::class.java)
+    val mockSubmission = Mockito.mock(Submission::class.java)
+    `when`(mockSubmission.comments).thenReturn(mockCommentNode)
+    `when`(mockCommentNode.walkTree()).thenReturn(FluentIterable.of(mockCommentNode))
+    `when`(mockGameThreadsRepository.gameThreads(HOME, VISITOR, GAME_TIME_UTC, THREAD_TYPE))
+        .thenReturn(Observable.just(GameThreadsUIModel.found(mockSubmission)))
+
+    presenter.loadGameThread()
+
+    verify(mockGameThreadRecorder, never()).record(anyString(), anyList())
+  }
+
   @Test
   fun replyToCommentInProgress() {
     `when`(mockRedditActions.replyToComment(PARENT_FULLNAME, RESPONSE))
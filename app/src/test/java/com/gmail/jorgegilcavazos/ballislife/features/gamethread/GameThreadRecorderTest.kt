@@ -0,0 +1,121 @@
+package com.gmail.jorgegilcavazos.ballislife.features.gamethread
+
+import com.gmail.jorgegilcavazos.ballislife.data.repository.gamethreads.GameThreadLog
+import com.gmail.jorgegilcavazos.ballislife.data.repository.gamethreads.RecordedComment
+import com.gmail.jorgegilcavazos.ballislife.data.repository.games.GameClockTracker
+import com.gmail.jorgegilcavazos.ballislife.data.repository.games.GamesRepository
+import com.gmail.jorgegilcavazos.ballislife.features.model.GameV2
+import com.gmail.jorgegilcavazos.ballislife.features.model.createGame
+import com.gmail.jorgegilcavazos.ballislife.util.schedulers.TrampolineSchedulerProvider
+import net.dean.jraw.models.Comment
+import net.dean.jraw.models.CommentNode
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.mockito.ArgumentCaptor
+import org.mockito.ArgumentMatchers.anyList
+import org.mockito.ArgumentMatchers.anyString
+import org.mockito.Mock
+import org.mockito.Mockito
+import org.mockito.Mockito.`when`
+import org.mockito.Mockito.doThrow
+import org.mockito.Mockito.never
+import org.mockito.Mockito.verify
+import org.mockito.junit.MockitoJUnitRunner
+import java.util.*
+
+@RunWith(MockitoJUnitRunner.Silent::class)
+class GameThreadRecorderTest {
+
+  companion object {
+    const val GAME_ID = "0021700001"
+  }
+
+  @Mock private lateinit var mockGameThreadLog: GameThreadLog
+  @Mock private lateinit var mockGamesRepository: GamesRepository
+
+  private lateinit var recorder: GameThreadRecorder
+
+  @Before
+  fun setUp() {
+    recorder = GameThreadRecorder(
+        mockGameThreadLog,
+        mockGamesRepository,
+        GameClockTracker(),
+        TrampolineSchedulerProvider())
+  }
+
+  @Test
+  fun recordNewCommentWithGameClock() {
+    `when`(mockGamesRepository.cachedGame(GAME_ID))
+        .thenReturn(createGame(
+            id = GAME_ID, status = GameV2.IN_GAME, period = 3, gameClock = "5:32"))
+    val node = createCommentNode("abc", System.currentTimeMillis() - 5000)
+
+    recorder.record(GAME_ID, listOf(node)).test().assertComplete()
+
+    val recorded = captureAppended()
+    assertEquals("abc", recorded.id)
+    assertEquals("<p>Comment abc</p>", recorded.bodyHtml)
+    assertEquals("3", recorded.period)
+    assertEquals("5:32", recorded.gameClock)
+  }
+
+  @Test
+  fun recordOldCommentWithoutGameClock() {
+    `when`(mockGamesRepository.cachedGame(GAME_ID))
+        .thenReturn(createGame(
+            id = GAME_ID, status = GameV2.IN_GAME, period = 3, gameClock = "5:32"))
+    val node = createCommentNode("abc",
+        System.currentTimeMillis() - 2 * GameThreadRecorder.MAX_CLOCK_LAG_MILLIS)
+
+    recorder.record(GAME_ID, listOf(node)).test().assertComplete()
+
+    assertEquals("", captureAppended().period)
+  }
+
+  @Test
+  fun recordWithoutCachedGame() {
+    val node = createCommentNode("abc", System.currentTimeMillis())
+
+    recorder.record(GAME_ID, listOf(node)).test().assertComplete()
+
+    assertEquals("", captureAppended().gameClock)
+  }
+
+  @Test
+  fun recordNothing() {
+    recorder.record(GAME_ID, emptyList()).test().assertComplete()
+
+    verify(mockGameThreadLog, never()).append(anyString(), anyList())
+  }
+
+  @Test
+  fun recordErrorIgnored() {
+    doThrow(RuntimeException()).`when`(mockGameThreadLog).append(anyString(), anyList())
+    val node = createCommentNode("abc", System.currentTimeMillis())
+
+    recorder.record(GAME_ID, listOf(node)).test().assertComplete()
+  }
+
+  private fun captureAppended(): RecordedComment {
+    @Suppress("UNCHECKED_CAST")
+    val captor =
+        ArgumentCaptor.forClass(List::class.java) as ArgumentCaptor<List<RecordedComment>>
+    verify(mockGameThreadLog).append(Mockito.eq(GAME_ID), captor.capture())
+    return captor.value.single()
+  }
+
+  private fun createCommentNode(id: String, createdMillis: Long): CommentNode {
+    val comment = Mockito.mock(Comment::class.java)
+    `when`(comment.id).thenReturn(id)
+    `when`(comment.author).thenReturn("spursfan")
+    `when`(comment.data("body_html")).thenReturn("<p>Comment $id</p>")
+    `when`(comment.score).thenReturn(1)
+    `when`(comment.created).thenReturn(Date(createdMillis))
+    val node = Mockito.mock(CommentNode::class.java)
+    `when`(node.comment).thenReturn(comment)
+    return node
+  }
+}
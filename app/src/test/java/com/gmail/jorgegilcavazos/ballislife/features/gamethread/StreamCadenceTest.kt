@@ -0,0 +1,87 @@
+package com.gmail.jorgegilcavazos.ballislife.features.gamethread
+
+import org.junit.Assert.assertEquals
+import org.junit.Test
+
+class StreamCadenceTest {
+
+  companion object {
+    const val NOW = 1_510_000_000_000L
+  }
+
+  private val cadence = StreamCadence()
+
+  @Test
+  fun startAtBaseDelay() {
+    assertEquals(StreamCadence.BASE_DELAY_MILLIS, cadence.nextDelayMillis(NOW))
+  }
+
+  @Test
+  fun backOffWhileFewNewComments() {
+    var now = NOW
+    for (i in 1..10) {
+      now += cadence.nextDelayMillis(now)
+      cadence.onRequest(now)
+      cadence.onNewComments(0, now)
+    }
+
+    assertEquals(StreamCadence.MAX_DELAY_MILLIS, cadence.nextDelayMillis(now))
+  }
+
+  @Test
+  fun tightenWhileCommentsPourIn() {
+    var now = NOW
+    for (i in 1..3) {
+      now += cadence.nextDelayMillis(now)
+      cadence.onRequest(now)
+      cadence.onNewComments(50, now)
+    }
+
+    assertEquals(StreamCadence.MIN_DELAY_MILLIS, cadence.nextDelayMillis(now))
+  }
+
+  @Test
+  fun returnToBaseDelayAtSteadyPace() {
+    var now = NOW
+    for (i in 1..2) {
+      now += cadence.nextDelayMillis(now)
+      cadence.onNewComments(0, now)
+    }
+
+    for (i in 1..3) {
+      now += StreamCadence.BASE_DELAY_MILLIS
+      cadence.onNewComments(3, now)
+    }
+
+    assertEquals(StreamCadence.BASE_DELAY_MILLIS, cadence.nextDelayMillis(now))
+  }
+
+  @Test
+  fun limitRequestsPerMinute() {
+    for (i in 0 until StreamCadence.MAX_REQUESTS_PER_MINUTE) {
+      cadence.onRequest(NOW + i * 1000)
+    }
+
+    val now = NOW + StreamCadence.MAX_REQUESTS_PER_MINUTE * 1000
+    assertEquals(NOW + 60 * 1000 - now, cadence.nextDelayMillis(now))
+  }
+
+  @Test
+  fun limitIncludesFullReloads() {
+    for (i in 0 until StreamCadence.MAX_REQUESTS_PER_MINUTE) {
+      cadence.onFullReload(NOW)
+    }
+
+    assertEquals(60 * 1000L, cadence.nextDelayMillis(NOW))
+  }
+
+  @Test
+  fun countRequests() {
+    cadence.onRequest(NOW)
+    cadence.onRequest(NOW + 1)
+    cadence.onFullReload(NOW + 2)
+
+    assertEquals(2, cadence.requestCount)
+    assertEquals(1, cadence.fullReloadCount)
+  }
+}
@@ -0,0 +1,112 @@
+package com.gmail.jorgegilcavazos.ballislife.features.gamethread
+
+import android.support.v7.util.ListUpdateCallback
+import com.gmail.jorgegilcavazos.ballislife.features.common.ThreadAdapter
+import com.gmail.jorgegilcavazos.ballislife.features.model.ThreadItem
+import com.google.common.collect.FluentIterable
+import net.dean.jraw.models.Comment
+import net.dean.jraw.models.CommentNode
+import net.dean.jraw.models.Submission
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import org.mockito.Mockito.`when`
+import org.mockito.Mockito.mock
+
+class ThreadItemsUpdateTest {
+
+  companion object {
+    const val LARGE_THREAD_SIZE = 10000
+  }
+
+  @Test
+  fun createFlattensCommentsInThreadOrder() {
+    val node1 = prepareMockCommentNode("t1_a", 1, 1)
+    val node2 = prepareMockCommentNode("t1_b", 2, 1)
+
+    val update = ThreadItemsUpdate.create(emptyList(), prepareMockSubmission(node1, node2))
+
+    assertEquals(listOf(node1, node2), update.items.map { it.commentNode })
+    assertEquals(listOf(1, 2), update.items.map { it.depth })
+    assertEquals(listOf("insert 0 2"), dispatch(update))
+  }
+
+  @Test
+  fun createFindsNewestComment() {
+    val node1 = prepareMockCommentNode("t1_a9", 1, 1)
+    val node2 = prepareMockCommentNode("t1_a10", 2, 1)
+    val node3 = prepareMockCommentNode("t1_a2", 1, 1)
+
+    val update = ThreadItemsUpdate.create(emptyList(), prepareMockSubmission(node1, node2, node3))
+
+    assertEquals(java.lang.Long.parseLong("a10", 36), update.newestCommentId)
+  }
+
+  @Test
+  fun createDiffsCommentsByFullname() {
+    val nodes = (0 until LARGE_THREAD_SIZE).map { prepareMockCommentNode("t1_$it", 1, 1) }
+    val displayed = nodes.map { ThreadItem(ThreadAdapter.TYPE_COMMENT, it, it.depth) }
+
+    // Reloaded thread with new instances of the same comments, one new and one deleted comment.
+    val reloaded = nodes.map { prepareMockCommentNode(it.comment.fullName, 1, 1) }
+        .toMutableList()
+    reloaded.add(100, prepareMockCommentNode("t1_new", 1, 1))
+    reloaded.removeAt(5001)
+    val update = ThreadItemsUpdate.create(
+        displayed, prepareMockSubmission(*reloaded.toTypedArray()))
+
+    assertEquals(LARGE_THREAD_SIZE, update.items.size)
+    assertEquals(listOf("remove 5000 1", "insert 100 1"), dispatch(update))
+  }
+
+  @Test
+  fun createDiffsChangedScores() {
+    val node = prepareMockCommentNode("t1_a", 1, 1)
+    val displayed = listOf(ThreadItem(ThreadAdapter.TYPE_COMMENT, node, 1))
+
+    val update = ThreadItemsUpdate.create(
+        displayed, prepareMockSubmission(prepareMockCommentNode("t1_a", 1, 5)))
+
+    assertEquals(listOf("change 0 1"), dispatch(update))
+  }
+
+  private fun dispatch(update: ThreadItemsUpdate): List<String> {
+    val updates = ArrayList<String>()
+    update.diff.dispatchUpdatesTo(object : ListUpdateCallback {
+      override fun onInserted(position: Int, count: Int) {
+        updates.add("insert $position $count")
+      }
+
+      override fun onRemoved(position: Int, count: Int) {
+        updates.add("remove $position $count")
+      }
+
+      override fun onMoved(fromPosition: Int, toPosition: Int) {
+        updates.add("move $fromPosition $toPosition")
+      }
+
+      override fun onChanged(position: Int, count: Int, payload: Any?) {
+        updates.add("change $position $count")
+      }
+    })
+    return updates
+  }
+
+  private fun prepareMockSubmission(vararg nodes: CommentNode): Submission {
+    val root = mock(CommentNode::class.java)
+    `when`(root.walkTree()).thenReturn(FluentIterable.from(nodes.toList()))
+    val mockSubmission = mock(Submission::class.java)
+    `when`(mockSubmission.comments).thenReturn(root)
+    return mockSubmission
+  }
+
+  private fun prepareMockCommentNode(fullName: String, depth: Int, score: Int): CommentNode {
+    val mockComment = mock(Comment::class.java)
+    `when`(mockComment.fullName).thenReturn(fullName)
+    `when`(mockComment.id).thenReturn(fullName.removePrefix("t1_"))
+    `when`(mockComment.score).thenReturn(score)
+    val mockCommentNode = mock(CommentNode::class.java)
+    `when`(mockCommentNode.comment).thenReturn(mockComment)
+    `when`(mockCommentNode.depth).thenReturn(depth)
+    return mockCommentNode
+  }
+}
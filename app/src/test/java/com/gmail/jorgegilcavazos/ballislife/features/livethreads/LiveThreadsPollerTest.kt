@@ -0,0 +1,184 @@
+package com.gmail.jorgegilcavazos.ballislife.features.livethreads
+
+import com.gmail.jorgegilcavazos.ballislife.data.repository.gamethreads.GameThreadsRepository
+import com.gmail.jorgegilcavazos.ballislife.features.gamethread.CommentsDelta
+import com.gmail.jorgegilcavazos.ballislife.util.schedulers.BaseSchedulerProvider
+import io.reactivex.Single
+import io.reactivex.schedulers.Schedulers
+import io.reactivex.schedulers.TestScheduler
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.mockito.ArgumentMatchers.anyLong
+import org.mockito.ArgumentMatchers.anyString
+import org.mockito.Mock
+import org.mockito.Mockito.`when`
+import org.mockito.Mockito.never
+import org.mockito.Mockito.times
+import org.mockito.Mockito.verify
+import org.mockito.junit.MockitoJUnitRunner
+import java.util.concurrent.TimeUnit
+
+@RunWith(MockitoJUnitRunner.Silent::class)
+class LiveThreadsPollerTest {
+
+  @Mock private lateinit var mockGameThreadsRepository: GameThreadsRepository
+
+  private val testScheduler = TestScheduler()
+  private lateinit var poller: LiveThreadsPoller
+
+  @Before
+  fun setUp() {
+    `when`(mockGameThreadsRepository.newComments(anyString(), anyLong()))
+        .thenReturn(Single.just(CommentsDelta(emptyList(), true, 0)))
+
+    poller = LiveThreadsPoller(
+        mockGameThreadsRepository,
+        object : BaseSchedulerProvider {
+          override fun computation() = testScheduler
+          override fun io() = Schedulers.trampoline()
+          override fun ui() = Schedulers.trampoline()
+        })
+  }
+
+  @Test
+  fun nextRoundThreadsTakeTurns() {
+    val threads = followThreads(6)
+
+    assertEquals(threads.subList(0, 4), poller.nextRoundThreads())
+    assertEquals(listOf(threads[4], threads[5], threads[0], threads[1]), poller.nextRoundThreads())
+    assertEquals(listOf(threads[2], threads[3], threads[4], threads[5]), poller.nextRoundThreads())
+  }
+
+  @Test
+  fun nextRoundThreadsAfterUnfollowKeepTurn() {
+    val threads = followThreads(6)
+    poller.nextRoundThreads()
+
+    poller.unfollow(threads[1])
+
+    assertEquals(listOf(threads[4], threads[5], threads[0], threads[2]), poller.nextRoundThreads())
+  }
+
+  @Test
+  fun nextRoundDelayStaysWithinBudget() {
+    for (count in 1..10) {
+      val poller = LiveThreadsPoller(mockGameThreadsRepository, TrampolineProvider)
+      (1..count).forEach { poller.follow(LiveThread("t$it", "Game $it"), 0) }
+
+      val roundSize = Math.min(count, LiveThreadsPoller.MAX_THREADS_PER_ROUND)
+      val roundsPerMinute = 60 * 1000.0 / poller.nextRoundDelayMillis()
+      assertTrue(roundSize * roundsPerMinute <= LiveThreadsPoller.REQUEST_BUDGET_PER_MINUTE)
+    }
+  }
+
+  @Test
+  fun nextRoundDelayKeepsMinThreadInterval() {
+    poller.follow(LiveThread("t1", "Game 1"), 0)
+
+    assertEquals(LiveThreadsPoller.MIN_THREAD_INTERVAL_MILLIS, poller.nextRoundDelayMillis())
+  }
+
+  @Test
+  fun newCommentsPollsAllThreadsInOneLoop() {
+    followThreads(3)
+    val observer = poller.newComments().test()
+    val otherObserver = poller.newComments().test()
+
+    testScheduler.advanceTimeBy(60, TimeUnit.SECONDS)
+
+    // Three threads take three requests a round, 12 requests a minute allow a round every 15s.
+    assertEquals(12, poller.requestCount)
+    verify(mockGameThreadsRepository, times(4)).newComments("t1", 0)
+    verify(mockGameThreadsRepository, times(4)).newComments("t2", 0)
+    verify(mockGameThreadsRepository, times(4)).newComments("t3", 0)
+    assertEquals(12, observer.valueCount())
+    assertEquals(12, otherObserver.valueCount())
+  }
+
+  @Test
+  fun newCommentsNoThreadsNoRequests() {
+    poller.newComments().test()
+
+    testScheduler.advanceTimeBy(60, TimeUnit.SECONDS)
+
+    assertEquals(0, poller.requestCount)
+    verify(mockGameThreadsRepository, never()).newComments(anyString(), anyLong())
+  }
+
+  @Test
+  fun newCommentsStopsWithoutSubscribers() {
+    followThreads(2)
+    poller.newComments().test().dispose()
+
+    testScheduler.advanceTimeBy(60, TimeUnit.SECONDS)
+
+    verify(mockGameThreadsRepository, never()).newComments(anyString(), anyLong())
+  }
+
+  @Test
+  fun newCommentsSkipsThreadThatFails() {
+    followThreads(2)
+    `when`(mockGameThreadsRepository.newComments("t1", 0)).thenReturn(Single.error(Exception()))
+    val observer = poller.newComments().test()
+
+    testScheduler.advanceTimeBy(10, TimeUnit.SECONDS)
+
+    observer.assertNoErrors()
+    assertEquals(listOf("t2"), observer.values().map { it.thread.submissionId })
+  }
+
+  @Test
+  fun newCommentsContinuesFromNewestCommentOfThread() {
+    val thread = LiveThread("t1", "Game 1")
+    poller.follow(thread, 10)
+    `when`(mockGameThreadsRepository.newComments("t1", 10))
+        .thenReturn(Single.just(CommentsDelta(emptyList(), true, 20)))
+    poller.newComments().test()
+
+    testScheduler.advanceTimeBy(10, TimeUnit.SECONDS)
+
+    assertEquals(20L, poller.newestCommentId(thread))
+    testScheduler.advanceTimeBy(10, TimeUnit.SECONDS)
+    verify(mockGameThreadsRepository).newComments("t1", 20)
+  }
+
+  @Test
+  fun newCommentsKeepsNewestCommentAfterIncompleteDelta() {
+    val thread = LiveThread("t1", "Game 1")
+    poller.follow(thread, 10)
+    `when`(mockGameThreadsRepository.newComments("t1", 10))
+        .thenReturn(Single.just(CommentsDelta(emptyList(), false, 20)))
+    val observer = poller.newComments().test()
+
+    testScheduler.advanceTimeBy(10, TimeUnit.SECONDS)
+
+    assertEquals(false, observer.values()[0].delta.complete)
+    assertEquals(10L, poller.newestCommentId(thread))
+  }
+
+  @Test
+  fun followAgainMovesToGivenComment() {
+    val thread = LiveThread("t1", "Game 1")
+    poller.follow(thread, 10)
+
+    poller.follow(thread, 30)
+
+    assertEquals(listOf(thread), poller.followedThreads())
+    assertEquals(30L, poller.newestCommentId(thread))
+  }
+
+  private fun followThreads(count: Int): List<LiveThread> {
+    val threads = (1..count).map { LiveThread("t$it", "Game $it") }
+    threads.forEach { poller.follow(it, 0) }
+    return threads
+  }
+
+  private object TrampolineProvider : BaseSchedulerProvider {
+    override fun computation() = Schedulers.trampoline()
+    override fun io() = Schedulers.trampoline()
+    override fun ui() = Schedulers.trampoline()
+  }
+}
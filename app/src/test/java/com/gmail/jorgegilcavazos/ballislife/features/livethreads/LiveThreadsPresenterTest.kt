@@ -0,0 +1,221 @@
+package com.gmail.jorgegilcavazos.ballislife.features.livethreads
+
+import com.gmail.jorgegilcavazos.ballislife.data.repository.gamethreads.GameThreadsRepository
+import com.gmail.jorgegilcavazos.ballislife.data.repository.games.GamesRepository
+import com.gmail.jorgegilcavazos.ballislife.features.gamethread.CommentsDelta
+import com.gmail.jorgegilcavazos.ballislife.features.gamethread.GameThreadsUIModel
+import com.gmail.jorgegilcavazos.ballislife.features.games.GamesUiModel
+import com.gmail.jorgegilcavazos.ballislife.features.model.GameThreadType
+import com.gmail.jorgegilcavazos.ballislife.features.model.GameV2
+import com.gmail.jorgegilcavazos.ballislife.features.model.createGame
+import com.gmail.jorgegilcavazos.ballislife.util.CrashReporter
+import com.gmail.jorgegilcavazos.ballislife.util.RenderedTextCache
+import com.gmail.jorgegilcavazos.ballislife.util.schedulers.TrampolineSchedulerProvider
+import com.google.common.collect.FluentIterable
+import io.reactivex.Observable
+import io.reactivex.disposables.CompositeDisposable
+import io.reactivex.subjects.PublishSubject
+import net.dean.jraw.models.Comment
+import net.dean.jraw.models.CommentNode
+import net.dean.jraw.models.Submission
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.mockito.ArgumentMatchers.anyBoolean
+import org.mockito.ArgumentMatchers.anyLong
+import org.mockito.ArgumentMatchers.anyString
+import org.mockito.Mock
+import org.mockito.Mockito
+import org.mockito.Mockito.`when`
+import org.mockito.Mockito.never
+import org.mockito.Mockito.verify
+import org.mockito.junit.MockitoJUnitRunner
+import java.util.*
+
+@RunWith(MockitoJUnitRunner.Silent::class)
+class LiveThreadsPresenterTest {
+
+  @Mock private lateinit var mockView: LiveThreadsView
+  @Mock private lateinit var mockGamesRepository: GamesRepository
+  @Mock private lateinit var mockGameThreadsRepository: GameThreadsRepository
+  @Mock private lateinit var mockLiveThreadsPoller: LiveThreadsPoller
+  @Mock private lateinit var mockCrashReporter: CrashReporter
+  @Mock private lateinit var mockTextCache: RenderedTextCache
+
+  private val newComments = PublishSubject.create<LiveThreadComments>()
+  private lateinit var presenter: LiveThreadsPresenter
+
+  @Before
+  fun setUp() {
+    `when`(mockLiveThreadsPoller.newComments()).thenReturn(newComments)
+    `when`(mockGameThreadsRepository.gameThreads(
+        anyString(), anyString(), anyLong(), anyObject()))
+        .thenReturn(Observable.just(GameThreadsUIModel.notFound()))
+
+    presenter = LiveThreadsPresenter(
+        mockGamesRepository,
+        mockGameThreadsRepository,
+        mockLiveThreadsPoller,
+        TrampolineSchedulerProvider(),
+        CompositeDisposable(),
+        mockCrashReporter,
+        mockTextCache)
+    presenter.attachView(mockView)
+  }
+
+  @Test
+  fun loadThreadsFollowsLiveGameThreads() {
+    stubGames(
+        createGame(id = "1", status = GameV2.IN_GAME),
+        createGame(
+            id = "2", status = GameV2.PRE_GAME, awayTeamAbbr = "CHI", homeTeamAbbr = "MIA"))
+    stubThread("GSW", "SAS", "abc")
+
+    presenter.loadThreads()
+
+    val thread = LiveThread("abc", "SAS @ GSW")
+    verify(mockLiveThreadsPoller).follow(thread, 0)
+    verify(mockView).addComments(thread, emptyList())
+    verify(mockView).setLoadingIndicator(false)
+    verify(mockGameThreadsRepository, never())
+        .gameThreads("MIA", "CHI", 0, GameThreadType.LIVE)
+  }
+
+  @Test
+  fun loadThreadsNoLiveGames() {
+    stubGames(createGame(id = "1", status = GameV2.POST_GAME))
+
+    presenter.loadThreads()
+
+    verify(mockLiveThreadsPoller, never()).follow(anyObject(), anyLong())
+    verify(mockView).showNoLiveThreadsSnackbar()
+  }
+
+  @Test
+  fun loadThreadsNoThreadFound() {
+    stubGames(createGame(id = "1", status = GameV2.IN_GAME))
+
+    presenter.loadThreads()
+
+    verify(mockLiveThreadsPoller, never()).follow(anyObject(), anyLong())
+    verify(mockView).showNoLiveThreadsSnackbar()
+  }
+
+  @Test
+  fun loadThreadsError() {
+    `when`(mockGamesRepository.games(anyObject(), anyBoolean()))
+        .thenReturn(Observable.error(Exception()))
+
+    presenter.loadThreads()
+
+    verify(mockView).showErrorLoadingSnackbar()
+  }
+
+  @Test
+  fun selectGamesTakesAtMostMaxThreads() {
+    val games = (1..10).map { createGame(id = it.toString(), status = GameV2.IN_GAME) }
+
+    assertEquals(LiveThreadsPresenter.MAX_THREADS, presenter.selectGames(games).size)
+  }
+
+  @Test
+  fun startStreamingShowsNewComments() {
+    stubGames(createGame(id = "1", status = GameV2.IN_GAME))
+    stubThread("GSW", "SAS", "abc")
+    presenter.loadThreads()
+    val thread = LiveThread("abc", "SAS @ GSW")
+    val comment = Mockito.mock(CommentNode::class.java)
+
+    presenter.startStreaming()
+    newComments.onNext(LiveThreadComments(thread, CommentsDelta(listOf(comment), true, 0)))
+    newComments.onNext(LiveThreadComments(
+        LiveThread("other", "CHI @ MIA"), CommentsDelta(listOf(comment), true, 0)))
+
+    verify(mockTextCache, Mockito.times(2)).prerenderComments(listOf(comment))
+    verify(mockView).addComments(thread, listOf(comment))
+    verify(mockView, never()).addComments(LiveThread("other", "CHI @ MIA"), listOf(comment))
+  }
+
+  @Test
+  fun incompleteDeltaReloadsThread() {
+    stubGames(createGame(id = "1", status = GameV2.IN_GAME))
+    stubThread("GSW", "SAS", "abc")
+    presenter.loadThreads()
+    val thread = LiveThread("abc", "SAS @ GSW")
+    `when`(mockLiveThreadsPoller.newestCommentId(thread)).thenReturn(commentId("a10"))
+    val seen = prepareMockCommentNode("a10", 10)
+    val missed = prepareMockCommentNode("a20", 20)
+    val newest = prepareMockCommentNode("a30", 30)
+    stubThread("GSW", "SAS", "abc", seen, missed, newest)
+
+    presenter.startStreaming()
+    newComments.onNext(LiveThreadComments(thread, CommentsDelta(listOf(newest), false, 0)))
+
+    verify(mockTextCache).prerenderComments(listOf(missed, newest))
+    verify(mockView).addComments(thread, listOf(newest, missed))
+    verify(mockLiveThreadsPoller).follow(thread, commentId("a30"))
+  }
+
+  @Test
+  fun stopStreamingIgnoresNewComments() {
+    stubGames(createGame(id = "1", status = GameV2.IN_GAME))
+    stubThread("GSW", "SAS", "abc")
+    presenter.loadThreads()
+    val thread = LiveThread("abc", "SAS @ GSW")
+    val comment = Mockito.mock(CommentNode::class.java)
+
+    presenter.startStreaming()
+    presenter.stopStreaming()
+    newComments.onNext(LiveThreadComments(thread, CommentsDelta(listOf(comment), true, 0)))
+
+    verify(mockView, never()).addComments(thread, listOf(comment))
+  }
+
+  @Test
+  fun detachViewUnfollowsThreads() {
+    stubGames(createGame(id = "1", status = GameV2.IN_GAME))
+    stubThread("GSW", "SAS", "abc")
+    presenter.loadThreads()
+
+    presenter.detachView()
+
+    verify(mockLiveThreadsPoller).unfollow(LiveThread("abc", "SAS @ GSW"))
+  }
+
+  private fun stubGames(vararg games: GameV2) {
+    `when`(mockGamesRepository.games(anyObject(), anyBoolean()))
+        .thenReturn(Observable.just(
+            GamesUiModel.memoryInProgress(), GamesUiModel.networkSuccess(games.toList())))
+  }
+
+  private fun stubThread(
+      home: String,
+      visitor: String,
+      submissionId: String,
+      vararg comments: CommentNode) {
+    val root = Mockito.mock(CommentNode::class.java)
+    `when`(root.walkTree()).thenReturn(FluentIterable.from(comments.toList()))
+    val mockSubmission = Mockito.mock(Submission::class.java)
+    `when`(mockSubmission.id).thenReturn(submissionId)
+    `when`(mockSubmission.comments).thenReturn(root)
+    `when`(mockGameThreadsRepository.gameThreads(home, visitor, 0, GameThreadType.LIVE))
+        .thenReturn(Observable.just(
+            GameThreadsUIModel.inProgress(), GameThreadsUIModel.found(mockSubmission)))
+  }
+
+  private fun prepareMockCommentNode(id: String, createdSeconds: Long): CommentNode {
+    val mockComment = Mockito.mock(Comment::class.java)
+    `when`(mockComment.id).thenReturn(id)
+    `when`(mockComment.created).thenReturn(Date(createdSeconds * 1000))
+    val mockCommentNode = Mockito.mock(CommentNode::class.java)
+    `when`(mockCommentNode.comment).thenReturn(mockComment)
+    return mockCommentNode
+  }
+
+  private fun commentId(id: String) = java.lang.Long.parseLong(id, 36)
+
+  private fun <T> anyObject(): T {
+    return Mockito.anyObject<T>()
+  }
+}
@@ -0,0 +1,37 @@
+package com.gmail.jorgegilcavazos.ballislife.features.model
+
+/**
+ * Returns a game of the Spurs at the Warriors without a status or scores. Tests override only the
+ * fields they check.
+ */
+fun createGame(
+    id: String = "1",
+    status: Int = 0,
+    awayTeamAbbr: String = "SAS",
+    homeTeamAbbr: String = "GSW",
+    awayScore: Int = GameV2.NO_SCORE,
+    homeScore: Int = GameV2.NO_SCORE,
+    gameClock: String = "",
+    period: Int = 0,
+    periodName: String = "Qtr",
+    periodStatus: String = "",
+    arena: String = "Oracle Arena",
+    timeUtc: Long = 0): GameV2 {
+  return GameV2(
+      id = id,
+      homeTeam = Team("1610612744", homeTeamAbbr, homeTeamAbbr, "Golden State", "Warriors"),
+      awayTeam = Team("1610612759", awayTeamAbbr, awayTeamAbbr, "San Antonio", "Spurs"),
+      status = status,
+      homeScore = homeScore,
+      awayScore = awayScore,
+      period = period,
+      periodName = periodName,
+      periodStatus = periodStatus,
+      totalPeriods = 4,
+      gameClock = gameClock,
+      arena = arena,
+      city = "Oakland",
+      date = "20171110",
+      time = "2030",
+      timeUtc = timeUtc)
+}
@@ -0,0 +1,134 @@
+package com.gmail.jorgegilcavazos.ballislife.features.model
+
+import com.gmail.jorgegilcavazos.ballislife.util.Measurement
+import com.google.gson.Gson
+import com.google.gson.JsonObject
+import org.junit.Test
+import java.util.*
+
+/**
+ * Compares the heap retained by [GAMES] games parsed from Firebase JSON into [GameV2] with the heap
+ * retained by the same games parsed into [FlatGame], the model GameV2 used to be with every field
+ * kept as its own string. Only runs when the unit tests are run with -Pbenchmarks.
+ *
+ * The games are parsed once before measuring, so the shared team table and string pool are full
+ * and only the heap held per game is counted.
+ */
+class GameV2HeapBenchmark {
+
+  companion object {
+    const val GAMES = 1000
+
+    private val TEAMS = listOf(
+        Triple("ATL", "Atlanta", "Hawks"), Triple("BOS", "Boston", "Celtics"),
+        Triple("BKN", "Brooklyn", "Nets"), Triple("CHA", "Charlotte", "Hornets"),
+        Triple("CHI", "Chicago", "Bulls"), Triple("CLE", "Cleveland", "Cavaliers"),
+        Triple("DAL", "Dallas", "Mavericks"), Triple("DEN", "Denver", "Nuggets"),
+        Triple("DET", "Detroit", "Pistons"), Triple("GSW", "Golden State", "Warriors"),
+        Triple("HOU", "Houston", "Rockets"), Triple("IND", "Indiana", "Pacers"),
+        Triple("LAC", "LA", "Clippers"), Triple("LAL", "Los Angeles", "Lakers"),
+        Triple("MEM", "Memphis", "Grizzlies"), Triple("MIA", "Miami", "Heat"),
+        Triple("MIL", "Milwaukee", "Bucks"), Triple("MIN", "Minnesota", "Timberwolves"),
+        Triple("NOP", "New Orleans", "Pelicans"), Triple("NYK", "New York", "Knicks"),
+        Triple("OKC", "Oklahoma City", "Thunder"), Triple("ORL", "Orlando", "Magic"),
+        Triple("PHI", "Philadelphia", "76ers"), Triple("PHX", "Phoenix", "Suns"),
+        Triple("POR", "Portland", "Trail Blazers"), Triple("SAC", "Sacramento", "Kings"),
+        Triple("SAS", "San Antonio", "Spurs"), Triple("TOR", "Toronto", "Raptors"),
+        Triple("UTA", "Utah", "Jazz"), Triple("WAS", "Washington", "Wizards"))
+  }
+
+  /**
+   * A game as GameV2 stored it before it had teams and numbers, with every field as a string.
+   */
+  @Suppress("unused")
+  private class FlatGame {
+    var arena: String? = null
+    var awayTeamAbbr: String? = null
+    var awayTeamCity: String? = null
+    var awayTeamId: String? = null
+    var awayTeamKey: String? = null
+    var awayTeamNickname: String? = null
+    var awayTeamScore: String? = null
+    var city: String? = null
+    var date: String? = null
+    var gameClock: String? = null
+    var gameStatus: String? = null
+    var homeTeamAbbr: String? = null
+    var homeTeamCity: String? = null
+    var homeTeamId: String? = null
+    var homeTeamKey: String? = null
+    var homeTeamNickname: String? = null
+    var homeTeamScore: String? = null
+    var id: String? = null
+    var periodName: String? = null
+    var periodStatus: String? = null
+    var periodValue: String? = null
+    var time: String? = null
+    var timeUtc: Long = 0
+    var totalPeriods: String? = null
+  }
+
+  private val gson = Gson()
+
+  @Test
+  fun retainedHeap() {
+    val json = prepareGames(GAMES, Random(42))
+    json.map { gson.fromJson(it, GameV2::class.java) }
+
+    val flat = Measurement.retainedBytes { json.map { gson.fromJson(it, FlatGame::class.java) } }
+    val compact = Measurement.retainedBytes { json.map { gson.fromJson(it, GameV2::class.java) } }
+
+    println("Retained heap of $GAMES games")
+    println("string fields: ${flat / 1024} KB")
+    println("GameV2: ${compact / 1024} KB")
+  }
+
+  /**
+   * Returns the JSON of the given number of games between random teams, a third of them
+   * scheduled, a third in progress and a third final.
+   */
+  private fun prepareGames(count: Int, random: Random): List<String> {
+    return (0 until count).map { i ->
+      val home = random.nextInt(TEAMS.size)
+      val away = (home + 1 + random.nextInt(TEAMS.size - 1)) % TEAMS.size
+      val status = 1 + random.nextInt(3)
+      val scheduled = status == GameV2.PRE_GAME
+      val period = if (scheduled) "" else (1 + random.nextInt(4)).toString()
+
+      val game = JsonObject()
+      game.addProperty("arena", "${TEAMS[home].second} Arena")
+      addTeam(game, "away", away)
+      game.addProperty("awayTeamScore", if (scheduled) "" else (80 + random.nextInt(50)).toString())
+      game.addProperty("city", TEAMS[home].second)
+      game.addProperty("date", "201711%02d".format(1 + i / 15 % 30))
+      game.addProperty("gameClock", if (status == GameV2.IN_GAME) {
+        "%d:%02d".format(random.nextInt(12), random.nextInt(60))
+      } else {
+        ""
+      })
+      game.addProperty("gameStatus", status.toString())
+      addTeam(game, "home", home)
+      game.addProperty("homeTeamScore", if (scheduled) "" else (80 + random.nextInt(50)).toString())
+      game.addProperty("id", "00217%05d".format(i))
+      game.addProperty("periodName", "Qtr")
+      game.addProperty("periodStatus", when (status) {
+        GameV2.PRE_GAME -> "7:30 pm ET"
+        GameV2.POST_GAME -> "Final"
+        else -> "Q$period"
+      })
+      game.addProperty("periodValue", period)
+      game.addProperty("time", "2030")
+      game.addProperty("timeUtc", 1509494400L + i * 3600L)
+      game.addProperty("totalPeriods", "4")
+      gson.toJson(game)
+    }
+  }
+
+  private fun addTeam(game: JsonObject, side: String, team: Int) {
+    game.addProperty("${side}TeamAbbr", TEAMS[team].first)
+    game.addProperty("${side}TeamCity", TEAMS[team].second)
+    game.addProperty("${side}TeamId", (1610612737 + team).toString())
+    game.addProperty("${side}TeamKey", TEAMS[team].first)
+    game.addProperty("${side}TeamNickname", TEAMS[team].third)
+  }
+}
@@ -2,6 +2,7 @@ package com.gmail.jorgegilcavazos.ballislife.features.profile;
 
 import com.gmail.jorgegilcavazos.ballislife.data.reddit.RedditAuthentication;
 import com.gmail.jorgegilcavazos.ballislife.data.repository.profile.ProfileRepository;
+import com.gmail.jorgegilcavazos.ballislife.util.RenderedTextCache;
 import com.gmail.jorgegilcavazos.ballislife.util.exception.NotAuthenticatedException;
 import com.gmail.jorgegilcavazos.ballislife.util.schedulers.TrampolineSchedulerProvider;
 import com.google.common.collect.ImmutableList;
@@ -54,6 +55,9 @@ public class ProfilePresenterTest {
     @Mock
     RedditAuthentication mockRedditAuthentication;
 
+    @Mock
+    RenderedTextCache mockTextCache;
+
     private ProfilePresenter presenter;
 
     @Before
@@ -61,7 +65,8 @@ public class ProfilePresenterTest {
         presenter = new ProfilePresenter(
                 mockRepository,
                 mockRedditAuthentication,
-                new TrampolineSchedulerProvider());
+                new TrampolineSchedulerProvider(),
+                mockTextCache);
         presenter.attachView(mockView);
     }
 
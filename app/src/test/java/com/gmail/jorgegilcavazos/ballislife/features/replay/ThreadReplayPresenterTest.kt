@@ -0,0 +1,124 @@
+package com.gmail.jorgegilcavazos.ballislife.features.replay
+
+import com.gmail.jorgegilcavazos.ballislife.data.repository.gamethreads.GameThreadLog
+import com.gmail.jorgegilcavazos.ballislife.data.repository.gamethreads.RecordedComment
+import com.gmail.jorgegilcavazos.ballislife.util.schedulers.TrampolineSchedulerProvider
+import io.reactivex.disposables.CompositeDisposable
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.mockito.Mock
+import org.mockito.Mockito.`when`
+import org.mockito.Mockito.inOrder
+import org.mockito.Mockito.never
+import org.mockito.Mockito.verify
+import org.mockito.junit.MockitoJUnitRunner
+
+@RunWith(MockitoJUnitRunner.Silent::class)
+class ThreadReplayPresenterTest {
+
+  companion object {
+    const val GAME_ID = "0021700001"
+  }
+
+  @Mock private lateinit var mockView: ThreadReplayView
+  @Mock private lateinit var mockGameThreadLog: GameThreadLog
+
+  private lateinit var presenter: ThreadReplayPresenter
+
+  private val comment1 = createComment("a", 10_000, "", "")
+  private val comment2 = createComment("b", 20_000, "1", "11:40")
+  private val comment3 = createComment("c", 25_000, "", "")
+  private val comment4 = createComment("d", 70_000, "5", "4:10")
+
+  @Before
+  fun setUp() {
+    `when`(mockGameThreadLog.load(GAME_ID))
+        .thenReturn(listOf(comment1, comment2, comment3, comment4))
+
+    presenter = ThreadReplayPresenter(
+        mockGameThreadLog,
+        TrampolineSchedulerProvider(),
+        CompositeDisposable())
+    presenter.attachView(mockView)
+  }
+
+  @Test
+  fun loadRecordingShowsFirstComment() {
+    presenter.loadRecording(GAME_ID)
+
+    verify(mockView).setDuration(60_000)
+    verify(mockView).addComments(listOf(comment1))
+    verify(mockView).setPosition(0, "")
+  }
+
+  @Test
+  fun loadEmptyRecording() {
+    `when`(mockGameThreadLog.load(GAME_ID)).thenReturn(emptyList())
+
+    presenter.loadRecording(GAME_ID)
+
+    verify(mockView).showNoRecordingText()
+    verify(mockView, never()).setDuration(0)
+  }
+
+  @Test
+  fun seekForwardAddsCommentsPostedSinceNewestFirst() {
+    presenter.loadRecording(GAME_ID)
+
+    presenter.seekTo(15_000)
+
+    verify(mockView).addComments(listOf(comment3, comment2))
+    verify(mockView).setPosition(15_000, "Q1 11:40")
+  }
+
+  @Test
+  fun seekBackwardShowsOnlyCommentsPostedBy() {
+    presenter.loadRecording(GAME_ID)
+    presenter.seekTo(60_000)
+
+    presenter.seekTo(10_000)
+
+    val inOrder = inOrder(mockView)
+    inOrder.verify(mockView).addComments(listOf(comment4, comment3, comment2))
+    inOrder.verify(mockView).setPosition(60_000, "OT1 4:10")
+    inOrder.verify(mockView).showComments(listOf(comment2, comment1))
+    inOrder.verify(mockView).setPosition(10_000, "Q1 11:40")
+  }
+
+  @Test
+  fun seekPastEndStopsAtEnd() {
+    presenter.loadRecording(GAME_ID)
+
+    presenter.seekTo(120_000)
+
+    verify(mockView).setPosition(60_000, "OT1 4:10")
+  }
+
+  @Test
+  fun formatGameClock() {
+    assertEquals("Q4 0:32", ThreadReplayPresenter.formatGameClock(
+        createComment("a", 0, "4", "0:32")))
+    assertEquals("OT2 1:05", ThreadReplayPresenter.formatGameClock(
+        createComment("a", 0, "6", "1:05")))
+    assertEquals("", ThreadReplayPresenter.formatGameClock(createComment("a", 0, "", "")))
+  }
+
+  private fun createComment(
+      id: String,
+      createdMillis: Long,
+      period: String,
+      gameClock: String): RecordedComment {
+    return RecordedComment(
+        id = id,
+        author = "spursfan",
+        bodyHtml = "<p>Comment $id</p>",
+        score = 1,
+        depth = 0,
+        createdMillis = createdMillis,
+        recordedAtMillis = createdMillis,
+        period = period,
+        gameClock = gameClock)
+  }
+}
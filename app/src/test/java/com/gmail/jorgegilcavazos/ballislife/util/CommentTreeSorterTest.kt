@@ -0,0 +1,94 @@
+package com.gmail.jorgegilcavazos.ballislife.util
+
+import com.google.common.collect.FluentIterable
+import net.dean.jraw.models.Comment
+import net.dean.jraw.models.CommentNode
+import net.dean.jraw.models.CommentSort
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import org.mockito.Mockito.`when`
+import org.mockito.Mockito.mock
+import java.util.*
+
+class CommentTreeSorterTest {
+
+  private val old = prepareMockCommentNode(score = 50, createdMillis = 1000L, controversiality = 0)
+  private val oldReply1 = prepareMockCommentNode(score = 1, createdMillis = 2000L)
+  private val oldReply2 = prepareMockCommentNode(score = 9, createdMillis = 3000L)
+  private val newest = prepareMockCommentNode(
+      score = 2, createdMillis = 5000L, controversiality = 1)
+  private val middle = prepareMockCommentNode(score = 80, createdMillis = 4000L)
+  private val root = prepareMockCommentNode(score = 0, createdMillis = 0L)
+
+  init {
+    `when`(old.children).thenReturn(listOf(oldReply1, oldReply2))
+    `when`(root.children).thenReturn(listOf(old, newest, middle))
+  }
+
+  @Test
+  fun sortTopOrdersSiblingsByScore() {
+    assertEquals(
+        listOf(middle, old, oldReply2, oldReply1, newest),
+        CommentTreeSorter.sort(root, CommentSort.TOP))
+  }
+
+  @Test
+  fun sortNewOrdersSiblingsNewestFirst() {
+    assertEquals(
+        listOf(newest, middle, old, oldReply2, oldReply1),
+        CommentTreeSorter.sort(root, CommentSort.NEW))
+  }
+
+  @Test
+  fun sortOldOrdersSiblingsOldestFirst() {
+    assertEquals(
+        listOf(old, oldReply1, oldReply2, middle, newest),
+        CommentTreeSorter.sort(root, CommentSort.OLD))
+  }
+
+  @Test
+  fun sortControversialOrdersControversialSiblingsFirst() {
+    assertEquals(
+        listOf(newest, middle, old, oldReply2, oldReply1),
+        CommentTreeSorter.sort(root, CommentSort.CONTROVERSIAL))
+  }
+
+  @Test
+  fun sortDoesNotModifyTree() {
+    CommentTreeSorter.sort(root, CommentSort.TOP)
+
+    assertEquals(listOf(old, newest, middle), root.children)
+  }
+
+  @Test
+  fun canSortLocallyOnlySortsWithKnownOrder() {
+    assertTrue(CommentTreeSorter.canSortLocally(CommentSort.TOP))
+    assertTrue(CommentTreeSorter.canSortLocally(CommentSort.CONTROVERSIAL))
+    assertFalse(CommentTreeSorter.canSortLocally(CommentSort.HOT))
+  }
+
+  @Test
+  fun isFullyLoadedFalseWhenAnyNodeHasMoreComments() {
+    `when`(root.walkTree()).thenReturn(FluentIterable.from(listOf(old, oldReply1, newest)))
+    assertTrue(CommentTreeSorter.isFullyLoaded(root))
+
+    `when`(oldReply1.hasMoreComments()).thenReturn(true)
+    assertFalse(CommentTreeSorter.isFullyLoaded(root))
+  }
+
+  private fun prepareMockCommentNode(
+      score: Int,
+      createdMillis: Long,
+      controversiality: Int = 0): CommentNode {
+    val mockComment = mock(Comment::class.java)
+    `when`(mockComment.score).thenReturn(score)
+    `when`(mockComment.created).thenReturn(Date(createdMillis))
+    `when`(mockComment.controversiality).thenReturn(controversiality)
+    val mockCommentNode = mock(CommentNode::class.java)
+    `when`(mockCommentNode.comment).thenReturn(mockComment)
+    `when`(mockCommentNode.children).thenReturn(emptyList())
+    return mockCommentNode
+  }
+}
@@ -0,0 +1,92 @@
+package com.gmail.jorgegilcavazos.ballislife.util
+
+import com.gmail.jorgegilcavazos.ballislife.features.common.ThreadAdapter
+import com.gmail.jorgegilcavazos.ballislife.features.model.ThreadItem
+import net.dean.jraw.models.CommentNode
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import org.mockito.Mockito.`when`
+import org.mockito.Mockito.mock
+import org.mockito.Mockito.withSettings
+import java.util.*
+
+/**
+ * Compares the recursive flattener [CommentsTraverser] used to have with the current iterative
+ * one on a thread of [THREAD_SIZE] comments, reporting the median time and the bytes allocated
+ * per flattening. Only runs when the unit tests are run with -Pbenchmarks.
+ *
+ * The comment nodes are mocks, which costs both flatteners the same for every node they read,
+ * so only the difference between them is meaningful. The iterative flattener also records the
+ * parent and subtree size of every item, which the recursive one didn't.
+ */
+class CommentsTraverserBenchmark {
+
+  companion object {
+    const val THREAD_SIZE = 20000
+    const val MAX_DEPTH = 10
+    const val WARMUP_ROUNDS = 20
+    const val ROUNDS = 50
+  }
+
+  @Test
+  fun flattenCommentTree() {
+    val topLevel = prepareThread(THREAD_SIZE, Random(42))
+
+    val recursive = Measurement.measure(WARMUP_ROUNDS, ROUNDS) { flattenRecursively(topLevel) }
+    val iterative = Measurement.measure(WARMUP_ROUNDS, ROUNDS) {
+      CommentsTraverser.flattenCommentTree(topLevel, THREAD_SIZE)
+    }
+
+    assertEquals(
+        flattenRecursively(topLevel).map { it.commentNode },
+        CommentsTraverser.flattenCommentTree(topLevel).map { it.commentNode })
+    println("Flattening $THREAD_SIZE comments")
+    println("recursive: $recursive")
+    println("iterative: $iterative")
+  }
+
+  /**
+   * The flattener as it was before it walked trees with an explicit stack.
+   */
+  private fun flattenRecursively(topLevelComments: List<CommentNode>): List<ThreadItem> {
+    val items = ArrayList<ThreadItem>()
+    for (node in topLevelComments) {
+      traverse(node, items)
+    }
+    return items
+  }
+
+  private fun traverse(root: CommentNode, items: MutableList<ThreadItem>) {
+    items.add(ThreadItem(ThreadAdapter.TYPE_COMMENT, root, root.depth))
+    for (node in root.children) {
+      traverse(node, items)
+    }
+    if (root.hasMoreComments()) {
+      items.add(ThreadItem(ThreadAdapter.TYPE_LOAD_MORE, root, root.depth + 1))
+    }
+  }
+
+  /**
+   * Returns the top level comments of a thread of the given size in which every comment is a
+   * reply to the one before it or to one of its ancestors, at most [MAX_DEPTH] deep.
+   */
+  private fun prepareThread(size: Int, random: Random): List<CommentNode> {
+    val topLevel = ArrayList<CommentNode>()
+    val ancestors = ArrayList<MutableList<CommentNode>>()
+    ancestors.add(topLevel)
+    for (i in 0 until size) {
+      val depth = 1 + random.nextInt(Math.min(ancestors.size, MAX_DEPTH))
+      while (ancestors.size > depth) {
+        ancestors.removeAt(ancestors.size - 1)
+      }
+      val replies = ArrayList<CommentNode>()
+      val node = mock(CommentNode::class.java, withSettings().stubOnly())
+      `when`(node.depth).thenReturn(depth)
+      `when`(node.children).thenReturn(replies)
+      `when`(node.hasMoreComments()).thenReturn(random.nextInt(20) == 0)
+      ancestors.last().add(node)
+      ancestors.add(replies)
+    }
+    return topLevel
+  }
+}
@@ -0,0 +1,113 @@
+package com.gmail.jorgegilcavazos.ballislife.util
+
+import com.gmail.jorgegilcavazos.ballislife.features.common.ThreadAdapter
+import net.dean.jraw.models.CommentNode
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import org.mockito.Mockito.`when`
+import org.mockito.Mockito.mock
+import java.util.*
+
+class CommentsTraverserTest {
+
+  companion object {
+    const val LARGE_THREAD_SIZE = 20000
+  }
+
+  @Test
+  fun flattenCommentTreeAddsLoadMoreItemOfParent() {
+    val reply = prepareMockCommentNode(2)
+    val parent = prepareMockCommentNode(1, reply)
+    `when`(parent.hasMoreComments()).thenReturn(true)
+
+    val items = CommentsTraverser.flattenCommentTree(listOf(parent))
+
+    assertEquals(
+        listOf(
+            ThreadAdapter.TYPE_COMMENT,
+            ThreadAdapter.TYPE_COMMENT,
+            ThreadAdapter.TYPE_LOAD_MORE),
+        items.map { it.type })
+    assertEquals(listOf(parent, reply, parent), items.map { it.commentNode })
+    assertEquals(listOf(1, 2, 2), items.map { it.depth })
+  }
+
+  @Test
+  fun flattenRepliesExcludesParent() {
+    val nestedReply = prepareMockCommentNode(3)
+    val reply = prepareMockCommentNode(2, nestedReply)
+    val parent = prepareMockCommentNode(1, reply)
+
+    val items = CommentsTraverser.flattenReplies(parent)
+
+    assertEquals(listOf(reply, nestedReply), items.map { it.commentNode })
+  }
+
+  @Test
+  fun flattenCommentTreeRecordsParentsAndSubtreeSizes() {
+    val nestedReply = prepareMockCommentNode(3)
+    val reply1 = prepareMockCommentNode(2, nestedReply)
+    val reply2 = prepareMockCommentNode(2)
+    val parent = prepareMockCommentNode(1, reply1, reply2)
+    `when`(parent.hasMoreComments()).thenReturn(true)
+    val other = prepareMockCommentNode(1)
+
+    val items = CommentsTraverser.flattenCommentTree(listOf(parent, other))
+
+    assertEquals(listOf(4, 1, 0, 0, 0, 0), items.map { it.subtreeSize })
+    assertEquals(listOf(null, items[0], items[1], items[0], items[0], null),
+        items.map { it.parent })
+  }
+
+  @Test
+  fun flattenCommentTreeHandlesDeepReplyChains() {
+    val nodes = (1..LARGE_THREAD_SIZE).map { prepareMockCommentNode(it) }
+    for (i in 0 until nodes.size - 1) {
+      `when`(nodes[i].children).thenReturn(listOf(nodes[i + 1]))
+    }
+
+    val items = CommentsTraverser.flattenCommentTree(listOf(nodes[0]), LARGE_THREAD_SIZE)
+
+    assertEquals(LARGE_THREAD_SIZE, items.size)
+    assertEquals(LARGE_THREAD_SIZE - 1, items[0].subtreeSize)
+    assertEquals(items[LARGE_THREAD_SIZE - 2], items[LARGE_THREAD_SIZE - 1].parent)
+  }
+
+  @Test
+  fun linkMatchesFlattenedTree() {
+    val nodes = (0 until LARGE_THREAD_SIZE).map { prepareMockCommentNode(1 + it % 4) }
+    val topLevel = ArrayList<CommentNode>()
+    val children = HashMap<CommentNode, MutableList<CommentNode>>()
+    val ancestors = ArrayList<CommentNode>()
+    for (node in nodes) {
+      while (ancestors.size >= node.depth) {
+        ancestors.removeAt(ancestors.size - 1)
+      }
+      if (ancestors.isEmpty()) {
+        topLevel.add(node)
+      } else {
+        children.getOrPut(ancestors.last()) { ArrayList() }.add(node)
+      }
+      ancestors.add(node)
+    }
+    for ((node, replies) in children) {
+      `when`(node.children).thenReturn(replies)
+    }
+
+    val flattened = CommentsTraverser.flattenCommentTree(topLevel)
+    val linked = CommentsTraverser.flattenSortedComments(nodes)
+
+    assertEquals(nodes, flattened.map { it.commentNode })
+    assertEquals(flattened.map { it.subtreeSize }, linked.map { it.subtreeSize })
+    assertEquals(
+        flattened.map { it.parent?.commentNode },
+        linked.map { it.parent?.commentNode })
+  }
+
+  private fun prepareMockCommentNode(depth: Int, vararg children: CommentNode): CommentNode {
+    val mockCommentNode = mock(CommentNode::class.java)
+    `when`(mockCommentNode.depth).thenReturn(depth)
+    `when`(mockCommentNode.children).thenReturn(children.toList())
+    return mockCommentNode
+  }
+}
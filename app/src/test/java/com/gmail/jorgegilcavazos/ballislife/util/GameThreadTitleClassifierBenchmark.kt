@@ -0,0 +1,73 @@
+package com.gmail.jorgegilcavazos.ballislife.util
+
+import com.gmail.jorgegilcavazos.ballislife.features.model.GameThreadSummary
+import com.gmail.jorgegilcavazos.ballislife.features.model.GameThreadType
+import org.junit.Assert.assertEquals
+import org.junit.Test
+
+/**
+ * Compares matching every pair of teams against the live game threads of
+ * [GameThreadTitleClassifierTest.seasonThreads] with [GameThreadTitleClassifier] and with the
+ * contains matching of [RedditUtils.titleContainsTeam] it replaced, reporting the median time and
+ * the bytes allocated per round. Only runs when the unit tests are run with -Pbenchmarks.
+ *
+ * The classifier caches the classification of every thread by id, so after the first round it
+ * only looks threads up, like it does when the same threads are polled again.
+ */
+class GameThreadTitleClassifierBenchmark {
+
+  companion object {
+    const val WARMUP_ROUNDS = 5
+    const val ROUNDS = 10
+  }
+
+  private val threads = GameThreadTitleClassifierTest.seasonThreads()
+  private val games = TeamName.values().flatMap { home ->
+    TeamName.values().filter { it != home }.map { Pair(home, it) }
+  }
+
+  @Test
+  fun matchSeason() {
+    val contains = Measurement.measure(WARMUP_ROUNDS, ROUNDS) { matchWithContains() }
+    val classifier = Measurement.measure(WARMUP_ROUNDS, ROUNDS) { matchWithClassifier() }
+
+    assertEquals(matchWithContains(), matchWithClassifier())
+    println("Matching ${games.size} games against ${threads.size} titles")
+    println("contains: $contains")
+    println("classifier: $classifier")
+  }
+
+  private fun matchWithClassifier(): Int {
+    var matches = 0
+    for (thread in threads) {
+      val classification = GameThreadTitleClassifier.classify(thread)
+      for ((home, visitor) in games) {
+        if (classification.isFor(GameThreadType.LIVE, home, visitor)) {
+          matches++
+        }
+      }
+    }
+    return matches
+  }
+
+  private fun matchWithContains(): Int {
+    var matches = 0
+    for (thread in threads) {
+      for ((home, visitor) in games) {
+        if (isLiveThreadFor(thread, home, visitor)) {
+          matches++
+        }
+      }
+    }
+    return matches
+  }
+
+  private fun isLiveThreadFor(
+      thread: GameThreadSummary,
+      home: TeamName,
+      visitor: TeamName): Boolean {
+    return GameThreadTitleClassifierTest.isThreadType(thread.title, GameThreadType.LIVE)
+        && RedditUtils.titleContainsTeam(thread.title, home.teamName)
+        && RedditUtils.titleContainsTeam(thread.title, visitor.teamName)
+  }
+}
@@ -0,0 +1,121 @@
+package com.gmail.jorgegilcavazos.ballislife.util
+
+import com.gmail.jorgegilcavazos.ballislife.features.model.GameThreadSummary
+import com.gmail.jorgegilcavazos.ballislife.features.model.GameThreadType
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+class GameThreadTitleClassifierTest {
+
+  companion object {
+    val TITLE_FORMATS = listOf(
+        "GAME THREAD: %s @ %s",
+        "Game Thread: %s @ %s (Dec 25, 2017)",
+        "[Post Game Thread] The %s beat the %s behind a big fourth quarter",
+        "POST-GAME THREAD: %s fall to %s in overtime",
+        "Post Game Thread: %s vs %s",
+        "[Highlight] %s and %s trade buckets late")
+
+    /**
+     * Builds several thousand titles like the ones of a season of /r/nba game threads, a live and
+     * post game thread for every pair of teams plus other posts that mention them.
+     */
+    fun seasonThreads(): List<GameThreadSummary> {
+      val threads = ArrayList<GameThreadSummary>()
+      for (home in TeamName.values()) {
+        for (visitor in TeamName.values()) {
+          if (home == visitor) {
+            continue
+          }
+          for (format in TITLE_FORMATS) {
+            val title = String.format(format, visitor.teamName, home.teamName)
+            threads.add(GameThreadSummary("t${threads.size}", title, 0))
+          }
+        }
+      }
+      return threads
+    }
+
+    /**
+     * The thread type matching the classifier replaced, kept as a reference.
+     */
+    fun isThreadType(title: String, type: GameThreadType): Boolean {
+      val upperTitle = title.toUpperCase()
+      return when (type) {
+        GameThreadType.LIVE -> upperTitle.contains("GAME THREAD") && !upperTitle.contains("POST")
+        GameThreadType.POST ->
+          upperTitle.contains("POST GAME THREAD") || upperTitle.contains("POST-GAME THREAD")
+      }
+    }
+  }
+
+  @Test
+  fun classifyLiveThread() {
+    val classification = GameThreadTitleClassifier.classifyTitle(
+        "Game Thread: Los Angeles Lakers @ San Antonio Spurs")
+
+    assertEquals(GameThreadType.LIVE, classification.type)
+    assertEquals(listOf(TeamName.LAL, TeamName.SAS), classification.teams())
+    assertTrue(classification.isFor(GameThreadType.LIVE, TeamName.SAS, TeamName.LAL))
+    assertFalse(classification.isFor(GameThreadType.POST, TeamName.SAS, TeamName.LAL))
+  }
+
+  @Test
+  fun classifyPostThread() {
+    val hyphen = GameThreadTitleClassifier.classifyTitle("[POST-GAME THREAD] Bulls @ Warriors")
+    val space = GameThreadTitleClassifier.classifyTitle("post game thread: Thunder @ 76ers")
+
+    assertEquals(GameThreadType.POST, hyphen.type)
+    assertEquals(listOf(TeamName.CHI, TeamName.GSW), hyphen.teams())
+    assertEquals(GameThreadType.POST, space.type)
+    assertEquals(listOf(TeamName.OKC, TeamName.PHI), space.teams())
+  }
+
+  @Test
+  fun classifyShortAndIncompleteTeamNames() {
+    val shortName = GameThreadTitleClassifier.classifyTitle(
+        "Game Thread: Los Angeles Lakers @ Spurs")
+    val incompleteName = GameThreadTitleClassifier.classifyTitle(
+        "Game Thread: Angeles Lakers @ San Antonio Spurs")
+
+    assertTrue(shortName.containsTeam(TeamName.SAS))
+    assertTrue(incompleteName.containsTeam(TeamName.LAL))
+  }
+
+  @Test
+  fun classifyOtherThread() {
+    val classification = GameThreadTitleClassifier.classifyTitle(
+        "Postgame: Spurs coach talks about the Game Thread")
+
+    assertNull(classification.type)
+  }
+
+  @Test
+  fun classifyCachedThreadWithChangedTitle() {
+    GameThreadTitleClassifier.classify(GameThreadSummary("cached", "Game Thread: Bulls @ Heat", 0))
+
+    val classification = GameThreadTitleClassifier.classify(
+        GameThreadSummary("cached", "Post Game Thread: Bulls @ Heat", 0))
+
+    assertEquals(GameThreadType.POST, classification.type)
+  }
+
+  @Test
+  fun classifySeasonLikeContainsMatching() {
+    val threads = seasonThreads()
+
+    for (thread in threads) {
+      val classification = GameThreadTitleClassifier.classifyTitle(thread.title)
+      for (type in GameThreadType.values()) {
+        assertEquals(thread.title, isThreadType(thread.title, type), classification.type == type)
+      }
+      for (team in TeamName.values()) {
+        assertEquals(thread.title, classification.containsTeam(team),
+            RedditUtils.titleContainsTeam(thread.title, team.teamName))
+      }
+    }
+  }
+}
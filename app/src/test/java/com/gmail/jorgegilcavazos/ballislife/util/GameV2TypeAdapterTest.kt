@@ -0,0 +1,74 @@
+package com.gmail.jorgegilcavazos.ballislife.util
+
+import com.gmail.jorgegilcavazos.ballislife.features.model.GameV2
+import com.google.gson.Gson
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotSame
+import org.junit.Assert.assertSame
+import org.junit.Test
+
+class GameV2TypeAdapterTest {
+
+  @Test
+  fun gameFieldsParsed() {
+    val game = Gson().fromJson(gameJson("0021700001"), GameV2::class.java)
+
+    assertEquals("0021700001", game.id)
+    assertEquals(GameV2.POST_GAME, game.status)
+    assertEquals(110, game.homeScore)
+    assertEquals(98, game.awayScore)
+    assertEquals(4, game.period)
+    assertEquals(4, game.totalPeriods)
+    assertEquals("SAS", game.homeTeam.abbr)
+    assertEquals("Spurs", game.homeTeam.nickname)
+    assertEquals("HOU", game.awayTeam.abbr)
+    assertEquals("Houston", game.awayTeam.city)
+    assertEquals(1510363800L, game.timeUtc)
+  }
+
+  @Test
+  fun gameTeamsAndStringsSharedAcrossDeserializedGames() {
+    val gson = Gson()
+
+    val game1 = gson.fromJson(gameJson("0021700001"), GameV2::class.java)
+    val game2 = gson.fromJson(gameJson("0021700002"), GameV2::class.java)
+
+    assertSame(game1.homeTeam, game2.homeTeam)
+    assertSame(game1.awayTeam, game2.awayTeam)
+    assertSame(game1.arena, game2.arena)
+    assertSame(game1.periodStatus, game2.periodStatus)
+    assertNotSame(game1.id, game2.id)
+  }
+
+  @Test
+  fun missingScoresAndPeriodOfScheduledGame() {
+    val json = """{"id":"0021700003","gameStatus":"1","homeTeamAbbr":"SAS",
+        "awayTeamAbbr":"HOU","homeTeamScore":"","awayTeamScore":"","periodValue":""}"""
+
+    val game = Gson().fromJson(json, GameV2::class.java)
+
+    assertEquals(GameV2.PRE_GAME, game.status)
+    assertEquals(GameV2.NO_SCORE, game.homeScore)
+    assertEquals("", game.homeScoreText)
+    assertEquals(0, game.period)
+    assertEquals("", game.arena)
+  }
+
+  @Test
+  fun gamesRoundTripThroughJson() {
+    val gson = Gson()
+    val game = gson.fromJson(gameJson("0021700001"), GameV2::class.java)
+
+    assertEquals(game, gson.fromJson(gson.toJson(game), GameV2::class.java))
+  }
+
+  private fun gameJson(id: String): String {
+    return """{"arena":"AT&T Center","awayTeamAbbr":"HOU","awayTeamCity":"Houston",
+        "awayTeamId":"1610612745","awayTeamKey":"HOU","awayTeamNickname":"Rockets",
+        "awayTeamScore":"98","city":"San Antonio","date":"20171110","gameClock":"",
+        "gameStatus":"3","homeTeamAbbr":"SAS","homeTeamCity":"San Antonio",
+        "homeTeamId":"1610612759","homeTeamKey":"SAS","homeTeamNickname":"Spurs",
+        "homeTeamScore":"110","id":"$id","periodName":"Qtr","periodStatus":"Final",
+        "periodValue":"4","time":"2030","timeUtc":1510363800,"totalPeriods":"4"}"""
+  }
+}
@@ -0,0 +1,60 @@
+package com.gmail.jorgegilcavazos.ballislife.util
+
+import java.lang.management.ManagementFactory
+import java.util.*
+
+/**
+ * Measures the code compared by the benchmarks, e.g. [CommentsTraverserBenchmark].
+ */
+object Measurement {
+
+  class Result(val nanos: Long, val bytes: Long) {
+    override fun toString() = "%.3f ms, %d KB".format(nanos / 1e6, bytes / 1024)
+  }
+
+  /**
+   * Runs the given code for some warmup rounds and then returns the median time and bytes
+   * allocated by the current thread over the given number of rounds.
+   */
+  fun measure(warmupRounds: Int, rounds: Int, run: () -> Any?): Result {
+    repeat(warmupRounds) { run() }
+
+    val threadBean = ManagementFactory.getThreadMXBean() as com.sun.management.ThreadMXBean
+    val threadId = Thread.currentThread().id
+    val nanos = LongArray(rounds)
+    val bytes = LongArray(rounds)
+    for (i in 0 until rounds) {
+      val startBytes = threadBean.getThreadAllocatedBytes(threadId)
+      val start = System.nanoTime()
+      run()
+      nanos[i] = System.nanoTime() - start
+      bytes[i] = threadBean.getThreadAllocatedBytes(threadId) - startBytes
+    }
+    Arrays.sort(nanos)
+    Arrays.sort(bytes)
+    return Result(nanos[rounds / 2], bytes[rounds / 2])
+  }
+
+  /**
+   * Returns the growth of the used heap while what the given code creates is still referenced,
+   * collecting garbage before reading the heap each time.
+   */
+  fun retainedBytes(create: () -> Any?): Long {
+    val before = usedHeapAfterGc()
+    retained = create()
+    val after = usedHeapAfterGc()
+    retained = null
+    return after - before
+  }
+
+  @Volatile private var retained: Any? = null
+
+  private fun usedHeapAfterGc(): Long {
+    val runtime = Runtime.getRuntime()
+    repeat(5) {
+      System.gc()
+      Thread.sleep(50)
+    }
+    return runtime.totalMemory() - runtime.freeMemory()
+  }
+}
@@ -0,0 +1,130 @@
+package com.gmail.jorgegilcavazos.ballislife.util
+
+import com.gmail.jorgegilcavazos.ballislife.features.model.SubmissionWrapper
+import net.dean.jraw.models.Comment
+import net.dean.jraw.models.CommentNode
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertSame
+import org.junit.Before
+import org.junit.Test
+import org.mockito.Mockito.`when`
+import org.mockito.Mockito.mock
+
+class RenderedTextCacheTest {
+
+  private val rendered = ArrayList<String>()
+
+  private lateinit var textCache: RenderedTextCache
+
+  @Before
+  fun setUp() {
+    textCache = prepareTextCache(RenderedTextCache.MAX_ENTRIES)
+  }
+
+  @Test
+  fun commentBodyRendersOnMiss() {
+    val comment = prepareMockComment("t1_a", "<p>a</p>")
+
+    assertEquals("body:<p>a</p>", textCache.commentBody(comment).toString())
+    assertEquals(1, textCache.missCount)
+    assertEquals(0, textCache.hitCount)
+  }
+
+  @Test
+  fun commentBodyReturnsPrerenderedText() {
+    val comment = prepareMockComment("t1_a", "<p>a</p>")
+
+    textCache.prerenderComments(listOf(prepareMockCommentNode(comment)))
+    val first = textCache.commentBody(comment)
+    val second = textCache.commentBody(comment)
+
+    assertSame(first, second)
+    assertEquals(listOf("<p>a</p>"), rendered)
+    assertEquals(2, textCache.hitCount)
+    assertEquals(0, textCache.missCount)
+  }
+
+  @Test
+  fun editedCommentIsRenderedAgain() {
+    textCache.commentBody(prepareMockComment("t1_a", "<p>a</p>"))
+    textCache.commentBody(prepareMockComment("t1_a", "<p>b</p>", edited = "1500000000.0"))
+
+    assertEquals(listOf("<p>a</p>", "<p>b</p>"), rendered)
+  }
+
+  @Test
+  fun prerenderSkipsRenderedCommentsAndNodesWithoutComment() {
+    val node = prepareMockCommentNode(prepareMockComment("t1_a", "<p>a</p>"))
+
+    textCache.prerenderComments(listOf(null, mock(CommentNode::class.java), node, node))
+
+    assertEquals(listOf("<p>a</p>"), rendered)
+  }
+
+  @Test
+  fun prerenderStopsAtLimit() {
+    val nodes = (1..5).map { prepareMockCommentNode(prepareMockComment("t1_$it", "$it")) }
+
+    textCache.prerenderComments(nodes, 3)
+
+    assertEquals(listOf("1", "2", "3"), rendered)
+  }
+
+  @Test
+  fun prerenderSubmissionsRendersTitleAndSelfText() {
+    val submission = SubmissionWrapper("abc", null, "Title &amp; more", "author")
+    submission.selfTextHtml = "<p>self</p>"
+    val link = SubmissionWrapper("def", null, "Link", "author")
+
+    textCache.prerenderSubmissions(listOf(submission, link))
+
+    assertEquals(listOf("Title &amp; more", "<p>self</p>", "Link"), rendered)
+    assertEquals("title:Title &amp; more", textCache.title(submission).toString())
+    assertEquals("body:<p>self</p>", textCache.selfText(submission).toString())
+    assertNull(textCache.selfText(link))
+    assertEquals(0, textCache.missCount)
+  }
+
+  @Test
+  fun leastRecentlyUsedTextIsEvicted() {
+    textCache = prepareTextCache(2)
+    val first = prepareMockComment("t1_a", "a")
+    val second = prepareMockComment("t1_b", "b")
+    val third = prepareMockComment("t1_c", "c")
+
+    textCache.commentBody(first)
+    textCache.commentBody(second)
+    textCache.commentBody(first)
+    textCache.commentBody(third)
+    textCache.commentBody(first)
+    textCache.commentBody(second)
+
+    assertEquals(2, textCache.size())
+    assertEquals(listOf("a", "b", "c", "b"), rendered)
+  }
+
+  private fun prepareTextCache(maxEntries: Int): RenderedTextCache {
+    return RenderedTextCache(
+        maxEntries,
+        { rendered.add(it); "body:$it" },
+        { rendered.add(it); "title:$it" })
+  }
+
+  private fun prepareMockComment(
+      fullName: String,
+      bodyHtml: String,
+      edited: String = "false"): Comment {
+    val comment = mock(Comment::class.java)
+    `when`(comment.fullName).thenReturn(fullName)
+    `when`(comment.data("body_html")).thenReturn(bodyHtml)
+    `when`(comment.data("edited")).thenReturn(edited)
+    return comment
+  }
+
+  private fun prepareMockCommentNode(comment: Comment): CommentNode {
+    val node = mock(CommentNode::class.java)
+    `when`(node.comment).thenReturn(comment)
+    return node
+  }
+}
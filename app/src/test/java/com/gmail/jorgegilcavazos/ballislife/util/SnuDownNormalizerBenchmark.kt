@@ -0,0 +1,35 @@
+package com.gmail.jorgegilcavazos.ballislife.util
+
+import org.junit.Test
+
+/**
+ * Compares the replace chain bindSnuDown used to run with [SnuDownNormalizer] on the comments of
+ * [SnuDownNormalizerTest.GOLDEN], reporting the median time and the bytes allocated to normalize
+ * all of them. Only runs when the unit tests are run with -Pbenchmarks.
+ *
+ * The comments are made up, so the results only say how the two compare on short comments with
+ * the usual markdown, not how long real threads take.
+ */
+class SnuDownNormalizerBenchmark {
+
+  companion object {
+    const val WARMUP_ROUNDS = 20000
+    const val ROUNDS = 1000
+  }
+
+  private val comments = SnuDownNormalizerTest.GOLDEN.map { it.first }
+
+  @Test
+  fun normalize() {
+    val replaceChain = Measurement.measure(WARMUP_ROUNDS, ROUNDS) {
+      comments.forEach { SnuDownNormalizerTest.replaceChain(it) }
+    }
+    val singlePass = Measurement.measure(WARMUP_ROUNDS, ROUNDS) {
+      comments.forEach { SnuDownNormalizer.normalize(it) }
+    }
+
+    println("Normalizing ${comments.size} comments")
+    println("replace chain: $replaceChain")
+    println("single pass: $singlePass")
+  }
+}
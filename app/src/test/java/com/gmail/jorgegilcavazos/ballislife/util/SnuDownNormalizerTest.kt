@@ -0,0 +1,197 @@
+package com.gmail.jorgegilcavazos.ballislife.util
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.util.*
+
+class SnuDownNormalizerTest {
+
+  companion object {
+    /**
+     * Comments written in the style of r/nba, escaped the way the reddit API returns body_html,
+     * with the HTML the replace chain bindSnuDown used to run rendered for them. They aren't
+     * real comments, but they cover the markdown reddit renders.
+     */
+    val GOLDEN = listOf(
+        Pair(
+            "&lt;div class=\"md\"&gt;&lt;p&gt;Refs are deciding this game, not even close&lt;" +
+            "/p&gt;\n&lt;/div&gt;",
+            "<div class=\"md\"><div>Refs are deciding this game, not even close</div>"),
+        Pair(
+            "&lt;div class=\"md\"&gt;&lt;p&gt;Kawhi with the dagger. &lt;strong&gt;" +
+            "BOARD MAN GETS PAID&lt;/strong&gt;&lt;/p&gt;\n" +
+            "\n&lt;p&gt;What a time to be alive&lt;/p&gt;\n" +
+            "&lt;/div&gt;",
+            "<div class=\"md\"><div>Kawhi with the dagger. <strong>BOARD MAN GETS PAID</strong>" +
+            "</div>\n\n<div>What a time to be alive</div>"),
+        Pair(
+            "&lt;div class=\"md\"&gt;&lt;p&gt;&lt;a href=\"https://streamable.com/x1y2z\"&gt;" +
+            "Replay of the chase-down block&lt;/a&gt; for anyone who missed it&lt;/p&gt;\n" +
+            "&lt;/div&gt;",
+            "<div class=\"md\"><div><a href=\"https://streamable.com/x1y2z\">" +
+            "Replay of the chase-down block</a> for anyone who missed it</div>"),
+        Pair(
+            "&lt;div class=\"md\"&gt;&lt;blockquote&gt;\n" +
+            "&lt;p&gt;He&amp;#39;s washed&lt;/p&gt;\n&lt;/blockquote&gt;\n" +
+            "\n&lt;p&gt;38/10/8 on 60% TS. Sure buddy&lt;/p&gt;\n" +
+            "&lt;/div&gt;",
+            "<div class=\"md\"><blockquote>\n<div>He&#39;s washed</div>\n" +
+            "</blockquote>\n\n<div>38/10/8 on 60% TS. Sure buddy</div>"),
+        Pair(
+            "&lt;div class=\"md\"&gt;&lt;p&gt;Final box score:&lt;/p&gt;\n" +
+            "\n&lt;table&gt;&lt;thead&gt;\n&lt;tr&gt;\n&lt;th&gt;Team&lt;/th&gt;\n" +
+            "&lt;th align=\"center\"&gt;Q1&lt;/th&gt;\n&lt;th align=\"center\"&gt;Q2&lt;/th&gt;\n" +
+            "&lt;th align=\"right\"&gt;T&lt;/th&gt;\n&lt;/tr&gt;\n" +
+            "&lt;/thead&gt;&lt;tbody&gt;\n&lt;tr&gt;\n&lt;td&gt;SAS&lt;/td&gt;\n" +
+            "&lt;td align=\"center\"&gt;28&lt;/td&gt;\n&lt;td align=\"center\"&gt;31&lt;/td&gt;\n" +
+            "&lt;td align=\"right\"&gt;112&lt;/td&gt;\n&lt;/tr&gt;\n" +
+            "&lt;/tbody&gt;&lt;/table&gt;\n&lt;/div&gt;",
+            "<div class=\"md\"><div>Final box score:</div>\n" +
+            "\n<table><thead>\n<tr>\n<th>Team</th>\n<th align=\"center\">Q1</th>\n" +
+            "<th align=\"center\">Q2</th>\n<th align=\"right\">T</th>\n" +
+            "</tr>\n</thead><tbody>\n<tr>\n<td>SAS</td>\n" +
+            "<td align=\"center\">28</td>\n<td align=\"center\">31</td>\n" +
+            "<td align=\"right\">112</td>\n</tr>\n</tbody></table>"),
+        Pair(
+            "&lt;div class=\"md\"&gt;&lt;p&gt;Keys to the game:&lt;/p&gt;\n" +
+            "\n&lt;ul&gt;\n&lt;li&gt;Limit turnovers&lt;/li&gt;\n" +
+            "&lt;li&gt;Crash the boards&lt;/li&gt;\n&lt;li&gt;Don&amp;#39;t foul jumpshooters&lt;" +
+            "/li&gt;\n&lt;/ul&gt;\n&lt;/div&gt;",
+            "<div class=\"md\"><div>Keys to the game:</div>\n" +
+            "\n<ul>\n•Limit turnovers<br>\n•Crash the boards<br>\n" +
+            "•Don&#39;t foul jumpshooters<br>\n</ul>"),
+        Pair(
+            "&lt;div class=\"md\"&gt;&lt;ol&gt;\n&lt;li&gt;&lt;p&gt;" +
+            "Harden is a top 10 player all time&lt;/p&gt;&lt;/li&gt;\n" +
+            "&lt;li&gt;&lt;p&gt;This is not a hot take&lt;/p&gt;\n" +
+            "\n&lt;ul&gt;\n&lt;li&gt;Look at the numbers&lt;/li&gt;\n" +
+            "&lt;/ul&gt;&lt;/li&gt;\n&lt;/ol&gt;\n&lt;/div&gt;",
+            "<div class=\"md\"><ol>\n<div>• Harden is a top 10 player all time</div><br>\n" +
+            "<div>• This is not a hot take</div>\n\n<ul>\n" +
+            "•Look at the numbers<br>\n</ul><br>\n</ol>"),
+        Pair(
+            "&lt;div class=\"md\"&gt;&lt;p&gt;Typed &lt;code&gt;&amp;lt;p&amp;gt;&lt;/code&gt;" +
+            " by accident &amp;amp; now my comment looks like &amp;quot;this&amp;quot;&lt;/p&gt;" +
+            "\n&lt;/div&gt;",
+            "<div class=\"md\"><div>Typed <code>&lt;p&gt;</code> by accident &amp;" +
+            " now my comment looks like &quot;this&quot;</div>"),
+        Pair(
+            "&lt;div class=\"md\"&gt;&lt;p&gt;Lakers &amp;amp; Celtics &amp;gt;" +
+            " everyone else &amp;lt;3&lt;/p&gt;\n&lt;/div&gt;",
+            "<div class=\"md\"><div>Lakers &amp; Celtics &gt; everyone else &lt;3</div>"),
+        Pair(
+            "&lt;div class=\"md\"&gt;&lt;p&gt;&lt;del&gt;MVP&lt;/del&gt; &lt;em&gt;DPOY&lt;" +
+            "/em&gt; candidate &lt;sup&gt;allegedly&lt;/sup&gt; &lt;" +
+            "span class=\"md-spoiler-text\"&gt;spoiler: he wins&lt;/span&gt;&lt;/p&gt;\n" +
+            "&lt;/div&gt;",
+            "<div class=\"md\"><div><del>MVP</del> <em>DPOY</em> candidate <sup>allegedly</sup>" +
+            " <span class=\"md-spoiler-text\">spoiler: he wins</span></div>"),
+        Pair(
+            "&lt;div class=\"md\"&gt;&lt;h1&gt;GAME THREAD&lt;/h1&gt;\n" +
+            "\n&lt;hr/&gt;\n\n&lt;p&gt;Tip off at 8:00 PM ET 🏀 ¡Vamos!&lt;/p&gt;\n" +
+            "&lt;/div&gt;",
+            "<div class=\"md\"><h1>GAME THREAD</h1>\n\n<hr/>\n" +
+            "\n<div>Tip off at 8:00 PM ET 🏀 ¡Vamos!</div>"),
+        Pair(
+            "&lt;div class=\"md\"&gt;&lt;pre&gt;&lt;code&gt;PTS  REB  AST\n" +
+            " 32   11    9\n&lt;/code&gt;&lt;/pre&gt;\n&lt;/div&gt;",
+            "<div class=\"md\"><pre><code>PTS  REB  AST\n" +
+            " 32   11    9\n</code></pre>"),
+        Pair(
+            "&lt;div class=\"md\"&gt;&lt;p&gt;Line one&lt;br/&gt;\n" +
+            "Line two&lt;/p&gt;\n\n&lt;p&gt;&lt;/p&gt;\n" +
+            "&lt;/div&gt;",
+            "<div class=\"md\"><div>Line one<br/>\nLine two</div>\n" +
+            "\n<div></div>"))
+
+    /**
+     * Pieces of escaped HTML that random inputs are made of, mostly the ones the rewrites look
+     * for, whole or in part.
+     */
+    private val FRAGMENTS = listOf(
+        "&lt;", "&gt;", "&quot;", "&apos;", "&amp;", "&", "amp;", "lt;", "<", ">", "li", "l",
+        "i", "p", "/", "<li>", "<p>", "</p>", "</li>", "<li><p>", "\n", "\r", " ", "x",
+        "&amp;lt;", "•", ";", "<li class=\"a\">", "\u2028", "\u0085", "&lt;li&gt;",
+        "&lt;/li&gt;", "&lt;p&gt;", "&lt;/p&gt;", "&lt;li&gt;&lt;p&gt;", "&amp;gt;", "&#39;",
+        "&lt;li class=\"a\"&gt;")
+
+    private const val RANDOM_INPUTS = 50000
+    private const val MAX_RANDOM_FRAGMENTS = 20
+
+    /**
+     * The rewrites bindSnuDown used to run one after the other.
+     */
+    fun replaceChain(rawHtml: String): String {
+      var html = rawHtml.replace("&lt;", "<").replace("&gt;", ">").replace("&quot;", "\"")
+          .replace("&apos;", "'").replace("&amp;", "&").replace("<li><p>", "<p>• ")
+          .replace("</li>", "<br>").replace(Regex("<li.*?>"), "•").replace("<p>", "<div>")
+          .replace("</p>", "</div>")
+      html = html.substring(0, html.lastIndexOf("\n"))
+      while (html[html.length - 1] == '\n') {
+        html = html.substring(0, html.length - 1)
+      }
+      return html
+    }
+  }
+
+  @Test
+  fun normalizeMatchesGoldenOutputs() {
+    for ((html, expected) in GOLDEN) {
+      assertEquals(expected, SnuDownNormalizer.normalize(html))
+    }
+  }
+
+  @Test
+  fun normalizeMatchesReplaceChain() {
+    val edgeCases = listOf(
+        "&lt;li&gt;&lt;li&gt;&lt;p&gt;nested&lt;/p&gt;&lt;/li&gt;\n",
+        "&lt;li class=\"x\"&gt;a&lt;li\nb&gt;c\n",
+        "&lt;lix&lt;li&gt;&lt;p&gt;y&gt;\n",
+        "&lt;li&lt;/li&gt;&lt;/p&gt;\n",
+        "&lt;link&gt; &amp;lt;li&amp;gt; &amp;amp;lt; &amp;\n\n\ntrailing",
+        "a&lt;li\u2028b&gt;\u0085&lt;lib&gt;\n")
+    for (html in GOLDEN.map { it.first } + edgeCases) {
+      assertEquals(replaceChain(html), SnuDownNormalizer.normalize(html))
+    }
+  }
+
+  @Test
+  fun normalizeMatchesReplaceChainOnRandomInputs() {
+    val random = Random(42)
+    for (i in 0 until RANDOM_INPUTS) {
+      val html = StringBuilder("x")
+      for (j in 0 until random.nextInt(MAX_RANDOM_FRAGMENTS)) {
+        html.append(FRAGMENTS[random.nextInt(FRAGMENTS.size)])
+      }
+      html.append('\n').append(FRAGMENTS[random.nextInt(FRAGMENTS.size)])
+
+      assertEquals(html.toString(), replaceChain(html.toString()),
+          SnuDownNormalizer.normalize(html.toString()))
+    }
+  }
+
+  @Test
+  fun normalizeKeepsTextWithoutLineBreak() {
+    assertEquals(
+        "<div>a &amp; b</div>",
+        SnuDownNormalizer.normalize("&lt;p&gt;a &amp;amp; b&lt;/p&gt;"))
+    assertEquals("", SnuDownNormalizer.normalize(""))
+  }
+
+  @Test
+  fun normalizeStartsFromEmptyBufferEveryCall() {
+    SnuDownNormalizer.normalize(GOLDEN[4].first)
+
+    assertEquals("<div>short</div>", SnuDownNormalizer.normalize("&lt;p&gt;short&lt;/p&gt;\n"))
+  }
+
+  @Test
+  fun normalizeDropsBufferGrownByLongText() {
+    val text = "a".repeat(SnuDownNormalizer.MAX_BUFFER_CAPACITY * 2)
+
+    assertEquals("<div>$text", SnuDownNormalizer.normalize("&lt;p&gt;$text\n"))
+    assertTrue(SnuDownNormalizer.bufferCapacity() <= SnuDownNormalizer.MAX_BUFFER_CAPACITY)
+    assertEquals("<div>short</div>", SnuDownNormalizer.normalize("&lt;p&gt;short&lt;/p&gt;\n"))
+  }
+}
@@ -0,0 +1,30 @@
+package com.gmail.jorgegilcavazos.ballislife.util
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotSame
+import org.junit.Assert.assertSame
+import org.junit.Test
+
+class StringPoolTest {
+
+  @Test
+  fun internReturnsFirstInstanceOfEqualValues() {
+    val pool = StringPool(2)
+    val first = String("SAS".toCharArray())
+
+    assertSame(first, pool.intern(first))
+    assertSame(first, pool.intern(String("SAS".toCharArray())))
+  }
+
+  @Test
+  fun internStopsPoolingValuesWhenFull() {
+    val pool = StringPool(2)
+    pool.intern("SAS")
+    pool.intern("HOU")
+    val value = String("GSW".toCharArray())
+
+    assertSame(value, pool.intern(value))
+    assertNotSame(value, pool.intern(String("GSW".toCharArray())))
+    assertEquals(2, pool.size())
+  }
+}
@@ -31,6 +31,13 @@ public class UtilitiesTest {
         assertEquals(Utilities.getPeriodString("", "Qtr"), "");
     }
 
+    @Test
+    public void testGetPeriodString_number() {
+        assertEquals("3 Qtr", Utilities.getPeriodString(3, "Qtr"));
+        assertEquals("1OT", Utilities.getPeriodString(5, "OT"));
+        assertEquals("", Utilities.getPeriodString(0, "Qtr"));
+    }
+
     @Test
     public void testGetStreamableShortcodeFromUrl() {
         String url1 = "http://streamable.com/12345";